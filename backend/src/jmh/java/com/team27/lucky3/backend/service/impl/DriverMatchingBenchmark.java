@@ -0,0 +1,159 @@
+package com.team27.lucky3.backend.service.impl;
+
+import com.team27.lucky3.backend.dto.LocationDto;
+import com.team27.lucky3.backend.dto.request.CreateRideRequest;
+import com.team27.lucky3.backend.dto.request.RideRequirements;
+import com.team27.lucky3.backend.dto.response.RideResponse;
+import com.team27.lucky3.backend.entity.DriverActivitySession;
+import com.team27.lucky3.backend.entity.Location;
+import com.team27.lucky3.backend.entity.Ride;
+import com.team27.lucky3.backend.entity.User;
+import com.team27.lucky3.backend.entity.Vehicle;
+import com.team27.lucky3.backend.entity.enums.RideStatus;
+import com.team27.lucky3.backend.entity.enums.UserRole;
+import com.team27.lucky3.backend.entity.enums.VehicleStatus;
+import com.team27.lucky3.backend.entity.enums.VehicleType;
+import com.team27.lucky3.backend.repository.DriverActivitySessionRepository;
+import com.team27.lucky3.backend.repository.RideRepository;
+import com.team27.lucky3.backend.repository.UserRepository;
+import com.team27.lucky3.backend.repository.VehicleRepository;
+import com.team27.lucky3.backend.service.AdminLiveStatsService;
+import com.team27.lucky3.backend.service.DriverReservationLedger;
+import com.team27.lucky3.backend.service.DriverScheduleIndex;
+import com.team27.lucky3.backend.service.NotificationService;
+import com.team27.lucky3.backend.service.RideOfferService;
+import com.team27.lucky3.backend.service.RoutingService;
+import com.team27.lucky3.backend.service.TravelTimeService;
+import com.team27.lucky3.backend.service.VehiclePriceService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Driver matching over a synthetic fleet, measured through {@code createRide}. Repositories,
+ * routing and notifications are Mockito stubs, so this measures the per-vehicle filtering and
+ * distance work, not the database round trips it triggers (one session query per compatible
+ * vehicle). Besides matching, each call estimates the ride, which scans the fleet once more
+ * for the pickup time. Overlap checks go to a real, seeded {@link DriverScheduleIndex}; the
+ * rides created here are not recorded in it, so every call sees the same fleet.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class DriverMatchingBenchmark {
+
+    @Param({"50", "500"})
+    private int fleetSize;
+
+    @Mock private VehicleRepository vehicleRepository;
+    @Mock private DriverActivitySessionRepository activitySessionRepository;
+    @Mock private RideRepository rideRepository;
+    @Mock private UserRepository userRepository;
+    @Mock private VehiclePriceService vehiclePriceService;
+    @Mock private NotificationService notificationService;
+    @Mock private AdminLiveStatsService adminLiveStatsService;
+    @Mock private RideOfferService rideOfferService;
+    @Mock private RoutingService routingService;
+    @Mock private PlatformTransactionManager transactionManager;
+    @Spy private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy private DriverReservationLedger reservationLedger = new DriverReservationLedger();
+    @Spy private TravelTimeService travelTimeService = new TravelTimeService();
+    @Spy private DriverScheduleIndex driverScheduleIndex = new DriverScheduleIndex(mock(RideRepository.class));
+    @InjectMocks private RideServiceImpl rideService;
+
+    private AutoCloseable mocks;
+    private CreateRideRequest request;
+
+    @Setup
+    public void setUp() {
+        mocks = MockitoAnnotations.openMocks(this);
+
+        Random random = new Random(27);
+        VehicleType[] types = VehicleType.values();
+        List<Vehicle> fleet = new ArrayList<>(fleetSize);
+        for (int i = 0; i < fleetSize; i++) {
+            User driver = new User();
+            driver.setId((long) i + 1);
+            driver.setRole(UserRole.DRIVER);
+
+            Vehicle vehicle = new Vehicle();
+            vehicle.setId((long) i + 1);
+            vehicle.setDriver(driver);
+            vehicle.setVehicleType(types[i % types.length]);
+            vehicle.setStatus(random.nextInt(4) == 0 ? VehicleStatus.BUSY : VehicleStatus.FREE);
+            vehicle.setPetTransport(random.nextBoolean());
+            vehicle.setCurrentLocation(new Location("Patrol",
+                    45.225 + random.nextDouble() * 0.055, 19.790 + random.nextDouble() * 0.090));
+            fleet.add(vehicle);
+
+            // Busy drivers are mid-ride; every third free driver has a ride booked later today
+            if (vehicle.getStatus() == VehicleStatus.BUSY || i % 3 == 0) {
+                Ride ride = new Ride();
+                ride.setId((long) i + 1);
+                ride.setDriver(driver);
+                boolean busy = vehicle.getStatus() == VehicleStatus.BUSY;
+                ride.setStatus(busy ? RideStatus.IN_PROGRESS : RideStatus.SCHEDULED);
+                LocalDateTime start = LocalDateTime.now().plusMinutes(busy ? -10 : 60 + random.nextInt(180));
+                ride.setStartTime(start);
+                ride.setEndTime(start.plusMinutes(5 + random.nextInt(30)));
+                driverScheduleIndex.recordRide(ride);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        DriverActivitySession session = new DriverActivitySession();
+        session.setStartTime(now.minusHours(3));
+        session.setEndTime(now.minusHours(1));
+
+        when(vehicleRepository.findAllActiveVehicles()).thenReturn(fleet);
+        when(activitySessionRepository.findSessionsSince(anyLong(), any())).thenReturn(List.of(session));
+        when(routingService.route(any())).thenReturn(new RoutingService.Route(6400.0, 840.0,
+                List.of(new double[]{45.2551, 19.8451}, new double[]{45.2470, 19.8170})));
+        when(rideRepository.save(any(Ride.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        doNothing().when(driverScheduleIndex).recordRide(any());
+
+        User passenger = new User();
+        passenger.setId(0L);
+        passenger.setRole(UserRole.PASSENGER);
+        // Global, as JMH does not promise to call the benchmark on the thread that ran the setup
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(passenger, null, List.of()));
+
+        request = new CreateRideRequest();
+        request.setStart(new LocationDto("Trg slobode 1", 45.2551, 19.8451));
+        request.setDestination(new LocationDto("Futoska 121", 45.2470, 19.8170));
+        request.setRequirements(new RideRequirements(VehicleType.STANDARD, false, false));
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        SecurityContextHolder.clearContext();
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_THREADLOCAL);
+        mocks.close();
+    }
+
+    @Benchmark
+    public RideResponse createRide() {
+        return rideService.createRide(request);
+    }
+}
@@ -0,0 +1,47 @@
+package com.team27.lucky3.backend.service.impl;
+
+import com.team27.lucky3.backend.dto.LocationDto;
+import com.team27.lucky3.backend.dto.response.RoutePointResponse;
+import com.team27.lucky3.backend.service.RoutingService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of an OSRM GeoJSON response into the route points returned by the estimate endpoint.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class OsrmParsingBenchmark {
+
+    @Param({"100", "1000"})
+    private int coordinates;
+
+    private String body;
+
+    @Setup
+    public void setUp() {
+        StringBuilder json = new StringBuilder("{\"code\":\"Ok\",\"routes\":[{\"geometry\":{\"coordinates\":[");
+        for (int i = 0; i < coordinates; i++) {
+            if (i > 0) json.append(',');
+            json.append(String.format(Locale.ROOT, "[%.6f,%.6f]", 19.79 + i * 0.00009, 45.23 + i * 0.00005));
+        }
+        json.append("],\"type\":\"LineString\"},\"distance\":8123.4,\"duration\":912.7,\"weight\":912.7}]}");
+        body = json.toString();
+    }
+
+    @Benchmark
+    public List<RoutePointResponse> parseToRoutePoints() {
+        RoutingService.Route route = OsrmResponseParser.route(body);
+        List<RoutePointResponse> routePoints = new ArrayList<>(route.geometry().size());
+        int order = 0;
+        for (double[] point : route.geometry()) {
+            routePoints.add(new RoutePointResponse(new LocationDto("", point[0], point[1]), order++));
+        }
+        return routePoints;
+    }
+}
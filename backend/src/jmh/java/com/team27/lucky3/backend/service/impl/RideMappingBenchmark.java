@@ -0,0 +1,99 @@
+package com.team27.lucky3.backend.service.impl;
+
+import com.team27.lucky3.backend.dto.response.RideResponse;
+import com.team27.lucky3.backend.entity.Location;
+import com.team27.lucky3.backend.entity.Ride;
+import com.team27.lucky3.backend.entity.User;
+import com.team27.lucky3.backend.entity.Vehicle;
+import com.team27.lucky3.backend.entity.enums.RideStatus;
+import com.team27.lucky3.backend.entity.enums.UserRole;
+import com.team27.lucky3.backend.entity.enums.VehicleType;
+import com.team27.lucky3.backend.repository.RideRepository;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.when;
+
+/**
+ * Entity-to-DTO mapping done for every ride returned by the API; dominated by the route points.
+ * Measured through {@code getRideDetails}, whose only other work is the (stubbed) repository lookup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class RideMappingBenchmark {
+
+    @Param({"0", "300"})
+    private int routePoints;
+
+    // Mapping does not touch any other collaborator, only the ride lookup is stubbed
+    @Mock private RideRepository rideRepository;
+    @InjectMocks private RideServiceImpl rideService;
+
+    private AutoCloseable mocks;
+    private Ride ride;
+
+    @Setup
+    public void setUp() {
+        mocks = MockitoAnnotations.openMocks(this);
+
+        User driver = user(1L, UserRole.DRIVER);
+        Vehicle vehicle = new Vehicle();
+        vehicle.setModel("Skoda Octavia");
+        vehicle.setVehicleType(VehicleType.STANDARD);
+        vehicle.setLicensePlates("NS-123-AB");
+        vehicle.setSeatCount(4);
+        vehicle.setCurrentLocation(new Location("Bulevar oslobodjenja 46", 45.2550, 19.8450));
+        driver.setVehicle(vehicle);
+
+        ride = new Ride();
+        ride.setId(10L);
+        ride.setStatus(RideStatus.IN_PROGRESS);
+        ride.setStartTime(LocalDateTime.now());
+        ride.setEstimatedCost(820.0);
+        ride.setDistance(6.4);
+        ride.setRequestedVehicleType(VehicleType.STANDARD);
+        ride.setStartLocation(new Location("Trg slobode 1", 45.2551, 19.8451));
+        ride.setEndLocation(new Location("Futoska 121", 45.2470, 19.8170));
+        ride.setStops(List.of(new Location("Zmaj Jovina 10", 45.2560, 19.8440)));
+        ride.setDriver(driver);
+        ride.setPassengers(Set.of(user(2L, UserRole.PASSENGER), user(3L, UserRole.PASSENGER)));
+
+        List<Location> points = new ArrayList<>(routePoints);
+        for (int i = 0; i < routePoints; i++) {
+            points.add(new Location(null, 45.2551 - i * 0.00003, 19.8451 - i * 0.00009));
+        }
+        ride.setRoutePoints(points);
+
+        when(rideRepository.findById(ride.getId())).thenReturn(Optional.of(ride));
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        mocks.close();
+    }
+
+    @Benchmark
+    public RideResponse getRideDetails() {
+        return rideService.getRideDetails(ride.getId());
+    }
+
+    private static User user(Long id, UserRole role) {
+        User user = new User();
+        user.setId(id);
+        user.setName("Name" + id);
+        user.setSurname("Surname" + id);
+        user.setEmail("user" + id + "@example.com");
+        user.setRole(role);
+        return user;
+    }
+}
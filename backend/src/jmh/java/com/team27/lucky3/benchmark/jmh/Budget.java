@@ -0,0 +1,25 @@
+package com.team27.lucky3.benchmark.jmh;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Upper bound a benchmark must stay under; checked by {@link JmhBudgetRunner} after the run.
+ * Only use it for code with a stable, machine-independent-enough cost (pure functions).
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Budget {
+
+    /**
+     * Maximum average time per operation, in nanoseconds.
+     */
+    double maxNanosPerOp();
+
+    /**
+     * Maximum allocation per operation, in bytes (from the GC profiler).
+     */
+    double maxBytesPerOp() default Double.MAX_VALUE;
+}
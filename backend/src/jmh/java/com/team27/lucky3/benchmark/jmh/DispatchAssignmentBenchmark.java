@@ -0,0 +1,117 @@
+package com.team27.lucky3.benchmark.jmh;
+
+import com.team27.lucky3.backend.util.AssignmentSolver;
+import com.team27.lucky3.backend.util.GeoUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Greedy one-by-one dispatch versus batched assignment of one dispatch window.
+ * <p>
+ * Each operation matches a wave of ride requests against a simulated Novi Sad fleet.
+ * Besides the time per wave, the {@link Pickups} counters report the pickup distance
+ * both strategies leave the fleet with: compare {@code pickupKm / assigned} between them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class DispatchAssignmentBenchmark {
+
+    private static final int SCENARIOS = 64;
+
+    @Param({"60"})
+    public int fleetSize;
+
+    @Param({"5", "20"})
+    public int requestsPerWindow;
+
+    private double[][][] scenarioCosts;
+    private int next;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Pickups {
+        public double pickupKm;
+        public long assigned;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            pickupKm = 0;
+            assigned = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(27);
+        scenarioCosts = new double[SCENARIOS][][];
+        for (int s = 0; s < SCENARIOS; s++) {
+            double[] vehicleLat = new double[fleetSize];
+            double[] vehicleLon = new double[fleetSize];
+            for (int j = 0; j < fleetSize; j++) {
+                vehicleLat[j] = randomLat(random);
+                vehicleLon[j] = randomLon(random);
+            }
+            double[][] cost = new double[requestsPerWindow][fleetSize];
+            for (int i = 0; i < requestsPerWindow; i++) {
+                double lat = randomLat(random);
+                double lon = randomLon(random);
+                for (int j = 0; j < fleetSize; j++) {
+                    // About one vehicle in four does not meet the request's requirements
+                    cost[i][j] = random.nextInt(4) == 0
+                            ? Double.POSITIVE_INFINITY
+                            : GeoUtils.haversineKm(lat, lon, vehicleLat[j], vehicleLon[j]);
+                }
+            }
+            scenarioCosts[s] = cost;
+        }
+    }
+
+    @Benchmark
+    public int greedy(Pickups pickups) {
+        double[][] cost = scenarioCosts[next++ & (SCENARIOS - 1)];
+        boolean[] taken = new boolean[fleetSize];
+        int assigned = 0;
+        // Requests in arrival order, each gets the closest vehicle still free
+        for (double[] row : cost) {
+            int best = -1;
+            for (int j = 0; j < row.length; j++) {
+                if (!taken[j] && row[j] < Double.POSITIVE_INFINITY && (best < 0 || row[j] < row[best])) {
+                    best = j;
+                }
+            }
+            if (best >= 0) {
+                taken[best] = true;
+                pickups.pickupKm += row[best];
+                assigned++;
+            }
+        }
+        pickups.assigned += assigned;
+        return assigned;
+    }
+
+    @Benchmark
+    public int batched(Pickups pickups) {
+        double[][] cost = scenarioCosts[next++ & (SCENARIOS - 1)];
+        int[] assignment = AssignmentSolver.solve(cost);
+        int assigned = 0;
+        for (int i = 0; i < assignment.length; i++) {
+            if (assignment[i] >= 0) {
+                pickups.pickupKm += cost[i][assignment[i]];
+                assigned++;
+            }
+        }
+        pickups.assigned += assigned;
+        return assigned;
+    }
+
+    private static double randomLat(Random random) {
+        return 45.225 + random.nextDouble() * 0.055;
+    }
+
+    private static double randomLon(Random random) {
+        return 19.790 + random.nextDouble() * 0.090;
+    }
+}
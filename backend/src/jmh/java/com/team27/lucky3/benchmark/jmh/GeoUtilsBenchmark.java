@@ -0,0 +1,58 @@
+package com.team27.lucky3.benchmark.jmh;
+
+import com.team27.lucky3.backend.util.GeoUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the shared distance function, and of the nearest-vehicle scan it is used in.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class GeoUtilsBenchmark {
+
+    // A power of two, so the distance benchmark can cycle through it with a mask
+    private static final int FLEET_SIZE = 512;
+
+    private final double[] lats = new double[FLEET_SIZE];
+    private final double[] lons = new double[FLEET_SIZE];
+    private double pickupLat;
+    private double pickupLon;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(27);
+        for (int i = 0; i < FLEET_SIZE; i++) {
+            lats[i] = 45.225 + random.nextDouble() * 0.055;
+            lons[i] = 19.790 + random.nextDouble() * 0.090;
+        }
+        pickupLat = 45.2550;
+        pickupLon = 19.8450;
+    }
+
+    @Benchmark
+    @Budget(maxNanosPerOp = 250, maxBytesPerOp = 1)
+    public double haversineKm() {
+        int i = next++ & (FLEET_SIZE - 1);
+        return GeoUtils.haversineKm(pickupLat, pickupLon, lats[i], lons[i]);
+    }
+
+    @Benchmark
+    @Budget(maxNanosPerOp = 250 * FLEET_SIZE, maxBytesPerOp = 1)
+    public int nearestOfFleet() {
+        int best = -1;
+        double bestKm = Double.MAX_VALUE;
+        for (int i = 0; i < FLEET_SIZE; i++) {
+            double km = GeoUtils.haversineKm(pickupLat, pickupLon, lats[i], lons[i]);
+            if (km < bestKm) {
+                bestKm = km;
+                best = i;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,80 @@
+package com.team27.lucky3.benchmark.jmh;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Runs the JMH suite with the GC (allocation) profiler and fails the build when a
+ * {@link Budget}-annotated benchmark exceeds its limits.
+ * <p>
+ * {@code mvn verify -Pjmh} runs everything; narrow it with {@code -Djmh.include=Geo}.
+ * Raw results are written to {@code target/jmh-results.json}.
+ */
+public class JmhBudgetRunner {
+
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(System.getProperty("jmh.include", "com\\.team27\\.lucky3\\..*Benchmark"))
+                .addProfiler(GCProfiler.class)
+                .forks(Integer.getInteger("jmh.forks", 1))
+                .warmupIterations(Integer.getInteger("jmh.warmupIterations", 3))
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(Integer.getInteger("jmh.iterations", 5))
+                .measurementTime(TimeValue.seconds(1))
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-results.json")
+                .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+
+        List<String> violations = new ArrayList<>();
+        for (RunResult result : results) {
+            String benchmark = result.getParams().getBenchmark();
+            Budget budget = findBudget(benchmark);
+            if (budget == null) continue;
+
+            double nanosPerOp = result.getPrimaryResult().getScore();
+            if (nanosPerOp > budget.maxNanosPerOp()) {
+                violations.add(String.format("%s: %.1f ns/op > budget %.1f ns/op",
+                        benchmark, nanosPerOp, budget.maxNanosPerOp()));
+            }
+            Result<?> allocation = result.getSecondaryResults().get(ALLOCATION_METRIC);
+            if (allocation != null && allocation.getScore() > budget.maxBytesPerOp()) {
+                violations.add(String.format("%s: %.1f B/op > budget %.1f B/op",
+                        benchmark, allocation.getScore(), budget.maxBytesPerOp()));
+            }
+        }
+
+        if (!violations.isEmpty()) {
+            System.err.println("Benchmark budgets exceeded:");
+            violations.forEach(v -> System.err.println("  " + v));
+            System.exit(1);
+        }
+        System.out.println("All benchmark budgets met.");
+    }
+
+    private static Budget findBudget(String benchmark) throws ClassNotFoundException {
+        int split = benchmark.lastIndexOf('.');
+        Class<?> type = Class.forName(benchmark.substring(0, split));
+        String methodName = benchmark.substring(split + 1);
+        for (Method method : type.getMethods()) {
+            if (method.getName().equals(methodName)) {
+                return method.getAnnotation(Budget.class);
+            }
+        }
+        return null;
+    }
+}
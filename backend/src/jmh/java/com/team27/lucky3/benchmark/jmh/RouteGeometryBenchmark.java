@@ -0,0 +1,71 @@
+package com.team27.lucky3.benchmark.jmh;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team27.lucky3.backend.dto.LocationDto;
+import com.team27.lucky3.backend.dto.response.RideEstimationResponse;
+import com.team27.lucky3.backend.dto.response.RoutePointResponse;
+import com.team27.lucky3.backend.util.RouteGeometry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shaping and serializing an estimate response for each {@code ?geometry=} option.
+ * <p>
+ * The route imitates a full-resolution OSRM geometry across Novi Sad: straight street
+ * segments sampled every few metres with small jitter and a turn every few hundred metres.
+ * The {@link Payload} counter reports the JSON size per response.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class RouteGeometryBenchmark {
+
+    @Param({"2000"})
+    public int routePoints;
+
+    @Param({"FULL", "SIMPLIFIED", "ENCODED"})
+    public RouteGeometry geometry;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<RoutePointResponse> route;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Payload {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(40);
+        route = new ArrayList<>(routePoints);
+        double lat = 45.2400;
+        double lon = 19.8000;
+        double heading = 0;
+        for (int i = 0; i < routePoints; i++) {
+            if (i % 80 == 0) heading += (random.nextBoolean() ? 1 : -1) * Math.PI / 2 * random.nextDouble();
+            lat += Math.cos(heading) * 0.00004 + (random.nextDouble() - 0.5) * 0.000004;
+            lon += Math.sin(heading) * 0.00006 + (random.nextDouble() - 0.5) * 0.000006;
+            route.add(new RoutePointResponse(new LocationDto("", lat, lon), i));
+        }
+    }
+
+    @Benchmark
+    public String shapeAndSerialize(Payload payload) throws JsonProcessingException {
+        RideEstimationResponse response = new RideEstimationResponse(18, 760.0, 4, 7.9, route);
+        geometry.applyTo(response, RouteGeometry.DEFAULT_ZOOM);
+        String json = objectMapper.writeValueAsString(response);
+        payload.bytes += json.length();
+        return json;
+    }
+}
@@ -0,0 +1,76 @@
+package com.team27.lucky3.benchmark.jmh;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Platform vs virtual threads for request handling that blocks on a slow downstream
+ * (OSRM, SMTP, FCM). One operation is a burst of {@code concurrentRequests} requests,
+ * each blocking for {@code downstreamMillis}. The platform variant is capped at
+ * Tomcat's default of 200 worker threads.
+ * <p>
+ * For the same comparison through the real HTTP stack, see {@code RideFlowLoadTest}
+ * with {@code -Dload.routingDelayMillis}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class ThreadModelBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    @Param({"200", "2000"})
+    private int concurrentRequests;
+
+    @Param({"50"})
+    private int downstreamMillis;
+
+    private ExecutorService platform;
+    private ExecutorService virtual;
+
+    @Setup
+    public void setUp() {
+        platform = Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        virtual = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @TearDown
+    public void tearDown() {
+        platform.shutdownNow();
+        virtual.shutdownNow();
+    }
+
+    @Benchmark
+    public long platformThreads() throws Exception {
+        return burst(platform);
+    }
+
+    @Benchmark
+    public long virtualThreads() throws Exception {
+        return burst(virtual);
+    }
+
+    private long burst(ExecutorService executor) throws Exception {
+        List<Future<Long>> responses = new ArrayList<>(concurrentRequests);
+        for (int i = 0; i < concurrentRequests; i++) {
+            final long request = i;
+            responses.add(executor.submit(() -> {
+                Thread.sleep(downstreamMillis);
+                return request;
+            }));
+        }
+        long sum = 0;
+        for (Future<Long> response : responses) {
+            sum += response.get();
+        }
+        return sum;
+    }
+}
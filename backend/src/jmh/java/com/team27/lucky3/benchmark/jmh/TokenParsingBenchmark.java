@@ -0,0 +1,41 @@
+package com.team27.lucky3.benchmark.jmh;
+
+import com.team27.lucky3.backend.entity.User;
+import com.team27.lucky3.backend.entity.enums.UserRole;
+import com.team27.lucky3.backend.util.TokenUtils;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT work done on every authenticated request by the security filter.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class TokenParsingBenchmark {
+
+    private TokenUtils tokenUtils;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenUtils = new TokenUtils();
+        ReflectionTestUtils.setField(tokenUtils, "APP_NAME", "lucky3-app");
+        ReflectionTestUtils.setField(tokenUtils, "SECRET",
+                "dGVzdFNlY3JldEtleUZvclRlc3RpbmdQdXJwb3Nlc09ubHlNdXN0QmVMb25nRW5vdWdoMTIzNDU2Nzg5MA==");
+        ReflectionTestUtils.setField(tokenUtils, "EXPIRES_IN", 3_600_000);
+
+        User user = new User();
+        user.setId(42L);
+        user.setEmail("passenger@example.com");
+        user.setRole(UserRole.PASSENGER);
+        token = tokenUtils.generateToken(user);
+    }
+
+    @Benchmark
+    public String getEmailFromToken() {
+        return tokenUtils.getEmailFromToken(token);
+    }
+}
@@ -0,0 +1,42 @@
+package com.team27.lucky3.backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+
+/**
+ * Runs the versioned migrations in {@code db/migration/{vendor}} <b>after</b> Hibernate.
+ * <p>
+ * Tables and plain indexes are still owned by {@code ddl-auto=update}; the migrations
+ * only add what JPA annotations cannot express (partial and covering indexes) and
+ * backfill columns added to existing tables.
+ * Spring Boot would normally migrate before the entity manager starts, when the
+ * tables do not exist yet on a fresh database, so the default strategy is replaced
+ * with a no-op and the migration is triggered once the entity manager is up.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.flyway.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class FlywayConfig {
+
+    @Bean
+    public FlywayMigrationStrategy deferredFlywayMigrationStrategy() {
+        return flyway -> { };
+    }
+
+    @Bean
+    @DependsOn("entityManagerFactory")
+    public InitializingBean flywayMigrationAfterHibernate(Flyway flyway) {
+        return () -> {
+            MigrateResult result = flyway.migrate();
+            log.info("Applied {} schema migration(s), schema version {}",
+                    result.migrationsExecuted, result.targetSchemaVersion);
+        };
+    }
+}
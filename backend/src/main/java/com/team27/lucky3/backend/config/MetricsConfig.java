@@ -0,0 +1,32 @@
+package com.team27.lucky3.backend.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+/**
+ * Application gauges that Spring Boot does not register on its own.
+ * <p>
+ * Exposed together with the built-in HTTP, JVM, HikariCP and executor metrics on
+ * {@code /actuator/prometheus}. The STOMP channel executors ({@code clientInboundChannelExecutor},
+ * {@code clientOutboundChannelExecutor}, {@code brokerChannelExecutor}) are picked up by
+ * Boot's executor metrics as {@code executor.*} with a {@code name} tag.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder webSocketSessionMetrics(
+            @Qualifier("subProtocolWebSocketHandler") WebSocketHandler webSocketHandler) {
+        return registry -> {
+            if (!(webSocketHandler instanceof SubProtocolWebSocketHandler handler)) return;
+            Gauge.builder("lucky3.websocket.sessions", handler, h -> h.getStats().getTotalSessions())
+                    .description("Open WebSocket/SockJS sessions")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,128 @@
+package com.team27.lucky3.backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every public {@code *ServiceImpl} method and every {@code @Scheduled} job.
+ * <ul>
+ *   <li>{@code lucky3.service.calls} (tags {@code class}, {@code method}, {@code exception})</li>
+ *   <li>{@code lucky3.scheduled.runs} (tags {@code job}, {@code exception})</li>
+ *   <li>{@code lucky3.scheduled.lag}: how late a fixed-rate/fixed-delay run started compared to
+ *       its previous run, i.e. the scheduler is overrun or starved (tag {@code job})</li>
+ * </ul>
+ * Timers are resolved once per method and cached, so the successful path costs two clock
+ * reads and one timer update. The service timers only keep count, total and max; percentile
+ * histograms are enabled for a few named timers in {@code application.properties}. Only
+ * calls that go through the Spring proxy are measured; self-invocations inside a service
+ * are not.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+
+    static final String SERVICE_TIMER = "lucky3.service.calls";
+    static final String SCHEDULED_TIMER = "lucky3.scheduled.runs";
+    static final String SCHEDULED_LAG_TIMER = "lucky3.scheduled.lag";
+    private static final String NO_EXCEPTION = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Method, Timer> serviceTimers = new ConcurrentHashMap<>();
+    private final Map<Method, ScheduledJob> scheduledJobs = new ConcurrentHashMap<>();
+
+    @Around("execution(public * com.team27.lucky3.backend.service.impl.*ServiceImpl.*(..))")
+    public Object timeServiceCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            serviceTimers.computeIfAbsent(method, m -> serviceTimer(m, NO_EXCEPTION))
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            serviceTimer(method, e.getClass().getSimpleName())
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    @Around("@annotation(scheduled)")
+    public Object timeScheduledJob(ProceedingJoinPoint joinPoint, Scheduled scheduled) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        ScheduledJob job = scheduledJobs.computeIfAbsent(method, m -> new ScheduledJob(m, scheduled));
+
+        long start = System.nanoTime();
+        job.recordStart(start);
+        String exception = NO_EXCEPTION;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            long end = System.nanoTime();
+            job.lastEnd = end;
+            Timer timer = NO_EXCEPTION.equals(exception)
+                    ? job.runs
+                    : meterRegistry.timer(SCHEDULED_TIMER, "job", job.name, "exception", exception);
+            timer.record(end - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer serviceTimer(Method method, String exception) {
+        return Timer.builder(SERVICE_TIMER)
+                .tag("class", method.getDeclaringClass().getSimpleName())
+                .tag("method", method.getName())
+                .tag("exception", exception)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Per-job timers and the timestamps of the previous run, used to compute the start lag.
+     * A scheduled method never runs concurrently with itself, so plain volatile fields suffice.
+     */
+    private class ScheduledJob {
+        private final String name;
+        private final Timer runs;
+        private final Timer lag;
+        private final long rateNanos;
+        private final long delayNanos;
+        private volatile long lastStart = -1;
+        private volatile long lastEnd = -1;
+
+        ScheduledJob(Method method, Scheduled scheduled) {
+            this.name = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+            this.runs = meterRegistry.timer(SCHEDULED_TIMER, "job", name, "exception", NO_EXCEPTION);
+            this.lag = meterRegistry.timer(SCHEDULED_LAG_TIMER, "job", name);
+            this.rateNanos = scheduled.fixedRate() > 0 ? scheduled.timeUnit().toNanos(scheduled.fixedRate()) : -1;
+            this.delayNanos = scheduled.fixedDelay() > 0 ? scheduled.timeUnit().toNanos(scheduled.fixedDelay()) : -1;
+        }
+
+        void recordStart(long start) {
+            long expected = -1;
+            if (rateNanos > 0 && lastStart >= 0) {
+                expected = lastStart + rateNanos;
+            } else if (delayNanos > 0 && lastEnd >= 0) {
+                expected = lastEnd + delayNanos;
+            }
+            if (expected >= 0) {
+                lag.record(Math.max(0, start - expected), TimeUnit.NANOSECONDS);
+            }
+            lastStart = start;
+        }
+    }
+}
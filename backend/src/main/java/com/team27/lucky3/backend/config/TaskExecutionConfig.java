@@ -0,0 +1,80 @@
+package com.team27.lucky3.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Executors for {@code @Async}, ad-hoc background work and {@code @Scheduled} jobs.
+ * <p>
+ * Spring Boot backs off from creating its own {@code applicationTaskExecutor} and scheduler
+ * as soon as the STOMP broker registers its channel executors, which left {@code @Scheduled}
+ * jobs running on the broker's heartbeat scheduler. The beans are therefore declared here
+ * under the names Spring looks up by convention ({@code taskExecutor}, {@code taskScheduler}).
+ * <p>
+ * With {@code spring.threads.virtual.enabled=true} (which also switches Tomcat request handling)
+ * background tasks get a virtual thread each and the scheduler's workers are virtual threads.
+ * The scheduler stays a {@link ThreadPoolTaskScheduler} in both modes, so a fixed-rate job never
+ * overlaps with its own previous run.
+ * <p>
+ * Thumbnail generation decodes whole images, so it gets its own small platform pool with a
+ * bounded queue instead of a virtual thread per upload; when the queue is full the task is
+ * rejected and the original image is served until the next upload of the same content.
+ * <p>
+ * The patrol simulation advances its whole fleet in parallel every tick on a dedicated
+ * fork/join pool, so a large simulated fleet never competes with the common pool used by
+ * parallel streams elsewhere.
+ */
+@Configuration
+public class TaskExecutionConfig {
+
+    public static final String TASK_EXECUTOR = "taskExecutor";
+    public static final String TASK_SCHEDULER = "taskScheduler";
+    public static final String IMAGE_EXECUTOR = "imageExecutor";
+    public static final String SIMULATION_POOL = "simulationPool";
+
+    @Bean(name = TASK_EXECUTOR)
+    public AsyncTaskExecutor taskExecutor(Environment environment,
+                                          ThreadPoolTaskExecutorBuilder platformBuilder,
+                                          SimpleAsyncTaskExecutorBuilder virtualBuilder) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return virtualBuilder.virtualThreads(true).threadNamePrefix("task-vt-").build();
+        }
+        return platformBuilder.threadNamePrefix("task-").build();
+    }
+
+    @Bean(name = TASK_SCHEDULER)
+    public ThreadPoolTaskScheduler taskScheduler(Environment environment, ThreadPoolTaskSchedulerBuilder builder) {
+        ThreadPoolTaskScheduler scheduler = builder.threadNamePrefix("scheduling-").build();
+        if (Threading.VIRTUAL.isActive(environment)) {
+            scheduler.setThreadFactory(Thread.ofVirtual().name("scheduling-vt-", 1).factory());
+        }
+        return scheduler;
+    }
+
+    @Bean(name = IMAGE_EXECUTOR)
+    public ThreadPoolTaskExecutor imageExecutor(@Value("${image.thumbnails.threads:2}") int threads,
+                                                @Value("${image.thumbnails.queue-capacity:50}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-");
+        return executor;
+    }
+
+    @Bean(name = SIMULATION_POOL, destroyMethod = "shutdown")
+    public ForkJoinPool simulationPool(@Value("${simulation.parallelism:0}") int parallelism) {
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+}
@@ -78,6 +78,8 @@ public class WebSecurityConfig {
                 .requestMatchers("/api/ride-tracking/**").permitAll() // Public ride tracking with token
                 .requestMatchers("/ws/**").permitAll() // WebSocket endpoint
                 .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll() // OpenAPI / Swagger
+                .requestMatchers("/actuator/health").permitAll() // Health checks
+                .requestMatchers("/actuator/prometheus").hasRole("ADMIN") // Prometheus scrapes with an admin token
                 .anyRequest().authenticated()
         );
 
@@ -4,12 +4,9 @@ import com.team27.lucky3.backend.dto.request.UpdateVehiclePriceRequest;
 import com.team27.lucky3.backend.dto.response.AdminStatsResponse;
 import com.team27.lucky3.backend.dto.response.VehiclePriceResponse;
 import com.team27.lucky3.backend.entity.DriverChangeRequest;
-import com.team27.lucky3.backend.entity.Ride;
 import com.team27.lucky3.backend.entity.VehiclePrice;
 import com.team27.lucky3.backend.entity.enums.DriverChangeStatus;
-import com.team27.lucky3.backend.repository.ReviewRepository;
-import com.team27.lucky3.backend.repository.RideRepository;
-import com.team27.lucky3.backend.repository.UserRepository;
+import com.team27.lucky3.backend.service.AdminLiveStatsService;
 import com.team27.lucky3.backend.service.DriverChangeRequestService;
 import com.team27.lucky3.backend.service.VehiclePriceService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -32,9 +29,7 @@ import java.util.stream.Collectors;
 @Tag(name = "Admin", description = "Admin dashboard, vehicle pricing & statistics")
 public class AdminController {
 
-    private final RideRepository rideRepository;
-    private final UserRepository userRepository;
-    private final ReviewRepository reviewRepository;
+    private final AdminLiveStatsService adminLiveStatsService;
     private final VehiclePriceService vehiclePriceService;
 
     @Operation(summary = "Get all vehicle prices", description = "Returns pricing for all vehicle types (ADMIN only)")
@@ -58,28 +53,11 @@ public class AdminController {
         return ResponseEntity.ok(response);
     }
 
-    @Operation(summary = "Get admin dashboard stats", description = "Active rides, avg rating, online drivers, total passengers")
+    @Operation(summary = "Get admin dashboard stats", description = "Active rides, avg rating, online drivers, total passengers. Live updates are pushed on /topic/admin/stats")
     @GetMapping("/stats")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<AdminStatsResponse> getAdminStats() {
-        Integer activeRidesCount = rideRepository.countActiveRides();
-        Double averageDriverRating = reviewRepository.getOverallAverageDriverRating();
-        Integer driversOnlineCount = userRepository.countOnlineDrivers();
-        
-        // Count total passengers in active rides
-        List<Ride> activeRides = rideRepository.findAllActiveRidesForPassengerCount();
-        int totalPassengers = activeRides.stream()
-                .mapToInt(ride -> ride.getPassengers() != null ? ride.getPassengers().size() : 0)
-                .sum();
-
-        AdminStatsResponse stats = new AdminStatsResponse(
-                activeRidesCount != null ? activeRidesCount : 0,
-                averageDriverRating != null ? Math.round(averageDriverRating * 100.0) / 100.0 : 0.0,
-                driversOnlineCount != null ? driversOnlineCount : 0,
-                totalPassengers
-        );
-        
-        return ResponseEntity.ok(stats);
+        return ResponseEntity.ok(adminLiveStatsService.getStats());
     }
 
 }
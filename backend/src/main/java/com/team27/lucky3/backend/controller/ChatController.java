@@ -9,7 +9,10 @@ import com.team27.lucky3.backend.service.SupportChatService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -17,6 +20,7 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -37,6 +41,18 @@ public class ChatController {
         return ResponseEntity.ok(supportChatService.getOrCreateChatForUser(user));
     }
 
+    @Operation(summary = "Get my chat messages", description = "Page through the current user's support messages (oldest first). "
+            + "Without cursors returns the latest messages; before=<id> loads older ones, after=<last seen id> resumes after a reconnect. PASSENGER or DRIVER.")
+    @GetMapping("/chat/messages")
+    @PreAuthorize("hasRole('PASSENGER') or hasRole('DRIVER')")
+    public ResponseEntity<List<SupportMessageResponse>> getMyChatMessages(
+            @AuthenticationPrincipal User user,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") @Min(1) @Max(200) int limit) {
+        return ResponseEntity.ok(supportChatService.getMyChatMessages(user, before, after, limit));
+    }
+
     @Operation(summary = "Send message as user", description = "Send a support message. PASSENGER or DRIVER.")
     @PostMapping("/chat/message")
     @PreAuthorize("hasRole('PASSENGER') or hasRole('DRIVER')")
@@ -48,25 +64,34 @@ public class ChatController {
 
     // ==================== Admin Endpoints ====================
 
-    @Operation(summary = "Get all chats (admin)", description = "List all support chats ordered by last message time")
+    @Operation(summary = "Get all chats (admin)", description = "List support chats ordered by last message time. "
+            + "Pass lastMessageTime and id of the last chat received as beforeTime/beforeId for the next page")
     @GetMapping("/admin/chats")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<SupportChatListItemResponse>> getAllChats() {
-        return ResponseEntity.ok(supportChatService.getAllChatsForAdmin());
+    public ResponseEntity<List<SupportChatListItemResponse>> getAllChats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime beforeTime,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "50") @Min(1) @Max(200) int limit) {
+        return ResponseEntity.ok(supportChatService.getAllChatsForAdmin(beforeTime, beforeId, limit));
     }
 
-    @Operation(summary = "Get chat by ID (admin)", description = "Get a specific chat with all messages")
+    @Operation(summary = "Get chat by ID (admin)", description = "Get a specific chat with its latest messages")
     @GetMapping("/admin/chat/{chatId}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<SupportChatResponse> getChatById(@PathVariable Long chatId) {
         return ResponseEntity.ok(supportChatService.getChatById(chatId));
     }
 
-    @Operation(summary = "Get chat messages (admin)", description = "Get all messages for a specific chat")
+    @Operation(summary = "Get chat messages (admin)", description = "Page through a chat's messages (oldest first). "
+            + "Without cursors returns the latest messages; before=<id> loads older ones, after=<last seen id> resumes after a reconnect")
     @GetMapping("/admin/chat/{chatId}/messages")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<SupportMessageResponse>> getChatMessages(@PathVariable Long chatId) {
-        return ResponseEntity.ok(supportChatService.getChatMessages(chatId));
+    public ResponseEntity<List<SupportMessageResponse>> getChatMessages(
+            @PathVariable Long chatId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") @Min(1) @Max(200) int limit) {
+        return ResponseEntity.ok(supportChatService.getChatMessages(chatId, before, after, limit));
     }
 
     @Operation(summary = "Send message as admin", description = "Send a message to a user's support chat")
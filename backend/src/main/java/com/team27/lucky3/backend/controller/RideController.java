@@ -7,9 +7,11 @@ import com.team27.lucky3.backend.entity.enums.RideStatus;
 import com.team27.lucky3.backend.exception.ResourceNotFoundException;
 import com.team27.lucky3.backend.service.RideService;
 import com.team27.lucky3.backend.util.DummyData;
+import com.team27.lucky3.backend.util.RouteGeometry;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -36,10 +38,16 @@ public class RideController {
 
     private final RideService rideService;
 
-    @Operation(summary = "Estimate ride", description = "Calculate route distance, duration & cost estimate (public)", security = {})
+    @Operation(summary = "Estimate ride", description = "Calculate route distance, duration & cost estimate (public). "
+            + "geometry=full|simplified|encoded|none controls the returned route, simplified for the map zoom level", security = {})
     @PostMapping("/estimate")
-    public ResponseEntity<RideEstimationResponse> estimateRide(@Valid @RequestBody CreateRideRequest request) {
+    public ResponseEntity<RideEstimationResponse> estimateRide(
+            @Valid @RequestBody CreateRideRequest request,
+            @RequestParam(defaultValue = "full") String geometry,
+            @RequestParam(defaultValue = RouteGeometry.DEFAULT_ZOOM_PARAM) @Min(0) @Max(22) int zoom) {
+        RouteGeometry routeGeometry = RouteGeometry.from(geometry);
         RideEstimationResponse response = rideService.estimateRide(request);
+        routeGeometry.applyTo(response, zoom);
         return ResponseEntity.ok(response);
     }
 
@@ -60,16 +68,27 @@ public class RideController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime toDate,
             @RequestParam(required = false) @Min(1) Long driverId,
             @RequestParam(required = false) @Min(1) Long passengerId,
-            @RequestParam(required = false) String status) {
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "full") String geometry,
+            @RequestParam(defaultValue = RouteGeometry.DEFAULT_ZOOM_PARAM) @Min(0) @Max(22) int zoom) {
 
-        return ResponseEntity.ok(rideService.getRidesHistory(pageable, fromDate, toDate, driverId, passengerId, status));
+        RouteGeometry routeGeometry = RouteGeometry.from(geometry);
+        Page<RideResponse> rides = rideService.getRidesHistory(pageable, fromDate, toDate, driverId, passengerId, status);
+        rides.forEach(ride -> routeGeometry.applyTo(ride, zoom));
+        return ResponseEntity.ok(rides);
     }
 
     @Operation(summary = "Get ride details", description = "Retrieve detailed information about a specific ride")
     @GetMapping("/{id:\\d+}") // Only match if 'id' consists of digits
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<RideResponse> getRide(@PathVariable @Min(1) Long id) {
-        return ResponseEntity.ok(rideService.getRideDetails(id));
+    public ResponseEntity<RideResponse> getRide(
+            @PathVariable @Min(1) Long id,
+            @RequestParam(defaultValue = "full") String geometry,
+            @RequestParam(defaultValue = RouteGeometry.DEFAULT_ZOOM_PARAM) @Min(0) @Max(22) int zoom) {
+        RouteGeometry routeGeometry = RouteGeometry.from(geometry);
+        RideResponse ride = rideService.getRideDetails(id);
+        routeGeometry.applyTo(ride, zoom);
+        return ResponseEntity.ok(ride);
     }
 
     @Operation(summary = "Accept ride", description = "Driver accepts a pending ride")
@@ -79,6 +98,13 @@ public class RideController {
         return ResponseEntity.ok(rideService.acceptRide(id));
     }
 
+    @Operation(summary = "Decline ride", description = "Driver declines a pending ride offer; it is offered to the next available driver")
+    @PutMapping("/{id}/decline")
+    @PreAuthorize("hasRole('DRIVER')")
+    public ResponseEntity<RideResponse> declineRide(@PathVariable @Min(1) Long id) {
+        return ResponseEntity.ok(rideService.declineRide(id));
+    }
+
     @Operation(summary = "Start ride", description = "Driver starts an accepted ride")
     @PutMapping("/{id}/start")
     @PreAuthorize("hasRole('DRIVER')")
@@ -151,8 +177,14 @@ public class RideController {
     @Operation(summary = "Get active ride", description = "Get the currently active ride for a user")
     @GetMapping("/active")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<RideResponse> getActiveRide(@RequestParam(required = false) @Min(1) Long userId) {
-        return ResponseEntity.ok(rideService.getActiveRide(userId));
+    public ResponseEntity<RideResponse> getActiveRide(
+            @RequestParam(required = false) @Min(1) Long userId,
+            @RequestParam(defaultValue = "full") String geometry,
+            @RequestParam(defaultValue = RouteGeometry.DEFAULT_ZOOM_PARAM) @Min(0) @Max(22) int zoom) {
+        RouteGeometry routeGeometry = RouteGeometry.from(geometry);
+        RideResponse ride = rideService.getActiveRide(userId);
+        if (ride != null) routeGeometry.applyTo(ride, zoom);
+        return ResponseEntity.ok(ride);
     }
 
     @Operation(summary = "Get all active rides (admin)", description = "Paginated list of all active rides with optional search & filters (ADMIN only)")
@@ -162,8 +194,13 @@ public class RideController {
             Pageable pageable,
             @RequestParam(required = false) String search,
             @RequestParam(required = false) String status,
-            @RequestParam(required = false) String vehicleType) {
-        return ResponseEntity.ok(rideService.getAllActiveRides(pageable, search, status, vehicleType));
+            @RequestParam(required = false) String vehicleType,
+            @RequestParam(defaultValue = "full") String geometry,
+            @RequestParam(defaultValue = RouteGeometry.DEFAULT_ZOOM_PARAM) @Min(0) @Max(22) int zoom) {
+        RouteGeometry routeGeometry = RouteGeometry.from(geometry);
+        Page<RideResponse> rides = rideService.getAllActiveRides(pageable, search, status, vehicleType);
+        rides.forEach(ride -> routeGeometry.applyTo(ride, zoom));
+        return ResponseEntity.ok(rides);
     }
 
     @Operation(summary = "Add favourite route", description = "Save a ride route as a favourite (PASSENGER only)")
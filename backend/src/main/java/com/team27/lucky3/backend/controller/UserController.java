@@ -5,9 +5,9 @@ import com.team27.lucky3.backend.dto.request.FcmTokenRequest;
 import com.team27.lucky3.backend.dto.request.VehicleInformation;
 import com.team27.lucky3.backend.dto.response.FavoriteRouteResponse;
 import com.team27.lucky3.backend.dto.response.UserProfile;
-import com.team27.lucky3.backend.entity.Image;
 import com.team27.lucky3.backend.entity.User;
 import com.team27.lucky3.backend.exception.ResourceNotFoundException;
+import com.team27.lucky3.backend.service.ImageService;
 import com.team27.lucky3.backend.service.UserBlockingService;
 import com.team27.lucky3.backend.service.UserService;
 import com.team27.lucky3.backend.util.DummyData;
@@ -16,6 +16,8 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -25,6 +27,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -36,6 +39,9 @@ public class UserController {
     private final UserService userService;
     private final UserBlockingService userBlockingService;
 
+    // Browsers reuse an avatar for a few minutes, then revalidate it with If-None-Match
+    private static final CacheControl PROFILE_IMAGE_CACHE = CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic();
+
     @Operation(summary = "Get user profile", description = "Retrieve a user's profile by ID")
     @GetMapping("/{id}")
     @PreAuthorize("isAuthenticated()")
@@ -82,15 +88,19 @@ public class UserController {
         return ResponseEntity.ok(response);
     }
 
-    @Operation(summary = "Get profile image", description = "Retrieve the user's profile image as binary data", security = {})
+    @Operation(summary = "Get profile image", description = "Stream the user's profile image, or a 64/128/512 px thumbnail with size=. Supports If-None-Match (304) and Range requests", security = {})
     @GetMapping("/{id}/profile-image")
-    public ResponseEntity<byte[]> getProfileImage(@PathVariable Long id) {
-        Image image = userService.getProfileImage(id); // loads from DB
+    public ResponseEntity<Resource> getProfileImage(@PathVariable Long id,
+                                                    @RequestParam(required = false) @Min(1) Integer size) {
+        ImageService.ImageContent image = userService.getProfileImage(id, size);
 
+        // Spring answers If-None-Match with 304 from the ETag and Range with 206 for Resource bodies
         return ResponseEntity
                 .ok()
-                .contentType(MediaType.parseMediaType(image.getContentType()))
-                .body(image.getData());
+                .contentType(MediaType.parseMediaType(image.contentType()))
+                .eTag(image.eTag())
+                .cacheControl(PROFILE_IMAGE_CACHE)
+                .body(image.resource());
     }
 
     @Operation(summary = "Change password", description = "Change the user's password")
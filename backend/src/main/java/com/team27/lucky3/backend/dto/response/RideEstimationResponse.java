@@ -15,4 +15,10 @@ public class RideEstimationResponse {
     private int estimatedDriverArrivalInMinutes; // Time for the closest driver to reach A
     private double estimatedDistance;
     private java.util.List<RoutePointResponse> routePoints; // For displaying route on map
+    private String encodedRoute; // Encoded polyline, only with ?geometry=encoded
+
+    public RideEstimationResponse(int estimatedTimeInMinutes, double estimatedCost, int estimatedDriverArrivalInMinutes,
+                                  double estimatedDistance, List<RoutePointResponse> routePoints) {
+        this(estimatedTimeInMinutes, estimatedCost, estimatedDriverArrivalInMinutes, estimatedDistance, routePoints, null);
+    }
 }
@@ -27,6 +27,7 @@ public class RideResponse {
     private String licensePlates;
     private LocationDto vehicleLocation;
     private List<RoutePointResponse> routePoints;
+    private String encodedRoute; // Encoded polyline, only with ?geometry=encoded
     private Double distanceKm;
     private List<InconsistencyResponse> inconsistencyReports;
     private Integer estimatedTimeInMinutes;
@@ -25,5 +25,6 @@ public class SupportChatResponse {
     private LocalDateTime lastMessageTime;
     private int unreadCount;
     private LocalDateTime createdAt;
-    private List<SupportMessageResponse> messages;
+    private List<SupportMessageResponse> messages; // latest page, oldest first
+    private boolean hasOlderMessages; // load the rest with ?before=<id of the first message>
 }
@@ -0,0 +1,18 @@
+package com.team27.lucky3.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Positions of every vehicle the patrol simulation moved in one tick, as parallel arrays:
+ * vehicle {@code ids[i]} is now at ({@code latitudes[i]}, {@code longitudes[i]}).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VehiclePositionsResponse {
+    private long[] ids;
+    private double[] latitudes;
+    private double[] longitudes;
+}
@@ -12,7 +12,9 @@ import java.time.LocalDateTime;
  * A session starts when driver goes online and ends when they go offline.
  */
 @Entity
-@Table(name = "driver_activity_sessions")
+@Table(name = "driver_activity_sessions", indexes = {
+        @Index(name = "idx_driver_session_driver_end", columnList = "driver_id, end_time")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,59 @@
+package com.team27.lucky3.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running per-driver totals backing the driver dashboard.
+ * Updated incrementally when a ride finishes or a review is submitted,
+ * and periodically reconciled against the rides and reviews tables.
+ */
+@Entity
+@Table(name = "driver_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DriverStats {
+    /** Same value as the driver's user id (one row per driver). */
+    @Id
+    @Column(name = "driver_id")
+    private Long driverId;
+
+    @Column(nullable = false)
+    private double totalEarnings;
+
+    @Column(nullable = false)
+    private int completedRides;
+
+    /** Sum and count of non-zero driver ratings. */
+    @Column(nullable = false)
+    private long driverRatingSum;
+
+    @Column(nullable = false)
+    private int driverRatingCount;
+
+    /** Sum and count of non-zero vehicle ratings. */
+    @Column(nullable = false)
+    private long vehicleRatingSum;
+
+    @Column(nullable = false)
+    private int vehicleRatingCount;
+
+    private LocalDateTime reconciledAt;
+
+    public DriverStats(Long driverId) {
+        this.driverId = driverId;
+    }
+
+    public double getAverageDriverRating() {
+        return driverRatingCount > 0 ? (double) driverRatingSum / driverRatingCount : 0.0;
+    }
+
+    public double getAverageVehicleRating() {
+        return vehicleRatingCount > 0 ? (double) vehicleRatingSum / vehicleRatingCount : 0.0;
+    }
+}
@@ -12,7 +12,9 @@ import java.time.LocalDateTime;
  * Represents a single message in a support chat.
  */
 @Entity
-@Table(name = "messages")
+@Table(name = "messages", indexes = {
+        @Index(name = "idx_messages_chat_id", columnList = "support_chat_id, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -8,6 +8,10 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(name = "review", indexes = {
+        @Index(name = "idx_review_ride_passenger", columnList = "ride_id, passenger_id"),
+        @Index(name = "idx_review_ride_reviewer_email", columnList = "ride_id, reviewer_email")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -6,6 +6,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -13,9 +14,15 @@ import java.util.List;
 import java.util.Set;
 
 @Entity
+@Table(name = "ride", indexes = {
+        @Index(name = "idx_ride_driver_status_start", columnList = "driver_id, status, start_time"),
+        @Index(name = "idx_ride_status_start", columnList = "status, start_time"),
+        @Index(name = "idx_ride_status_scheduled", columnList = "status, scheduled_time")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@DynamicUpdate // status transitions and tracking updates write only the columns they change
 public class Ride {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -83,7 +90,8 @@ public class Ride {
 
     // Added intermediate stops (Spec 2.4.1)
     @ElementCollection
-    @CollectionTable(name = "ride_stops", joinColumns = @JoinColumn(name = "ride_id"))
+    @CollectionTable(name = "ride_stops", joinColumns = @JoinColumn(name = "ride_id"),
+            indexes = @Index(name = "idx_ride_stops_ride", columnList = "ride_id"))
     @AttributeOverrides({
             @AttributeOverride(name = "address", column = @Column(name = "stop_address")),
             @AttributeOverride(name = "latitude", column = @Column(name = "stop_latitude")),
@@ -92,7 +100,8 @@ public class Ride {
     private List<Location> stops;
 
     @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "ride_route_points", joinColumns = @JoinColumn(name = "ride_id"))
+    @CollectionTable(name = "ride_route_points", joinColumns = @JoinColumn(name = "ride_id"),
+            indexes = @Index(name = "idx_ride_route_points_ride", columnList = "ride_id"))
     @AttributeOverrides({
             @AttributeOverride(name = "address", column = @Column(name = "rp_address")),
             @AttributeOverride(name = "latitude", column = @Column(name = "rp_latitude")),
@@ -112,7 +121,8 @@ public class Ride {
     @JoinTable(
             name = "ride_passengers",
             joinColumns = @JoinColumn(name = "ride_id"),
-            inverseJoinColumns = @JoinColumn(name = "user_id")
+            inverseJoinColumns = @JoinColumn(name = "user_id"),
+            indexes = @Index(name = "idx_ride_passengers_user", columnList = "user_id")
     )
     private Set<User> passengers;
 
@@ -15,7 +15,9 @@ import java.util.List;
  * Messages are accumulated over time and the chat is never deleted.
  */
 @Entity
-@Table(name = "support_chats")
+@Table(name = "support_chats", indexes = {
+        @Index(name = "idx_support_chats_inbox", columnList = "last_message_time, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -45,6 +47,13 @@ public class SupportChat {
      */
     private LocalDateTime lastMessageTime;
 
+    /**
+     * Shortened content of the last message, kept on the chat row so the admin
+     * inbox is listed without loading any messages.
+     */
+    @Column(length = 120)
+    private String lastMessagePreview;
+
     /**
      * Number of unread messages by admin.
      * Increments when user sends a message, resets when admin views/sends.
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.team27.lucky3.backend.entity.enums.UserRole;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -70,6 +71,16 @@ public class User implements UserDetails {
     @Column(name = "fcm_token", length = 512)
     private String fcmToken;
 
+    /**
+     * Number of unread notifications, maintained by UnreadNotificationCounter with atomic
+     * UPDATE statements. Not written by entity saves, so a stale User never overwrites it;
+     * new rows get the column default.
+     */
+    @JsonIgnore
+    @ColumnDefault("0")
+    @Column(name = "unread_notification_count", nullable = false, insertable = false, updatable = false)
+    private int unreadNotificationCount;
+
     // UserDetails Implementation
     @JsonIgnore
     @Override
@@ -0,0 +1,36 @@
+package com.team27.lucky3.backend.entity.enums;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static com.team27.lucky3.backend.entity.enums.RideStatus.*;
+
+/**
+ * Ride lifecycle transitions: the status a ride moves to and the statuses it may move from.
+ * Applied as one conditional UPDATE, so two racing transitions cannot both succeed.
+ */
+public enum RideTransition {
+    ACCEPT(ACCEPTED, PENDING),
+    EXPIRE_OFFERS(REJECTED, PENDING),
+    START(IN_PROGRESS, PENDING, ACCEPTED, SCHEDULED),
+    FINISH(FINISHED, IN_PROGRESS, ACTIVE),
+    CANCEL_BY_DRIVER(CANCELLED_BY_DRIVER, PENDING, ACCEPTED, SCHEDULED, REJECTED),
+    CANCEL_BY_PASSENGER(CANCELLED_BY_PASSENGER, PENDING, ACCEPTED, SCHEDULED, REJECTED);
+
+    private final RideStatus to;
+    private final Set<RideStatus> from;
+
+    RideTransition(RideStatus to, RideStatus first, RideStatus... rest) {
+        this.to = to;
+        this.from = Collections.unmodifiableSet(EnumSet.of(first, rest));
+    }
+
+    public RideStatus getTo() {
+        return to;
+    }
+
+    public Set<RideStatus> getFrom() {
+        return from;
+    }
+}
@@ -0,0 +1,30 @@
+package com.team27.lucky3.backend.repository;
+
+import com.team27.lucky3.backend.entity.DriverStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DriverStatsRepository extends JpaRepository<DriverStats, Long>, DriverStatsRowRepository {
+
+    // Atomically add a finished ride to the driver's running totals
+    @Modifying
+    @Query("UPDATE DriverStats s SET s.totalEarnings = s.totalEarnings + :earnings, " +
+            "s.completedRides = s.completedRides + 1 WHERE s.driverId = :driverId")
+    int addCompletedRide(@Param("driverId") Long driverId, @Param("earnings") double earnings);
+
+    // Atomically add a review's ratings; a rating of 0 means "not rated" and is not counted
+    @Modifying
+    @Query("UPDATE DriverStats s SET " +
+            "s.driverRatingSum = s.driverRatingSum + :driverRating, " +
+            "s.driverRatingCount = s.driverRatingCount + (CASE WHEN :driverRating > 0 THEN 1 ELSE 0 END), " +
+            "s.vehicleRatingSum = s.vehicleRatingSum + :vehicleRating, " +
+            "s.vehicleRatingCount = s.vehicleRatingCount + (CASE WHEN :vehicleRating > 0 THEN 1 ELSE 0 END) " +
+            "WHERE s.driverId = :driverId")
+    int addRatings(@Param("driverId") Long driverId,
+                   @Param("driverRating") int driverRating,
+                   @Param("vehicleRating") int vehicleRating);
+}
@@ -0,0 +1,26 @@
+package com.team27.lucky3.backend.repository;
+
+import com.team27.lucky3.backend.entity.DriverStats;
+
+/**
+ * Race-free row creation and reconciliation writes for {@link DriverStatsRepository}.
+ */
+public interface DriverStatsRowRepository {
+
+    /**
+     * Inserts an all-zero stats row for the driver unless one exists. Safe to call from
+     * concurrent transactions: the loser waits for the winner and inserts nothing.
+     *
+     * @return 1 if the row was inserted, 0 if it already existed
+     */
+    int insertIfAbsent(Long driverId);
+
+    /**
+     * Overwrites the driver's totals with {@code actual}, but only if the row still holds the
+     * totals of {@code expected}; a row changed by a concurrent increment is left alone.
+     * {@code expected} is detached, so a later read returns the stored row.
+     *
+     * @return 1 if the row was replaced, 0 if it changed in the meantime
+     */
+    int replaceIfUnchanged(DriverStats expected, DriverStats actual);
+}
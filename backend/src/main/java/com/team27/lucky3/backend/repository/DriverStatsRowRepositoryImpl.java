@@ -0,0 +1,85 @@
+package com.team27.lucky3.backend.repository;
+
+import com.team27.lucky3.backend.entity.DriverStats;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.transaction.annotation.Transactional;
+
+class DriverStatsRowRepositoryImpl implements DriverStatsRowRepository {
+
+    // Native SQL, as HQL has no conflict clause H2 understands. PostgreSQL skips the row on a
+    // conflict, also against a concurrent insert; H2 (tests) gets a standard MERGE that only
+    // inserts when no row matches. H2's MERGE ... KEY is not an option, it would reset the totals.
+    private static final String STATS_COLUMNS =
+            "(driver_id, total_earnings, completed_rides, driver_rating_sum, driver_rating_count, " +
+            "vehicle_rating_sum, vehicle_rating_count)";
+    private static final String INSERT_IF_ABSENT_POSTGRESQL =
+            "INSERT INTO driver_stats " + STATS_COLUMNS + " VALUES (:driverId, 0.0, 0, 0, 0, 0, 0) " +
+            "ON CONFLICT (driver_id) DO NOTHING";
+    private static final String INSERT_IF_ABSENT_STANDARD =
+            "MERGE INTO driver_stats s USING (VALUES (CAST(:driverId AS BIGINT))) n(driver_id) " +
+            "ON s.driver_id = n.driver_id " +
+            "WHEN NOT MATCHED THEN INSERT " + STATS_COLUMNS + " VALUES (n.driver_id, 0.0, 0, 0, 0, 0, 0)";
+
+    private static final String REPLACE_IF_UNCHANGED =
+            "UPDATE DriverStats s SET s.totalEarnings = :earnings, s.completedRides = :rides, " +
+            "s.driverRatingSum = :driverRatingSum, s.driverRatingCount = :driverRatingCount, " +
+            "s.vehicleRatingSum = :vehicleRatingSum, s.vehicleRatingCount = :vehicleRatingCount, " +
+            "s.reconciledAt = :reconciledAt " +
+            "WHERE s.driverId = :driverId AND s.totalEarnings = :expectedEarnings " +
+            "AND s.completedRides = :expectedRides " +
+            "AND s.driverRatingSum = :expectedDriverRatingSum AND s.driverRatingCount = :expectedDriverRatingCount " +
+            "AND s.vehicleRatingSum = :expectedVehicleRatingSum AND s.vehicleRatingCount = :expectedVehicleRatingCount";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile String insertIfAbsent;
+
+    @Override
+    @Transactional
+    public int insertIfAbsent(Long driverId) {
+        return entityManager.createNativeQuery(insertIfAbsentSql())
+                .setParameter("driverId", driverId)
+                .executeUpdate();
+    }
+
+    private String insertIfAbsentSql() {
+        String sql = insertIfAbsent;
+        if (sql == null) {
+            Dialect dialect = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices().getDialect();
+            sql = dialect instanceof PostgreSQLDialect ? INSERT_IF_ABSENT_POSTGRESQL : INSERT_IF_ABSENT_STANDARD;
+            insertIfAbsent = sql;
+        }
+        return sql;
+    }
+
+    @Override
+    @Transactional
+    public int replaceIfUnchanged(DriverStats expected, DriverStats actual) {
+        int replaced = entityManager.createQuery(REPLACE_IF_UNCHANGED)
+                .setParameter("earnings", actual.getTotalEarnings())
+                .setParameter("rides", actual.getCompletedRides())
+                .setParameter("driverRatingSum", actual.getDriverRatingSum())
+                .setParameter("driverRatingCount", actual.getDriverRatingCount())
+                .setParameter("vehicleRatingSum", actual.getVehicleRatingSum())
+                .setParameter("vehicleRatingCount", actual.getVehicleRatingCount())
+                .setParameter("reconciledAt", actual.getReconciledAt())
+                .setParameter("driverId", expected.getDriverId())
+                .setParameter("expectedEarnings", expected.getTotalEarnings())
+                .setParameter("expectedRides", expected.getCompletedRides())
+                .setParameter("expectedDriverRatingSum", expected.getDriverRatingSum())
+                .setParameter("expectedDriverRatingCount", expected.getDriverRatingCount())
+                .setParameter("expectedVehicleRatingSum", expected.getVehicleRatingSum())
+                .setParameter("expectedVehicleRatingCount", expected.getVehicleRatingCount())
+                .executeUpdate();
+        if (entityManager.contains(expected)) {
+            entityManager.detach(expected);
+        }
+        return replaced;
+    }
+}
@@ -2,6 +2,8 @@ package com.team27.lucky3.backend.repository;
 
 import com.team27.lucky3.backend.entity.Message;
 import com.team27.lucky3.backend.entity.SupportChat;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -19,4 +21,25 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
      * Find all messages for a support chat ID, ordered by timestamp.
      */
     List<Message> findBySupportChatIdOrderByTimestampAsc(Long supportChatId);
+
+    // Cursor pages over a chat. Message ids are assigned in send order, so they double as a
+    // unique, monotonic cursor (timestamps can tie) and walk the (support_chat_id, id) index.
+
+    /**
+     * Newest messages of a chat, newest first.
+     */
+    @EntityGraph(attributePaths = "sender")
+    List<Message> findBySupportChatIdOrderByIdDesc(Long supportChatId, Pageable pageable);
+
+    /**
+     * Messages sent before the given message, newest first (scrolling back).
+     */
+    @EntityGraph(attributePaths = "sender")
+    List<Message> findBySupportChatIdAndIdLessThanOrderByIdDesc(Long supportChatId, Long beforeId, Pageable pageable);
+
+    /**
+     * Messages sent after the given message, oldest first (resuming after a reconnect).
+     */
+    @EntityGraph(attributePaths = "sender")
+    List<Message> findBySupportChatIdAndIdGreaterThanOrderByIdAsc(Long supportChatId, Long afterId, Pageable pageable);
 }
@@ -9,6 +9,10 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
@@ -23,13 +27,38 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     Page<Notification> findByRecipientIdAndTypeOrderByTimestampDesc(
             Long recipientId, NotificationType type, Pageable pageable);
 
-    /** Bulk mark-all-read for a user. */
+    // Bulk operations work on id batches: the caller loops, and every batch commits on its own,
+    // so a user with a huge history or a retention purge never holds long row locks
+
+    /** Next batch of a user's unread notification ids. */
+    @Query("SELECT n.id FROM Notification n WHERE n.recipient.id = :userId AND n.isRead = false ORDER BY n.id")
+    List<Long> findUnreadIdsByRecipientId(@Param("userId") Long userId, Pageable pageable);
+
+    /** Next batch of a user's notification ids (clear-all). */
+    @Query("SELECT n.id FROM Notification n WHERE n.recipient.id = :userId ORDER BY n.id")
+    List<Long> findIdsByRecipientId(@Param("userId") Long userId, Pageable pageable);
+
+    /** Oldest notifications created before {@code cutoff}; walks idx_notification_timestamp. */
+    @Query("SELECT n.id FROM Notification n WHERE n.timestamp < :cutoff ORDER BY n.timestamp")
+    List<Long> findIdsOlderThan(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    /** Oldest read notifications created before {@code cutoff}. */
+    @Query("SELECT n.id FROM Notification n WHERE n.timestamp < :cutoff AND n.isRead = true ORDER BY n.timestamp")
+    List<Long> findReadIdsOlderThan(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    /** Recipients with at least one unread notification among {@code ids}. */
+    @Query("SELECT DISTINCT n.recipient.id FROM Notification n WHERE n.id IN :ids AND n.isRead = false")
+    List<Long> findUnreadRecipientIds(@Param("ids") List<Long> ids);
+
+    /** Marks the user's notifications among {@code ids} read; returns how many were unread. */
     @Modifying
-    @Query("UPDATE Notification n SET n.isRead = true WHERE n.recipient.id = :userId AND n.isRead = false")
-    int markAllReadForUser(@Param("userId") Long userId);
+    @Transactional
+    @Query("UPDATE Notification n SET n.isRead = true " +
+            "WHERE n.recipient.id = :userId AND n.id IN :ids AND n.isRead = false")
+    int markReadByIdIn(@Param("userId") Long userId, @Param("ids") List<Long> ids);
 
-    /** Delete all notifications for a user (clear-all). */
     @Modifying
-    @Query("DELETE FROM Notification n WHERE n.recipient.id = :userId")
-    int deleteAllForUser(@Param("userId") Long userId);
+    @Transactional
+    @Query("DELETE FROM Notification n WHERE n.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
 }
@@ -6,6 +6,9 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, Long> {
     
@@ -24,6 +27,15 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     // Count total vehicle ratings for a driver
     @Query("SELECT COUNT(r) FROM Review r WHERE r.ride.driver.id = :driverId AND r.vehicleRating > 0")
     Integer countVehicleRatingsByDriverId(@Param("driverId") Long driverId);
+
+    // Rating sums and counts (ignoring 0 = not rated) for every driver, used to reconcile driver stats
+    @Query("SELECT r.ride.driver.id, " +
+            "SUM(CASE WHEN r.driverRating > 0 THEN r.driverRating ELSE 0 END), " +
+            "SUM(CASE WHEN r.driverRating > 0 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN r.vehicleRating > 0 THEN r.vehicleRating ELSE 0 END), " +
+            "SUM(CASE WHEN r.vehicleRating > 0 THEN 1 ELSE 0 END) " +
+            "FROM Review r WHERE r.ride.driver IS NOT NULL GROUP BY r.ride.driver.id")
+    List<Object[]> sumRatingsPerDriver();
     
     // Check if a passenger has already reviewed a specific ride
     boolean existsByRideIdAndPassengerId(Long rideId, Long passengerId);
@@ -34,4 +46,12 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     // Get average driver rating across all drivers
     @Query("SELECT AVG(r.driverRating) FROM Review r WHERE r.driverRating > 0")
     Double getOverallAverageDriverRating();
+
+    // Sum and count of all driver ratings, used to rebuild the live admin counters
+    @Query("SELECT COALESCE(SUM(r.driverRating), 0), COUNT(r) FROM Review r WHERE r.driverRating > 0")
+    List<Object[]> getDriverRatingTotals();
+
+    // Which of the given reviews exist, used when rebuilding the live admin counters
+    @Query("SELECT r.id FROM Review r WHERE r.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
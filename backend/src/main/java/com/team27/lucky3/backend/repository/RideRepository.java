@@ -1,16 +1,19 @@
 package com.team27.lucky3.backend.repository;
 
 import com.team27.lucky3.backend.entity.Ride;
+import com.team27.lucky3.backend.entity.User;
 import com.team27.lucky3.backend.entity.enums.RideStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -60,6 +63,11 @@ public interface RideRepository extends JpaRepository<Ride, Long>, JpaSpecificat
     // Sum total earnings for a driver from completed rides
     @Query("SELECT COALESCE(SUM(r.totalCost), 0) FROM Ride r WHERE r.driver.id = :driverId AND r.status = 'FINISHED'")
     Double sumTotalEarningsByDriverId(@Param("driverId") Long driverId);
+
+    // Completed ride count and earnings for every driver, used to reconcile driver stats
+    @Query("SELECT r.driver.id, COUNT(r), COALESCE(SUM(r.totalCost), 0) FROM Ride r " +
+            "WHERE r.status = 'FINISHED' AND r.driver IS NOT NULL GROUP BY r.driver.id")
+    List<Object[]> sumCompletedRidesPerDriver();
     
     // Find all rides that are currently in progress (for cost tracking)
     @Query("SELECT r FROM Ride r WHERE r.status IN ('IN_PROGRESS', 'ACTIVE') AND r.driver IS NOT NULL")
@@ -73,6 +81,41 @@ public interface RideRepository extends JpaRepository<Ride, Long>, JpaSpecificat
     @Query("SELECT r FROM Ride r WHERE r.status IN ('IN_PROGRESS', 'ACTIVE')")
     List<Ride> findAllActiveRidesForPassengerCount();
 
+    // Ids of all active rides, used to rebuild the live admin counters
+    @Query("SELECT r.id FROM Ride r WHERE r.status IN ('PENDING', 'ACCEPTED', 'SCHEDULED', 'IN_PROGRESS', 'ACTIVE')")
+    List<Long> findActiveRideIds();
+
+    // Conditional status change: only applies while the ride is still in one of the expected statuses.
+    // Returns 0 if a concurrent transition got there first.
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Ride r SET r.status = :to WHERE r.id = :id AND r.status IN :from")
+    int transitionStatus(@Param("id") Long id, @Param("from") Collection<RideStatus> from, @Param("to") RideStatus to);
+
+    // As transitionStatus, but only while the ride is still assigned to the given driver
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Ride r SET r.status = :to WHERE r.id = :id AND r.driver.id = :driverId AND r.status IN :from")
+    int transitionStatusForDriver(@Param("id") Long id, @Param("driverId") Long driverId,
+                                  @Param("from") Collection<RideStatus> from, @Param("to") RideStatus to);
+
+    // Moves a pending ride's offer to another driver, only if it is still pending with the previous one
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Ride r SET r.driver = :to WHERE r.id = :id AND r.driver.id = :fromDriverId AND r.status = 'PENDING'")
+    int reassignPendingRide(@Param("id") Long id, @Param("fromDriverId") Long fromDriverId, @Param("to") User to);
+
+    // Sets the panic flag only while the ride is still open
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Ride r SET r.panicPressed = true, r.panicReason = :reason WHERE r.id = :id AND r.status IN :statuses")
+    int markPanic(@Param("id") Long id, @Param("reason") String reason, @Param("statuses") Collection<RideStatus> statuses);
+
+    // Id, driver id, status and time window of every open ride, used to rebuild the driver schedule index
+    @Query("SELECT r.id, r.driver.id, r.status, r.startTime, r.endTime FROM Ride r " +
+            "WHERE r.driver IS NOT NULL AND r.status IN :statuses")
+    List<Object[]> findOpenRideWindows(@Param("statuses") Collection<RideStatus> statuses);
+
+    // Ride id and passenger count for every ride in progress, without loading the rides
+    @Query("SELECT r.id, SIZE(r.passengers) FROM Ride r WHERE r.status IN ('IN_PROGRESS', 'ACTIVE')")
+    List<Object[]> findInProgressRidePassengerCounts();
+
     // Find rides scheduled to start within a time window (for reminder notifications)
     @Query("SELECT r FROM Ride r WHERE r.scheduledTime BETWEEN :start AND :end AND r.status IN :statuses")
     List<Ride> findByScheduledTimeBetweenAndStatusIn(
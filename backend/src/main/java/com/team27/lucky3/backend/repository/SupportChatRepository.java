@@ -2,10 +2,14 @@ package com.team27.lucky3.backend.repository;
 
 import com.team27.lucky3.backend.entity.SupportChat;
 import com.team27.lucky3.backend.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,4 +42,42 @@ public interface SupportChatRepository extends JpaRepository<SupportChat, Long>
      */
     @Query("SELECT sc FROM SupportChat sc WHERE sc.lastMessageTime IS NOT NULL ORDER BY sc.lastMessageTime DESC")
     List<SupportChat> findAllWithMessagesOrderByLastMessageTimeDesc();
+
+    /**
+     * First page of the admin inbox, newest activity first. The chat owner is fetched in
+     * the same query; messages are never touched (the preview is on the chat row).
+     */
+    @Query("SELECT sc FROM SupportChat sc JOIN FETCH sc.user WHERE sc.lastMessageTime IS NOT NULL " +
+            "ORDER BY sc.lastMessageTime DESC, sc.id DESC")
+    List<SupportChat> findInboxPage(Pageable pageable);
+
+    /**
+     * Next inbox page after the last chat of the previous one (keyset on lastMessageTime, id).
+     */
+    @Query("SELECT sc FROM SupportChat sc JOIN FETCH sc.user WHERE sc.lastMessageTime < :time " +
+            "OR (sc.lastMessageTime = :time AND sc.id < :id) " +
+            "ORDER BY sc.lastMessageTime DESC, sc.id DESC")
+    List<SupportChat> findInboxPageBefore(@Param("time") LocalDateTime time, @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Records a user message on the chat row in one statement, so concurrent messages
+     * cannot lose an unread increment.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE SupportChat sc SET sc.lastMessagePreview = :preview, sc.lastMessageTime = :time, " +
+            "sc.unreadCount = sc.unreadCount + 1 WHERE sc.id = :chatId")
+    int recordUserMessage(@Param("chatId") Long chatId, @Param("preview") String preview, @Param("time") LocalDateTime time);
+
+    // An admin reply implies the admin has read the chat
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE SupportChat sc SET sc.lastMessagePreview = :preview, sc.lastMessageTime = :time, " +
+            "sc.unreadCount = 0 WHERE sc.id = :chatId")
+    int recordAdminMessage(@Param("chatId") Long chatId, @Param("preview") String preview, @Param("time") LocalDateTime time);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE SupportChat sc SET sc.unreadCount = 0 WHERE sc.id = :chatId")
+    int resetUnreadCount(@Param("chatId") Long chatId);
+
+    @Query("SELECT sc.unreadCount FROM SupportChat sc WHERE sc.id = :chatId")
+    int findUnreadCount(@Param("chatId") Long chatId);
 }
@@ -3,10 +3,12 @@ package com.team27.lucky3.backend.repository;
 import com.team27.lucky3.backend.entity.User;
 import com.team27.lucky3.backend.entity.enums.UserRole;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,6 +29,27 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT COUNT(u) FROM User u WHERE u.role = 'DRIVER' AND u.isActive = true")
     Integer countOnlineDrivers();
 
+    // Ids of online drivers, used to rebuild the live admin counters
+    @Query("SELECT u.id FROM User u WHERE u.role = 'DRIVER' AND u.isActive = true")
+    List<Long> findOnlineDriverIds();
+
+    // Ids of all drivers, used to reconcile per-driver stats
+    @Query("SELECT u.id FROM User u WHERE u.role = 'DRIVER'")
+    List<Long> findAllDriverIds();
+
     List<User> findByIsBlocked(boolean isBlocked);
-}
 
+    // Unread notification counter, see UnreadNotificationCounter
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE User u SET u.unreadNotificationCount = u.unreadNotificationCount + 1 WHERE u.id IN :ids")
+    int incrementUnreadNotificationCount(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE User u SET u.unreadNotificationCount = u.unreadNotificationCount - :count WHERE u.id = :id")
+    int decrementUnreadNotificationCount(@Param("id") Long id, @Param("count") int count);
+
+    /** Pairs of [user id, unread notification count]. */
+    @Query("SELECT u.id, u.unreadNotificationCount FROM User u WHERE u.id IN :ids")
+    List<Object[]> findUnreadNotificationCounts(@Param("ids") Collection<Long> ids);
+}
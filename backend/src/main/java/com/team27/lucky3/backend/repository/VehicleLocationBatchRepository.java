@@ -0,0 +1,14 @@
+package com.team27.lucky3.backend.repository;
+
+/**
+ * Batched location writes for {@link VehicleRepository}, used by the patrol simulation to
+ * persist every vehicle it moved in one tick without loading the entities.
+ */
+public interface VehicleLocationBatchRepository {
+
+    /**
+     * Sets the current location of {@code count} vehicles, sent as one JDBC batch.
+     * Entries whose vehicle no longer exists are ignored.
+     */
+    void updateLocations(long[] vehicleIds, double[] latitudes, double[] longitudes, int count, String address);
+}
@@ -0,0 +1,32 @@
+package com.team27.lucky3.backend.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class VehicleLocationBatchRepositoryImpl implements VehicleLocationBatchRepository {
+
+    private static final String UPDATE_LOCATION =
+            "UPDATE vehicle SET current_address = ?, current_latitude = ?, current_longitude = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    VehicleLocationBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public void updateLocations(long[] vehicleIds, double[] latitudes, double[] longitudes, int count, String address) {
+        if (count == 0) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{address, latitudes[i], longitudes[i], vehicleIds[i]});
+        }
+        jdbcTemplate.batchUpdate(UPDATE_LOCATION, rows);
+    }
+}
@@ -10,7 +10,7 @@ import java.util.Optional;
 import java.util.List;
 
 @Repository
-public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
+public interface VehicleRepository extends JpaRepository<Vehicle, Long>, VehicleLocationBatchRepository {
     Optional<Vehicle> findByDriverId(Long driverId);
 
     List<Vehicle> findByStatus(VehicleStatus status);
@@ -18,4 +18,10 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
     // Fetch vehicles where the driver is marked as ACTIVE
     @Query("SELECT v FROM Vehicle v WHERE v.driver.isActive = true")
     List<Vehicle> findAllActiveVehicles();
+
+    // Rows of [vehicle id, driver id, latitude, longitude] for active vehicles; the patrol
+    // simulation's roster, without loading entities and their drivers
+    @Query("SELECT v.id, v.driver.id, v.currentLocation.latitude, v.currentLocation.longitude " +
+            "FROM Vehicle v WHERE v.driver.isActive = true")
+    List<Object[]> findActiveVehiclePositions();
 }
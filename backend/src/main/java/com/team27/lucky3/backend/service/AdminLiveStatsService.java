@@ -0,0 +1,256 @@
+package com.team27.lucky3.backend.service;
+
+import com.team27.lucky3.backend.dto.response.AdminStatsResponse;
+import com.team27.lucky3.backend.entity.Review;
+import com.team27.lucky3.backend.entity.Ride;
+import com.team27.lucky3.backend.entity.enums.RideStatus;
+import com.team27.lucky3.backend.repository.ReviewRepository;
+import com.team27.lucky3.backend.repository.RideRepository;
+import com.team27.lucky3.backend.repository.UserRepository;
+import com.team27.lucky3.backend.service.socket.AdminStatsSocketService;
+import com.team27.lucky3.backend.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory admin dashboard counters.
+ * <p>
+ * The counters are updated from ride state transitions, driver activity toggles
+ * and review creation, so {@link #getStats()} is served without touching the database.
+ * Every update is applied after the surrounding transaction commits.
+ * <p>
+ * The state is rebuilt from the database on startup and reconciled every 5 minutes
+ * to correct any drift. Updates that arrive while a rebuild is loading are recorded and
+ * replayed onto the rebuilt counters before they replace the old ones, so none is lost.
+ * Changes are pushed to admins on {@code /topic/admin/stats} at most once per second.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AdminLiveStatsService {
+
+    private static final Set<RideStatus> ACTIVE_STATUSES = EnumSet.of(
+            RideStatus.PENDING, RideStatus.ACCEPTED, RideStatus.SCHEDULED,
+            RideStatus.IN_PROGRESS, RideStatus.ACTIVE);
+    private static final Set<RideStatus> IN_PROGRESS_STATUSES = EnumSet.of(
+            RideStatus.IN_PROGRESS, RideStatus.ACTIVE);
+
+    private final RideRepository rideRepository;
+    private final UserRepository userRepository;
+    private final ReviewRepository reviewRepository;
+    private final AdminStatsSocketService adminStatsSocketService;
+
+    private volatile Counters counters = new Counters();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    // Updates applied since the running rebuild started, in order; null when no rebuild runs. Guarded by this
+    private List<Update> updatesDuringRebuild;
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+    private volatile AdminStatsResponse lastPushed;
+
+    /**
+     * Current dashboard statistics, computed from the in-memory counters.
+     */
+    public AdminStatsResponse getStats() {
+        Counters c = counters;
+        long ratingCount = c.ratingCount.get();
+        double averageRating = ratingCount > 0
+                ? Math.round((double) c.ratingSum.get() / ratingCount * 100.0) / 100.0
+                : 0.0;
+        return new AdminStatsResponse(
+                c.activeRides.size(),
+                averageRating,
+                c.onlineDrivers.size(),
+                c.passengersInRides.get()
+        );
+    }
+
+    /**
+     * Records the current status of a ride. Idempotent: calling it twice
+     * with the same status leaves the counters unchanged.
+     */
+    public void recordRideStatus(Ride ride) {
+        if (ride == null || ride.getId() == null) return;
+        Long rideId = ride.getId();
+        RideStatus status = ride.getStatus();
+        int passengers = ride.getPassengers() != null ? ride.getPassengers().size() : 0;
+
+        TransactionHooks.runAfterCommit(() -> apply(new Update(null, c -> {
+            if (status != null && ACTIVE_STATUSES.contains(status)) {
+                c.activeRides.add(rideId);
+            } else {
+                c.activeRides.remove(rideId);
+            }
+
+            if (status != null && IN_PROGRESS_STATUSES.contains(status)) {
+                Integer previous = c.ridesInProgress.put(rideId, passengers);
+                c.passengersInRides.addAndGet(passengers - (previous != null ? previous : 0));
+            } else {
+                Integer previous = c.ridesInProgress.remove(rideId);
+                if (previous != null) {
+                    c.passengersInRides.addAndGet(-previous);
+                }
+            }
+        })));
+    }
+
+    /**
+     * Records a driver going online or offline.
+     */
+    public void recordDriverActivity(Long driverId, boolean active) {
+        if (driverId == null) return;
+        TransactionHooks.runAfterCommit(() -> apply(new Update(null, c -> {
+            if (active) {
+                c.onlineDrivers.add(driverId);
+            } else {
+                c.onlineDrivers.remove(driverId);
+            }
+        })));
+    }
+
+    /**
+     * Records the driver rating of a new review. Ratings of 0 are "not rated" and are
+     * ignored, matching the average computed by the database.
+     */
+    public void recordDriverRating(Review review) {
+        if (review == null || review.getId() == null || review.getDriverRating() <= 0) return;
+        Long reviewId = review.getId();
+        int driverRating = review.getDriverRating();
+        TransactionHooks.runAfterCommit(() -> apply(new Update(reviewId, c -> {
+            c.ratingSum.addAndGet(driverRating);
+            c.ratingCount.incrementAndGet();
+        })));
+    }
+
+    /**
+     * Rebuilds all counters from the database once the application (and seed data) is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Periodic reconciliation against the database to correct any drift
+     * (e.g. status changes made outside the service layer).
+     */
+    @Scheduled(fixedRate = 300000) // Every 5 minutes
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            synchronized (this) {
+                updatesDuringRebuild = new ArrayList<>();
+            }
+            Counters fresh = load();
+            synchronized (this) {
+                // Status and activity updates are idempotent, so replaying them in order leaves
+                // every ride and driver in its latest recorded state. A rating is an increment and
+                // is only replayed if its review committed after the snapshot the queries read.
+                Set<Long> loadedReviews = loadedReviews(updatesDuringRebuild);
+                for (Update update : updatesDuringRebuild) {
+                    if (update.reviewId() == null || !loadedReviews.contains(update.reviewId())) {
+                        update.change().accept(fresh);
+                    }
+                }
+                counters = fresh;
+            }
+            markDirty();
+            log.debug("Rebuilt admin live stats: {}", getStats());
+        } finally {
+            synchronized (this) {
+                updatesDuringRebuild = null;
+            }
+            rebuildLock.unlock();
+        }
+    }
+
+    // Reads all counters in one transaction; repeatable read gives every query the same snapshot
+    private Counters load() {
+        Counters fresh = new Counters();
+
+        for (Long rideId : rideRepository.findActiveRideIds()) {
+            fresh.activeRides.add(rideId);
+        }
+        for (Object[] row : rideRepository.findInProgressRidePassengerCounts()) {
+            int passengers = ((Number) row[1]).intValue();
+            fresh.ridesInProgress.put((Long) row[0], passengers);
+            fresh.passengersInRides.addAndGet(passengers);
+        }
+        fresh.onlineDrivers.addAll(userRepository.findOnlineDriverIds());
+
+        List<Object[]> ratingTotals = reviewRepository.getDriverRatingTotals();
+        if (!ratingTotals.isEmpty()) {
+            Object[] totals = ratingTotals.get(0);
+            fresh.ratingSum.set(((Number) totals[0]).longValue());
+            fresh.ratingCount.set(((Number) totals[1]).longValue());
+        }
+        return fresh;
+    }
+
+    // Reviews among the recorded ratings that the rebuild's snapshot already counted
+    private Set<Long> loadedReviews(List<Update> updates) {
+        List<Long> reviewIds = updates.stream().map(Update::reviewId).filter(Objects::nonNull).toList();
+        return reviewIds.isEmpty() ? Set.of() : new HashSet<>(reviewRepository.findExistingIds(reviewIds));
+    }
+
+    private synchronized void apply(Update update) {
+        if (updatesDuringRebuild != null) {
+            updatesDuringRebuild.add(update);
+        }
+        update.change().accept(counters);
+        markDirty();
+    }
+
+    /**
+     * Pushes the statistics to admins if anything changed since the last push.
+     * Runs every second so bursts of ride events produce a single message.
+     */
+    @Scheduled(fixedRate = 1000)
+    public void publishChanges() {
+        if (!dirty.getAndSet(false)) return;
+        AdminStatsResponse stats = getStats();
+        if (Objects.equals(stats, lastPushed)) return;
+        adminStatsSocketService.broadcastStats(stats);
+        lastPushed = stats;
+    }
+
+    private void markDirty() {
+        dirty.set(true);
+    }
+
+    // A counter change; reviewId is set for ratings, which are not idempotent
+    private record Update(Long reviewId, Consumer<Counters> change) {
+    }
+
+    /**
+     * One consistent generation of counters; replaced as a whole on rebuild.
+     */
+    private static class Counters {
+        private final Set<Long> activeRides = ConcurrentHashMap.newKeySet();
+        private final Map<Long, Integer> ridesInProgress = new ConcurrentHashMap<>();
+        private final AtomicInteger passengersInRides = new AtomicInteger();
+        private final Set<Long> onlineDrivers = ConcurrentHashMap.newKeySet();
+        private final AtomicLong ratingSum = new AtomicLong();
+        private final AtomicLong ratingCount = new AtomicLong();
+    }
+}
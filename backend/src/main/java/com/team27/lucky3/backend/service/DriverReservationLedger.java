@@ -0,0 +1,70 @@
+package com.team27.lucky3.backend.service;
+
+import com.team27.lucky3.backend.util.LeaseManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Short-lived, exclusive holds on drivers, taken while a ride is being assigned to them.
+ * <p>
+ * Driver matching checks availability against the {@link DriverScheduleIndex}, which only
+ * learns about a new ride once its transaction commits. Two concurrent ride requests could
+ * therefore both pick the same free driver. Each request now claims its driver here first;
+ * a failed claim means another request is assigning that driver and the next candidate is
+ * tried instead. Claims are compare-and-set operations in a {@link LeaseManager}, so no
+ * database row is locked; requests for different drivers only share the short lock that
+ * schedules a claim's expiry timer, which is sharded by driver.
+ * <p>
+ * A hold is released by its owner once the assignment is committed (the index then blocks
+ * the driver) or rolled back. Holds that are never released, e.g. because the request thread
+ * died, expire after {@link #HOLD_TTL} and can be claimed again.
+ */
+@Service
+public class DriverReservationLedger {
+
+    public static final Duration HOLD_TTL = Duration.ofSeconds(30);
+
+    private final LeaseManager<Long> holds;
+
+    public DriverReservationLedger() {
+        this(HOLD_TTL);
+    }
+
+    DriverReservationLedger(Duration ttl) {
+        this.holds = new LeaseManager<>(ttl);
+    }
+
+    /**
+     * Claims the driver for {@code owner}. Succeeds if the driver is unclaimed, the previous
+     * hold expired, or {@code owner} already holds it (which refreshes the expiry).
+     * Owners are compared with {@code equals}; request threads use a fresh {@code Object}.
+     */
+    public boolean tryClaim(Long driverId, Object owner) {
+        return holds.acquire(driverId, owner);
+    }
+
+    /**
+     * Releases the driver if {@code owner} still holds it; a hold that already expired
+     * and was claimed by someone else is left alone.
+     */
+    public void release(Long driverId, Object owner) {
+        holds.release(driverId, owner);
+    }
+
+    /**
+     * True if someone holds an unexpired claim on the driver.
+     */
+    public boolean isHeld(Long driverId) {
+        return holds.isHeld(driverId);
+    }
+
+    /**
+     * Drops expired holds so the map does not keep drivers whose owner never released them.
+     */
+    @Scheduled(fixedRate = 60000) // Every minute
+    public void purgeExpired() {
+        holds.expire();
+    }
+}
@@ -0,0 +1,287 @@
+package com.team27.lucky3.backend.service;
+
+import com.team27.lucky3.backend.entity.Ride;
+import com.team27.lucky3.backend.entity.enums.RideStatus;
+import com.team27.lucky3.backend.repository.RideRepository;
+import com.team27.lucky3.backend.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory timeline of every driver's open ride commitments (pending, accepted,
+ * scheduled and in-progress rides), used by driver matching and by the FREE/BUSY
+ * decision after a ride ends, so neither needs a database round-trip.
+ * <p>
+ * Each driver's commitments are kept sorted by start time together with a running
+ * maximum of their end times, which answers "does anything overlap this window"
+ * with one binary search. A driver rarely has more than a handful of open rides,
+ * so next-ride lookups simply walk that sorted array.
+ * <p>
+ * Updates are applied after the surrounding transaction commits. The index is rebuilt
+ * from the database on startup and reconciled every 5 minutes to correct any drift.
+ * Updates applied while a rebuild is loading rides are replayed onto the rebuilt index,
+ * so a ride committed after the rebuild's query is not lost when the index is swapped.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DriverScheduleIndex {
+
+    public static final Set<RideStatus> OPEN_STATUSES = EnumSet.of(
+            RideStatus.PENDING, RideStatus.ACCEPTED, RideStatus.SCHEDULED,
+            RideStatus.IN_PROGRESS, RideStatus.ACTIVE);
+
+    private final RideRepository rideRepository;
+
+    private volatile Index index = new Index();
+    private final AtomicLong versionSequence = new AtomicLong();
+    // Rebuilds run one at a time; a lock rather than a monitor, as it is held during the query
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    // Updates applied since the running rebuild started, in order; null when no rebuild runs. Guarded by this
+    private List<Update> updatesDuringRebuild;
+
+    private record Update(Long driverId, Commitment commitment) {
+    }
+
+    /**
+     * One open ride of a driver. Start and end may be null for rides that were never timed.
+     */
+    public record Commitment(Long rideId, RideStatus status, LocalDateTime startTime, LocalDateTime endTime) {
+    }
+
+    /**
+     * True if the driver has an open ride whose window intersects {@code [start, end)}.
+     * Rides without a start or end time never overlap, as in the database query this replaces.
+     */
+    public boolean hasOverlap(Long driverId, LocalDateTime start, LocalDateTime end) {
+        Timeline timeline = index.timelines.get(driverId);
+        return timeline != null && timeline.overlaps(start, end);
+    }
+
+    /**
+     * True if the driver has any open ride (pending, accepted, scheduled or in progress).
+     */
+    public boolean hasOpenRide(Long driverId) {
+        return index.timelines.containsKey(driverId);
+    }
+
+    /**
+     * The driver's earliest-starting open ride in one of the given statuses,
+     * ignoring {@code excludedRideId} (typically the ride being changed in the
+     * current, not yet committed, transaction).
+     */
+    public Optional<Commitment> nextRide(Long driverId, Set<RideStatus> statuses, Long excludedRideId) {
+        Timeline timeline = index.timelines.get(driverId);
+        if (timeline == null) return Optional.empty();
+        for (Commitment commitment : timeline.byStart) {
+            if (statuses.contains(commitment.status()) && !commitment.rideId().equals(excludedRideId)) {
+                return Optional.of(commitment);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * A stamp that changes whenever the driver's schedule changes. Callers that check
+     * availability and then act on it can compare stamps to detect a change in between.
+     */
+    public long version(Long driverId) {
+        return index.versions.getOrDefault(driverId, 0L);
+    }
+
+    /**
+     * Records the current state of a ride: open rides are added or moved,
+     * anything else is removed from its driver's timeline. Idempotent.
+     */
+    public void recordRide(Ride ride) {
+        if (ride == null || ride.getId() == null) return;
+        Long driverId = ride.getDriver() != null ? ride.getDriver().getId() : null;
+        Commitment commitment = new Commitment(ride.getId(), ride.getStatus(), ride.getStartTime(), ride.getEndTime());
+
+        TransactionHooks.runAfterCommit(() -> apply(driverId, commitment));
+    }
+
+    // Writers are serialized so a ride moving between drivers is never lost; readers never lock
+    private synchronized void apply(Long driverId, Commitment commitment) {
+        if (updatesDuringRebuild != null) {
+            updatesDuringRebuild.add(new Update(driverId, commitment));
+        }
+        applyTo(index, driverId, commitment);
+    }
+
+    private void applyTo(Index current, Long driverId, Commitment commitment) {
+        Long rideId = commitment.rideId();
+        Long previousDriver = current.driverOfRide.remove(rideId);
+        if (previousDriver != null) {
+            current.timelines.computeIfPresent(previousDriver, (id, timeline) -> nonEmpty(timeline.without(rideId)));
+            current.versions.put(previousDriver, versionSequence.incrementAndGet());
+        }
+        if (driverId == null || commitment.status() == null || !OPEN_STATUSES.contains(commitment.status())) {
+            return;
+        }
+        current.timelines.compute(driverId, (id, timeline) ->
+                (timeline != null ? timeline : Timeline.EMPTY).with(commitment));
+        current.driverOfRide.put(rideId, driverId);
+        // Bumped after the timeline, so whoever sees the new stamp also sees the new timeline
+        current.versions.put(driverId, versionSequence.incrementAndGet());
+    }
+
+    private static Timeline nonEmpty(Timeline timeline) {
+        return timeline.isEmpty() ? null : timeline;
+    }
+
+    /**
+     * Rebuilds the index from the database once the application (and seed data) is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Periodic reconciliation against the database to correct any drift
+     * (e.g. status changes made outside the service layer).
+     */
+    @Scheduled(fixedRate = 300000) // Every 5 minutes
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            synchronized (this) {
+                updatesDuringRebuild = new ArrayList<>();
+            }
+            Map<Long, List<Commitment>> byDriver = new HashMap<>();
+            for (Object[] row : rideRepository.findOpenRideWindows(OPEN_STATUSES)) {
+                byDriver.computeIfAbsent((Long) row[1], id -> new ArrayList<>()).add(new Commitment(
+                        (Long) row[0], (RideStatus) row[2], (LocalDateTime) row[3], (LocalDateTime) row[4]));
+            }
+
+            Index fresh = new Index();
+            byDriver.forEach((driverId, commitments) -> {
+                fresh.timelines.put(driverId, Timeline.of(commitments));
+                fresh.versions.put(driverId, versionSequence.incrementAndGet());
+                commitments.forEach(c -> fresh.driverOfRide.put(c.rideId(), driverId));
+            });
+            synchronized (this) {
+                // The query may or may not have seen these; replaying them in order is idempotent
+                // and leaves every ride in its latest recorded state
+                for (Update update : updatesDuringRebuild) {
+                    applyTo(fresh, update.driverId(), update.commitment());
+                }
+                index = fresh;
+            }
+            log.debug("Rebuilt driver schedule index: {} drivers with open rides", fresh.timelines.size());
+        } finally {
+            synchronized (this) {
+                updatesDuringRebuild = null;
+            }
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * One consistent generation of the index; replaced as a whole on rebuild.
+     */
+    private static class Index {
+        private final Map<Long, Timeline> timelines = new ConcurrentHashMap<>();
+        private final Map<Long, Long> driverOfRide = new ConcurrentHashMap<>();
+        private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Immutable, start-ordered commitments of one driver; replaced as a whole on every change.
+     */
+    private static final class Timeline {
+
+        private static final Timeline EMPTY = new Timeline(new Commitment[0]);
+
+        // Untimed rides sort last; ties are broken by ride id so the order is deterministic
+        private static final Comparator<Commitment> BY_START = Comparator
+                .comparing(Commitment::startTime, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(Commitment::rideId);
+
+        private final Commitment[] byStart;
+        // Timed commitments only; maxEndUpTo[i] is the latest end among timed[0..i]
+        private final Commitment[] timed;
+        private final LocalDateTime[] maxEndUpTo;
+
+        private Timeline(Commitment[] sorted) {
+            this.byStart = sorted;
+            this.timed = Arrays.stream(sorted)
+                    .filter(c -> c.startTime() != null && c.endTime() != null)
+                    .toArray(Commitment[]::new);
+            this.maxEndUpTo = new LocalDateTime[timed.length];
+            LocalDateTime max = null;
+            for (int i = 0; i < timed.length; i++) {
+                LocalDateTime end = timed[i].endTime();
+                max = max == null || end.isAfter(max) ? end : max;
+                maxEndUpTo[i] = max;
+            }
+        }
+
+        static Timeline of(Collection<Commitment> commitments) {
+            Commitment[] sorted = commitments.toArray(Commitment[]::new);
+            Arrays.sort(sorted, BY_START);
+            return new Timeline(sorted);
+        }
+
+        boolean isEmpty() {
+            return byStart.length == 0;
+        }
+
+        Timeline with(Commitment commitment) {
+            List<Commitment> all = new ArrayList<>(Arrays.asList(byStart));
+            all.add(commitment);
+            return of(all);
+        }
+
+        Timeline without(Long rideId) {
+            if (Arrays.stream(byStart).noneMatch(c -> c.rideId().equals(rideId))) return this;
+            return new Timeline(Arrays.stream(byStart)
+                    .filter(c -> !c.rideId().equals(rideId))
+                    .toArray(Commitment[]::new));
+        }
+
+        // Some commitment with start < end overlaps iff, among those, the latest end is after start
+        boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            int last = lastStartingBefore(end);
+            return last >= 0 && maxEndUpTo[last].isAfter(start);
+        }
+
+        private int lastStartingBefore(LocalDateTime end) {
+            int low = 0;
+            int high = timed.length - 1;
+            int result = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (timed[mid].startTime().isBefore(end)) {
+                    result = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.team27.lucky3.backend.service;
+
+import com.team27.lucky3.backend.entity.DriverStats;
+import com.team27.lucky3.backend.entity.Review;
+import com.team27.lucky3.backend.entity.Ride;
+import com.team27.lucky3.backend.exception.ResourceNotFoundException;
+import com.team27.lucky3.backend.repository.DriverStatsRepository;
+import com.team27.lucky3.backend.repository.ReviewRepository;
+import com.team27.lucky3.backend.repository.RideRepository;
+import com.team27.lucky3.backend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the per-driver {@link DriverStats} row.
+ * <p>
+ * Finished rides and submitted reviews are applied as atomic increments in the
+ * same transaction as the ride/review write, so reading a driver's stats is a
+ * single primary-key lookup. A driver's first event creates the row with an
+ * insert-if-absent before incrementing, so concurrent first events neither collide
+ * nor lose an increment.
+ * <p>
+ * A reconciliation job recomputes every row from the rides and reviews tables on
+ * startup and every hour. It reads the stored rows before the source tables and
+ * corrects drift with a conditional UPDATE against the values it read, so a row that
+ * received an increment in the meantime is left alone until the next run instead of
+ * being overwritten with an older total.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DriverStatsService {
+
+    private final DriverStatsRepository driverStatsRepository;
+    private final RideRepository rideRepository;
+    private final ReviewRepository reviewRepository;
+    private final UserRepository userRepository;
+
+    /**
+     * Returns the stats row for a driver, creating it from the source tables on first access.
+     */
+    @Transactional
+    public DriverStats getStats(Long driverId) {
+        return driverStatsRepository.findById(driverId)
+                .orElseGet(() -> {
+                    if (!userRepository.existsById(driverId)) {
+                        throw new ResourceNotFoundException("Driver not found");
+                    }
+                    return reconcileDriver(driverId);
+                });
+    }
+
+    /**
+     * Adds a finished ride's earnings to the driver's running totals.
+     */
+    @Transactional
+    public void recordRideFinished(Ride ride) {
+        if (ride == null || ride.getDriver() == null) return;
+        Long driverId = ride.getDriver().getId();
+        double earnings = ride.getTotalCost() != null ? ride.getTotalCost() : 0.0;
+
+        if (driverStatsRepository.addCompletedRide(driverId, earnings) == 0) {
+            // First event for this driver: create the row, then count the ride
+            driverStatsRepository.insertIfAbsent(driverId);
+            driverStatsRepository.addCompletedRide(driverId, earnings);
+        }
+    }
+
+    /**
+     * Adds a review's driver and vehicle ratings to the driver's running totals.
+     */
+    @Transactional
+    public void recordReview(Review review) {
+        if (review == null || review.getRide() == null || review.getRide().getDriver() == null) return;
+        Long driverId = review.getRide().getDriver().getId();
+        int driverRating = Math.max(0, review.getDriverRating());
+        int vehicleRating = Math.max(0, review.getVehicleRating());
+
+        if (driverStatsRepository.addRatings(driverId, driverRating, vehicleRating) == 0) {
+            driverStatsRepository.insertIfAbsent(driverId);
+            driverStatsRepository.addRatings(driverId, driverRating, vehicleRating);
+        }
+    }
+
+    /**
+     * Recomputes a single driver's row from the rides and reviews tables, creating it if
+     * needed, and returns the stored row.
+     */
+    @Transactional
+    public DriverStats reconcileDriver(Long driverId) {
+        driverStatsRepository.insertIfAbsent(driverId);
+        // Read the row before the source tables, see the class comment
+        DriverStats stored = driverStatsRepository.findById(driverId).orElseThrow();
+        DriverStats stats = new DriverStats(driverId);
+
+        Double earnings = rideRepository.sumTotalEarningsByDriverId(driverId);
+        Integer completedRides = rideRepository.countCompletedRidesByDriverId(driverId);
+        Double averageRating = reviewRepository.findAverageDriverRatingByDriverId(driverId);
+        Integer ratingCount = reviewRepository.countRatingsByDriverId(driverId);
+        Double averageVehicleRating = reviewRepository.findAverageVehicleRatingByDriverId(driverId);
+        Integer vehicleRatingCount = reviewRepository.countVehicleRatingsByDriverId(driverId);
+
+        stats.setTotalEarnings(earnings != null ? earnings : 0.0);
+        stats.setCompletedRides(completedRides != null ? completedRides : 0);
+        stats.setDriverRatingCount(ratingCount != null ? ratingCount : 0);
+        stats.setDriverRatingSum(averageRating != null ? Math.round(averageRating * stats.getDriverRatingCount()) : 0);
+        stats.setVehicleRatingCount(vehicleRatingCount != null ? vehicleRatingCount : 0);
+        stats.setVehicleRatingSum(averageVehicleRating != null
+                ? Math.round(averageVehicleRating * stats.getVehicleRatingCount()) : 0);
+        stats.setReconciledAt(LocalDateTime.now());
+
+        if (!sameTotals(stored, stats)) {
+            driverStatsRepository.replaceIfUnchanged(stored, stats);
+            return driverStatsRepository.findById(driverId).orElseThrow();
+        }
+        return stored;
+    }
+
+    /**
+     * Rebuilds all rows once the application (and seed data) is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reconcileAll();
+    }
+
+    /**
+     * Recomputes every driver's row with two grouped queries and corrects any drift found.
+     */
+    @Scheduled(fixedRate = 3600000) // Every hour
+    @Transactional
+    public void reconcileAll() {
+        List<Long> driverIds = userRepository.findAllDriverIds();
+        Map<Long, DriverStats> existing = storedStats();
+        Set<Long> created = new HashSet<>();
+        for (Long driverId : driverIds) {
+            if (!existing.containsKey(driverId) && driverStatsRepository.insertIfAbsent(driverId) > 0) {
+                created.add(driverId);
+            }
+        }
+        if (!created.isEmpty()) {
+            existing = storedStats();
+        }
+
+        // Source tables are read after the rows, see the class comment
+        Map<Long, Object[]> rides = rideRepository.sumCompletedRidesPerDriver().stream()
+                .collect(Collectors.toMap(row -> (Long) row[0], Function.identity()));
+        Map<Long, Object[]> ratings = reviewRepository.sumRatingsPerDriver().stream()
+                .collect(Collectors.toMap(row -> (Long) row[0], Function.identity()));
+
+        LocalDateTime now = LocalDateTime.now();
+        int drifted = 0;
+        int corrected = 0;
+
+        for (Long driverId : driverIds) {
+            Object[] rideRow = rides.get(driverId);
+            Object[] ratingRow = ratings.get(driverId);
+
+            DriverStats fresh = new DriverStats(driverId);
+            fresh.setCompletedRides(rideRow != null ? ((Number) rideRow[1]).intValue() : 0);
+            fresh.setTotalEarnings(rideRow != null ? ((Number) rideRow[2]).doubleValue() : 0.0);
+            fresh.setDriverRatingSum(ratingRow != null ? ((Number) ratingRow[1]).longValue() : 0);
+            fresh.setDriverRatingCount(ratingRow != null ? ((Number) ratingRow[2]).intValue() : 0);
+            fresh.setVehicleRatingSum(ratingRow != null ? ((Number) ratingRow[3]).longValue() : 0);
+            fresh.setVehicleRatingCount(ratingRow != null ? ((Number) ratingRow[4]).intValue() : 0);
+            fresh.setReconciledAt(now);
+
+            DriverStats current = existing.get(driverId);
+            if (current != null && !sameTotals(current, fresh)) {
+                if (!created.contains(driverId)) {
+                    // A new row starts at zero; only an existing row that disagrees has drifted
+                    drifted++;
+                    log.warn("Driver {} stats drifted: stored rides={} earnings={}, actual rides={} earnings={}",
+                        driverId, current.getCompletedRides(), current.getTotalEarnings(),
+                        fresh.getCompletedRides(), fresh.getTotalEarnings());
+                }
+                // Skipped if an increment landed since the row was read; the next run retries
+                corrected += driverStatsRepository.replaceIfUnchanged(current, fresh);
+            }
+        }
+
+        log.info("Reconciled stats for {} drivers ({} drifted, {} corrected)", driverIds.size(), drifted, corrected);
+    }
+
+    private Map<Long, DriverStats> storedStats() {
+        Map<Long, DriverStats> stats = new HashMap<>();
+        for (DriverStats row : driverStatsRepository.findAll()) {
+            stats.put(row.getDriverId(), row);
+        }
+        return stats;
+    }
+
+    private boolean sameTotals(DriverStats a, DriverStats b) {
+        return a.getCompletedRides() == b.getCompletedRides()
+                && Math.abs(a.getTotalEarnings() - b.getTotalEarnings()) < 0.005
+                && a.getDriverRatingSum() == b.getDriverRatingSum()
+                && a.getDriverRatingCount() == b.getDriverRatingCount()
+                && a.getVehicleRatingSum() == b.getVehicleRatingSum()
+                && a.getVehicleRatingCount() == b.getVehicleRatingCount();
+    }
+}
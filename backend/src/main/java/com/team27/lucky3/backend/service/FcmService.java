@@ -1,5 +1,6 @@
 package com.team27.lucky3.backend.service;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -32,4 +33,19 @@ public interface FcmService {
      * Convenience overload without extra data payload.
      */
     void sendToDevice(String fcmToken, String title, String body);
+
+    /**
+     * Sends one data-only message per device in as few FCM calls as possible
+     * (up to 500 messages per call). Used for notification fan-out, where each
+     * recipient's message still carries its own data (e.g. notificationId).
+     *
+     * @param pushes the messages to send; entries without a token are skipped
+     */
+    void sendToDevices(List<DevicePush> pushes);
+
+    /**
+     * A single device message for {@link #sendToDevices(List)}.
+     */
+    record DevicePush(String fcmToken, String title, String body, Map<String, String> data) {
+    }
 }
@@ -1,6 +1,7 @@
 package com.team27.lucky3.backend.service;
 
 import com.team27.lucky3.backend.entity.Image;
+import org.springframework.core.io.Resource;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -10,6 +11,21 @@ public interface ImageService {
     public Image store(MultipartFile file) throws IOException;
     public Optional<Image> findById(Long id);
     Image getDefaultAvatar();
-    byte[] loadImage(String filename) throws IOException;
-}
 
+    /**
+     * Image bytes ready to be streamed, with a strong ETag for conditional requests.
+     * Uploaded files and their thumbnails are named by content hash and never rewritten,
+     * so the ETag stays valid for as long as the user keeps the image.
+     */
+    record ImageContent(Resource resource, String contentType, String eTag) {
+    }
+
+    /**
+     * Content of a stored image; the default avatar if the image or its file is missing.
+     * Files are not read here, the returned resource is streamed by the caller.
+     *
+     * @param size longest edge the client displays, in pixels; picks the smallest thumbnail
+     *             variant that covers it, {@code null} for the original
+     */
+    ImageContent load(Image image, Integer size);
+}
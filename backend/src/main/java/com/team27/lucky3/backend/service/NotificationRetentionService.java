@@ -0,0 +1,106 @@
+package com.team27.lucky3.backend.service;
+
+import com.team27.lucky3.backend.repository.NotificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Enforces the notification retention policy.
+ * <p>
+ * Every ride event, reminder and support message writes notification rows, so without a
+ * purge the table only grows. Read notifications are kept for {@code read-days}, anything
+ * else (unread ones included) for {@code max-days}. The purge walks the timestamp index from
+ * the oldest row and deletes at most {@code batch-size} rows per statement, each batch in its
+ * own transaction, so it never holds many row locks and leaves the table to autovacuum in
+ * small steps. Unread rows are taken off their recipients' unread counters as they go
+ * (see {@link UnreadNotificationCounter}). A day-count of 0 or less disables that rule.
+ */
+@Service
+@Slf4j
+public class NotificationRetentionService {
+
+    private final NotificationRepository notificationRepository;
+    private final UnreadNotificationCounter unreadCounter;
+    private final Duration readRetention;
+    private final Duration maxRetention;
+    private final int batchSize;
+    private final Counter purged;
+    private final Clock clock;
+
+    @Autowired
+    public NotificationRetentionService(NotificationRepository notificationRepository,
+                                        UnreadNotificationCounter unreadCounter,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${notifications.retention.read-days:30}") int readDays,
+                                        @Value("${notifications.retention.max-days:90}") int maxDays,
+                                        @Value("${notifications.retention.batch-size:1000}") int batchSize) {
+        this(notificationRepository, unreadCounter, meterRegistry, readDays, maxDays, batchSize, Clock.systemDefaultZone());
+    }
+
+    NotificationRetentionService(NotificationRepository notificationRepository, UnreadNotificationCounter unreadCounter,
+                                 MeterRegistry meterRegistry, int readDays, int maxDays, int batchSize, Clock clock) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("notifications.retention.batch-size must be positive");
+        }
+        this.notificationRepository = notificationRepository;
+        this.unreadCounter = unreadCounter;
+        this.readRetention = readDays > 0 ? Duration.ofDays(readDays) : null;
+        this.maxRetention = maxDays > 0 ? Duration.ofDays(maxDays) : null;
+        this.batchSize = batchSize;
+        this.purged = Counter.builder("lucky3.notifications.purged")
+                .description("Notifications deleted by the retention purge")
+                .register(meterRegistry);
+        this.clock = clock;
+    }
+
+    /**
+     * Deletes notifications that are past their retention period. Returns the number deleted.
+     */
+    @Scheduled(fixedDelayString = "${notifications.retention.purge-interval-ms:3600000}",
+            initialDelayString = "${notifications.retention.purge-initial-delay-ms:300000}")
+    public int purgeExpired() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        int deleted = 0;
+        if (readRetention != null) {
+            LocalDateTime cutoff = now.minus(readRetention);
+            deleted += deleteInBatches(page -> notificationRepository.findReadIdsOlderThan(cutoff, page));
+        }
+        if (maxRetention != null) {
+            LocalDateTime cutoff = now.minus(maxRetention);
+            deleted += deleteInBatches(page -> notificationRepository.findIdsOlderThan(cutoff, page));
+        }
+        if (deleted > 0) {
+            log.info("Notification retention purge deleted {} notifications", deleted);
+        }
+        return deleted;
+    }
+
+    private int deleteInBatches(Function<Pageable, List<Long>> nextBatch) {
+        Pageable page = PageRequest.of(0, batchSize);
+        int deleted = 0;
+        List<Long> ids;
+        do {
+            // Always page 0: the previous batch is already gone
+            ids = nextBatch.apply(page);
+            if (!ids.isEmpty()) {
+                int count = unreadCounter.delete(ids);
+                purged.increment(count);
+                deleted += count;
+            }
+        } while (ids.size() == batchSize);
+        return deleted;
+    }
+}
@@ -7,6 +7,9 @@ import com.team27.lucky3.backend.entity.enums.NotificationType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Core notification service.
  * <p>
@@ -42,6 +45,21 @@ public interface NotificationService {
                                           Long relatedEntityId,
                                           String priority);
 
+    /**
+     * Send the same notification to many recipients at once.
+     * All rows are saved in one batched insert, every recipient gets its own WebSocket
+     * push, and FCM receives the device messages in a single batched call.
+     * Recipients listed more than once are notified once. No email is sent; callers
+     * send their own event-specific emails.
+     *
+     * @return the saved notifications, one per distinct recipient
+     */
+    List<NotificationResponse> sendNotificationToAll(Collection<User> recipients,
+                                                     String text,
+                                                     NotificationType type,
+                                                     Long relatedEntityId,
+                                                     String priority);
+
     // ─── scenario-specific helpers ─────────────────────────────────────
 
     /** SCENARIO A — Linked-passenger invite (Push + HTML email). */
@@ -0,0 +1,291 @@
+package com.team27.lucky3.backend.service;
+
+import com.team27.lucky3.backend.util.GeoUtils;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.SplittableRandom;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntPredicate;
+import java.util.random.RandomGenerator;
+
+/**
+ * State of every patrolling vehicle, held in parallel primitive arrays indexed by slot.
+ * <p>
+ * One instance covers one roster of active vehicles; when the roster changes a new fleet is
+ * built and the patrol state of the vehicles in both is carried over. {@link #advance} moves
+ * every eligible vehicle 40-60 m along its route, splitting the slots across a fork/join pool,
+ * and returns the moved vehicles as one batch. Each slot is only ever written by the task
+ * that owns it, so the advance needs no locking.
+ * <p>
+ * Every vehicle draws from its own generator, seeded with the fleet seed and its vehicle id
+ * and carried over across rosters, for both its steps and its route choices. How the slots
+ * are split across threads, and in which order other vehicles need routes, therefore never
+ * changes a vehicle's patrol: the same seed, roster and rides give the same patrols.
+ * <p>
+ * Not thread-safe otherwise: all other methods must be called from the thread that calls
+ * {@link #advance} (the simulation tick).
+ */
+final class PatrolFleet {
+
+    static final PatrolFleet EMPTY = new PatrolFleet(new long[0], new long[0], new double[0], new double[0], 0);
+
+    static final double MOVE_MIN_METERS = 40.0;
+    static final double MOVE_MAX_METERS = 60.0;
+    static final double MOVE_PROBABILITY = 0.90;
+
+    // Slots per fork/join leaf task
+    private static final int SPLIT_THRESHOLD = 512;
+
+    private final long[] vehicleIds;
+    private final long[] driverIds;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    // Route points as [lat0, lng0, lat1, lng1, ...]; never modified, so routes may be shared
+    private final double[][] routes;
+    // Index of the route point the vehicle last passed
+    private final int[] routeIndexes;
+    // Set while a vehicle is on a ride or driven by a frontend session; its position is then
+    // unknown here until the next roster refresh
+    private final boolean[] stale;
+    private final boolean[] moved;
+    private final boolean[] needsRoute;
+    private final SplittableRandom[] randoms;
+    private final Map<Long, Integer> slots;
+
+    /**
+     * Batch of vehicles moved by one {@link #advance}.
+     */
+    record Moves(long[] vehicleIds, double[] latitudes, double[] longitudes) {
+        int size() {
+            return vehicleIds.length;
+        }
+    }
+
+    PatrolFleet(long[] vehicleIds, long[] driverIds, double[] latitudes, double[] longitudes, long seed) {
+        int size = vehicleIds.length;
+        this.vehicleIds = vehicleIds;
+        this.driverIds = driverIds;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.routes = new double[size][];
+        this.routeIndexes = new int[size];
+        this.stale = new boolean[size];
+        this.moved = new boolean[size];
+        this.needsRoute = new boolean[size];
+        this.randoms = new SplittableRandom[size];
+        this.slots = new HashMap<>(size * 2);
+        for (int slot = 0; slot < size; slot++) {
+            slots.put(vehicleIds[slot], slot);
+            randoms[slot] = new SplittableRandom(seed ^ vehicleIds[slot]);
+        }
+    }
+
+    int size() {
+        return vehicleIds.length;
+    }
+
+    long vehicleId(int slot) {
+        return vehicleIds[slot];
+    }
+
+    long driverId(int slot) {
+        return driverIds[slot];
+    }
+
+    /**
+     * Slot of the vehicle, or -1 if it is not in this fleet.
+     */
+    int slotOf(long vehicleId) {
+        Integer slot = slots.get(vehicleId);
+        return slot != null ? slot : -1;
+    }
+
+    double latitude(int slot) {
+        return latitudes[slot];
+    }
+
+    double longitude(int slot) {
+        return longitudes[slot];
+    }
+
+    /**
+     * The vehicle's own generator, for choices made for it outside {@link #advance}, such as
+     * its next route or a starting position.
+     */
+    RandomGenerator random(int slot) {
+        return randoms[slot];
+    }
+
+    /**
+     * Puts the vehicle at the given position without giving it a route.
+     */
+    void place(int slot, double lat, double lng) {
+        latitudes[slot] = lat;
+        longitudes[slot] = lng;
+    }
+
+    /**
+     * Takes over the generators of vehicles that are also in {@code previous}, and the routes
+     * of those that were patrolling there. Positions are not copied: the roster's positions
+     * are the current ones.
+     */
+    void carryOver(PatrolFleet previous) {
+        for (int slot = 0; slot < size(); slot++) {
+            Integer old = previous.slots.get(vehicleIds[slot]);
+            if (old == null) {
+                continue;
+            }
+            randoms[slot] = previous.randoms[old];
+            if (!previous.stale[old] && previous.routes[old] != null) {
+                routes[slot] = previous.routes[old];
+                routeIndexes[slot] = previous.routeIndexes[old];
+            }
+        }
+    }
+
+    /**
+     * Starts the vehicle on a new route; it is placed on the route's first point.
+     * Ignored if the vehicle is no longer in this fleet.
+     */
+    void setRoute(long vehicleId, double[] route) {
+        Integer slot = slots.get(vehicleId);
+        if (slot == null || route.length < 4) {
+            return;
+        }
+        routes[slot] = route;
+        routeIndexes[slot] = 0;
+        latitudes[slot] = route[0];
+        longitudes[slot] = route[1];
+    }
+
+    /**
+     * Advances every vehicle once, in parallel. Vehicles for which {@code onRide} holds lose
+     * their route; vehicles for which {@code paused} holds keep it but do not move. Both
+     * predicates are called concurrently.
+     */
+    Moves advance(ForkJoinPool pool, IntPredicate onRide, IntPredicate paused) {
+        if (size() == 0) {
+            return new Moves(new long[0], new double[0], new double[0]);
+        }
+        pool.invoke(new Advance(0, size(), onRide, paused));
+
+        int count = 0;
+        for (boolean m : moved) {
+            if (m) count++;
+        }
+        long[] ids = new long[count];
+        double[] lats = new double[count];
+        double[] lngs = new double[count];
+        int i = 0;
+        for (int slot = 0; slot < size(); slot++) {
+            if (moved[slot]) {
+                ids[i] = vehicleIds[slot];
+                lats[i] = latitudes[slot];
+                lngs[i] = longitudes[slot];
+                i++;
+            }
+        }
+        Arrays.fill(moved, false);
+        return new Moves(ids, lats, lngs);
+    }
+
+    /**
+     * Up to {@code limit} slots whose vehicle has finished (or never had) a route, clearing
+     * their flag; a slot whose route is not installed is reported again after the next advance.
+     */
+    int[] takeSlotsNeedingRoute(int limit) {
+        int[] result = new int[Math.min(limit, size())];
+        int count = 0;
+        for (int slot = 0; slot < size() && count < result.length; slot++) {
+            if (needsRoute[slot]) {
+                needsRoute[slot] = false;
+                result[count++] = slot;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private void advance(int slot, IntPredicate onRide, IntPredicate paused) {
+        if (onRide.test(slot)) {
+            routes[slot] = null;
+            stale[slot] = true;
+            return;
+        }
+        if (paused.test(slot)) {
+            stale[slot] = true;
+            return;
+        }
+        if (stale[slot]) {
+            return;
+        }
+        double[] route = routes[slot];
+        int idx = routeIndexes[slot];
+        int last = route != null ? route.length / 2 - 1 : 0;
+        if (route == null || idx >= last) {
+            needsRoute[slot] = true;
+            return;
+        }
+
+        SplittableRandom random = randoms[slot];
+        if (random.nextDouble() > MOVE_PROBABILITY) {
+            return;
+        }
+
+        // Walk along the route by 40-60 meters
+        double remaining = MOVE_MIN_METERS + random.nextDouble() * (MOVE_MAX_METERS - MOVE_MIN_METERS);
+        double lat = latitudes[slot];
+        double lng = longitudes[slot];
+        while (idx < last && remaining > 0) {
+            double nextLat = route[2 * (idx + 1)];
+            double nextLng = route[2 * (idx + 1) + 1];
+            double segmentMeters = GeoUtils.haversineMeters(lat, lng, nextLat, nextLng);
+            if (segmentMeters <= remaining) {
+                // Move to the next waypoint entirely
+                remaining -= segmentMeters;
+                lat = nextLat;
+                lng = nextLng;
+                idx++;
+            } else {
+                // Interpolate within this segment
+                double fraction = remaining / segmentMeters;
+                lat += fraction * (nextLat - lat);
+                lng += fraction * (nextLng - lng);
+                remaining = 0;
+            }
+        }
+        latitudes[slot] = lat;
+        longitudes[slot] = lng;
+        routeIndexes[slot] = idx;
+        moved[slot] = true;
+    }
+
+    private final class Advance extends RecursiveAction {
+
+        private final int from;
+        private final int to;
+        private final IntPredicate onRide;
+        private final IntPredicate paused;
+
+        Advance(int from, int to, IntPredicate onRide, IntPredicate paused) {
+            this.from = from;
+            this.to = to;
+            this.onRide = onRide;
+            this.paused = paused;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                for (int slot = from; slot < to; slot++) {
+                    advance(slot, onRide, paused);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Advance(from, middle, onRide, paused), new Advance(middle, to, onRide, paused));
+        }
+    }
+}
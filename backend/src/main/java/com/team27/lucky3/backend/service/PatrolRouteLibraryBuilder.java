@@ -0,0 +1,123 @@
+package com.team27.lucky3.backend.service;
+
+import com.team27.lucky3.backend.config.TaskExecutionConfig;
+import com.team27.lucky3.backend.dto.LocationDto;
+import com.team27.lucky3.backend.util.GeoUtils;
+import com.team27.lucky3.backend.util.PatrolRouteLibrary;
+import com.team27.lucky3.backend.util.TravelTimeMatrix;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executor;
+
+/**
+ * Builds the {@link PatrolRouteLibrary} file from the routing engine.
+ * <p>
+ * Hubs are the centres of a grid of roughly 500 x 500 m cells over the Novi Sad service area.
+ * From every hub, {@link #ROUTES_PER_HUB} routes are requested to other hubs 0.5-2 km away
+ * (the length of the patrol loops the simulator used to request one at a time). Every route
+ * therefore ends where the routes of another hub start, which is what the library chains on.
+ * Destinations are drawn from {@code simulation.route-library.seed}, so the same seed and
+ * map data always give the same library. A build takes several hundred route requests, so
+ * point the routing engine at a local OSRM instance.
+ * <p>
+ * With {@code simulation.route-library.build-on-startup=true} a missing library is built in
+ * the background once the application is ready, written to {@code simulation.route-library.path}
+ * and used from then on; the file can be kept and shipped with later deployments, which then
+ * only map it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PatrolRouteLibraryBuilder {
+
+    public static final TravelTimeMatrix.Grid HUBS = TravelTimeMatrix.Grid.covering(
+            45.225, 45.280, 19.790, 19.880, 0.0045, 0.0064);
+    static final int ROUTES_PER_HUB = 4;
+    static final double MIN_ROUTE_METERS = 500;
+    static final double MAX_ROUTE_METERS = 2000;
+
+    private final RoutingService routingService;
+    private final VehicleSimulationService vehicleSimulationService;
+    @Qualifier(TaskExecutionConfig.TASK_EXECUTOR)
+    private final Executor taskExecutor;
+
+    @Value("${simulation.route-library.build-on-startup:false}")
+    private boolean buildOnStartup;
+
+    @Value("${simulation.route-library.seed:27}")
+    private long seed;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIfMissing() {
+        if (!buildOnStartup || vehicleSimulationService.hasRouteLibrary()) return;
+        taskExecutor.execute(() -> {
+            try {
+                log.info("Building patrol route library from {} hubs", HUBS.cells());
+                PatrolRouteLibrary.write(vehicleSimulationService.routeLibraryPath(), build(HUBS, seed));
+                vehicleSimulationService.useRouteLibrary(
+                        PatrolRouteLibrary.open(vehicleSimulationService.routeLibraryPath()));
+            } catch (IOException | RuntimeException e) {
+                log.warn("Could not build patrol route library, keeping on-demand routing", e);
+            }
+        });
+    }
+
+    /**
+     * Requests the patrol routes between the hubs of the grid. Hubs without a destination in
+     * range and routes the engine cannot find are skipped.
+     *
+     * @return routes as {@code [lat0, lng0, lat1, lng1, ...]}, as stored by {@link PatrolRouteLibrary#write}
+     */
+    public List<double[]> build(TravelTimeMatrix.Grid hubs, long seed) {
+        Random random = new Random(seed);
+        List<double[]> routes = new ArrayList<>();
+        for (int from = 0; from < hubs.cells(); from++) {
+            List<Integer> destinations = destinationsInRange(hubs, from);
+            for (int i = 0; i < ROUTES_PER_HUB && !destinations.isEmpty(); i++) {
+                int to = destinations.remove(random.nextInt(destinations.size()));
+                try {
+                    List<double[]> geometry = routingService.route(List.of(
+                            new LocationDto("", hubs.centerLat(from), hubs.centerLon(from)),
+                            new LocationDto("", hubs.centerLat(to), hubs.centerLon(to)))).geometry();
+                    if (geometry.size() >= 2) {
+                        routes.add(flatten(geometry));
+                    }
+                } catch (RuntimeException e) {
+                    log.debug("No patrol route from hub {} to hub {}: {}", from, to, e.getMessage());
+                }
+            }
+        }
+        return routes;
+    }
+
+    private static List<Integer> destinationsInRange(TravelTimeMatrix.Grid hubs, int from) {
+        List<Integer> destinations = new ArrayList<>();
+        for (int to = 0; to < hubs.cells(); to++) {
+            double meters = GeoUtils.haversineMeters(hubs.centerLat(from), hubs.centerLon(from),
+                    hubs.centerLat(to), hubs.centerLon(to));
+            if (meters >= MIN_ROUTE_METERS && meters <= MAX_ROUTE_METERS) {
+                destinations.add(to);
+            }
+        }
+        return destinations;
+    }
+
+    private static double[] flatten(List<double[]> geometry) {
+        double[] points = new double[geometry.size() * 2];
+        for (int i = 0; i < geometry.size(); i++) {
+            points[2 * i] = geometry.get(i)[0];
+            points[2 * i + 1] = geometry.get(i)[1];
+        }
+        return points;
+    }
+}
@@ -6,6 +6,7 @@ import com.team27.lucky3.backend.entity.Vehicle;
 import com.team27.lucky3.backend.entity.enums.VehicleType;
 import com.team27.lucky3.backend.repository.RideRepository;
 import com.team27.lucky3.backend.repository.VehicleRepository;
+import com.team27.lucky3.backend.util.GeoUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -106,7 +107,7 @@ public class RideCostTrackingService {
         }
 
         // Calculate distance from last tracked position to current position
-        double distanceKm = calculateHaversineDistance(
+        double distanceKm = GeoUtils.haversineKm(
                 ride.getLastTrackedLatitude(), 
                 ride.getLastTrackedLongitude(),
                 currentLat, 
@@ -156,18 +157,4 @@ public class RideCostTrackingService {
                 Math.round(distanceKm * 1000.0) / 1000.0, 
                 ride.getTotalCost());
     }
-
-    /**
-     * Calculate distance between two points using Haversine formula.
-     */
-    private double calculateHaversineDistance(double lat1, double lon1, double lat2, double lon2) {
-        final int R = 6371; // Earth radius in km
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        return R * c;
-    }
 }
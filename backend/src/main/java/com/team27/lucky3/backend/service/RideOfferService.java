@@ -0,0 +1,130 @@
+package com.team27.lucky3.backend.service;
+
+import com.team27.lucky3.backend.entity.enums.RideStatus;
+import com.team27.lucky3.backend.repository.RideRepository;
+import com.team27.lucky3.backend.util.TimingWheel;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Outstanding driver offers for pending rides.
+ * <p>
+ * A new ride is offered to one driver at a time. If that driver neither accepts nor
+ * declines within the offer timeout, or declines, the ride cascades to the next driver in
+ * the ranked candidate list kept here (see {@link RideService#reofferRide}); once the list
+ * is used up the ride is rejected instead of waiting forever.
+ * <p>
+ * Timeouts live in a {@link TimingWheel} advanced every {@link #TICK_MILLIS} ms, so tracking
+ * thousands of offers costs no database polling and accepting a ride cancels its timer in
+ * constant time. Offers are kept in memory only: after a restart every pending ride gets a
+ * fresh timeout with no further candidates.
+ */
+@Service
+@Slf4j
+public class RideOfferService {
+
+    static final long TICK_MILLIS = 250;
+
+    private final RideService rideService;
+    private final RideRepository rideRepository;
+    private final Duration offerTimeout;
+    private final TimingWheel<OfferKey> timeouts;
+    private final Map<Long, Offer> offers = new ConcurrentHashMap<>();
+
+    /**
+     * The driver a ride is currently offered to and the drivers to try next, best first.
+     */
+    public record Offer(Long driverId, List<Long> nextCandidates, TimingWheel<OfferKey>.Timeout timeout) {
+    }
+
+    // Identifies the offer a timeout belongs to, so a timeout that fires while the ride moves
+    // on to the next driver does not cut that driver's offer short
+    record OfferKey(Long rideId, Long driverId) {
+    }
+
+    public RideOfferService(@Lazy RideService rideService,
+                            RideRepository rideRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${dispatch.offer.timeout-seconds:30}") long offerTimeoutSeconds) {
+        this.rideService = rideService;
+        this.rideRepository = rideRepository;
+        this.offerTimeout = Duration.ofSeconds(offerTimeoutSeconds);
+        // One rotation covers the timeout, so a slot only holds offers that are due on this pass
+        this.timeouts = new TimingWheel<>(Duration.ofMillis(TICK_MILLIS), (int) (offerTimeout.toMillis() / TICK_MILLIS) + 1);
+        Gauge.builder("lucky3.offers.outstanding", offers, Map::size)
+                .description("Pending rides waiting for the offered driver to respond")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Offers the ride to {@code driverId}, replacing any previous offer for it, and starts
+     * the acceptance timeout. Call once the assignment has committed.
+     */
+    public void offer(Long rideId, Long driverId, List<Long> nextCandidates) {
+        Offer previous = offers.put(rideId, new Offer(driverId, List.copyOf(nextCandidates),
+                timeouts.schedule(new OfferKey(rideId, driverId), offerTimeout)));
+        if (previous != null) previous.timeout().cancel();
+    }
+
+    /**
+     * Ends the offer for a ride that was accepted, started or cancelled.
+     */
+    public void resolve(Long rideId) {
+        Offer offer = offers.remove(rideId);
+        if (offer != null) offer.timeout().cancel();
+    }
+
+    public Optional<Offer> currentOffer(Long rideId) {
+        return Optional.ofNullable(offers.get(rideId));
+    }
+
+    /**
+     * Cascades every offer whose timeout has passed to the next candidate.
+     */
+    @Scheduled(fixedRate = TICK_MILLIS)
+    public void expireOffers() {
+        for (OfferKey key : timeouts.advance()) {
+            Offer offer = offers.get(key.rideId());
+            if (offer == null || !offer.driverId().equals(key.driverId())) continue;
+            try {
+                rideService.reofferRide(key.rideId(), key.driverId());
+            } catch (RuntimeException e) {
+                log.warn("Could not re-offer ride {} after driver {} timed out", key.rideId(), key.driverId(), e);
+                // Try again after another timeout rather than leaving the ride without one
+                offers.computeIfPresent(key.rideId(), (rideId, current) -> current != offer ? current
+                        : new Offer(offer.driverId(), offer.nextCandidates(), timeouts.schedule(key, offerTimeout)));
+            }
+        }
+    }
+
+    /**
+     * Restarts the timeout of every pending ride once the application is ready,
+     * since offers do not survive a restart.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void recoverPendingOffers() {
+        List<Object[]> pending = rideRepository.findOpenRideWindows(EnumSet.of(RideStatus.PENDING));
+        for (Object[] row : pending) {
+            Long driverId = (Long) row[1];
+            offers.computeIfAbsent((Long) row[0], rideId ->
+                    new Offer(driverId, List.of(), timeouts.schedule(new OfferKey(rideId, driverId), offerTimeout)));
+        }
+        log.debug("Restarted offer timeouts for {} pending rides", pending.size());
+    }
+}
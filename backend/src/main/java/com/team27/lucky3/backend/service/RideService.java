@@ -12,6 +12,12 @@ import java.util.List;
 public interface RideService {
     RideResponse createRide(CreateRideRequest request);
     RideResponse acceptRide(Long id);
+    RideResponse declineRide(Long id);
+    /**
+     * Offers a pending ride to the next candidate driver because {@code driverId} did not
+     * respond in time. Does nothing if the ride was accepted, cancelled or re-offered meanwhile.
+     */
+    void reofferRide(Long rideId, Long driverId);
     RideResponse startRide(Long id);
     RideResponse endRide(Long id, EndRideRequest request);
     RideResponse cancelRide(Long id, String reason);
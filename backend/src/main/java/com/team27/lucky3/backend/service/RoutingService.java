@@ -0,0 +1,39 @@
+package com.team27.lucky3.backend.service;
+
+import com.team27.lucky3.backend.dto.LocationDto;
+
+import java.util.List;
+
+/**
+ * Street routing between waypoints (OSRM in production, replaceable in tests and benchmarks).
+ */
+public interface RoutingService {
+
+    /**
+     * Computes a driving route through the waypoints in the given order.
+     *
+     * @param waypoints at least two locations: start, optional stops, destination
+     * @return the route, never null
+     * @throws RuntimeException if the routing engine is unreachable or finds no route;
+     *                          callers fall back to straight-line estimates
+     */
+    Route route(List<LocationDto> waypoints);
+
+    /**
+     * Computes driving times from every source to every destination in one call.
+     *
+     * @return {@code [source][destination]} durations in seconds, {@link Double#NaN} where no route exists
+     * @throws RuntimeException if the routing engine is unreachable
+     */
+    double[][] durationTable(List<LocationDto> sources, List<LocationDto> destinations);
+
+    /**
+     * A routed path.
+     *
+     * @param distanceMeters  total driving distance
+     * @param durationSeconds total driving time
+     * @param geometry        path coordinates as {@code [lat, lng]} pairs
+     */
+    record Route(double distanceMeters, double durationSeconds, List<double[]> geometry) {
+    }
+}
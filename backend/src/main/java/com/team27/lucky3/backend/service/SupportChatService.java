@@ -6,6 +6,7 @@ import com.team27.lucky3.backend.dto.response.SupportChatResponse;
 import com.team27.lucky3.backend.dto.response.SupportMessageResponse;
 import com.team27.lucky3.backend.entity.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -17,23 +18,27 @@ public interface SupportChatService {
      * Get or create a support chat for the current user.
      * Each user has exactly one support chat.
      * @param user The user requesting their support chat
-     * @return The user's support chat with all messages
+     * @return The user's support chat with its latest messages
      */
     SupportChatResponse getOrCreateChatForUser(User user);
 
     /**
      * Get a specific support chat by ID (admin only).
      * @param chatId The chat ID
-     * @return The support chat with all messages
+     * @return The support chat with its latest messages
      */
     SupportChatResponse getChatById(Long chatId);
 
     /**
-     * Get all support chats for admin view.
-     * Returns chats ordered by last message time (newest first).
-     * @return List of all support chats (without messages)
+     * Get one page of the admin inbox.
+     * Returns chats ordered by last message time (newest first), read from the
+     * summary kept on each chat row.
+     * @param beforeTime lastMessageTime of the last chat on the previous page, or null for the first page
+     * @param beforeId ID of the last chat on the previous page, or null for the first page
+     * @param limit Maximum number of chats
+     * @return Page of support chats (without messages)
      */
-    List<SupportChatListItemResponse> getAllChatsForAdmin();
+    List<SupportChatListItemResponse> getAllChatsForAdmin(LocalDateTime beforeTime, Long beforeId, int limit);
 
     /**
      * Send a message from a user (driver/passenger) to their support chat.
@@ -60,9 +65,19 @@ public interface SupportChatService {
     void markChatAsRead(Long chatId);
 
     /**
-     * Get messages for a specific chat.
+     * Get one page of messages for a specific chat, using message IDs as cursors.
+     * Without cursors the latest {@code limit} messages are returned.
      * @param chatId The chat ID
-     * @return List of messages ordered by timestamp
+     * @param before Only messages older than this message ID (scrolling back), or null
+     * @param after Only messages newer than this message ID (resuming after a reconnect), or null
+     * @param limit Maximum number of messages
+     * @return List of messages ordered by timestamp (oldest first)
      */
-    List<SupportMessageResponse> getChatMessages(Long chatId);
+    List<SupportMessageResponse> getChatMessages(Long chatId, Long before, Long after, int limit);
+
+    /**
+     * Same as {@link #getChatMessages(Long, Long, Long, int)} for the user's own chat.
+     * Returns an empty list if the user has no chat yet.
+     */
+    List<SupportMessageResponse> getMyChatMessages(User user, Long before, Long after, int limit);
 }
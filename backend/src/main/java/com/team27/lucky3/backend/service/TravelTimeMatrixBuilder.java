@@ -0,0 +1,94 @@
+package com.team27.lucky3.backend.service;
+
+import com.team27.lucky3.backend.config.TaskExecutionConfig;
+import com.team27.lucky3.backend.dto.LocationDto;
+import com.team27.lucky3.backend.util.TravelTimeMatrix;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Builds the {@link TravelTimeMatrix} file from the routing engine's duration table.
+ * <p>
+ * The grid covers the Novi Sad service area in cells of roughly 280 x 280 m. The matrix is
+ * requested in blocks of {@link #BLOCK_SIZE} x {@link #BLOCK_SIZE} cell centres, which keeps
+ * each table request within the limits of a typical OSRM instance. A full build takes a few
+ * hundred requests, so point {@code routing.osrm.table-url} at a local OSRM instance.
+ * <p>
+ * With {@code routing.matrix.build-on-startup=true} a missing matrix is built in the background
+ * once the application is ready, written to {@code routing.matrix.path} and used from then on;
+ * the file can be kept and shipped with later deployments, which then only map it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TravelTimeMatrixBuilder {
+
+    public static final TravelTimeMatrix.Grid NOVI_SAD = TravelTimeMatrix.Grid.covering(
+            45.225, 45.280, 19.790, 19.880, 0.0025, 0.0035);
+    static final int BLOCK_SIZE = 50;
+
+    private final RoutingService routingService;
+    private final TravelTimeService travelTimeService;
+    @Qualifier(TaskExecutionConfig.TASK_EXECUTOR)
+    private final Executor taskExecutor;
+
+    @Value("${routing.matrix.build-on-startup:false}")
+    private boolean buildOnStartup;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIfMissing() {
+        if (!buildOnStartup || travelTimeService.hasMatrix()) return;
+        taskExecutor.execute(() -> {
+            try {
+                log.info("Building travel time matrix for {} cells", NOVI_SAD.cells());
+                TravelTimeMatrix.write(travelTimeService.matrixPath(), NOVI_SAD, build(NOVI_SAD));
+                travelTimeService.use(TravelTimeMatrix.open(travelTimeService.matrixPath()));
+            } catch (IOException | RuntimeException e) {
+                log.warn("Could not build travel time matrix, keeping straight-line estimates", e);
+            }
+        });
+    }
+
+    /**
+     * Queries driving times between all cell centres of the grid.
+     *
+     * @return {@code cells * cells} seconds, row-major by origin cell, as stored by {@link TravelTimeMatrix#write}
+     */
+    public char[] build(TravelTimeMatrix.Grid grid) {
+        int cells = grid.cells();
+        List<LocationDto> centers = new ArrayList<>(cells);
+        for (int cell = 0; cell < cells; cell++) {
+            centers.add(new LocationDto("", grid.centerLat(cell), grid.centerLon(cell)));
+        }
+
+        char[] seconds = new char[cells * cells];
+        for (int from = 0; from < cells; from += BLOCK_SIZE) {
+            List<LocationDto> sources = centers.subList(from, Math.min(from + BLOCK_SIZE, cells));
+            for (int to = 0; to < cells; to += BLOCK_SIZE) {
+                List<LocationDto> destinations = centers.subList(to, Math.min(to + BLOCK_SIZE, cells));
+                double[][] table = routingService.durationTable(sources, destinations);
+                for (int i = 0; i < sources.size(); i++) {
+                    for (int j = 0; j < destinations.size(); j++) {
+                        seconds[(from + i) * cells + to + j] = toSeconds(table[i][j]);
+                    }
+                }
+            }
+        }
+        return seconds;
+    }
+
+    private static char toSeconds(double duration) {
+        if (Double.isNaN(duration) || duration < 0) return TravelTimeMatrix.NO_ROUTE;
+        return (char) Math.min(Math.round(duration), TravelTimeMatrix.NO_ROUTE - 1);
+    }
+}
@@ -0,0 +1,79 @@
+package com.team27.lucky3.backend.service;
+
+import com.team27.lucky3.backend.entity.Location;
+import com.team27.lucky3.backend.util.GeoUtils;
+import com.team27.lucky3.backend.util.TravelTimeMatrix;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Driving-time estimates between two points for pickup ETAs and driver matching.
+ * <p>
+ * Uses the precomputed {@link TravelTimeMatrix} when one is available (see
+ * {@link TravelTimeMatrixBuilder}) and falls back to straight-line distance at an average
+ * city speed for points outside it, within a single cell, or when no matrix was built.
+ */
+@Service
+@Slf4j
+public class TravelTimeService {
+
+    // Average city speed of the straight-line fallback, in km per minute (~50 km/h)
+    static final double FALLBACK_KM_PER_MINUTE = 0.83;
+
+    @Value("${routing.matrix.path:data/travel-times.bin}")
+    private Path matrixPath;
+
+    private volatile TravelTimeMatrix matrix;
+
+    @PostConstruct
+    void loadMatrix() {
+        if (!Files.exists(matrixPath)) {
+            log.info("No travel time matrix at {}, using straight-line estimates", matrixPath);
+            return;
+        }
+        try {
+            use(TravelTimeMatrix.open(matrixPath));
+        } catch (IOException e) {
+            log.warn("Could not load travel time matrix {}, using straight-line estimates", matrixPath, e);
+        }
+    }
+
+    public Path matrixPath() {
+        return matrixPath;
+    }
+
+    public boolean hasMatrix() {
+        return matrix != null;
+    }
+
+    /**
+     * Replaces the matrix used for lookups.
+     */
+    public void use(TravelTimeMatrix matrix) {
+        this.matrix = matrix;
+        log.info("Using travel time matrix with {} cells", matrix.grid().cells());
+    }
+
+    /**
+     * Estimated driving time from one point to another, in seconds.
+     */
+    public int etaSeconds(double fromLat, double fromLon, double toLat, double toLon) {
+        TravelTimeMatrix current = matrix;
+        if (current != null) {
+            int seconds = current.seconds(fromLat, fromLon, toLat, toLon);
+            if (seconds >= 0) return seconds;
+        }
+        double km = GeoUtils.haversineKm(fromLat, fromLon, toLat, toLon);
+        return (int) Math.round(km / FALLBACK_KM_PER_MINUTE * 60);
+    }
+
+    public int etaSeconds(Location from, Location to) {
+        return etaSeconds(from.getLatitude(), from.getLongitude(), to.getLatitude(), to.getLongitude());
+    }
+}
@@ -0,0 +1,116 @@
+package com.team27.lucky3.backend.service;
+
+import com.team27.lucky3.backend.repository.NotificationRepository;
+import com.team27.lucky3.backend.repository.UserRepository;
+import com.team27.lucky3.backend.util.TransactionHooks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-user unread notification count, kept on the user row.
+ * <p>
+ * Every change to a notification's unread state goes through here: the counter is adjusted
+ * with an atomic UPDATE in the same transaction as the notification write, so it can never
+ * drift from the table, and reading it is a primary-key lookup instead of a COUNT. Mark-read
+ * and delete first flip {@code is_read} with a conditional UPDATE and subtract exactly the
+ * number of rows it changed, so concurrent mark-read and delete calls never count a
+ * notification twice.
+ * <p>
+ * After commit the new value is pushed to {@code /user/{id}/queue/unread} as
+ * {@code {"unreadCount": n}} (the same body as {@code GET /api/notification/unread}), so
+ * clients only need that endpoint once, on connect.
+ */
+@Service
+@Slf4j
+public class UnreadNotificationCounter {
+
+    private final NotificationRepository notificationRepository;
+    private final UserRepository userRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    public UnreadNotificationCounter(NotificationRepository notificationRepository,
+                                     UserRepository userRepository,
+                                     SimpMessagingTemplate messagingTemplate) {
+        this.notificationRepository = notificationRepository;
+        this.userRepository = userRepository;
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    /**
+     * Counts one new unread notification for each recipient. Must run in the transaction
+     * that inserts the notifications.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(Collection<Long> recipientIds) {
+        if (recipientIds.isEmpty()) {
+            return;
+        }
+        userRepository.incrementUnreadNotificationCount(recipientIds);
+        pushAfterCommit(recipientIds);
+    }
+
+    /**
+     * Marks the user's notifications among {@code ids} read. Returns how many were unread.
+     */
+    @Transactional
+    public int markRead(Long userId, List<Long> ids) {
+        int marked = notificationRepository.markReadByIdIn(userId, ids);
+        if (marked > 0) {
+            userRepository.decrementUnreadNotificationCount(userId, marked);
+            pushAfterCommit(List.of(userId));
+        }
+        return marked;
+    }
+
+    /**
+     * Deletes the notifications with the given ids, whoever they belong to, and takes the
+     * unread ones off their recipients' counters. Returns how many were deleted.
+     */
+    @Transactional
+    public int delete(List<Long> ids) {
+        List<Long> affected = notificationRepository.findUnreadRecipientIds(ids);
+        for (Long userId : affected) {
+            int marked = notificationRepository.markReadByIdIn(userId, ids);
+            if (marked > 0) {
+                userRepository.decrementUnreadNotificationCount(userId, marked);
+            }
+        }
+        int deleted = notificationRepository.deleteByIdIn(ids);
+        if (!affected.isEmpty()) {
+            pushAfterCommit(affected);
+        }
+        return deleted;
+    }
+
+    @Transactional(readOnly = true)
+    public long get(Long userId) {
+        return userRepository.findUnreadNotificationCounts(List.of(userId)).stream()
+                .mapToLong(row -> ((Number) row[1]).longValue())
+                .findFirst()
+                .orElse(0);
+    }
+
+    private void pushAfterCommit(Collection<Long> userIds) {
+        Set<Long> ids = new LinkedHashSet<>(userIds);
+        TransactionHooks.runAfterCommit(() -> {
+            try {
+                for (Object[] row : userRepository.findUnreadNotificationCounts(ids)) {
+                    long count = ((Number) row[1]).longValue();
+                    messagingTemplate.convertAndSend("/user/" + row[0] + "/queue/unread", Map.of("unreadCount", count));
+                }
+            } catch (Exception e) {
+                // The count endpoint stays authoritative; a missed push is corrected by the next one
+                log.warn("Failed to push unread counts to {} users: {}", ids.size(), e.getMessage());
+            }
+        });
+    }
+}
@@ -1,7 +1,6 @@
 package com.team27.lucky3.backend.service;
 
 import com.team27.lucky3.backend.dto.response.UserProfile;
-import com.team27.lucky3.backend.entity.Image;
 import com.team27.lucky3.backend.entity.User;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -15,7 +14,7 @@ public interface UserService {
     Optional<User> findById(Long id);
     User updateUser(Long id, UserProfile request, MultipartFile file) throws IOException;
     @Transactional(readOnly = true)
-    Image getProfileImage(Long userId);
+    ImageService.ImageContent getProfileImage(Long userId, Integer size);
 
     /**
      * Stores or updates the FCM device token for push notifications.
@@ -1,47 +1,93 @@
 package com.team27.lucky3.backend.service;
 
+import com.team27.lucky3.backend.config.TaskExecutionConfig;
 import com.team27.lucky3.backend.dto.LocationDto;
-import com.team27.lucky3.backend.entity.Location;
-import com.team27.lucky3.backend.entity.Ride;
-import com.team27.lucky3.backend.entity.Vehicle;
-import com.team27.lucky3.backend.entity.enums.RideStatus;
-import com.team27.lucky3.backend.repository.RideRepository;
+import com.team27.lucky3.backend.dto.response.VehiclePositionsResponse;
 import com.team27.lucky3.backend.repository.VehicleRepository;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team27.lucky3.backend.service.socket.VehicleSocketService;
+import com.team27.lucky3.backend.util.GeoUtils;
+import com.team27.lucky3.backend.util.LeaseManager;
+import com.team27.lucky3.backend.util.PatrolRouteLibrary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-
-
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Moves idle vehicles of active drivers along street-following patrol routes, so the map
+ * and driver matching see a living fleet.
+ * <p>
+ * Fleet state lives in memory in a {@link PatrolFleet}; a tick advances all vehicles in
+ * parallel, then writes the moved positions as one JDBC batch and publishes them as one
+ * message on {@code /topic/vehicles/positions}. Vehicles whose driver has an open ride are
+ * skipped using the {@link DriverScheduleIndex}, which ride lifecycle changes keep current,
+ * so a tick runs no per-vehicle queries. The roster of active vehicles is reloaded with one
+ * projection query every {@link #ROSTER_REFRESH_TICKS} ticks; that is also when vehicles
+ * coming back from a ride or a frontend session pick up their current position.
+ * <p>
+ * Patrol routes come from the {@link PatrolRouteLibrary} when one is available (see
+ * {@link PatrolRouteLibraryBuilder}): a vehicle that finished its route continues on one
+ * starting nearest to where it stopped, so patrols need no network. The choice, the steps
+ * and the starting position of a vehicle without one are drawn from the vehicle's own
+ * generator in the {@link PatrolFleet}, seeded by {@code simulation.route-library.seed}, so
+ * the same seed, roster and rides replay the same patrols. Without a library, routes are
+ * requested from the routing engine in the background and patrols are not reproducible.
+ * <p>
+ * For load testing, {@code simulation.synthetic-vehicles} adds that many in-memory-only
+ * vehicles (negative ids, never persisted) to the fleet.
+ */
 @Service
 @Slf4j
 public class VehicleSimulationService {
 
+    static final int ROSTER_REFRESH_TICKS = 5;
+    static final int MAX_ROUTE_REQUESTS_PER_TICK = 20;
+    static final String PATROL_ADDRESS = "Patrol";
+
     private final VehicleRepository vehicleRepository;
-    private final RideRepository rideRepository;
-    private final VehicleService vehicleService;
-    private final RestTemplate restTemplate;
-    private final ObjectMapper objectMapper;
-    private final Random random = new Random();
-
-    // Per-vehicle patrol state: ordered list of route coordinates
-    private final ConcurrentHashMap<Long, List<double[]>> patrolRoutes = new ConcurrentHashMap<>();
-    // Current index on the patrol route
-    private final ConcurrentHashMap<Long, Integer> patrolIndexes = new ConcurrentHashMap<>();
+    private final VehicleSocketService vehicleSocketService;
+    private final RoutingService routingService;
+    private final DriverScheduleIndex driverScheduleIndex;
+    private final MeterRegistry meterRegistry;
+    private final ForkJoinPool simulationPool;
+    private final Executor taskExecutor;
+    private final int syntheticVehicles;
+    private final Path routeLibraryPath;
+    private final long seed;
+
+    private volatile PatrolRouteLibrary routeLibrary;
+
+    // Touched only by the scheduler thread that runs the tick
+    private PatrolFleet fleet = PatrolFleet.EMPTY;
+    private int ticksSinceRosterRefresh = ROSTER_REFRESH_TICKS;
+
+    // Routes computed in the background, installed into the fleet at the start of the next tick
+    private record PatrolRoute(long vehicleId, double[] points) {
+    }
+    private final Queue<PatrolRoute> completedRoutes = new ConcurrentLinkedQueue<>();
     // Track which vehicles have a pending OSRM request (avoid spamming)
     private final Set<Long> pendingRouteRequests = ConcurrentHashMap.newKeySet();
 
-    // Per-vehicle simulation lock: vehicleId -> sessionId
-    // When set, backend patrol is paused for that vehicle (frontend is driving it)
-    private final ConcurrentHashMap<Long, String> simulationLocks = new ConcurrentHashMap<>();
-    // Lock expiry timestamps
-    private final ConcurrentHashMap<Long, Long> lockExpiry = new ConcurrentHashMap<>();
-    private static final long LOCK_TTL_MS = 15_000; // 15 seconds — must be refreshed
+    // Per-vehicle simulation lock held by a frontend session (vehicleId -> sessionId)
+    // When held, backend patrol is paused for that vehicle (frontend is driving it)
+    static final Duration LOCK_TTL = Duration.ofSeconds(15); // must be refreshed
+    private final LeaseManager<Long> simulationLocks = new LeaseManager<>(LOCK_TTL);
 
     // Novi Sad bounding box for random patrol destination generation
     private static final double NS_LAT_MIN = 45.225;
@@ -49,194 +95,223 @@ public class VehicleSimulationService {
     private static final double NS_LNG_MIN = 19.790;
     private static final double NS_LNG_MAX = 19.880;
 
-    private static final double MOVE_MIN_METERS = 40.0;
-    private static final double MOVE_MAX_METERS = 60.0;
-    private static final double MOVE_PROBABILITY = 0.90;
-
-    private static final String OSRM_BASE = "http://router.project-osrm.org/route/v1/driving/";
-
     public VehicleSimulationService(
             VehicleRepository vehicleRepository,
-            RideRepository rideRepository,
-            @org.springframework.context.annotation.Lazy VehicleService vehicleService) {
+            VehicleSocketService vehicleSocketService,
+            RoutingService routingService,
+            DriverScheduleIndex driverScheduleIndex,
+            MeterRegistry meterRegistry,
+            @Qualifier(TaskExecutionConfig.SIMULATION_POOL) ForkJoinPool simulationPool,
+            @Qualifier(TaskExecutionConfig.TASK_EXECUTOR) Executor taskExecutor,
+            @Value("${simulation.synthetic-vehicles:0}") int syntheticVehicles,
+            @Value("${simulation.route-library.path:data/patrol-routes.bin}") Path routeLibraryPath,
+            @Value("${simulation.route-library.seed:27}") long seed) {
         this.vehicleRepository = vehicleRepository;
-        this.rideRepository = rideRepository;
-        this.vehicleService = vehicleService;
-        this.restTemplate = new RestTemplate();
-        this.objectMapper = new ObjectMapper();
+        this.vehicleSocketService = vehicleSocketService;
+        this.routingService = routingService;
+        this.driverScheduleIndex = driverScheduleIndex;
+        this.meterRegistry = meterRegistry;
+        this.simulationPool = simulationPool;
+        this.taskExecutor = taskExecutor;
+        this.syntheticVehicles = syntheticVehicles;
+        this.routeLibraryPath = routeLibraryPath;
+        this.seed = seed;
+    }
+
+    @PostConstruct
+    void loadRouteLibrary() {
+        if (!Files.exists(routeLibraryPath)) {
+            log.info("No patrol route library at {}, requesting patrol routes from the routing engine", routeLibraryPath);
+            return;
+        }
+        try {
+            useRouteLibrary(PatrolRouteLibrary.open(routeLibraryPath));
+        } catch (IOException e) {
+            log.warn("Could not load patrol route library {}, requesting patrol routes from the routing engine",
+                    routeLibraryPath, e);
+        }
+    }
+
+    public Path routeLibraryPath() {
+        return routeLibraryPath;
+    }
+
+    public boolean hasRouteLibrary() {
+        return routeLibrary != null;
+    }
+
+    /**
+     * Replaces the library patrol routes are taken from.
+     */
+    public void useRouteLibrary(PatrolRouteLibrary routeLibrary) {
+        this.routeLibrary = routeLibrary;
+        log.info("Using patrol route library with {} routes", routeLibrary.size());
     }
 
     // ── Simulation lock API (called from controller) ────────────────────
 
 
+    // Fails while another session holds an unexpired lock; the holder's call renews it
     public boolean acquireLock(Long vehicleId, String sessionId) {
-        cleanExpiredLocks();
-        String existing = simulationLocks.get(vehicleId);
-        if (existing == null || existing.equals(sessionId)) {
-            simulationLocks.put(vehicleId, sessionId);
-            lockExpiry.put(vehicleId, System.currentTimeMillis() + LOCK_TTL_MS);
-            return true;
-        }
-        // Someone else holds the lock and it hasn't expired
-        return false;
+        return simulationLocks.acquire(vehicleId, sessionId);
     }
 
 
     public void releaseLock(Long vehicleId, String sessionId) {
-        String existing = simulationLocks.get(vehicleId);
-        if (existing != null && existing.equals(sessionId)) {
-            simulationLocks.remove(vehicleId);
-            lockExpiry.remove(vehicleId);
-        }
+        simulationLocks.release(vehicleId, sessionId);
     }
 
     // Check if frontend is locked
     public boolean isLocked(Long vehicleId) {
-        cleanExpiredLocks();
-        return simulationLocks.containsKey(vehicleId);
-    }
-
-    private void cleanExpiredLocks() {
-        long now = System.currentTimeMillis();
-        lockExpiry.forEach((vid, expiry) -> {
-            if (now > expiry) {
-                simulationLocks.remove(vid);
-                lockExpiry.remove(vid);
-            }
-        });
+        return simulationLocks.isHeld(vehicleId);
     }
 
     // ── Scheduled patrol simulation ─────────────────────────────────────
 
     @Scheduled(fixedRate = 2000)
     public void simulateIdleVehicles() {
-        List<Vehicle> activeVehicles = vehicleRepository.findAllActiveVehicles();
-        if (activeVehicles.isEmpty()) return;
-
-        // Collect driver IDs that have an active ride (IN_PROGRESS or ACTIVE)
-        List<Ride> activeRides = rideRepository.findAllInProgressRides();
-        Set<Long> driversWithActiveRide = new HashSet<>();
-        for (Ride ride : activeRides) {
-            if (ride.getDriver() != null) {
-                driversWithActiveRide.add(ride.getDriver().getId());
-            }
+        // Forget locks of sessions that went away without releasing them
+        simulationLocks.expire();
+        if (++ticksSinceRosterRefresh >= ROSTER_REFRESH_TICKS) {
+            refreshRoster();
+            ticksSinceRosterRefresh = 0;
         }
+        PatrolFleet fleet = this.fleet;
+        if (fleet.size() == 0) return;
 
-        // Also consider PENDING/ACCEPTED/SCHEDULED rides — these drivers
-        // should also be excluded from patrol simulation (use existing query)
-        List<RideStatus> pendingStatuses = Arrays.asList(
-                RideStatus.PENDING, RideStatus.ACCEPTED, RideStatus.SCHEDULED);
-        for (Vehicle v : activeVehicles) {
-            if (v.getDriver() == null) continue;
-            Long driverId = v.getDriver().getId();
-            List<Ride> pending = rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(
-                    driverId, pendingStatuses);
-            if (!pending.isEmpty()) {
-                driversWithActiveRide.add(driverId);
-            }
+        PatrolRoute route;
+        while ((route = completedRoutes.poll()) != null) {
+            fleet.setRoute(route.vehicleId(), route.points());
         }
 
-        for (Vehicle vehicle : activeVehicles) {
-            if (vehicle.getDriver() == null) continue;
-            Long driverId = vehicle.getDriver().getId();
-            Long vehicleId = vehicle.getId();
-
-            // Skip vehicles that have an active/pending ride
-            if (driversWithActiveRide.contains(driverId)) {
-                // Clean up patrol state when a ride starts
-                patrolRoutes.remove(vehicleId);
-                patrolIndexes.remove(vehicleId);
-                continue;
-            }
-
-            // Skip vehicles that are locked by a frontend session
-            if (isLocked(vehicleId)) continue;
+        // Skip vehicles that have an open ride or are driven by a frontend session
+        PatrolFleet.Moves moves = fleet.advance(simulationPool,
+                slot -> driverScheduleIndex.hasOpenRide(fleet.driverId(slot)),
+                slot -> isLocked(fleet.vehicleId(slot)));
 
-            // 90% chance to move
-            if (random.nextDouble() > MOVE_PROBABILITY) continue;
+        if (moves.size() > 0) {
+            vehicleSocketService.sendVehiclePositions(
+                    new VehiclePositionsResponse(moves.vehicleIds(), moves.latitudes(), moves.longitudes()));
+            // Compacts the arrays in place, so it runs after the broadcast
+            persistPositions(moves);
+        }
 
-            try {
-                advancePatrol(vehicle);
-            } catch (Exception e) {
-                log.debug("Error advancing patrol for vehicle {}: {}", vehicleId, e.getMessage());
+        PatrolRouteLibrary library = routeLibrary;
+        if (library != null) {
+            for (int slot : fleet.takeSlotsNeedingRoute(fleet.size())) {
+                fleet.setRoute(fleet.vehicleId(slot), libraryRoute(library, fleet.latitude(slot), fleet.longitude(slot),
+                        fleet.random(slot)));
+            }
+        } else {
+            for (int slot : fleet.takeSlotsNeedingRoute(MAX_ROUTE_REQUESTS_PER_TICK)) {
+                requestPatrolRoute(fleet.vehicleId(slot), fleet.latitude(slot), fleet.longitude(slot));
             }
         }
     }
 
-    private void advancePatrol(Vehicle vehicle) {
-        Long vehicleId = vehicle.getId();
-        List<double[]> route = patrolRoutes.get(vehicleId);
-
-        // Need a new patrol route?
-        if (route == null || route.isEmpty()) {
-            generatePatrolRoute(vehicle);
-            return;
+    /**
+     * The library route continuing a patrol at the given position. Unless the vehicle is
+     * already at its start (the end of its previous library route), the route is prefixed
+     * with the vehicle's position so it drives there instead of jumping.
+     */
+    private double[] libraryRoute(PatrolRouteLibrary library, double lat, double lng, RandomGenerator random) {
+        double[] route = library.route(library.next(lat, lng, random));
+        if (GeoUtils.haversineMeters(lat, lng, route[0], route[1]) <= PatrolRouteLibrary.CHAIN_TOLERANCE_METERS) {
+            return route;
         }
+        double[] joined = new double[route.length + 2];
+        joined[0] = lat;
+        joined[1] = lng;
+        System.arraycopy(route, 0, joined, 2, route.length);
+        return joined;
+    }
 
-        int currentIdx = patrolIndexes.getOrDefault(vehicleId, 0);
-        if (currentIdx >= route.size() - 1) {
-            // Completed this patrol loop — generate a new one
-            patrolRoutes.remove(vehicleId);
-            patrolIndexes.remove(vehicleId);
-            generatePatrolRoute(vehicle);
-            return;
+    /**
+     * Reloads the active vehicles and their current positions, keeping the routes of
+     * vehicles that were patrolling.
+     */
+    private void refreshRoster() {
+        List<Object[]> rows = vehicleRepository.findActiveVehiclePositions();
+        int size = rows.size() + syntheticVehicles;
+        long[] vehicleIds = new long[size];
+        long[] driverIds = new long[size];
+        double[] latitudes = new double[size];
+        double[] longitudes = new double[size];
+
+        int slot = 0;
+        for (Object[] row : rows) {
+            vehicleIds[slot] = (Long) row[0];
+            driverIds[slot] = (Long) row[1];
+            Double lat = (Double) row[2];
+            Double lng = (Double) row[3];
+            boolean known = lat != null && lng != null && lat != 0;
+            latitudes[slot] = known ? lat : Double.NaN;
+            longitudes[slot] = known ? lng : Double.NaN;
+            slot++;
+        }
+        // Synthetic vehicles keep their in-memory position; driver id 0 never has a ride
+        for (int i = 1; i <= syntheticVehicles; i++, slot++) {
+            vehicleIds[slot] = -i;
+            int previous = fleet.slotOf(-i);
+            latitudes[slot] = previous >= 0 ? fleet.latitude(previous) : Double.NaN;
+            longitudes[slot] = previous >= 0 ? fleet.longitude(previous) : Double.NaN;
         }
 
-        // Walk along the route by 40-60 meters
-        double metersToMove = MOVE_MIN_METERS + random.nextDouble() * (MOVE_MAX_METERS - MOVE_MIN_METERS);
-        double movedMeters = 0;
-        double[] currentPos = route.get(currentIdx);
-
-        int idx = currentIdx;
-        while (idx < route.size() - 1 && movedMeters < metersToMove) {
-            double[] next = route.get(idx + 1);
-            double segmentMeters = haversineMeters(currentPos[0], currentPos[1], next[0], next[1]);
-            double remaining = metersToMove - movedMeters;
-
-            if (segmentMeters <= remaining) {
-                // Move to the next waypoint entirely
-                movedMeters += segmentMeters;
-                currentPos = next;
-                idx++;
-            } else {
-                // Interpolate within this segment
-                double fraction = remaining / segmentMeters;
-                double lat = currentPos[0] + fraction * (next[0] - currentPos[0]);
-                double lng = currentPos[1] + fraction * (next[1] - currentPos[1]);
-                currentPos = new double[]{lat, lng};
-                movedMeters += remaining;
-                break;
+        PatrolFleet refreshed = new PatrolFleet(vehicleIds, driverIds, latitudes, longitudes, seed);
+        refreshed.carryOver(fleet);
+        // Default to random Novi Sad location
+        for (slot = 0; slot < size; slot++) {
+            if (Double.isNaN(latitudes[slot])) {
+                RandomGenerator random = refreshed.random(slot);
+                refreshed.place(slot, randomLatitude(random), randomLongitude(random));
             }
         }
+        fleet = refreshed;
+    }
 
-        patrolIndexes.put(vehicleId, idx);
-        // Also update the route point at `idx` to the interpolated position
-        // so the next tick starts from the exact spot
-        if (idx < route.size()) {
-            route.set(idx, currentPos);
+    private void persistPositions(PatrolFleet.Moves moves) {
+        // Synthetic vehicles (negative ids) are never persisted
+        long[] ids = moves.vehicleIds();
+        double[] latitudes = moves.latitudes();
+        double[] longitudes = moves.longitudes();
+        int persisted = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] > 0) {
+                ids[persisted] = ids[i];
+                latitudes[persisted] = latitudes[i];
+                longitudes[persisted] = longitudes[i];
+                persisted++;
+            }
+        }
+        try {
+            vehicleRepository.updateLocations(ids, latitudes, longitudes, persisted, PATROL_ADDRESS);
+        } catch (Exception e) {
+            log.warn("Failed to persist {} patrol positions: {}", persisted, e.getMessage());
         }
-
-        // Update the vehicle location
-        LocationDto dto = new LocationDto("Patrol", currentPos[0], currentPos[1]);
-        vehicleService.updateVehicleLocation(vehicleId, dto);
     }
 
-    private void generatePatrolRoute(Vehicle vehicle) {
-        Long vehicleId = vehicle.getId();
-        if (pendingRouteRequests.contains(vehicleId)) return;
-        pendingRouteRequests.add(vehicleId);
+    private void requestPatrolRoute(long vehicleId, double startLat, double startLng) {
+        if (!pendingRouteRequests.add(vehicleId)) return;
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    double[] points = generatePatrolRoute(vehicleId, startLat, startLng);
+                    if (points != null) {
+                        completedRoutes.add(new PatrolRoute(vehicleId, points));
+                    }
+                } finally {
+                    pendingRouteRequests.remove(vehicleId);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            // Retried once the vehicle is reported as needing a route again
+            pendingRouteRequests.remove(vehicleId);
+        }
+    }
 
+    private double[] generatePatrolRoute(long vehicleId, double startLat, double startLng) {
         try {
-            Location currentLoc = vehicle.getCurrentLocation();
-            double startLat, startLng;
-            if (currentLoc != null && currentLoc.getLatitude() != 0) {
-                startLat = currentLoc.getLatitude();
-                startLng = currentLoc.getLongitude();
-            } else {
-                // Default to random Novi Sad location
-                startLat = NS_LAT_MIN + random.nextDouble() * (NS_LAT_MAX - NS_LAT_MIN);
-                startLng = NS_LNG_MIN + random.nextDouble() * (NS_LNG_MAX - NS_LNG_MIN);
-            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
 
             // Generate a random destination 0.5-2km away within Novi Sad
             double destLat, destLng;
@@ -255,48 +330,32 @@ public class VehicleSimulationService {
             destLng = Math.max(NS_LNG_MIN, Math.min(NS_LNG_MAX, destLng));
 
             // Call OSRM for a street-following route
-            String coords = startLng + "," + startLat + ";" + destLng + "," + destLat;
-            String url = OSRM_BASE + coords + "?overview=full&geometries=geojson";
-
-            String response = restTemplate.getForObject(url, String.class);
-            if (response == null) return;
+            List<double[]> routePoints = routingService.route(List.of(
+                    new LocationDto("", startLat, startLng),
+                    new LocationDto("", destLat, destLng))).geometry();
 
-            JsonNode root = objectMapper.readTree(response);
-            JsonNode routes = root.path("routes");
-            if (!routes.isArray() || routes.isEmpty()) return;
-
-            JsonNode geometry = routes.get(0).path("geometry").path("coordinates");
-            if (!geometry.isArray() || geometry.isEmpty()) return;
-
-            List<double[]> routePoints = new ArrayList<>();
-            for (JsonNode coord : geometry) {
-                double lng = coord.get(0).asDouble();
-                double lat = coord.get(1).asDouble();
-                routePoints.add(new double[]{lat, lng});
+            if (routePoints.size() < 2) {
+                return null;
             }
-
-            if (routePoints.size() >= 2) {
-                patrolRoutes.put(vehicleId, routePoints);
-                patrolIndexes.put(vehicleId, 0);
-                log.debug("Generated patrol route for vehicle {} with {} points", vehicleId, routePoints.size());
+            double[] points = new double[routePoints.size() * 2];
+            for (int i = 0; i < routePoints.size(); i++) {
+                points[2 * i] = routePoints.get(i)[0];
+                points[2 * i + 1] = routePoints.get(i)[1];
             }
+            log.debug("Generated patrol route for vehicle {} with {} points", vehicleId, routePoints.size());
+            return points;
         } catch (Exception e) {
             log.debug("Failed to generate patrol route for vehicle {}: {}", vehicleId, e.getMessage());
-        } finally {
-            pendingRouteRequests.remove(vehicleId);
+            meterRegistry.counter("lucky3.routing.fallback", "caller", "patrol").increment();
+            return null;
         }
     }
 
-    // ── Utilities ───────────────────────────────────────────────────────
-
-    private double haversineMeters(double lat1, double lon1, double lat2, double lon2) {
-        final int R = 6371000; // Earth radius in meters
-        double dLat = Math.toRadians(lat2 - lat1);
-        double dLon = Math.toRadians(lon2 - lon1);
-        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        return R * c;
+    private static double randomLatitude(RandomGenerator random) {
+        return NS_LAT_MIN + random.nextDouble() * (NS_LAT_MAX - NS_LAT_MIN);
+    }
+
+    private static double randomLongitude(RandomGenerator random) {
+        return NS_LNG_MIN + random.nextDouble() * (NS_LNG_MAX - NS_LNG_MIN);
     }
 }
@@ -17,6 +17,7 @@ import com.team27.lucky3.backend.repository.PasswordResetTokenRepository;
 import com.team27.lucky3.backend.repository.RideRepository;
 import com.team27.lucky3.backend.repository.UserRepository;
 import com.team27.lucky3.backend.repository.ActivationTokenRepository;
+import com.team27.lucky3.backend.service.AdminLiveStatsService;
 import com.team27.lucky3.backend.service.AuthService;
 import com.team27.lucky3.backend.service.DriverService;
 import com.team27.lucky3.backend.service.EmailService;
@@ -55,6 +56,7 @@ public class AuthServiceImpl implements AuthService {
     private final ImageService imageService;
     private final ActivationTokenRepository activationTokenRepository;
     private final DriverActivitySessionRepository activitySessionRepository;
+    private final AdminLiveStatsService adminLiveStatsService;
 
     @Autowired
     @Lazy
@@ -102,6 +104,7 @@ public class AuthServiceImpl implements AuthService {
                 user.setInactiveRequested(false);
                 userRepository.save(user);
             }
+            adminLiveStatsService.recordDriverActivity(user.getId(), user.isActive());
         }
 
         // 5. Generate Token
@@ -139,6 +142,7 @@ public class AuthServiceImpl implements AuthService {
             user.setActive(false);
             user.setInactiveRequested(false);
             userRepository.save(user);
+            adminLiveStatsService.recordDriverActivity(user.getId(), false);
             
             // Close any open activity session
             activitySessionRepository.findByDriverIdAndEndTimeIsNull(user.getId())
@@ -314,6 +318,7 @@ public class AuthServiceImpl implements AuthService {
         driver.setEnabled(true);
         driver.setActive(true);
         userRepository.save(driver);
+        adminLiveStatsService.recordDriverActivity(driver.getId(), true);
 
         // Mark token as used and delete
         activationToken.setUsed(true);
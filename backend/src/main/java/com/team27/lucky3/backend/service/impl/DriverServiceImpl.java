@@ -14,11 +14,12 @@ import com.team27.lucky3.backend.exception.EmailAlreadyUsedException;
 import com.team27.lucky3.backend.exception.ResourceNotFoundException;
 import com.team27.lucky3.backend.repository.ActivationTokenRepository;
 import com.team27.lucky3.backend.repository.DriverActivitySessionRepository;
-import com.team27.lucky3.backend.repository.ReviewRepository;
 import com.team27.lucky3.backend.repository.RideRepository;
 import com.team27.lucky3.backend.repository.UserRepository;
 import com.team27.lucky3.backend.repository.VehicleRepository;
+import com.team27.lucky3.backend.service.AdminLiveStatsService;
 import com.team27.lucky3.backend.service.DriverService;
+import com.team27.lucky3.backend.service.DriverStatsService;
 import com.team27.lucky3.backend.service.EmailService;
 import com.team27.lucky3.backend.service.ImageService;
 import com.team27.lucky3.backend.util.DummyData;
@@ -42,12 +43,13 @@ public class DriverServiceImpl implements DriverService {
 
     private final UserRepository userRepository;
     private final RideRepository rideRepository;
-    private final ReviewRepository reviewRepository;
     private final VehicleRepository vehicleRepository;
     private final ActivationTokenRepository activationTokenRepository;
     private final DriverActivitySessionRepository activitySessionRepository;
     private final EmailService emailService;
     private final ImageService imageService;
+    private final AdminLiveStatsService adminLiveStatsService;
+    private final DriverStatsService driverStatsService;
 
     private final String activationBaseUrl = "http://localhost:4200/driver/set-password?token=";
 
@@ -99,7 +101,9 @@ public class DriverServiceImpl implements DriverService {
                         });
             }
         }
-        return userRepository.save(driver);
+        User savedDriver = userRepository.save(driver);
+        adminLiveStatsService.recordDriverActivity(savedDriver.getId(), savedDriver.isActive());
+        return savedDriver;
     }
 
     @Override
@@ -176,43 +180,10 @@ public class DriverServiceImpl implements DriverService {
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional
     public DriverStatsResponse getDriverStats(Long driverId) {
-        // Verify driver exists
-        userRepository.findById(driverId)
-                .orElseThrow(() -> new ResourceNotFoundException("Driver not found"));
-
-        // Get total earnings from completed rides
-        Double totalEarnings = rideRepository.sumTotalEarningsByDriverId(driverId);
-        if (totalEarnings == null) {
-            totalEarnings = 0.0;
-        }
-
-        // Get completed rides count
-        Integer completedRides = rideRepository.countCompletedRidesByDriverId(driverId);
-        if (completedRides == null) {
-            completedRides = 0;
-        }
-
-        // Get average rating and count
-        Double averageRating = reviewRepository.findAverageDriverRatingByDriverId(driverId);
-        Integer totalRatings = reviewRepository.countRatingsByDriverId(driverId);
-        if (averageRating == null) {
-            averageRating = 0.0;
-        }
-        if (totalRatings == null) {
-            totalRatings = 0;
-        }
-
-        // Get average vehicle rating and count
-        Double averageVehicleRating = reviewRepository.findAverageVehicleRatingByDriverId(driverId);
-        Integer totalVehicleRatings = reviewRepository.countVehicleRatingsByDriverId(driverId);
-        if (averageVehicleRating == null) {
-            averageVehicleRating = 0.0;
-        }
-        if (totalVehicleRatings == null) {
-            totalVehicleRatings = 0;
-        }
+        // Running totals are kept up to date on ride finish / review submission
+        DriverStats stats = driverStatsService.getStats(driverId);
 
         // Calculate online hours today from activity sessions (last 24h)
         LocalDateTime since = LocalDateTime.now().minusHours(24);
@@ -236,12 +207,12 @@ public class DriverServiceImpl implements DriverService {
 
         return new DriverStatsResponse(
                 driverId,
-                totalEarnings,
-                completedRides,
-                averageRating,
-                totalRatings,
-                averageVehicleRating,
-                totalVehicleRatings,
+                stats.getTotalEarnings(),
+                stats.getCompletedRides(),
+                stats.getAverageDriverRating(),
+                stats.getDriverRatingCount(),
+                stats.getAverageVehicleRating(),
+                stats.getVehicleRatingCount(),
                 onlineHoursToday
         );
     }
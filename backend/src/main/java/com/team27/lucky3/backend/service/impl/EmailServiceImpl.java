@@ -9,6 +9,7 @@ import org.springframework.stereotype.Service;
 import com.team27.lucky3.backend.service.EmailService;
 
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.Semaphore;
 
 @Service
 @RequiredArgsConstructor
@@ -21,6 +22,10 @@ public class EmailServiceImpl implements EmailService {
 
     private static final DateTimeFormatter FMT = DateTimeFormatter.ofPattern("dd MMM yyyy, HH:mm");
 
+    // Jakarta Mail does its SMTP socket I/O inside synchronized methods, which pins a virtual
+    // thread to its carrier. Bounding concurrent sends keeps an email burst from pinning them all.
+    private final Semaphore sendPermits = new Semaphore(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+
     @Override
     public void sendSimpleMessage(String to, String subject, String text) {
         System.out.println("========== EMAIL SENDING ==========");
@@ -40,8 +45,16 @@ public class EmailServiceImpl implements EmailService {
         message.setSubject(subject);
         message.setText(text);
         try {
-            mailSender.send(message);
+            sendPermits.acquire();
+            try {
+                mailSender.send(message);
+            } finally {
+                sendPermits.release();
+            }
             System.out.println("[EMAIL OK] Successfully sent to " + to);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("[EMAIL FAIL] Interrupted while sending to " + to);
         } catch (Exception e) {
             System.err.println("[EMAIL FAIL] Could not send to " + to + ": " + e.getMessage());
             e.printStackTrace();
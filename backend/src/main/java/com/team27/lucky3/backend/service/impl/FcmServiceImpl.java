@@ -3,17 +3,23 @@ package com.team27.lucky3.backend.service.impl;
 import com.google.firebase.FirebaseApp;
 import com.google.firebase.messaging.AndroidConfig;
 import com.google.firebase.messaging.AndroidNotification;
+import com.google.firebase.messaging.BatchResponse;
 import com.google.firebase.messaging.FirebaseMessaging;
 import com.google.firebase.messaging.FirebaseMessagingException;
 import com.google.firebase.messaging.Message;
 import com.google.firebase.messaging.MessagingErrorCode;
+import com.team27.lucky3.backend.config.TaskExecutionConfig;
 import com.team27.lucky3.backend.service.FcmService;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Production implementation of {@link FcmService}.
@@ -22,17 +28,24 @@ import java.util.concurrent.CompletableFuture;
  * {@code FirebaseMessagingService.onMessageReceived()} is always invoked,
  * regardless of whether the app is in foreground or background.
  * <p>
- * All sends are executed asynchronously via {@link CompletableFuture} to avoid
- * blocking the notification pipeline. If Firebase was not initialised (no service
+ * All sends are executed asynchronously via {@link CompletableFuture} on the shared
+ * task executor to avoid blocking the notification pipeline. If Firebase was not initialised (no service
  * account file), every call is a silent no-op.
  * <p>
  * Handles stale tokens gracefully: when FCM returns {@code UNREGISTERED},
  * the token is logged for future cleanup.
  */
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class FcmServiceImpl implements FcmService {
 
+    @Qualifier(TaskExecutionConfig.TASK_EXECUTOR)
+    private final Executor taskExecutor;
+
+    /** FCM accepts at most 500 messages per {@code sendEach} call. */
+    private static final int MAX_MESSAGES_PER_CALL = 500;
+
     // ── availability check ──────────────────────────────────────────────
 
     @Override
@@ -60,28 +73,7 @@ public class FcmServiceImpl implements FcmService {
 
         CompletableFuture.runAsync(() -> {
             try {
-                Message.Builder builder = Message.builder()
-                        .setToken(fcmToken)
-                        // Data payload — always triggers onMessageReceived()
-                        .putData("title", title)
-                        .putData("body", body)
-                        .putData("click_action", "OPEN_MAIN_ACTIVITY");
-
-                // Merge caller-supplied data
-                if (data != null && !data.isEmpty()) {
-                    data.forEach(builder::putData);
-                }
-
-                // Android-specific: high priority for timely delivery
-                builder.setAndroidConfig(AndroidConfig.builder()
-                        .setPriority(AndroidConfig.Priority.HIGH)
-                        .setTtl(300_000L) // 5 minutes TTL
-                        .setNotification(AndroidNotification.builder()
-                                .setChannelId("ride_updates")
-                                .build())
-                        .build());
-
-                String messageId = FirebaseMessaging.getInstance().send(builder.build());
+                String messageId = FirebaseMessaging.getInstance().send(buildMessage(fcmToken, title, body, data));
                 log.debug("FCM message sent successfully: {} → token {}", messageId, maskToken(fcmToken));
 
             } catch (FirebaseMessagingException e) {
@@ -89,7 +81,68 @@ public class FcmServiceImpl implements FcmService {
             } catch (Exception e) {
                 log.error("Unexpected error sending FCM to {}: {}", maskToken(fcmToken), e.getMessage());
             }
-        });
+        }, taskExecutor);
+    }
+
+    @Override
+    public void sendToDevices(List<DevicePush> pushes) {
+        if (!isAvailable()) {
+            log.debug("FCM not available — skipping {} pushes", pushes.size());
+            return;
+        }
+        List<DevicePush> targets = pushes.stream()
+                .filter(p -> p.fcmToken() != null && !p.fcmToken().isBlank())
+                .toList();
+        if (targets.isEmpty()) {
+            return;
+        }
+
+        CompletableFuture.runAsync(() -> {
+            for (int from = 0; from < targets.size(); from += MAX_MESSAGES_PER_CALL) {
+                List<DevicePush> chunk = targets.subList(from, Math.min(from + MAX_MESSAGES_PER_CALL, targets.size()));
+                try {
+                    BatchResponse response = FirebaseMessaging.getInstance().sendEach(chunk.stream()
+                            .map(p -> buildMessage(p.fcmToken(), p.title(), p.body(), p.data()))
+                            .toList());
+                    for (int i = 0; i < chunk.size(); i++) {
+                        if (!response.getResponses().get(i).isSuccessful()) {
+                            handleFcmError(chunk.get(i).fcmToken(), response.getResponses().get(i).getException());
+                        }
+                    }
+                    log.debug("FCM batch sent: {} ok, {} failed", response.getSuccessCount(), response.getFailureCount());
+
+                } catch (FirebaseMessagingException e) {
+                    log.error("FCM batch of {} messages failed — code={}, message={}",
+                            chunk.size(), e.getMessagingErrorCode(), e.getMessage());
+                } catch (Exception e) {
+                    log.error("Unexpected error sending FCM batch of {} messages: {}", chunk.size(), e.getMessage());
+                }
+            }
+        }, taskExecutor);
+    }
+
+    private Message buildMessage(String fcmToken, String title, String body, Map<String, String> data) {
+        Message.Builder builder = Message.builder()
+                .setToken(fcmToken)
+                // Data payload — always triggers onMessageReceived()
+                .putData("title", title)
+                .putData("body", body)
+                .putData("click_action", "OPEN_MAIN_ACTIVITY");
+
+        // Merge caller-supplied data
+        if (data != null && !data.isEmpty()) {
+            data.forEach(builder::putData);
+        }
+
+        // Android-specific: high priority for timely delivery
+        builder.setAndroidConfig(AndroidConfig.builder()
+                .setPriority(AndroidConfig.Priority.HIGH)
+                .setTtl(300_000L) // 5 minutes TTL
+                .setNotification(AndroidNotification.builder()
+                        .setChannelId("ride_updates")
+                        .build())
+                .build());
+        return builder.build();
     }
 
     // ── error handling ──────────────────────────────────────────────────
@@ -1,32 +1,86 @@
 package com.team27.lucky3.backend.service.impl;
 
+import com.team27.lucky3.backend.config.TaskExecutionConfig;
 import com.team27.lucky3.backend.entity.Image;
 import com.team27.lucky3.backend.repository.ImageRepository;
 import com.team27.lucky3.backend.service.ImageService;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
-import java.util.UUID;
-
-import java.io.IOException;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
+@Slf4j
 @Service
 public class ImageServiceImpl implements ImageService {
+    static final String DEFAULT_AVATAR_FILE = "default-avatar.png";
+
+    /** Longest edge of the pre-generated variants, ascending. */
+    static final int[] THUMBNAIL_SIZES = {64, 128, 512};
+
+    /** Originals above this many pixels (40 MP) get no thumbnails; decoding them could exhaust the heap. */
+    static final long MAX_THUMBNAIL_SOURCE_PIXELS = 40_000_000L;
+
     @Value("classpath:image/default-avatar.png")
     private Resource defaultAvatar;
 
     private final ImageRepository imageRepository;
-    private final Path rootLocation = Paths.get("uploads");
+    private final Executor imageExecutor;
+    private final Path rootLocation;
+
+    // The default avatar is shown for every user without an upload, so it is kept in memory
+    private byte[] defaultAvatarBytes;
+    private String defaultAvatarETag;
 
-    public ImageServiceImpl(ImageRepository imageRepository) {
+    // File names whose thumbnails are queued or being written, so each is generated once
+    private final Set<String> pendingThumbnails = ConcurrentHashMap.newKeySet();
+    // Files ImageIO cannot decode or that are too large to; they are always served as the original
+    private final Set<String> undecodable = ConcurrentHashMap.newKeySet();
+
+    public ImageServiceImpl(ImageRepository imageRepository,
+                            @Qualifier(TaskExecutionConfig.IMAGE_EXECUTOR) Executor imageExecutor,
+                            @Value("${image.upload-dir:uploads}") Path rootLocation) {
         this.imageRepository = imageRepository;
+        this.imageExecutor = imageExecutor;
+        this.rootLocation = rootLocation;
+    }
+
+    @PostConstruct
+    void loadDefaultAvatar() throws IOException {
+        defaultAvatarBytes = defaultAvatar.getContentAsByteArray();
+        defaultAvatarETag = contentETag(defaultAvatarBytes);
     }
 
     @Override
@@ -38,12 +92,26 @@ public class ImageServiceImpl implements ImageService {
         String originalFilename = file.getOriginalFilename();
         String extension = "";
         if (originalFilename != null && originalFilename.contains(".")) {
-             extension = originalFilename.substring(originalFilename.lastIndexOf("."));
+             extension = originalFilename.substring(originalFilename.lastIndexOf(".")).toLowerCase();
         }
-        String filename = UUID.randomUUID().toString() + extension;
 
-        Path destinationFile = this.rootLocation.resolve(filename).normalize().toAbsolutePath();
-        Files.copy(file.getInputStream(), destinationFile, StandardCopyOption.REPLACE_EXISTING);
+        // Files are named by the SHA-256 of their content, so identical uploads share one file
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile(rootLocation, "upload-", ".tmp");
+        String filename;
+        try {
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            filename = HexFormat.of().formatHex(digest.digest()) + extension;
+            Path destinationFile = rootLocation.resolve(filename);
+            if (!Files.exists(destinationFile)) {
+                Files.move(temp, destinationFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        scheduleThumbnails(filename, file.getContentType());
 
         Image image = new Image();
         image.setFileName(filename);
@@ -59,39 +127,187 @@ public class ImageServiceImpl implements ImageService {
     }
 
     @Override
-    public byte[] loadImage(String filename) throws IOException {
-        Path file = rootLocation.resolve(filename);
-        if (Files.exists(file)) {
-            return Files.readAllBytes(file);
+    public ImageContent load(Image image, Integer size) {
+        if (image == null) {
+            return defaultAvatarContent();
         }
-        return new byte[0];
+        String contentType = image.getContentType() != null ? image.getContentType() : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        // Images from before uploads moved to disk still carry their bytes
+        if (image.getData() != null && image.getData().length > 0) {
+            return new ImageContent(new ByteArrayResource(image.getData()), contentType, contentETag(image.getData()));
+        }
+        if (image.getFileName() == null || DEFAULT_AVATAR_FILE.equals(image.getFileName())) {
+            return defaultAvatarContent();
+        }
+        Path file = rootLocation.resolve(image.getFileName()).normalize();
+        if (!file.startsWith(rootLocation) || !Files.isRegularFile(file)) {
+            return defaultAvatarContent();
+        }
+
+        Integer variant = thumbnailSize(size);
+        if (variant != null) {
+            String thumbnailName = thumbnailName(image.getFileName(), variant, contentType);
+            Path thumbnail = rootLocation.resolve(thumbnailName);
+            if (Files.isRegularFile(thumbnail)) {
+                return new ImageContent(new FileSystemResource(thumbnail), thumbnailContentType(thumbnailName), "\"" + thumbnailName + "\"");
+            }
+            // Not generated yet (still queued or uploaded before thumbnails existed):
+            // serve the original and make sure generation has been attempted
+            scheduleThumbnails(image.getFileName(), contentType);
+        }
+        // The file name is a content hash (or, for older uploads, a random UUID), so it identifies the content
+        return new ImageContent(new FileSystemResource(file), contentType, "\"" + image.getFileName() + "\"");
     }
 
     @Override
     public Image getDefaultAvatar() {
+        // Return a transient Image object (not persisted) to avoid read-only transaction issues
+        Image image = new Image();
+        image.setFileName(DEFAULT_AVATAR_FILE);
+        image.setContentType(MediaType.IMAGE_PNG_VALUE);
+        image.setSize((long) defaultAvatarBytes.length);
+        image.setData(null); // No data stored in DB, served from memory
+        return image; // Don't save - just return transient object
+    }
+
+    /**
+     * Smallest pre-generated variant that is at least {@code size} pixels, or {@code null} for
+     * the original when no size is requested or it exceeds the largest variant.
+     */
+    static Integer thumbnailSize(Integer size) {
+        if (size == null) {
+            return null;
+        }
+        for (int variant : THUMBNAIL_SIZES) {
+            if (size <= variant) {
+                return variant;
+            }
+        }
+        return null;
+    }
+
+    /** {@code <hash>_<size>.jpg} for JPEG originals, {@code <hash>_<size>.png} otherwise (keeps transparency). */
+    static String thumbnailName(String fileName, int size, String contentType) {
+        int dot = fileName.lastIndexOf('.');
+        String stem = dot > 0 ? fileName.substring(0, dot) : fileName;
+        return stem + "_" + size + "." + (MediaType.IMAGE_JPEG_VALUE.equals(contentType) ? "jpg" : "png");
+    }
+
+    private static String thumbnailContentType(String thumbnailName) {
+        return thumbnailName.endsWith(".jpg") ? MediaType.IMAGE_JPEG_VALUE : MediaType.IMAGE_PNG_VALUE;
+    }
+
+    private void scheduleThumbnails(String fileName, String contentType) {
+        if (undecodable.contains(fileName) || !pendingThumbnails.add(fileName)) {
+            return;
+        }
         try {
-            // Ensure default avatar exists in uploads
-            Path targetLocation = this.rootLocation.resolve("default-avatar.png");
-            if (!Files.exists(targetLocation)) {
-                if (!Files.exists(rootLocation)) {
-                    Files.createDirectories(rootLocation);
+            imageExecutor.execute(() -> {
+                try {
+                    writeThumbnails(fileName, contentType);
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Could not generate thumbnails for {}: {}", fileName, e.getMessage());
+                } finally {
+                    pendingThumbnails.remove(fileName);
                 }
-                Files.copy(defaultAvatar.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+            });
+        } catch (TaskRejectedException e) {
+            // Queue is full; the original keeps being served and a later request retries
+            pendingThumbnails.remove(fileName);
+        }
+    }
+
+    private void writeThumbnails(String fileName, String contentType) throws IOException {
+        List<Integer> missing = new ArrayList<>();
+        for (int size : THUMBNAIL_SIZES) {
+            if (!Files.exists(rootLocation.resolve(thumbnailName(fileName, size, contentType)))) {
+                missing.add(size);
             }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        BufferedImage original = decode(rootLocation.resolve(fileName), missing.get(missing.size() - 1));
+        if (original == null) {
+            undecodable.add(fileName);
+            return;
+        }
 
-            // Return a transient Image object (not persisted) to avoid read-only transaction issues
-            Image image = new Image();
-            image.setFileName("default-avatar.png");
-            image.setContentType(MediaType.IMAGE_PNG_VALUE);
-            image.setSize(Files.size(targetLocation));
-            image.setData(null); // No data stored in DB
-            return image; // Don't save - just return transient object
-        } catch (IOException e) {
-            throw new IllegalStateException("Cannot load default avatar image", e);
+        for (int size : missing) {
+            String thumbnailName = thumbnailName(fileName, size, contentType);
+            Path target = rootLocation.resolve(thumbnailName);
+            String format = thumbnailName.endsWith(".jpg") ? "jpg" : "png";
+            Path temp = Files.createTempFile(rootLocation, "thumb-", ".tmp");
+            try {
+                ImageIO.write(scale(original, size, "png".equals(format)), format, temp.toFile());
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
         }
+    }
 
+    /**
+     * Decodes the first image in the file, subsampled so its longest edge stays at least twice
+     * {@code size}. Returns null if no ImageIO reader understands the file or the header declares
+     * more than {@link #MAX_THUMBNAIL_SOURCE_PIXELS}; the header is checked before any pixel is read.
+     */
+    private static BufferedImage decode(Path file, int size) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : Collections.emptyIterator();
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_THUMBNAIL_SOURCE_PIXELS) {
+                    log.info("Not generating thumbnails for {}: {}x{} exceeds the pixel limit", file.getFileName(), width, height);
+                    return null;
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, Math.max(width, height) / (2 * size));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage source, int size, boolean alpha) {
+        // Never upscale: variants larger than the original are re-encoded at its own size
+        double ratio = Math.min(1.0, (double) size / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+
+        BufferedImage scaled = new BufferedImage(width, height, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return scaled;
     }
-}
 
+    private ImageContent defaultAvatarContent() {
+        return new ImageContent(new ByteArrayResource(defaultAvatarBytes), MediaType.IMAGE_PNG_VALUE, defaultAvatarETag);
+    }
 
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 
+    private static String contentETag(byte[] data) {
+        return "\"" + DigestUtils.md5DigestAsHex(data) + "\"";
+    }
+}
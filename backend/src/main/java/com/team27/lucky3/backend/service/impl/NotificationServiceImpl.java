@@ -1,5 +1,6 @@
 package com.team27.lucky3.backend.service.impl;
 
+import com.team27.lucky3.backend.config.TaskExecutionConfig;
 import com.team27.lucky3.backend.dto.response.NotificationResponse;
 import com.team27.lucky3.backend.entity.Notification;
 import com.team27.lucky3.backend.entity.Ride;
@@ -14,11 +15,16 @@ import com.team27.lucky3.backend.repository.UserRepository;
 import com.team27.lucky3.backend.service.EmailService;
 import com.team27.lucky3.backend.service.FcmService;
 import com.team27.lucky3.backend.service.NotificationService;
+import com.team27.lucky3.backend.service.UnreadNotificationCounter;
 import com.team27.lucky3.backend.util.RideTrackingTokenUtils;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.scheduling.annotation.Async;
@@ -27,10 +33,17 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
 /**
  * Implementation of the Notification Subsystem.
@@ -56,12 +69,16 @@ import java.util.concurrent.CompletableFuture;
 public class NotificationServiceImpl implements NotificationService {
 
     private final NotificationRepository notificationRepository;
+    private final UnreadNotificationCounter unreadCounter;
     private final UserRepository userRepository;
     private final RideTrackingTokenRepository rideTrackingTokenRepository;
     private final SimpMessagingTemplate messagingTemplate;
     private final EmailService emailService;
     private final FcmService fcmService;
     private final RideTrackingTokenUtils rideTrackingTokenUtils;
+    private final MeterRegistry meterRegistry;
+    @Qualifier(TaskExecutionConfig.TASK_EXECUTOR)
+    private final Executor taskExecutor;
 
     @Value("${frontend.url}")
     private String frontendUrl;
@@ -69,6 +86,11 @@ public class NotificationServiceImpl implements NotificationService {
     private static final String PRIORITY_NORMAL = "NORMAL";
     private static final String PRIORITY_CRITICAL = "CRITICAL";
     private static final DateTimeFormatter FMT = DateTimeFormatter.ofPattern("dd MMM yyyy, HH:mm");
+    /** Rows touched per statement by mark-all-read and clear-all. */
+    static final int BULK_BATCH_SIZE = 500;
+
+    // Fan-out size per notification type, registered on first use
+    private final Map<NotificationType, DistributionSummary> fanOutSummaries = new ConcurrentHashMap<>();
 
     // ════════════════════════════════════════════════════════════════════
     //  GENERIC SEND — single recipient
@@ -101,6 +123,7 @@ public class NotificationServiceImpl implements NotificationService {
         entity.setPriority(priority != null ? priority : PRIORITY_NORMAL);
 
         Notification saved = notificationRepository.save(entity);
+        unreadCounter.recordCreated(List.of(recipient.getId()));
         NotificationResponse dto = mapToResponse(saved);
 
         // 2. Push via WebSocket → /user/{id}/queue/notifications
@@ -120,6 +143,66 @@ public class NotificationServiceImpl implements NotificationService {
         return dto;
     }
 
+    // ════════════════════════════════════════════════════════════════════
+    //  GENERIC SEND — many recipients, one payload
+    // ════════════════════════════════════════════════════════════════════
+
+    @Override
+    @Transactional
+    public List<NotificationResponse> sendNotificationToAll(Collection<User> recipients,
+                                                            String text,
+                                                            NotificationType type,
+                                                            Long relatedEntityId,
+                                                            String priority) {
+        Map<Long, User> distinct = new LinkedHashMap<>();
+        for (User recipient : recipients) {
+            distinct.putIfAbsent(recipient.getId(), recipient);
+        }
+        recordFanOut(type, distinct.size());
+        if (distinct.isEmpty()) {
+            return List.of();
+        }
+
+        // 1. Persist — one batched insert; flushed so the rows exist before any push
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> entities = new ArrayList<>(distinct.size());
+        for (User recipient : distinct.values()) {
+            Notification n = newNotification(recipient, text, type, relatedEntityId,
+                    priority != null ? priority : PRIORITY_NORMAL);
+            n.setTimestamp(now);
+            entities.add(n);
+        }
+        List<Notification> saved = notificationRepository.saveAll(entities);
+        notificationRepository.flush();
+        unreadCounter.recordCreated(distinct.keySet());
+
+        // 2. Push via WebSocket, 3. FCM for every device in one batched call
+        String title = fcmTitle(type);
+        List<NotificationResponse> dtos = new ArrayList<>(saved.size());
+        List<FcmService.DevicePush> pushes = new ArrayList<>(saved.size());
+        for (Notification n : saved) {
+            User recipient = n.getRecipient();
+            NotificationResponse dto = mapToResponse(n);
+            pushWebSocket(recipient.getId(), dto);
+            dtos.add(dto);
+            if (recipient.getFcmToken() != null && !recipient.getFcmToken().isBlank()) {
+                pushes.add(new FcmService.DevicePush(recipient.getFcmToken(), title, text,
+                        fcmData(recipient, type, relatedEntityId, n.getId())));
+            }
+        }
+        if (!pushes.isEmpty() && fcmService.isAvailable()) {
+            try {
+                fcmService.sendToDevices(pushes);
+            } catch (Exception e) {
+                // FCM failure must never break the persist-first contract
+                log.warn("Failed to push {} FCM notifications: {}", pushes.size(), e.getMessage());
+            }
+        }
+
+        log.info("Notification [{}] sent to {} users (priority={})", type, saved.size(), priority);
+        return dtos;
+    }
+
     // ════════════════════════════════════════════════════════════════════
     //  SCENARIO A — Linked Passenger Invite
     // ════════════════════════════════════════════════════════════════════
@@ -166,16 +249,7 @@ public class NotificationServiceImpl implements NotificationService {
         );
 
         List<User> admins = userRepository.findAllByRole(UserRole.ADMIN);
-
-        for (User admin : admins) {
-            Notification entity = buildAndSave(admin, text,
-                    NotificationType.PANIC, ride.getId(), PRIORITY_CRITICAL);
-            NotificationResponse dto = mapToResponse(entity);
-            pushWebSocket(admin.getId(), dto);
-
-            // Push via FCM (async, non-blocking)
-            pushFcm(admin, text, NotificationType.PANIC, ride.getId(), entity.getId());
-        }
+        sendNotificationToAll(admins, text, NotificationType.PANIC, ride.getId(), PRIORITY_CRITICAL);
 
         log.warn("PANIC notification broadcast to {} admins for ride #{}",
                 admins.size(), ride.getId());
@@ -194,9 +268,7 @@ public class NotificationServiceImpl implements NotificationService {
         // actions (acceptRide, startRide), so the driver already knows and must not
         // receive a notification for their own action.
         if (ride.getPassengers() != null) {
-            for (User passenger : ride.getPassengers()) {
-                sendNotification(passenger, text, NotificationType.RIDE_STATUS, ride.getId());
-            }
+            sendNotificationToAll(ride.getPassengers(), text, NotificationType.RIDE_STATUS, ride.getId(), PRIORITY_NORMAL);
         }
     }
 
@@ -222,17 +294,15 @@ public class NotificationServiceImpl implements NotificationService {
 
         String text = String.format("Ride #%d: %s has been completed.", ride.getId(), stopLabel);
 
-        // Notify all passengers
+        // Notify all passengers and the driver (if assigned)
+        List<User> recipients = new ArrayList<>();
         if (ride.getPassengers() != null) {
-            for (User passenger : ride.getPassengers()) {
-                sendNotification(passenger, text, NotificationType.STOP_COMPLETED, ride.getId());
-            }
+            recipients.addAll(ride.getPassengers());
         }
-
-        // Notify driver (if assigned)
         if (ride.getDriver() != null) {
-            sendNotification(ride.getDriver(), text, NotificationType.STOP_COMPLETED, ride.getId());
+            recipients.add(ride.getDriver());
         }
+        sendNotificationToAll(recipients, text, NotificationType.STOP_COMPLETED, ride.getId(), PRIORITY_NORMAL);
 
         log.info("Stop completed notification sent for ride #{}, stop index {}", ride.getId(), stopIndex);
     }
@@ -260,6 +330,7 @@ public class NotificationServiceImpl implements NotificationService {
 
         String text = String.format("Ride #%d: %s has been completed.", ride.getId(), stopLabel);
 
+        recordFanOut(NotificationType.STOP_COMPLETED, invitedEmails.size());
         for (String email : invitedEmails) {
             Optional<User> registeredUser = userRepository.findByEmail(email);
             if (registeredUser.isPresent()) {
@@ -285,16 +356,10 @@ public class NotificationServiceImpl implements NotificationService {
         // Notify all passengers (push + FCM + email) — driver does NOT get this notification
         Set<User> passengers = ride.getPassengers();
         if (passengers != null) {
-            for (User passenger : passengers) {
-                Notification entity = buildAndSave(passenger, text,
-                        NotificationType.RIDE_FINISHED, ride.getId(), PRIORITY_NORMAL);
-                NotificationResponse dto = mapToResponse(entity);
-                pushWebSocket(passenger.getId(), dto);
-
-                // Send FCM push notification (async, non-blocking)
-                pushFcm(passenger, text, NotificationType.RIDE_FINISHED, ride.getId(), entity.getId());
+            sendNotificationToAll(passengers, text, NotificationType.RIDE_FINISHED, ride.getId(), PRIORITY_NORMAL);
 
-                // Send ride-summary email (async, skip dummy emails)
+            // Send ride-summary email (async, skip dummy emails)
+            for (User passenger : passengers) {
                 sendRideSummaryEmail(passenger, ride);
             }
         }
@@ -343,9 +408,7 @@ public class NotificationServiceImpl implements NotificationService {
         );
 
         List<User> admins = userRepository.findAllByRole(UserRole.ADMIN);
-        for (User admin : admins) {
-            sendNotification(admin, text, NotificationType.SUPPORT, chatId);
-        }
+        sendNotificationToAll(admins, text, NotificationType.SUPPORT, chatId, PRIORITY_NORMAL);
 
         log.info("Support message notification sent to {} admins for chat #{}", admins.size(), chatId);
     }
@@ -395,14 +458,10 @@ public class NotificationServiceImpl implements NotificationService {
         // (the creator already knows — they just created it)
         User creator = ride.getCreatedBy();
         if (ride.getPassengers() != null) {
-            for (User passenger : ride.getPassengers()) {
-                if (creator != null && creator.getId().equals(passenger.getId())) {
-                    log.debug("Skipping RIDE_CREATED notification for creator {} on ride #{}",
-                            creator.getId(), ride.getId());
-                    continue;
-                }
-                sendNotification(passenger, text, NotificationType.RIDE_CREATED, ride.getId());
-            }
+            List<User> recipients = ride.getPassengers().stream()
+                    .filter(passenger -> creator == null || !creator.getId().equals(passenger.getId()))
+                    .toList();
+            sendNotificationToAll(recipients, text, NotificationType.RIDE_CREATED, ride.getId(), PRIORITY_NORMAL);
         }
 
         // Push notification to the driver
@@ -443,11 +502,11 @@ public class NotificationServiceImpl implements NotificationService {
 
         // Push notification + email to ALL registered passengers except the canceller
         if (ride.getPassengers() != null) {
-            for (User passenger : ride.getPassengers()) {
-                if (passenger.getId().equals(cancelledBy.getId())) {
-                    continue; // Skip the person who cancelled
-                }
-                sendNotification(passenger, text, NotificationType.RIDE_CANCELLED, ride.getId());
+            List<User> recipients = ride.getPassengers().stream()
+                    .filter(passenger -> !passenger.getId().equals(cancelledBy.getId())) // Skip the person who cancelled
+                    .toList();
+            sendNotificationToAll(recipients, text, NotificationType.RIDE_CANCELLED, ride.getId(), PRIORITY_NORMAL);
+            for (User passenger : recipients) {
                 // Send cancellation email to this passenger (async)
                 sendCancellationEmail(passenger.getEmail(), passenger.getName(), ride, cancellerName, cancellerRole);
             }
@@ -483,9 +542,8 @@ public class NotificationServiceImpl implements NotificationService {
 
         // Notify all passengers
         if (ride.getPassengers() != null) {
-            for (User passenger : ride.getPassengers()) {
-                sendNotification(passenger, text, NotificationType.RIDE_SCHEDULED_REMINDER, ride.getId());
-            }
+            sendNotificationToAll(ride.getPassengers(), text, NotificationType.RIDE_SCHEDULED_REMINDER,
+                    ride.getId(), PRIORITY_NORMAL);
         }
 
         // Notify driver
@@ -533,26 +591,42 @@ public class NotificationServiceImpl implements NotificationService {
             throw new IllegalStateException("Cannot mark another user's notification as read");
         }
 
-        notification.setRead(true);
-        return mapToResponse(notificationRepository.save(notification));
+        unreadCounter.markRead(userId, List.of(notificationId));
+        NotificationResponse response = mapToResponse(notification);
+        response.setRead(true);
+        return response;
     }
 
     @Override
-    @Transactional
     public int markAllAsRead(Long userId) {
-        return notificationRepository.markAllReadForUser(userId);
+        // Batched, one transaction per batch (see NotificationRepository)
+        int updated = 0;
+        List<Long> ids;
+        do {
+            ids = notificationRepository.findUnreadIdsByRecipientId(userId, PageRequest.of(0, BULK_BATCH_SIZE));
+            if (!ids.isEmpty()) {
+                updated += unreadCounter.markRead(userId, ids);
+            }
+        } while (ids.size() == BULK_BATCH_SIZE);
+        return updated;
     }
 
     @Override
-    @Transactional(readOnly = true)
     public long getUnreadCount(Long userId) {
-        return notificationRepository.countByRecipientIdAndIsReadFalse(userId);
+        return unreadCounter.get(userId);
     }
 
     @Override
-    @Transactional
     public int deleteAllForUser(Long userId) {
-        return notificationRepository.deleteAllForUser(userId);
+        int deleted = 0;
+        List<Long> ids;
+        do {
+            ids = notificationRepository.findIdsByRecipientId(userId, PageRequest.of(0, BULK_BATCH_SIZE));
+            if (!ids.isEmpty()) {
+                deleted += unreadCounter.delete(ids);
+            }
+        } while (ids.size() == BULK_BATCH_SIZE);
+        return deleted;
     }
 
     @Override
@@ -566,7 +640,7 @@ public class NotificationServiceImpl implements NotificationService {
             throw new IllegalStateException("Cannot delete another user's notification");
         }
 
-        notificationRepository.delete(notification);
+        unreadCounter.delete(List.of(notificationId));
     }
 
     // ════════════════════════════════════════════════════════════════════
@@ -576,6 +650,14 @@ public class NotificationServiceImpl implements NotificationService {
     private Notification buildAndSave(User recipient, String text,
                                       NotificationType type, Long relatedEntityId,
                                       String priority) {
+        Notification saved = notificationRepository.save(newNotification(recipient, text, type, relatedEntityId, priority));
+        unreadCounter.recordCreated(List.of(recipient.getId()));
+        return saved;
+    }
+
+    private Notification newNotification(User recipient, String text,
+                                         NotificationType type, Long relatedEntityId,
+                                         String priority) {
         Notification n = new Notification();
         n.setText(text);
         n.setTimestamp(LocalDateTime.now());
@@ -584,7 +666,17 @@ public class NotificationServiceImpl implements NotificationService {
         n.setRead(false);
         n.setRelatedEntityId(relatedEntityId);
         n.setPriority(priority);
-        return notificationRepository.save(n);
+        return n;
+    }
+
+    /**
+     * Records how many recipients a single notification event fans out to.
+     */
+    private void recordFanOut(NotificationType type, int recipients) {
+        fanOutSummaries.computeIfAbsent(type, t -> DistributionSummary.builder("lucky3.notifications.fanout")
+                        .tag("type", t.name())
+                        .register(meterRegistry))
+                .record(recipients);
     }
 
     private void pushWebSocket(Long userId, NotificationResponse dto) {
@@ -614,7 +706,19 @@ public class NotificationServiceImpl implements NotificationService {
             return;
         }
 
-        // Build a descriptive title based on notification type
+        try {
+            fcmService.sendToDevice(fcmToken, fcmTitle(type), text,
+                    fcmData(recipient, type, relatedEntityId, notificationId));
+        } catch (Exception e) {
+            // FCM failure must never break the persist-first contract
+            log.warn("Failed to push FCM notification to user {}: {}", recipient.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Descriptive push title based on notification type.
+     */
+    private static String fcmTitle(NotificationType type) {
         String title;
         switch (type) {
             case RIDE_STATUS:
@@ -650,9 +754,15 @@ public class NotificationServiceImpl implements NotificationService {
             default:
                 title = "Lucky3 Notification";
         }
+        return title;
+    }
 
-        // Extra data for deep-linking on the client
-        java.util.Map<String, String> data = new java.util.HashMap<>();
+    /**
+     * Extra data for deep-linking on the client.
+     */
+    private static Map<String, String> fcmData(User recipient, NotificationType type,
+                                               Long relatedEntityId, Long notificationId) {
+        Map<String, String> data = new HashMap<>();
         data.put("type", type.name());
         if (relatedEntityId != null) {
             data.put("rideId", String.valueOf(relatedEntityId));
@@ -693,20 +803,14 @@ public class NotificationServiceImpl implements NotificationService {
             default:
                 break;
         }
-
-        try {
-            fcmService.sendToDevice(fcmToken, title, text, data);
-        } catch (Exception e) {
-            // FCM failure must never break the persist-first contract
-            log.warn("Failed to push FCM notification to user {}: {}", recipient.getId(), e.getMessage());
-        }
+        return data;
     }
 
     /**
      * Sends email asynchronously so WebSocket push is not delayed.
      */
     /**
-     * Sends email asynchronously using CompletableFuture to avoid blocking the main thread.
+     * Sends email asynchronously on the shared task executor to avoid blocking the main thread.
      * This ensures email timeouts don't affect the API response.
      */
     protected void sendEmailAsync(String to, NotificationType type,
@@ -728,7 +832,7 @@ public class NotificationServiceImpl implements NotificationService {
             } catch (Exception e) {
                 log.error("Async email to {} failed: {}", to, e.getMessage());
             }
-        });
+        }, taskExecutor);
     }
 
     /**
@@ -762,7 +866,7 @@ public class NotificationServiceImpl implements NotificationService {
             } catch (Exception e) {
                 log.error("Failed to send linked-passenger email to {}: {}", email, e.getMessage());
             }
-        });
+        }, taskExecutor);
     }
 
     /**
@@ -805,7 +909,7 @@ public class NotificationServiceImpl implements NotificationService {
             } catch (Exception e) {
                 log.error("Failed to send ride-summary email to {}: {}", email, e.getMessage());
             }
-        });
+        }, taskExecutor);
     }
 
     private String buildRideSummaryText(Ride ride) {
@@ -843,7 +947,7 @@ public class NotificationServiceImpl implements NotificationService {
             } catch (Exception e) {
                 log.error("Failed to send ride-cancelled email to {}: {}", email, e.getMessage());
             }
-        });
+        }, taskExecutor);
     }
 
     /**
@@ -885,7 +989,7 @@ public class NotificationServiceImpl implements NotificationService {
             } catch (Exception e) {
                 log.error("Failed to send ride-created email to driver {}: {}", email, e.getMessage());
             }
-        });
+        }, taskExecutor);
     }
 
     // ════════════════════════════════════════════════════════════════════
@@ -906,6 +1010,7 @@ public class NotificationServiceImpl implements NotificationService {
         String endAddress = ride.getEndLocation() != null 
                 ? ride.getEndLocation().getAddress() : "Unknown";
 
+        recordFanOut(NotificationType.RIDE_INVITE, invitedEmails.size());
         for (String email : invitedEmails) {
             // Skip the ride creator - they already know about the ride
             if (creatorEmail != null && email.equalsIgnoreCase(creatorEmail)) {
@@ -942,7 +1047,7 @@ public class NotificationServiceImpl implements NotificationService {
                 } catch (Exception e) {
                     log.error("Failed to send ride-created email to {}: {}", emailCopy, e.getMessage());
                 }
-            });
+            }, taskExecutor);
 
             // Send push notification ONLY to registered users
             if (registeredUser.isPresent()) {
@@ -974,6 +1079,7 @@ public class NotificationServiceImpl implements NotificationService {
         String endAddress = ride.getEndLocation() != null 
                 ? ride.getEndLocation().getAddress() : "Unknown";
 
+        recordFanOut(NotificationType.RIDE_FINISHED, invitedEmails.size());
         for (String email : invitedEmails) {
             // Check if this email belongs to a registered user
             Optional<User> registeredUser = userRepository.findByEmail(email);
@@ -996,7 +1102,7 @@ public class NotificationServiceImpl implements NotificationService {
                 } catch (Exception e) {
                     log.error("Failed to send ride-completed email to {}: {}", emailCopy, e.getMessage());
                 }
-            });
+            }, taskExecutor);
 
             // Send push notification ONLY to registered users
             if (registeredUser.isPresent()) {
@@ -1026,6 +1132,7 @@ public class NotificationServiceImpl implements NotificationService {
             return;
         }
 
+        recordFanOut(NotificationType.RIDE_STATUS, invitedEmails.size());
         for (String email : invitedEmails) {
             Optional<User> registeredUser = userRepository.findByEmail(email);
             if (registeredUser.isPresent()) {
@@ -1059,6 +1166,7 @@ public class NotificationServiceImpl implements NotificationService {
         final String rejectionReason = ride.getRejectionReason();
         final double estimatedCost = ride.getEstimatedCost();
 
+        recordFanOut(NotificationType.RIDE_CANCELLED, invitedEmails.size());
         for (String email : invitedEmails) {
             // Check if this email belongs to a registered user
             Optional<User> registeredUser = userRepository.findByEmail(email);
@@ -1078,7 +1186,7 @@ public class NotificationServiceImpl implements NotificationService {
                 } catch (Exception e) {
                     log.error("Failed to send ride-cancelled email to {}: {}", emailCopy, e.getMessage());
                 }
-            });
+            }, taskExecutor);
 
             // Send push notification ONLY to registered users
             if (registeredUser.isPresent()) {
@@ -0,0 +1,69 @@
+package com.team27.lucky3.backend.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team27.lucky3.backend.service.RoutingService.Route;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the JSON bodies returned by the OSRM route and table services.
+ */
+final class OsrmResponseParser {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private OsrmResponseParser() {
+    }
+
+    /**
+     * Parses the first route of an OSRM {@code geometries=geojson} response.
+     */
+    static Route route(String body) {
+        try {
+            JsonNode routes = OBJECT_MAPPER.readTree(body).path("routes");
+            if (!routes.isArray() || routes.isEmpty()) {
+                throw new IllegalStateException("OSRM returned no route");
+            }
+            JsonNode route = routes.get(0);
+
+            // OSRM returns distance in meters and duration in seconds
+            List<double[]> geometry = new ArrayList<>();
+            JsonNode coordinates = route.path("geometry").path("coordinates");
+            if (coordinates.isArray()) {
+                for (JsonNode coord : coordinates) {
+                    // OSRM GeoJSON is [lon, lat]
+                    geometry.add(new double[]{coord.get(1).asDouble(), coord.get(0).asDouble()});
+                }
+            }
+            return new Route(route.path("distance").asDouble(), route.path("duration").asDouble(), geometry);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Invalid response from OSRM", e);
+        }
+    }
+
+    /**
+     * Parses the {@code durations} matrix of an OSRM table response; unroutable pairs are null there.
+     */
+    static double[][] durationTable(String body, int sources, int destinations) {
+        try {
+            JsonNode durations = OBJECT_MAPPER.readTree(body).path("durations");
+            if (!durations.isArray() || durations.size() != sources) {
+                throw new IllegalStateException("OSRM returned no duration table");
+            }
+            double[][] table = new double[sources][destinations];
+            for (int i = 0; i < sources; i++) {
+                JsonNode row = durations.get(i);
+                for (int j = 0; j < destinations; j++) {
+                    JsonNode cell = row.get(j);
+                    table[i][j] = cell == null || cell.isNull() ? Double.NaN : cell.asDouble();
+                }
+            }
+            return table;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Invalid response from OSRM", e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.team27.lucky3.backend.service.impl;
+
+import com.team27.lucky3.backend.dto.LocationDto;
+import com.team27.lucky3.backend.service.RoutingService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class OsrmRoutingServiceImpl implements RoutingService {
+
+    private final RestTemplate restTemplate = new RestTemplate();
+
+    // Base OSRM URL without coordinates
+    @Value("${routing.osrm.url:http://router.project-osrm.org/route/v1/driving/}")
+    private String osrmBaseUrl;
+
+    @Value("${routing.osrm.table-url:http://router.project-osrm.org/table/v1/driving/}")
+    private String osrmTableUrl;
+
+    @Override
+    public Route route(List<LocationDto> waypoints) {
+        if (waypoints == null || waypoints.size() < 2) {
+            throw new IllegalArgumentException("At least two waypoints are required");
+        }
+
+        // Construct coordinates string: start;stop1;stop2;end (OSRM expects lon,lat)
+        String url = osrmBaseUrl + coordinates(waypoints) + "?overview=full&geometries=geojson";
+
+        String body = restTemplate.getForObject(url, String.class);
+        if (body == null) {
+            throw new IllegalStateException("Empty response from OSRM");
+        }
+
+        return OsrmResponseParser.route(body);
+    }
+
+    @Override
+    public double[][] durationTable(List<LocationDto> sources, List<LocationDto> destinations) {
+        // One coordinate list: sources first, then destinations, referenced by index
+        List<LocationDto> points = new ArrayList<>(sources);
+        points.addAll(destinations);
+        StringBuilder url = new StringBuilder(osrmTableUrl).append(coordinates(points));
+        url.append("?annotations=duration&sources=").append(indexRange(0, sources.size()));
+        url.append("&destinations=").append(indexRange(sources.size(), points.size()));
+
+        String body = restTemplate.getForObject(url.toString(), String.class);
+        if (body == null) {
+            throw new IllegalStateException("Empty response from OSRM");
+        }
+        return OsrmResponseParser.durationTable(body, sources.size(), destinations.size());
+    }
+
+    private static String coordinates(List<LocationDto> points) {
+        StringBuilder coords = new StringBuilder();
+        for (LocationDto point : points) {
+            if (!coords.isEmpty()) coords.append(";");
+            coords.append(point.getLongitude()).append(",").append(point.getLatitude());
+        }
+        return coords.toString();
+    }
+
+    private static String indexRange(int from, int to) {
+        StringBuilder indexes = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            if (!indexes.isEmpty()) indexes.append(";");
+            indexes.append(i);
+        }
+        return indexes.toString();
+    }
+}
@@ -10,6 +10,8 @@ import com.team27.lucky3.backend.exception.ResourceNotFoundException;
 import com.team27.lucky3.backend.repository.ReviewRepository;
 import com.team27.lucky3.backend.repository.RideRepository;
 import com.team27.lucky3.backend.repository.UserRepository;
+import com.team27.lucky3.backend.service.AdminLiveStatsService;
+import com.team27.lucky3.backend.service.DriverStatsService;
 import com.team27.lucky3.backend.service.ReviewService;
 import com.team27.lucky3.backend.util.ReviewTokenUtils;
 import io.jsonwebtoken.Claims;
@@ -28,6 +30,8 @@ public class ReviewServiceImpl implements ReviewService {
     private final RideRepository rideRepository;
     private final UserRepository userRepository;
     private final ReviewTokenUtils reviewTokenUtils;
+    private final AdminLiveStatsService adminLiveStatsService;
+    private final DriverStatsService driverStatsService;
 
     @Override
     @Transactional
@@ -66,6 +70,8 @@ public class ReviewServiceImpl implements ReviewService {
         review.setTimestamp(LocalDateTime.now());
 
         Review savedReview = reviewRepository.save(review);
+        adminLiveStatsService.recordDriverRating(savedReview);
+        driverStatsService.recordReview(savedReview);
 
         Long passengerId = passenger != null ? passenger.getId() : null;
 
@@ -206,6 +212,8 @@ public class ReviewServiceImpl implements ReviewService {
         }
         
         Review savedReview = reviewRepository.save(review);
+        adminLiveStatsService.recordDriverRating(savedReview);
+        driverStatsService.recordReview(savedReview);
         
         return new ReviewResponse(
                 savedReview.getId(),
@@ -1,33 +1,52 @@
 package com.team27.lucky3.backend.service.impl;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.team27.lucky3.backend.dto.LocationDto;
 import com.team27.lucky3.backend.dto.request.*;
 import com.team27.lucky3.backend.dto.response.*;
 import com.team27.lucky3.backend.entity.*;
 import com.team27.lucky3.backend.entity.enums.RideStatus;
+import com.team27.lucky3.backend.entity.enums.RideTransition;
 import com.team27.lucky3.backend.entity.enums.VehicleStatus;
 import com.team27.lucky3.backend.entity.enums.VehicleType;
 import com.team27.lucky3.backend.exception.ResourceNotFoundException;
 import com.team27.lucky3.backend.repository.*;
+import com.team27.lucky3.backend.service.AdminLiveStatsService;
+import com.team27.lucky3.backend.service.DriverReservationLedger;
+import com.team27.lucky3.backend.service.DriverScheduleIndex;
+import com.team27.lucky3.backend.service.DriverStatsService;
 import com.team27.lucky3.backend.service.EmailService;
 import com.team27.lucky3.backend.service.NotificationService;
 import com.team27.lucky3.backend.service.PanicService;
+import com.team27.lucky3.backend.service.RideOfferService;
 import com.team27.lucky3.backend.service.RideService;
+import com.team27.lucky3.backend.service.RoutingService;
+import com.team27.lucky3.backend.service.TravelTimeService;
+import com.team27.lucky3.backend.util.AssignmentSolver;
+import com.team27.lucky3.backend.util.BatchWindow;
+import com.team27.lucky3.backend.util.GeoUtils;
 import com.team27.lucky3.backend.util.ReviewTokenUtils;
+import com.team27.lucky3.backend.util.SingleFlight;
+import com.team27.lucky3.backend.util.TransactionHooks;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
-import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -41,6 +60,7 @@ import static com.team27.lucky3.backend.entity.enums.VehicleType.VAN;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class RideServiceImpl implements RideService {
 
     private final RideRepository rideRepository;
@@ -57,11 +77,63 @@ public class RideServiceImpl implements RideService {
     private final com.team27.lucky3.backend.service.socket.VehicleSocketService vehicleSocketService;
     private final com.team27.lucky3.backend.service.socket.RideSocketService rideSocketService;
     private final com.team27.lucky3.backend.service.VehiclePriceService vehiclePriceService;
-    private final RestTemplate restTemplate = new RestTemplate();
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AdminLiveStatsService adminLiveStatsService;
+    private final DriverScheduleIndex driverScheduleIndex;
+    private final DriverReservationLedger reservationLedger;
+    private final RideOfferService rideOfferService;
+    private final DriverStatsService driverStatsService;
+    private final RoutingService routingService;
+    private final TravelTimeService travelTimeService;
+    private final MeterRegistry meterRegistry;
+    private final PlatformTransactionManager transactionManager;
+
+    private static final Set<RideStatus> IN_PROGRESS_STATUSES = EnumSet.of(RideStatus.IN_PROGRESS, RideStatus.ACTIVE);
+    private static final Set<RideStatus> UPCOMING_STATUSES = EnumSet.of(RideStatus.SCHEDULED, RideStatus.PENDING);
+    private static final Set<RideStatus> PANIC_STATUSES = EnumSet.of(
+            RideStatus.PENDING, RideStatus.ACCEPTED, RideStatus.SCHEDULED,
+            RideStatus.IN_PROGRESS, RideStatus.ACTIVE, RideStatus.REJECTED);
+
+    // Concurrent estimates for (nearly) the same trip share one routing call and one
+    // nearest-driver scan. Coordinates are snapped to a ~50 m grid to build the key.
+    private static final double ESTIMATE_KEY_GRID_DEGREES = 0.0005;
+    private final SingleFlight<List<Long>, RoutingService.Route> routeFlights = new SingleFlight<>();
+    private final SingleFlight<ArrivalKey, Integer> arrivalFlights = new SingleFlight<>();
+
+    private record ArrivalKey(long startCell, VehicleType type) {
+    }
+
+    // Optional batched dispatch: immediate requests arriving within one window are matched
+    // together, minimising the fleet's total pickup time instead of serving each greedily.
+    @Value("${dispatch.batch.enabled:false}")
+    private boolean batchDispatchEnabled;
+    @Value("${dispatch.batch.window-ms:2000}")
+    private long batchWindowMillis;
+    private BatchWindow<DispatchRequest, DispatchProposal> dispatchWindow;
+    private DistributionSummary dispatchBatchSize;
+
+    private record DispatchRequest(CreateRideRequest request, RideEstimationResponse estimation) {
+    }
 
-    // Base OSRM URL without coordinates
-    private static final String OSRM_Base_URL = "http://router.project-osrm.org/route/v1/driving/";
+    private record DispatchProposal(Long vehicleId, Long driverId, long scheduleVersion, List<Long> nextDriverIds) {
+    }
+
+    // The claimed vehicle, if any, and the other suitable drivers, closest first, to offer the ride to next
+    private record DriverMatch(Vehicle vehicle, List<Long> nextDriverIds) {
+        static final DriverMatch NONE = new DriverMatch(null, List.of());
+    }
+
+    @PostConstruct
+    void registerEstimateMetrics() {
+        routeFlights.bindTo(meterRegistry, "estimate.route");
+        arrivalFlights.bindTo(meterRegistry, "estimate.driver_arrival");
+        if (batchDispatchEnabled) {
+            dispatchWindow = new BatchWindow<>(Duration.ofMillis(batchWindowMillis),
+                    batch -> inTransaction(true, () -> assignBatch(batch)));
+            dispatchBatchSize = DistributionSummary.builder("lucky3.dispatch.batch.size")
+                    .description("Immediate ride requests matched together in one dispatch window")
+                    .register(meterRegistry);
+        }
+    }
 
     @Override
     public RideEstimationResponse estimateRide(CreateRideRequest request) {
@@ -69,56 +141,41 @@ public class RideServiceImpl implements RideService {
         LocationDto end = request.getDestination();
         VehicleType type = request.getRequirements() != null ? request.getRequirements().getVehicleType() : VehicleType.STANDARD;
 
-        // Construct coordinates string: start;stop1;stop2;end
-        StringBuilder coords = new StringBuilder();
         if(start == null || end == null) {
             throw new IllegalArgumentException("Start and destination locations must be provided");
         }
-        coords.append(start.getLongitude()).append(",").append(start.getLatitude());
 
+        // Waypoints: start -> stop1 -> stop2 -> ... -> end
+        List<LocationDto> waypoints = new ArrayList<>();
+        waypoints.add(start);
         if (request.getStops() != null) {
-            for (LocationDto stop : request.getStops()) {
-                coords.append(";").append(stop.getLongitude()).append(",").append(stop.getLatitude());
-            }
+            waypoints.addAll(request.getStops());
         }
-        coords.append(";").append(end.getLongitude()).append(",").append(end.getLatitude());
-
-        // Fetch Route from OSRM
-        String url = OSRM_Base_URL + coords.toString() + "?overview=full&geometries=geojson";
+        waypoints.add(end);
 
         double distanceKm = 0.0;
         int durationMinutes = 0;
         List<RoutePointResponse> routePoints = new ArrayList<>();
 
         try {
-            ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                JsonNode root = objectMapper.readTree(response.getBody());
-                JsonNode route = root.path("routes").get(0);
-
-                // OSRM returns distance in meters and duration in seconds
-                double distanceMeters = route.path("distance").asDouble();
-                double durationSeconds = route.path("duration").asDouble();
+            List<Long> routeKey = waypoints.stream()
+                    .map(p -> GeoUtils.gridCell(p.getLatitude(), p.getLongitude(), ESTIMATE_KEY_GRID_DEGREES))
+                    .toList();
+            RoutingService.Route route = routeFlights.execute(routeKey, () -> routingService.route(waypoints));
 
-                distanceKm = Math.round((distanceMeters / 1000.0) * 100.0) / 100.0;
-                durationMinutes = (int) Math.round(durationSeconds / 60.0);
+            distanceKm = Math.round((route.distanceMeters() / 1000.0) * 100.0) / 100.0;
+            durationMinutes = (int) Math.round(route.durationSeconds() / 60.0);
 
-                // Extract Geometry (Coordinates)
-                JsonNode coordinates = route.path("geometry").path("coordinates");
-                if (coordinates.isArray()) {
-                    int order = 0;
-                    for (JsonNode coord : coordinates) {
-                        // OSRM GeoJSON is [lon, lat]
-                        double lon = coord.get(0).asDouble();
-                        double lat = coord.get(1).asDouble();
-                        // We don't need address for every single point on the line
-                        routePoints.add(new RoutePointResponse(new LocationDto("", lat, lon), order++));
-                    }
-                }
+            int order = 0;
+            for (double[] point : route.geometry()) {
+                // We don't need address for every single point on the line
+                routePoints.add(new RoutePointResponse(new LocationDto("", point[0], point[1]), order++));
             }
         } catch (Exception e) {
             // Fallback to Haversine if OSRM fails (or handle error appropriately)
-            System.err.println("OSRM Routing failed: " + e.getMessage());
+            log.warn("OSRM routing failed, falling back to straight-line estimate: {}", e.getMessage());
+            meterRegistry.counter("lucky3.routing.fallback", "caller", "estimate").increment();
+            routePoints.clear();
 
             // Calculate distance through all stops: start -> stop1 -> stop2 -> ... -> end
             distanceKm = 0.0;
@@ -129,13 +186,13 @@ public class RideServiceImpl implements RideService {
             if (request.getStops() != null) {
                 for (LocationDto stop : request.getStops()) {
                     Location stopLoc = mapLocation(stop);
-                    distanceKm += calculateHaversineDistance(currentPos, stopLoc);
+                    distanceKm += GeoUtils.haversineKm(currentPos, stopLoc);
                     currentPos = stopLoc;
                     routePoints.add(new RoutePointResponse(stop, order++));
                 }
             }
 
-            distanceKm += calculateHaversineDistance(currentPos, mapLocation(end));
+            distanceKm += GeoUtils.haversineKm(currentPos, mapLocation(end));
             routePoints.add(new RoutePointResponse(end, order));
 
             durationMinutes = (int) Math.ceil(distanceKm * 1.2); // Rough estimate
@@ -196,7 +253,7 @@ public class RideServiceImpl implements RideService {
         } catch (Exception e) {
             // Fallback to Haversine if OSRM fails (or handle error appropriately)
             System.err.println("OSRM Routing failed: " + e.getMessage());
-            distanceKm = calculateHaversineDistance(mapLocation(start), mapLocation(end));
+            distanceKm = GeoUtils.haversineKm(mapLocation(start), mapLocation(end));
             durationMinutes = (int) Math.ceil(distanceKm * 1.2); // Rough estimate
             // Add at least start and end points
             routePoints.add(new RoutePointResponse(start, 0));
@@ -215,6 +272,12 @@ public class RideServiceImpl implements RideService {
     }
 */
     private int calculateDriverArrival(LocationDto start, VehicleType type) {
+        ArrivalKey key = new ArrivalKey(
+                GeoUtils.gridCell(start.getLatitude(), start.getLongitude(), ESTIMATE_KEY_GRID_DEGREES), type);
+        return arrivalFlights.execute(key, () -> computeDriverArrival(start, type));
+    }
+
+    private int computeDriverArrival(LocationDto start, VehicleType type) {
         List<Vehicle> activeVehicles = vehicleRepository.findAllActiveVehicles();
         List<Vehicle> candidateVehicles = activeVehicles.stream()
                 .filter(v -> v.getVehicleType() == type || type == null)
@@ -223,19 +286,17 @@ public class RideServiceImpl implements RideService {
 
         if (candidateVehicles.isEmpty()) return -1;
 
-        double minDistance = Double.MAX_VALUE;
+        int minSeconds = Integer.MAX_VALUE;
         Location startLoc = mapLocation(start);
 
         for (Vehicle v : candidateVehicles) {
             if (v.getCurrentLocation() != null) {
-                double dist = calculateHaversineDistance(startLoc, v.getCurrentLocation());
-                if (dist < minDistance) {
-                    minDistance = dist;
-                }
+                minSeconds = Math.min(minSeconds, travelTimeService.etaSeconds(v.getCurrentLocation(), startLoc));
             }
         }
+        if (minSeconds == Integer.MAX_VALUE) return -1;
 
-        return (int) Math.ceil(minDistance / 0.83);
+        return (int) Math.ceil(minSeconds / 60.0);
     }
 
     /**
@@ -250,7 +311,6 @@ public class RideServiceImpl implements RideService {
      * Note: Driver working hours validation (max 8h in 24h) can be added later.
      */
     @Override
-    @Transactional
     public RideResponse createRide(CreateRideRequest request) {
         User passenger = getCurrentUser();
         if (passenger == null) {
@@ -280,6 +340,21 @@ public class RideServiceImpl implements RideService {
         // Calculate estimation first (needed for ride duration and route)
         RideEstimationResponse estimation = estimateRide(request);
 
+        // Batched requests wait for their dispatch window here, before the transaction opens,
+        // so the wait does not hold a database connection
+        Timer.Sample matching = Timer.start(meterRegistry);
+        boolean batched = batchDispatchEnabled && request.getScheduledTime() == null;
+        DispatchProposal proposal = batched ? dispatchWindow.submit(new DispatchRequest(request, estimation)) : null;
+
+        return inTransaction(false, () -> saveNewRide(passenger, request, estimation, matching, batched, proposal));
+    }
+
+    /**
+     * Builds and saves the ride, claiming a driver for it: the batch proposal if the request
+     * went through a dispatch window, otherwise the closest available one.
+     */
+    private RideResponse saveNewRide(User passenger, CreateRideRequest request, RideEstimationResponse estimation,
+                                     Timer.Sample matching, boolean batched, DispatchProposal proposal) {
         // Build the ride entity
         Ride ride = new Ride();
         ride.setScheduledTime(request.getScheduledTime());
@@ -334,7 +409,12 @@ public class RideServiceImpl implements RideService {
         ride.setPassengersExited(false);
 
         // === DRIVER ASSIGNMENT LOGIC ===
-        Vehicle assignedVehicle = findBestAvailableDriver(request, estimation);
+        DriverMatch match = batched
+                ? claimProposal(proposal, request, estimation)
+                : matchDriver(request, estimation);
+        Vehicle assignedVehicle = match.vehicle();
+        matching.stop(meterRegistry.timer("lucky3.matching.duration",
+                "outcome", assignedVehicle != null ? "matched" : "no_driver"));
 
         if (assignedVehicle != null) {
             // Driver found - assign and schedule the ride
@@ -357,9 +437,16 @@ public class RideServiceImpl implements RideService {
         }
 
         Ride savedRide = rideRepository.save(ride);
+        adminLiveStatsService.recordRideStatus(savedRide);
+        driverScheduleIndex.recordRide(savedRide);
 
         // ── Notification integration ──
         if (savedRide.getDriver() != null && savedRide.getStatus() != RideStatus.REJECTED) {
+            // Start the driver's acceptance timeout; unanswered offers cascade to the next candidate
+            Long rideId = savedRide.getId();
+            Long driverId = savedRide.getDriver().getId();
+            TransactionHooks.runAfterCommit(() -> rideOfferService.offer(rideId, driverId, match.nextDriverIds()));
+
             // Push notification to ALL registered parties (creator + driver + registered invited)
             notificationService.sendRideCreatedNotification(savedRide);
 
@@ -372,27 +459,22 @@ public class RideServiceImpl implements RideService {
     }
 
     /**
-     * Finds the best available driver for a ride request.
-     * Returns null if no suitable driver is found.
+     * Finds the best available driver for a ride request and claims them in the
+     * {@link DriverReservationLedger} until the surrounding transaction completes,
+     * so a concurrent request cannot pick the same driver in the meantime.
+     * Returns {@link DriverMatch#NONE} if no suitable driver is found.
      */
-    private Vehicle findBestAvailableDriver(CreateRideRequest request, RideEstimationResponse estimation) {
+    private DriverMatch matchDriver(CreateRideRequest request, RideEstimationResponse estimation) {
         // 1. Get all active vehicles
         List<Vehicle> activeVehicles = vehicleRepository.findAllActiveVehicles();
-        if (activeVehicles.isEmpty()) return null;
+        if (activeVehicles.isEmpty()) return DriverMatch.NONE;
 
         // 2. Filter by requirements (Type, Pet, Baby)
-        VehicleType requestedType = request.getRequirements().getVehicleType();
-        boolean isBaby = request.getRequirements().isBabyTransport();
-        boolean isPet = request.getRequirements().isPetTransport();
-
         List<Vehicle> compatibleVehicles = activeVehicles.stream()
-                .filter(v -> v.getDriver() != null && !v.getDriver().isBlocked())           //check if driver is blocked
-                .filter(v -> requestedType == null || v.getVehicleType() == requestedType)
-                .filter(v -> !isBaby || v.isBabyTransport())
-                .filter(v -> !isPet || v.isPetTransport())
+                .filter(v -> isCompatible(v, request))
                 .collect(Collectors.toList());
 
-        if (compatibleVehicles.isEmpty()) return null;
+        if (compatibleVehicles.isEmpty()) return DriverMatch.NONE;
 
         // 3. Check Availability (Free vs Busy logic) AND Working Hours
         LocalDateTime now = LocalDateTime.now();
@@ -400,92 +482,207 @@ public class RideServiceImpl implements RideService {
         // Default duration 30 min if estimation fails
         int duration = estimation.getEstimatedTimeInMinutes() > 0 ? estimation.getEstimatedTimeInMinutes() : 30;
         LocalDateTime rideEnd = rideStart.plusMinutes(duration);
+        Location rideStartLocation = mapLocation(request.getStart());
 
-        List<Vehicle> availableVehicles = new ArrayList<>();
-
+        List<DriverCandidate> candidates = new ArrayList<>();
         for (Vehicle v : compatibleVehicles) {
-            // --- NEW: Check Working Hours (Max 8 hours in last 24h) ---
-            LocalDateTime twentyFourHoursAgo = now.minusHours(24);
-            List<DriverActivitySession> sessions = activitySessionRepository.findSessionsSince(v.getDriver().getId(), twentyFourHoursAgo);
-
-            long totalSeconds = 0;
-            for (DriverActivitySession session : sessions) {
-                LocalDateTime start = session.getStartTime().isBefore(twentyFourHoursAgo) ? twentyFourHoursAgo : session.getStartTime();
-                LocalDateTime end = (session.getEndTime() == null) ? now : session.getEndTime();
-
-                if (end.isAfter(start)) {
-                    totalSeconds += java.time.Duration.between(start, end).getSeconds();
-                }
+            // Read before checking, so a schedule change made after the check invalidates the claim below
+            long scheduleVersion = driverScheduleIndex.version(v.getDriver().getId());
+            if (isAvailable(v, request, now, rideStart, rideEnd) && v.getCurrentLocation() != null) {
+                int eta = travelTimeService.etaSeconds(v.getCurrentLocation(), rideStartLocation);
+                candidates.add(new DriverCandidate(v, scheduleVersion, eta));
             }
+        }
 
-            double totalHours = totalSeconds / 3600.0;
-            if (totalHours > 8.0) {
-                continue; // Skip this driver, they are overworked
+        // 4. Claim the closest (by driving time) available driver nobody else is assigning right now
+        candidates.sort(Comparator.comparingInt(DriverCandidate::etaSeconds));
+        Object claimOwner = new Object();
+        for (int i = 0; i < candidates.size(); i++) {
+            DriverCandidate candidate = candidates.get(i);
+            if (claimDriver(candidate.vehicle().getDriver().getId(), candidate.scheduleVersion(), claimOwner)) {
+                List<Long> nextDriverIds = candidates.subList(i + 1, candidates.size()).stream()
+                        .map(c -> c.vehicle().getDriver().getId())
+                        .toList();
+                return new DriverMatch(candidate.vehicle(), nextDriverIds);
             }
-            // -----------------------------------------------------------
+        }
 
-            // A. Handle Scheduled Ride in Future (> 20 mins from now)
-            if (request.getScheduledTime() != null && request.getScheduledTime().isAfter(now.plusMinutes(20))) {
-                // Check if driver has ANY ride overlapping with the future time slot
-                List<Long> busyIds = rideRepository.findDriversWithRidesInTimeRange(
-                        Collections.singletonList(v.getDriver().getId()), rideStart, rideEnd
-                );
-                if (busyIds.isEmpty()) {
-                    availableVehicles.add(v);
-                }
-                continue;
-            }
+        return DriverMatch.NONE;
+    }
 
-            // B. Handle Immediate Ride (or very soon)
-            if (v.getStatus() == VehicleStatus.FREE) {
-                // Driver is FREE. Check if they have a scheduled ride starting soon that would conflict.
-                List<Long> conflictingIds = rideRepository.findDriversWithRidesInTimeRange(
-                        Collections.singletonList(v.getDriver().getId()), rideStart, rideEnd
-                );
-                if (conflictingIds.isEmpty()) {
-                    availableVehicles.add(v);
-                }
-            }
-            else if (v.getStatus() == VehicleStatus.BUSY) {
-                // Driver is BUSY. Check if they finish soon (e.g., within 15 mins).
-                List<RideStatus> activeStatuses = Arrays.asList(RideStatus.IN_PROGRESS, RideStatus.ACTIVE);
+    private record DriverCandidate(Vehicle vehicle, long scheduleVersion, int etaSeconds) {
+    }
 
-                // Get their current active ride(s)
-                List<Ride> currentRides = rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(
-                        v.getDriver().getId(), activeStatuses
-                );
+    /**
+     * Claims the driver in the {@link DriverReservationLedger} if their schedule has not changed
+     * since {@code scheduleVersion} was read. The hold is released when the surrounding
+     * transaction completes.
+     */
+    private boolean claimDriver(Long driverId, long scheduleVersion, Object claimOwner) {
+        if (!reservationLedger.tryClaim(driverId, claimOwner)) {
+            meterRegistry.counter("lucky3.matching.claim_conflicts", "reason", "held").increment();
+            return false;
+        }
+        if (driverScheduleIndex.version(driverId) != scheduleVersion) {
+            // Another assignment for this driver committed while we were checking
+            reservationLedger.release(driverId, claimOwner);
+            meterRegistry.counter("lucky3.matching.claim_conflicts", "reason", "schedule_changed").increment();
+            return false;
+        }
+        // Released after commit (the schedule index blocks the driver from then on) or rollback
+        TransactionHooks.runAfterCompletion(() -> reservationLedger.release(driverId, claimOwner));
+        return true;
+    }
 
-                if (!currentRides.isEmpty()) {
-                    Ride currentRide = currentRides.get(0);
-                    // Allow if finishing in < 15 mins AND new ride fits after
-                    if (currentRide.getEndTime() != null &&
-                            currentRide.getEndTime().isBefore(now.plusMinutes(15))) {
-                        availableVehicles.add(v);
-                    }
-                }
+    /**
+     * Claims the vehicle the batch assignment picked for this request. If that claim fails
+     * (the driver was taken in the meantime) the request falls back to greedy matching.
+     * Returns no vehicle if the batch left the request without one.
+     */
+    private DriverMatch claimProposal(DispatchProposal proposal, CreateRideRequest request,
+                                      RideEstimationResponse estimation) {
+        if (proposal == null) return DriverMatch.NONE;
+
+        if (claimDriver(proposal.driverId(), proposal.scheduleVersion(), new Object())) {
+            // The batch ran in another request's session, load the vehicle into ours
+            return vehicleRepository.findById(proposal.vehicleId())
+                    .map(v -> new DriverMatch(v, proposal.nextDriverIds()))
+                    .orElse(DriverMatch.NONE);
+        }
+        return matchDriver(request, estimation);
+    }
+
+    /**
+     * Runs {@code work} in a transaction, joining the caller's if there is one. Used where
+     * only part of a method should run transactionally.
+     */
+    private <T> T inTransaction(boolean readOnly, Supplier<T> work) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template.execute(status -> work.get());
+    }
+
+    /**
+     * Matches a window of immediate ride requests against the active fleet at once.
+     * Availability is checked as in {@link #matchDriver}; the pickup times of
+     * all feasible request/vehicle pairs form a cost matrix whose minimum-cost assignment is
+     * returned, one proposal (or null) per request. Nothing is claimed here: each request
+     * claims its own proposal on its own thread and transaction.
+     */
+    private List<DispatchProposal> assignBatch(List<DispatchRequest> batch) {
+        dispatchBatchSize.record(batch.size());
+        List<DispatchProposal> proposals = new ArrayList<>(Collections.nCopies(batch.size(), null));
+
+        List<Vehicle> vehicles = vehicleRepository.findAllActiveVehicles().stream()
+                .filter(v -> v.getDriver() != null && !v.getDriver().isBlocked() && v.getCurrentLocation() != null)
+                .collect(Collectors.toList());
+        if (vehicles.isEmpty()) return proposals;
+
+        LocalDateTime now = LocalDateTime.now();
+        long[] scheduleVersions = new long[vehicles.size()];
+        boolean[] rested = new boolean[vehicles.size()];
+        for (int j = 0; j < vehicles.size(); j++) {
+            Long driverId = vehicles.get(j).getDriver().getId();
+            scheduleVersions[j] = driverScheduleIndex.version(driverId);
+            rested[j] = withinWorkingHours(driverId, now);
+        }
+
+        double[][] cost = new double[batch.size()][vehicles.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            CreateRideRequest request = batch.get(i).request();
+            int estimated = batch.get(i).estimation().getEstimatedTimeInMinutes();
+            LocalDateTime rideEnd = now.plusMinutes(estimated > 0 ? estimated : 30);
+            Location rideStartLocation = mapLocation(request.getStart());
+            for (int j = 0; j < vehicles.size(); j++) {
+                Vehicle v = vehicles.get(j);
+                cost[i][j] = rested[j] && isCompatible(v, request) && isScheduleFree(v, null, now, now, rideEnd)
+                        ? travelTimeService.etaSeconds(v.getCurrentLocation(), rideStartLocation)
+                        : Double.POSITIVE_INFINITY;
             }
         }
 
-        if (availableVehicles.isEmpty()) return null;
+        int[] assignment = AssignmentSolver.solve(cost);
+        for (int i = 0; i < assignment.length; i++) {
+            int j = assignment[i];
+            if (j >= 0) {
+                Vehicle v = vehicles.get(j);
+                proposals.set(i, new DispatchProposal(v.getId(), v.getDriver().getId(), scheduleVersions[j],
+                        nextDriverIds(cost[i], j, vehicles)));
+            }
+        }
+        return proposals;
+    }
 
-        // 4. Find the closest available driver
-        Location rideStartLocation = mapLocation(request.getStart());
-        Vehicle closestVehicle = null;
-        double minDistance = Double.MAX_VALUE;
+    // The other feasible vehicles' drivers for one request, cheapest first
+    private static List<Long> nextDriverIds(double[] costs, int assigned, List<Vehicle> vehicles) {
+        List<Integer> feasible = new ArrayList<>();
+        for (int j = 0; j < costs.length; j++) {
+            if (j != assigned && !Double.isInfinite(costs[j])) feasible.add(j);
+        }
+        feasible.sort(Comparator.comparingDouble(j -> costs[j]));
+        return feasible.stream().map(j -> vehicles.get(j).getDriver().getId()).toList();
+    }
 
-        for (Vehicle v : availableVehicles) {
-            if (v.getCurrentLocation() != null) {
-                // Manual distance calc or use RouteService if available
-                double dist = calculateHaversineDistance(rideStartLocation, v.getCurrentLocation());
+    private boolean isCompatible(Vehicle v, CreateRideRequest request) {
+        RideRequirements requirements = request.getRequirements();
+        return isCompatible(v, requirements.getVehicleType(), requirements.isBabyTransport(), requirements.isPetTransport());
+    }
 
-                if (dist < minDistance) {
-                    minDistance = dist;
-                    closestVehicle = v;
-                }
+    private boolean isCompatible(Vehicle v, VehicleType requestedType, boolean isBaby, boolean isPet) {
+        return v.getDriver() != null && !v.getDriver().isBlocked()           //check if driver is blocked
+                && (requestedType == null || v.getVehicleType() == requestedType)
+                && (!isBaby || v.isBabyTransport())
+                && (!isPet || v.isPetTransport());
+    }
+
+    private boolean isAvailable(Vehicle v, CreateRideRequest request, LocalDateTime now,
+                                LocalDateTime rideStart, LocalDateTime rideEnd) {
+        return withinWorkingHours(v.getDriver().getId(), now)
+                && isScheduleFree(v, request.getScheduledTime(), now, rideStart, rideEnd);
+    }
+
+    // Max 8 hours of activity in the last 24h
+    private boolean withinWorkingHours(Long driverId, LocalDateTime now) {
+        LocalDateTime twentyFourHoursAgo = now.minusHours(24);
+        List<DriverActivitySession> sessions = activitySessionRepository.findSessionsSince(driverId, twentyFourHoursAgo);
+
+        long totalSeconds = 0;
+        for (DriverActivitySession session : sessions) {
+            LocalDateTime start = session.getStartTime().isBefore(twentyFourHoursAgo) ? twentyFourHoursAgo : session.getStartTime();
+            LocalDateTime end = (session.getEndTime() == null) ? now : session.getEndTime();
+
+            if (end.isAfter(start)) {
+                totalSeconds += java.time.Duration.between(start, end).getSeconds();
             }
         }
 
-        return closestVehicle;
+        double totalHours = totalSeconds / 3600.0;
+        return totalHours <= 8.0; // otherwise they are overworked
+    }
+
+    private boolean isScheduleFree(Vehicle v, LocalDateTime scheduledTime, LocalDateTime now,
+                                   LocalDateTime rideStart, LocalDateTime rideEnd) {
+        // A. Handle Scheduled Ride in Future (> 20 mins from now)
+        if (scheduledTime != null && scheduledTime.isAfter(now.plusMinutes(20))) {
+            // Check if driver has ANY ride overlapping with the future time slot
+            return !driverScheduleIndex.hasOverlap(v.getDriver().getId(), rideStart, rideEnd);
+        }
+
+        // B. Handle Immediate Ride (or very soon)
+        if (v.getStatus() == VehicleStatus.FREE) {
+            // Driver is FREE. Check if they have a scheduled ride starting soon that would conflict.
+            return !driverScheduleIndex.hasOverlap(v.getDriver().getId(), rideStart, rideEnd);
+        }
+        if (v.getStatus() == VehicleStatus.BUSY) {
+            // Driver is BUSY. Check if they finish soon (e.g., within 15 mins).
+            Optional<DriverScheduleIndex.Commitment> currentRide = driverScheduleIndex.nextRide(
+                    v.getDriver().getId(), IN_PROGRESS_STATUSES, null
+            );
+            // Allow if finishing in < 15 mins AND new ride fits after
+            LocalDateTime currentEnd = currentRide.map(DriverScheduleIndex.Commitment::endTime).orElse(null);
+            return currentEnd != null && currentEnd.isBefore(now.plusMinutes(15));
+        }
+        return false;
     }
 
 
@@ -499,10 +696,21 @@ public class RideServiceImpl implements RideService {
         if (ride.getStatus() != RideStatus.PENDING) {
             throw new IllegalStateException("Ride is not pending");
         }
+        if (ride.getDriver() != null && !ride.getDriver().getId().equals(driver.getId())) {
+            throw new IllegalStateException("Ride is offered to another driver");
+        }
 
+        if (ride.getDriver() != null) {
+            // The offer may move to another driver until the moment we accept it
+            applyTransition(ride, ride.getDriver().getId(), RideTransition.ACCEPT);
+        } else {
+            applyTransition(ride, RideTransition.ACCEPT);
+        }
         ride.setDriver(driver);
-        ride.setStatus(RideStatus.ACCEPTED);
         Ride savedRide = rideRepository.save(ride);
+        adminLiveStatsService.recordRideStatus(savedRide);
+        driverScheduleIndex.recordRide(savedRide);
+        TransactionHooks.runAfterCommit(() -> rideOfferService.resolve(savedRide.getId()));
 
         // Notify all passengers that the ride has been accepted
         notificationService.sendRideStatusNotification(savedRide,
@@ -519,6 +727,97 @@ public class RideServiceImpl implements RideService {
         return response;
     }
 
+    @Override
+    @Transactional
+    public RideResponse declineRide(Long id) {
+        Ride ride = findById(id);
+        User driver = getCurrentUser();
+
+        if (ride.getStatus() != RideStatus.PENDING) {
+            throw new IllegalStateException("Ride is not pending");
+        }
+        if (ride.getDriver() == null || !ride.getDriver().getId().equals(driver.getId())) {
+            throw new IllegalStateException("Ride is not offered to you");
+        }
+
+        return offerToNextDriver(ride);
+    }
+
+    @Override
+    @Transactional
+    public void reofferRide(Long rideId, Long driverId) {
+        Ride ride = rideRepository.findById(rideId).orElse(null);
+        if (ride == null || ride.getStatus() != RideStatus.PENDING
+                || ride.getDriver() == null || !ride.getDriver().getId().equals(driverId)) {
+            // Accepted, cancelled or already re-offered in the meantime
+            TransactionHooks.runAfterCommit(() -> rideOfferService.resolve(rideId));
+            return;
+        }
+        offerToNextDriver(ride);
+    }
+
+    /**
+     * Moves a pending ride from its current driver to the next candidate of its offer that
+     * is still available, or rejects the ride once no candidate is left. Both updates are
+     * conditional on the ride still being pending with the current driver, so a concurrent
+     * accept wins over the cascade.
+     */
+    private RideResponse offerToNextDriver(Ride ride) {
+        Long rideId = ride.getId();
+        Long previousDriverId = ride.getDriver().getId();
+        List<Long> candidates = rideOfferService.currentOffer(rideId)
+                .map(RideOfferService.Offer::nextCandidates)
+                .orElse(List.of());
+
+        LocalDateTime now = LocalDateTime.now();
+        Object claimOwner = new Object();
+        for (int i = 0; i < candidates.size(); i++) {
+            Long driverId = candidates.get(i);
+            long scheduleVersion = driverScheduleIndex.version(driverId);
+            Vehicle vehicle = vehicleRepository.findByDriverId(driverId).orElse(null);
+            if (vehicle == null
+                    || !isCompatible(vehicle, ride.getRequestedVehicleType(), ride.isBabyTransport(), ride.isPetTransport())
+                    || !withinWorkingHours(driverId, now)
+                    || !isScheduleFree(vehicle, ride.getScheduledTime(), now, ride.getStartTime(), ride.getEndTime())
+                    || !claimDriver(driverId, scheduleVersion, claimOwner)) {
+                continue;
+            }
+            if (rideRepository.reassignPendingRide(rideId, previousDriverId, vehicle.getDriver()) == 0) {
+                throw concurrentChange(ride);
+            }
+            ride.setDriver(vehicle.getDriver());
+            Ride savedRide = rideRepository.save(ride);
+            adminLiveStatsService.recordRideStatus(savedRide);
+            driverScheduleIndex.recordRide(savedRide);
+            List<Long> remaining = List.copyOf(candidates.subList(i + 1, candidates.size()));
+            TransactionHooks.runAfterCommit(() -> rideOfferService.offer(rideId, driverId, remaining));
+            meterRegistry.counter("lucky3.offers.cascaded", "outcome", "reassigned").increment();
+
+            notificationService.sendDriverAssignmentNotification(savedRide);
+            RideResponse response = mapToResponse(savedRide);
+            rideSocketService.broadcastRideUpdate(savedRide.getId(), response);
+            return response;
+        }
+
+        // Nobody left to offer the ride to
+        applyTransition(ride, previousDriverId, RideTransition.EXPIRE_OFFERS);
+        ride.setDriver(null);
+        ride.setStartTime(null);
+        ride.setEndTime(null);
+        ride.setRejectionReason("No driver accepted the ride");
+        Ride savedRide = rideRepository.save(ride);
+        adminLiveStatsService.recordRideStatus(savedRide);
+        driverScheduleIndex.recordRide(savedRide);
+        TransactionHooks.runAfterCommit(() -> rideOfferService.resolve(rideId));
+        meterRegistry.counter("lucky3.offers.cascaded", "outcome", "rejected").increment();
+
+        notificationService.sendRideStatusNotification(savedRide,
+                "No driver is available to take your ride right now. Please try again.");
+        RideResponse response = mapToResponse(savedRide);
+        rideSocketService.broadcastRideUpdate(savedRide.getId(), response);
+        return response;
+    }
+
     @Override
     @Transactional
     public RideResponse startRide(Long id) {
@@ -530,6 +829,7 @@ public class RideServiceImpl implements RideService {
         if (ride.getStatus() != RideStatus.ACCEPTED && ride.getStatus()!= RideStatus.SCHEDULED && ride.getStatus()!= RideStatus.PENDING) {
             throw new IllegalStateException("Ride must be accepted before starting");
         }
+        applyTransition(ride, RideTransition.START);
 
         Vehicle closestVehicle = null;
         if (ride.getDriver() != null) {
@@ -538,8 +838,10 @@ public class RideServiceImpl implements RideService {
             vehicleRepository.save(closestVehicle);
         }
         ride.setStartTime(LocalDateTime.now());
-        ride.setStatus(RideStatus.IN_PROGRESS); // or ACTIVE based on enum
         Ride savedRide = rideRepository.save(ride);
+        adminLiveStatsService.recordRideStatus(savedRide);
+        driverScheduleIndex.recordRide(savedRide);
+        TransactionHooks.runAfterCommit(() -> rideOfferService.resolve(savedRide.getId()));
 
         // Notify all passengers that the ride has started
         notificationService.sendRideStatusNotification(savedRide,
@@ -564,27 +866,29 @@ public class RideServiceImpl implements RideService {
         if (ride.getStatus() != RideStatus.IN_PROGRESS && ride.getStatus() != RideStatus.ACTIVE) {
             throw new IllegalStateException("Ride is not in progress");
         }
+        applyTransition(ride, RideTransition.FINISH);
 
         ride.setEndTime(LocalDateTime.now());
-        ride.setStatus(RideStatus.FINISHED);
         ride.setPaid(request.getPaid());
         ride.setPassengersExited(request.getPassengersExited());
 
         Ride savedRide = rideRepository.save(ride);
+        adminLiveStatsService.recordRideStatus(savedRide);
+        driverScheduleIndex.recordRide(savedRide);
+        driverStatsService.recordRideFinished(savedRide);
 
         // Logic check for next scheduled or pending ride
         if (ride.getDriver() != null) {
-            List<Ride> nextRides = rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(
-                    ride.getDriver().getId(),
-                    List.of(RideStatus.SCHEDULED, RideStatus.PENDING)
-            );
+            boolean hasNextRide = driverScheduleIndex.nextRide(
+                    ride.getDriver().getId(), UPCOMING_STATUSES, ride.getId()
+            ).isPresent();
 
             Vehicle vehicle = vehicleRepository.findByDriverId(ride.getDriver().getId()).orElse(null);
             if (vehicle != null) {
                 // Reset panic flag when ride ends
                 vehicle.setCurrentPanic(false);
                 
-                if (!nextRides.isEmpty()) {
+                if (hasNextRide) {
                     vehicle.setStatus(VehicleStatus.BUSY);
                 } else {
                     vehicle.setStatus(VehicleStatus.FREE);
@@ -648,8 +952,8 @@ public class RideServiceImpl implements RideService {
                 throw new IllegalStateException("Driver must provide a reason for cancellation.");
             }
 
+            applyTransition(ride, RideTransition.CANCEL_BY_DRIVER);
             ride.setRejectionReason(reason.trim());
-            ride.setStatus(RideStatus.CANCELLED_BY_DRIVER);
 
         } else if (isPassenger) {
             // Passengers can cancel PENDING or SCHEDULED rides, but not IN_PROGRESS ones
@@ -657,11 +961,11 @@ public class RideServiceImpl implements RideService {
                 throw new IllegalStateException("Cannot cancel an active ride. Request a stop instead.");
             }
 
+            applyTransition(ride, RideTransition.CANCEL_BY_PASSENGER);
             // Reason isn't mandatory for passenger; store only if provided (non-blank)
             if (reason != null && !reason.trim().isEmpty()) {
                 ride.setRejectionReason(reason.trim());
             }
-            ride.setStatus(RideStatus.CANCELLED_BY_PASSENGER);
         } else {
             throw new IllegalStateException("User is not authorized to cancel this ride.");
         }
@@ -671,6 +975,9 @@ public class RideServiceImpl implements RideService {
         ride.setTotalCost(0.0);
 
         Ride savedRide = rideRepository.save(ride);
+        adminLiveStatsService.recordRideStatus(savedRide);
+        driverScheduleIndex.recordRide(savedRide);
+        TransactionHooks.runAfterCommit(() -> rideOfferService.resolve(savedRide.getId()));
 
         // Reset vehicle panic flag and update status when ride is cancelled
         if (ride.getDriver() != null) {
@@ -678,12 +985,11 @@ public class RideServiceImpl implements RideService {
             if (vehicle != null) {
                 vehicle.setCurrentPanic(false);
 
-                List<Ride> nextRides = rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(
-                        ride.getDriver().getId(),
-                        List.of(RideStatus.SCHEDULED, RideStatus.PENDING)
-                );
+                boolean hasNextRide = driverScheduleIndex.nextRide(
+                        ride.getDriver().getId(), UPCOMING_STATUSES, ride.getId()
+                ).isPresent();
 
-                if (!nextRides.isEmpty()) {
+                if (hasNextRide) {
                     vehicle.setStatus(VehicleStatus.BUSY);
                 } else {
                     vehicle.setStatus(VehicleStatus.FREE);
@@ -735,6 +1041,31 @@ public class RideServiceImpl implements RideService {
         return mapToResponse(savedRide);
     }*/
 
+    /**
+     * Moves the ride to the transition's target status with a single conditional UPDATE.
+     * The in-Java status checks give the user-facing message; this catches a concurrent
+     * transition that committed after the ride was loaded, which would otherwise be overwritten.
+     */
+    private void applyTransition(Ride ride, RideTransition transition) {
+        if (rideRepository.transitionStatus(ride.getId(), transition.getFrom(), transition.getTo()) == 0) {
+            throw concurrentChange(ride);
+        }
+        ride.setStatus(transition.getTo());
+    }
+
+    // As above, but only while the ride is still assigned to the given driver
+    private void applyTransition(Ride ride, Long driverId, RideTransition transition) {
+        if (rideRepository.transitionStatusForDriver(ride.getId(), driverId, transition.getFrom(), transition.getTo()) == 0) {
+            throw concurrentChange(ride);
+        }
+        ride.setStatus(transition.getTo());
+    }
+
+    private static IllegalStateException concurrentChange(Ride ride) {
+        return new IllegalStateException("Ride " + ride.getId()
+                + " was updated by another request. Reload it and try again.");
+    }
+
     @Override
     public Ride findById(Long id) {
         return rideRepository.findById(id)
@@ -763,6 +1094,7 @@ public class RideServiceImpl implements RideService {
                 driver.setActive(false);
                 driver.setInactiveRequested(false);
                 userRepository.save(driver);
+                adminLiveStatsService.recordDriverActivity(driver.getId(), false);
                 
                 // End the current activity session
                 activitySessionRepository.findByDriverIdAndEndTimeIsNull(driver.getId())
@@ -912,12 +1244,12 @@ public class RideServiceImpl implements RideService {
         if (ride.getStatus() != RideStatus.IN_PROGRESS && ride.getStatus() != RideStatus.ACTIVE) {
             throw new IllegalStateException("Ride cannot be stopped if it is not in progress.");
         }
+        applyTransition(ride, RideTransition.FINISH);
 
         // Update Ride Data
         Location newEndLocation = mapLocation(request.getStopLocation());
         ride.setEndLocation(newEndLocation);
         ride.setEndTime(LocalDateTime.now());
-        ride.setStatus(RideStatus.FINISHED);
 
         // Use the already-tracked distance from RideCostTrackingService
         // (which accumulates actual vehicle movement every 5s during the ride)
@@ -939,6 +1271,9 @@ public class RideServiceImpl implements RideService {
         ride.setPaid(true);
 
         Ride savedRide = rideRepository.save(ride);
+        adminLiveStatsService.recordRideStatus(savedRide);
+        driverScheduleIndex.recordRide(savedRide);
+        driverStatsService.recordRideFinished(savedRide);
 
         // Trigger notification (same as endRide)
         notificationService.sendRideFinishedNotification(savedRide);
@@ -957,17 +1292,16 @@ public class RideServiceImpl implements RideService {
 
         // Update Vehicle Status
         if (ride.getDriver() != null) {
-            List<Ride> nextRides = rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(
-                    ride.getDriver().getId(),
-                    List.of(RideStatus.SCHEDULED, RideStatus.PENDING)
-            );
+            boolean hasNextRide = driverScheduleIndex.nextRide(
+                    ride.getDriver().getId(), UPCOMING_STATUSES, ride.getId()
+            ).isPresent();
 
             Vehicle vehicle = vehicleRepository.findByDriverId(ride.getDriver().getId()).orElse(null);
             if (vehicle != null) {
                 // Reset panic flag when ride is stopped early
                 vehicle.setCurrentPanic(false);
                 
-                if (!nextRides.isEmpty()) {
+                if (hasNextRide) {
                     vehicle.setStatus(VehicleStatus.BUSY);
                 } else {
                     vehicle.setStatus(VehicleStatus.FREE);
@@ -1011,7 +1345,11 @@ public class RideServiceImpl implements RideService {
             throw new IllegalStateException("Only a participant of the ride can activate panic.");
         }
 
-        // Set panic flag and reason - DO NOT change ride status or end time
+        // Set panic flag and reason - DO NOT change ride status or end time.
+        // Conditional on the status, so a ride finished or cancelled meanwhile is not flagged.
+        if (rideRepository.markPanic(ride.getId(), request.getReason(), PANIC_STATUSES) == 0) {
+            throw concurrentChange(ride);
+        }
         ride.setPanicPressed(true);
         ride.setPanicReason(request.getReason());
 
@@ -1047,18 +1385,6 @@ public class RideServiceImpl implements RideService {
         return mapToResponse(savedRide);
     }
 
-    private double calculateHaversineDistance(Location start, Location end) {
-        if (start == null || end == null) return 0.0;
-        final int R = 6371; // Earth radius in km
-        double latDistance = Math.toRadians(end.getLatitude() - start.getLatitude());
-        double lonDistance = Math.toRadians(end.getLongitude() - start.getLongitude());
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(start.getLatitude())) * Math.cos(Math.toRadians(end.getLatitude()))
-                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        return R * c;
-    }
-
     /**
      * Sends review request email to every passenger on the ride,
      * including linked (non-registered) passengers from invitedEmails.
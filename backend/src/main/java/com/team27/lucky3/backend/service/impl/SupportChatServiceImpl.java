@@ -18,10 +18,13 @@ import com.team27.lucky3.backend.service.socket.SupportChatSocketService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -30,6 +33,12 @@ import java.util.stream.Collectors;
 @Transactional
 public class SupportChatServiceImpl implements SupportChatService {
 
+    /** Messages included when a chat is opened; older ones are fetched with a {@code before} cursor. */
+    static final int INITIAL_PAGE_SIZE = 50;
+
+    /** Length of the last-message preview kept on the chat row for the admin inbox. */
+    static final int PREVIEW_LENGTH = 100;
+
     private final SupportChatRepository supportChatRepository;
     private final MessageRepository messageRepository;
     private final SupportChatSocketService socketService;
@@ -63,9 +72,15 @@ public class SupportChatServiceImpl implements SupportChatService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<SupportChatListItemResponse> getAllChatsForAdmin() {
-        return supportChatRepository.findAllWithMessagesOrderByLastMessageTimeDesc()
-                .stream()
+    public List<SupportChatListItemResponse> getAllChatsForAdmin(LocalDateTime beforeTime, Long beforeId, int limit) {
+        if ((beforeTime == null) != (beforeId == null)) {
+            throw new IllegalArgumentException("'beforeTime' and 'beforeId' must be given together");
+        }
+        PageRequest page = PageRequest.of(0, limit);
+        List<SupportChat> chats = beforeTime == null
+                ? supportChatRepository.findInboxPage(page)
+                : supportChatRepository.findInboxPageBefore(beforeTime, beforeId, page);
+        return chats.stream()
                 .map(this::mapToListItemResponse)
                 .collect(Collectors.toList());
     }
@@ -76,11 +91,13 @@ public class SupportChatServiceImpl implements SupportChatService {
                 .orElseGet(() -> createNewChatForUser(user));
 
         Message message = createMessage(user, chat, request.getContent(), false);
-        chat.addMessage(message);
-        chat.incrementUnreadCount();
-        
         messageRepository.save(message);
-        supportChatRepository.save(chat);
+
+        // Update the inbox summary in place; the chat's message collection is never loaded
+        String preview = preview(message.getContent());
+        supportChatRepository.recordUserMessage(chat.getId(), preview, message.getTimestamp());
+        SupportChatListItemResponse inboxItem = toListItemResponse(chat, preview, message.getTimestamp(),
+                supportChatRepository.findUnreadCount(chat.getId()));
 
         SupportMessageResponse response = mapToMessageResponse(message);
         
@@ -89,7 +106,7 @@ public class SupportChatServiceImpl implements SupportChatService {
         // Also notify user's chat subscription
         socketService.broadcastToUserChat(chat.getId(), response);
         // Notify admins about updated chat list
-        socketService.broadcastChatListUpdate(mapToListItemResponse(chat));
+        socketService.broadcastChatListUpdate(inboxItem);
 
         // Send notification to all admins about the new support message
         notificationService.sendSupportMessageToAdmins(user, chat.getId(), request.getContent());
@@ -104,12 +121,11 @@ public class SupportChatServiceImpl implements SupportChatService {
                 .orElseThrow(() -> new ResourceNotFoundException("Support chat not found with id: " + chatId));
 
         Message message = createMessage(admin, chat, request.getContent(), true);
-        chat.addMessage(message);
-        // Reset unread count when admin sends a message (implies they've read the chat)
-        chat.resetUnreadCount();
-        
         messageRepository.save(message);
-        supportChatRepository.save(chat);
+
+        // Reset unread count when admin sends a message (implies they've read the chat)
+        String inboxPreview = preview(message.getContent());
+        supportChatRepository.recordAdminMessage(chat.getId(), inboxPreview, message.getTimestamp());
 
         SupportMessageResponse response = mapToMessageResponse(message);
         
@@ -118,7 +134,7 @@ public class SupportChatServiceImpl implements SupportChatService {
         // Also update admin views
         socketService.broadcastToAdmins(chat.getId(), response);
         // Notify about chat list update
-        socketService.broadcastChatListUpdate(mapToListItemResponse(chat));
+        socketService.broadcastChatListUpdate(toListItemResponse(chat, inboxPreview, message.getTimestamp(), 0));
         // Notify the user via their personal topic (used by mobile AppNotificationManager)
         socketService.notifyUser(chat.getUser().getId(), response);
 
@@ -146,28 +162,57 @@ public class SupportChatServiceImpl implements SupportChatService {
         SupportChat chat = supportChatRepository.findById(chatId)
                 .orElseThrow(() -> new ResourceNotFoundException("Support chat not found with id: " + chatId));
         
-        chat.resetUnreadCount();
-        supportChatRepository.save(chat);
-        
+        supportChatRepository.resetUnreadCount(chatId);
+
         // Broadcast updated chat to admin list
-        socketService.broadcastChatListUpdate(mapToListItemResponse(chat));
+        socketService.broadcastChatListUpdate(
+                toListItemResponse(chat, chat.getLastMessagePreview(), chat.getLastMessageTime(), 0));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<SupportMessageResponse> getChatMessages(Long chatId) {
+    public List<SupportMessageResponse> getChatMessages(Long chatId, Long before, Long after, int limit) {
         if (!supportChatRepository.existsById(chatId)) {
             throw new ResourceNotFoundException("Support chat not found with id: " + chatId);
         }
-        
-        return messageRepository.findBySupportChatIdOrderByTimestampAsc(chatId)
+        return findMessagePage(chatId, before, after, limit)
                 .stream()
                 .map(this::mapToMessageResponse)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<SupportMessageResponse> getMyChatMessages(User user, Long before, Long after, int limit) {
+        return supportChatRepository.findByUserId(user.getId())
+                .map(chat -> findMessagePage(chat.getId(), before, after, limit)
+                        .stream()
+                        .map(this::mapToMessageResponse)
+                        .collect(Collectors.toList()))
+                .orElseGet(Collections::emptyList);
+    }
+
     // === Private Helper Methods ===
 
+    /**
+     * One page of a chat's messages, oldest first.
+     */
+    private List<Message> findMessagePage(Long chatId, Long before, Long after, int limit) {
+        if (before != null && after != null) {
+            throw new IllegalArgumentException("Use either 'before' or 'after', not both");
+        }
+        PageRequest page = PageRequest.of(0, limit);
+        if (after != null) {
+            return messageRepository.findBySupportChatIdAndIdGreaterThanOrderByIdAsc(chatId, after, page);
+        }
+        List<Message> newestFirst = before != null
+                ? messageRepository.findBySupportChatIdAndIdLessThanOrderByIdDesc(chatId, before, page)
+                : messageRepository.findBySupportChatIdOrderByIdDesc(chatId, page);
+        List<Message> messages = new ArrayList<>(newestFirst);
+        Collections.reverse(messages);
+        return messages;
+    }
+
     private SupportChat createNewChatForUser(User user) {
         SupportChat chat = new SupportChat();
         chat.setUser(user);
@@ -202,9 +247,16 @@ public class SupportChatServiceImpl implements SupportChatService {
                 .unreadCount(chat.getUnreadCount())
                 .createdAt(chat.getCreatedAt());
 
+        // Only the latest page is loaded; one extra row tells whether older messages exist
+        int pageSize = includeMessages ? INITIAL_PAGE_SIZE : 1;
+        List<Message> messages = findMessagePage(chat.getId(), null, null, pageSize + 1);
+        boolean hasOlderMessages = messages.size() > pageSize;
+        if (hasOlderMessages) {
+            messages = messages.subList(1, messages.size());
+        }
+
         // Get last message content
-        List<Message> messages = chat.getMessages();
-        if (messages != null && !messages.isEmpty()) {
+        if (!messages.isEmpty()) {
             builder.lastMessage(messages.get(messages.size() - 1).getContent());
         }
 
@@ -212,21 +264,24 @@ public class SupportChatServiceImpl implements SupportChatService {
             List<SupportMessageResponse> messageResponses = messages.stream()
                     .map(this::mapToMessageResponse)
                     .collect(Collectors.toList());
-            builder.messages(messageResponses);
+            builder.messages(messageResponses)
+                    .hasOlderMessages(hasOlderMessages);
         }
 
         return builder.build();
     }
 
     private SupportChatListItemResponse mapToListItemResponse(SupportChat chat) {
-        User user = chat.getUser();
-        String lastMessage = "";
-        
-        List<Message> messages = chat.getMessages();
-        if (messages != null && !messages.isEmpty()) {
-            lastMessage = messages.get(messages.size() - 1).getContent();
-        }
+        return toListItemResponse(chat, chat.getLastMessagePreview(), chat.getLastMessageTime(), chat.getUnreadCount());
+    }
 
+    /**
+     * Inbox item built from the chat row; the summary values are passed in because after a
+     * conditional update the loaded chat entity still holds the previous ones.
+     */
+    private SupportChatListItemResponse toListItemResponse(SupportChat chat, String lastMessage,
+                                                           LocalDateTime lastMessageTime, int unreadCount) {
+        User user = chat.getUser();
         return SupportChatListItemResponse.builder()
                 .id(chat.getId())
                 .userId(user.getId())
@@ -234,12 +289,16 @@ public class SupportChatServiceImpl implements SupportChatService {
                 .userEmail(user.getEmail())
                 .userRole(user.getRole() == UserRole.ADMIN ? "ADMIN" : 
                           user.getRole() == UserRole.DRIVER ? "DRIVER" : "PASSENGER")
-                .lastMessage(lastMessage)
-                .lastMessageTime(chat.getLastMessageTime())
-                .unreadCount(chat.getUnreadCount())
+                .lastMessage(lastMessage != null ? lastMessage : "")
+                .lastMessageTime(lastMessageTime)
+                .unreadCount(unreadCount)
                 .build();
     }
 
+    private static String preview(String content) {
+        return content.length() > PREVIEW_LENGTH ? content.substring(0, PREVIEW_LENGTH) + "..." : content;
+    }
+
     private SupportMessageResponse mapToMessageResponse(Message message) {
         User sender = message.getSender();
         return SupportMessageResponse.builder()
@@ -66,30 +66,11 @@ public class UserServiceImpl implements UserService {
     }
 
     @Transactional(readOnly = true)
-    public Image getProfileImage(Long id) {
+    public ImageService.ImageContent getProfileImage(Long id, Integer size) {
         User user = userRepository.findByIdWithProfileImage(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
 
-        Image img = user.getProfileImage();
-        if (img == null) {
-            return imageService.getDefaultAvatar();
-        }
-
-        if (img.getData() == null || img.getData().length == 0) {
-            try {
-                byte[] data = imageService.loadImage(img.getFileName());
-                Image transientImage = new Image();
-                transientImage.setId(img.getId());
-                transientImage.setFileName(img.getFileName());
-                transientImage.setContentType(img.getContentType());
-                transientImage.setSize(img.getSize());
-                transientImage.setData(data);
-                return transientImage;
-            } catch (IOException e) {
-                return imageService.getDefaultAvatar();
-            }
-        }
-        return img;
+        return imageService.load(user.getProfileImage(), size);
     }
 
     @Override
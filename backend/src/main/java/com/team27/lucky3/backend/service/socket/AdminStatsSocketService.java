@@ -0,0 +1,34 @@
+package com.team27.lucky3.backend.service.socket;
+
+import com.team27.lucky3.backend.dto.response.AdminStatsResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service responsible for pushing admin dashboard statistics via WebSocket.
+ *
+ * Topics:
+ * - /topic/admin/stats - Live dashboard counters (admins subscribe to this)
+ */
+@Service
+@Slf4j
+public class AdminStatsSocketService {
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    public AdminStatsSocketService(SimpMessagingTemplate messagingTemplate) {
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    /**
+     * Broadcast the latest dashboard statistics to all admin subscribers.
+     *
+     * @param stats The current statistics snapshot
+     */
+    public void broadcastStats(AdminStatsResponse stats) {
+        String destination = "/topic/admin/stats";
+        messagingTemplate.convertAndSend(destination, stats);
+        log.debug("Broadcasted admin stats to {}: {}", destination, stats);
+    }
+}
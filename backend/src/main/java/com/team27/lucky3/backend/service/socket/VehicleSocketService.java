@@ -1,6 +1,7 @@
 package com.team27.lucky3.backend.service.socket;
 
 import com.team27.lucky3.backend.dto.response.VehicleLocationResponse;
+import com.team27.lucky3.backend.dto.response.VehiclePositionsResponse;
 import com.team27.lucky3.backend.service.VehicleService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
@@ -11,7 +12,8 @@ import java.util.List;
 
 /**
  * Service responsible for broadcasting vehicle updates via WebSocket.
- * Broadcasts to /topic/vehicles when vehicle data changes.
+ * Broadcasts to /topic/vehicles when vehicle data changes, and the patrol simulation's
+ * per-tick position batches to /topic/vehicles/positions.
  */
 @Service
 public class VehicleSocketService {
@@ -59,4 +61,12 @@ public class VehicleSocketService {
     public void sendVehicleLocationUpdate(Long vehicleId, VehicleLocationResponse locationResponse) {
         messagingTemplate.convertAndSend("/topic/vehicle/" + vehicleId, locationResponse);
     }
+
+    /**
+     * Broadcast the positions of all vehicles moved in one simulation tick, as a single message.
+     * @param positions The moved vehicles and their new coordinates
+     */
+    public void sendVehiclePositions(VehiclePositionsResponse positions) {
+        messagingTemplate.convertAndSend("/topic/vehicles/positions", positions);
+    }
 }
@@ -0,0 +1,120 @@
+package com.team27.lucky3.backend.util;
+
+import java.util.Arrays;
+
+/**
+ * Minimum-cost assignment of rows to columns (Hungarian algorithm, O(n²·m)),
+ * used by batched dispatch to pair ride requests with vehicles.
+ * <p>
+ * {@code cost[i][j]} is the cost of giving column {@code j} to row {@code i};
+ * {@link Double#POSITIVE_INFINITY} marks a pair that must not be assigned.
+ * The matrix may be rectangular: with more rows than columns some rows stay unassigned.
+ */
+public final class AssignmentSolver {
+
+    private AssignmentSolver() {
+    }
+
+    /**
+     * Returns, for every row, the column assigned to it or -1. Among all assignments
+     * that pair up as many rows as possible, the one with the lowest total cost is chosen.
+     */
+    public static int[] solve(double[][] cost) {
+        int rows = cost.length;
+        int cols = rows == 0 ? 0 : cost[0].length;
+        int[] result = new int[rows];
+        Arrays.fill(result, -1);
+        if (rows == 0 || cols == 0) return result;
+
+        if (rows > cols) {
+            // The algorithm needs rows <= columns: solve the transposed problem and invert it
+            int[] rowOfColumn = solve(transpose(cost));
+            for (int j = 0; j < cols; j++) {
+                if (rowOfColumn[j] >= 0) result[rowOfColumn[j]] = j;
+            }
+            return result;
+        }
+
+        double forbidden = forbiddenCost(cost);
+        if (forbidden < 0) return result; // nothing can be assigned
+
+        // Potentials u (rows) and v (columns), 1-based with index 0 as a virtual column
+        double[] u = new double[rows + 1];
+        double[] v = new double[cols + 1];
+        int[] rowAt = new int[cols + 1];
+        int[] previous = new int[cols + 1];
+        double[] minSlack = new double[cols + 1];
+        boolean[] visited = new boolean[cols + 1];
+
+        for (int i = 1; i <= rows; i++) {
+            rowAt[0] = i;
+            int col = 0;
+            Arrays.fill(minSlack, Double.POSITIVE_INFINITY);
+            Arrays.fill(visited, false);
+            do {
+                visited[col] = true;
+                int row = rowAt[col];
+                double delta = Double.POSITIVE_INFINITY;
+                int nextCol = 0;
+                for (int j = 1; j <= cols; j++) {
+                    if (visited[j]) continue;
+                    double c = cost[row - 1][j - 1];
+                    double slack = (Double.isInfinite(c) ? forbidden : c) - u[row] - v[j];
+                    if (slack < minSlack[j]) {
+                        minSlack[j] = slack;
+                        previous[j] = col;
+                    }
+                    if (minSlack[j] < delta) {
+                        delta = minSlack[j];
+                        nextCol = j;
+                    }
+                }
+                for (int j = 0; j <= cols; j++) {
+                    if (visited[j]) {
+                        u[rowAt[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        minSlack[j] -= delta;
+                    }
+                }
+                col = nextCol;
+            } while (rowAt[col] != 0);
+
+            // Flip the augmenting path
+            do {
+                int prev = previous[col];
+                rowAt[col] = rowAt[prev];
+                col = prev;
+            } while (col != 0);
+        }
+
+        for (int j = 1; j <= cols; j++) {
+            int row = rowAt[j] - 1;
+            if (row >= 0 && !Double.isInfinite(cost[row][j - 1])) {
+                result[row] = j - 1;
+            }
+        }
+        return result;
+    }
+
+    // Larger than any total of allowed costs, so using one forbidden pair never pays off; -1 if all are forbidden
+    private static double forbiddenCost(double[][] cost) {
+        double max = -1;
+        for (double[] row : cost) {
+            for (double c : row) {
+                if (!Double.isInfinite(c)) max = Math.max(max, Math.abs(c));
+            }
+        }
+        return max < 0 ? -1 : (max + 1) * (cost.length + 1);
+    }
+
+    private static double[][] transpose(double[][] cost) {
+        double[][] transposed = new double[cost[0].length][cost.length];
+        for (int i = 0; i < cost.length; i++) {
+            for (int j = 0; j < cost[i].length; j++) {
+                transposed[j][i] = cost[i][j];
+            }
+        }
+        return transposed;
+    }
+}
@@ -0,0 +1,99 @@
+package com.team27.lucky3.backend.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Collects items submitted concurrently during a short window and processes them together.
+ * <p>
+ * The first caller of a window becomes its leader: it waits for the window to pass, takes
+ * every item submitted meanwhile and runs the batch function on its own thread. All callers,
+ * the leader included, block until the batch is processed and then receive their own result
+ * (or the batch function's exception). No extra threads are involved.
+ *
+ * @param <T> submitted item
+ * @param <R> per-item result; the batch function returns one per item, in submission order
+ */
+public final class BatchWindow<T, R> {
+
+    private final long windowNanos;
+    private final Function<List<T>, List<R>> batchFunction;
+    private final ReentrantLock lock = new ReentrantLock();
+    private List<Pending<T, R>> open;
+
+    private record Pending<T, R>(T item, CompletableFuture<R> result) {
+    }
+
+    public BatchWindow(Duration window, Function<List<T>, List<R>> batchFunction) {
+        this.windowNanos = window.toNanos();
+        this.batchFunction = batchFunction;
+    }
+
+    public R submit(T item) {
+        Pending<T, R> pending = new Pending<>(item, new CompletableFuture<>());
+        boolean leader;
+        lock.lock();
+        try {
+            leader = open == null;
+            if (leader) {
+                open = new ArrayList<>();
+            }
+            open.add(pending);
+        } finally {
+            lock.unlock();
+        }
+
+        if (leader) {
+            waitForWindow();
+            List<Pending<T, R>> batch;
+            lock.lock();
+            try {
+                batch = open;
+                open = null;
+            } finally {
+                lock.unlock();
+            }
+            process(batch);
+        }
+        return await(pending.result());
+    }
+
+    private void waitForWindow() {
+        try {
+            Thread.sleep(Duration.ofNanos(windowNanos));
+        } catch (InterruptedException e) {
+            // Process what has been collected so far rather than leaving the others waiting
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void process(List<Pending<T, R>> batch) {
+        try {
+            List<R> results = batchFunction.apply(batch.stream().map(Pending::item).toList());
+            if (results.size() != batch.size()) {
+                throw new IllegalStateException("Batch function returned " + results.size()
+                        + " results for " + batch.size() + " items");
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(results.get(i));
+            }
+        } catch (RuntimeException | Error e) {
+            batch.forEach(p -> p.result().completeExceptionally(e));
+        }
+    }
+
+    private static <R> R await(CompletableFuture<R> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.team27.lucky3.backend.util;
+
+import com.team27.lucky3.backend.entity.Location;
+
+/**
+ * Great-circle distance helpers shared by ride estimation, driver matching,
+ * cost tracking and the vehicle simulation.
+ * <p>
+ * All methods are allocation-free and run on the hot paths (every candidate
+ * vehicle per ride request, every tracked position), so they are covered by
+ * a JMH budget in {@code src/jmh}.
+ */
+public final class GeoUtils {
+
+    public static final double EARTH_RADIUS_KM = 6371.0;
+    public static final double EARTH_RADIUS_METERS = EARTH_RADIUS_KM * 1000.0;
+
+    private GeoUtils() {
+    }
+
+    /**
+     * Haversine distance in kilometers between two coordinates given in degrees.
+     */
+    public static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        return EARTH_RADIUS_KM * centralAngle(lat1, lon1, lat2, lon2);
+    }
+
+    /**
+     * Haversine distance in meters between two coordinates given in degrees.
+     */
+    public static double haversineMeters(double lat1, double lon1, double lat2, double lon2) {
+        return EARTH_RADIUS_METERS * centralAngle(lat1, lon1, lat2, lon2);
+    }
+
+    /**
+     * Haversine distance in kilometers between two locations; 0 if either is missing.
+     */
+    public static double haversineKm(Location start, Location end) {
+        if (start == null || end == null) return 0.0;
+        return haversineKm(start.getLatitude(), start.getLongitude(), end.getLatitude(), end.getLongitude());
+    }
+
+    /**
+     * Snaps a coordinate to a grid of {@code gridDegrees} and packs the cell into one long,
+     * so nearby points (closer than roughly one cell) produce the same key.
+     */
+    public static long gridCell(double lat, double lon, double gridDegrees) {
+        long row = Math.round(lat / gridDegrees);
+        long col = Math.round(lon / gridDegrees);
+        return (row << 32) | (col & 0xFFFFFFFFL);
+    }
+
+    // 2·asin(√a) is the same angle as 2·atan2(√a, √(1−a)) with one sqrt less;
+    // a is clamped because rounding can push it just above 1 for antipodal points.
+    private static double centralAngle(double lat1, double lon1, double lat2, double lon2) {
+        double sinHalfDLat = Math.sin(Math.toRadians(lat2 - lat1) * 0.5);
+        double sinHalfDLon = Math.sin(Math.toRadians(lon2 - lon1) * 0.5);
+        double a = sinHalfDLat * sinHalfDLat
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * sinHalfDLon * sinHalfDLon;
+        return 2.0 * Math.asin(Math.sqrt(Math.min(1.0, a)));
+    }
+}
@@ -0,0 +1,182 @@
+package com.team27.lucky3.backend.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Exclusive, expiring leases on keys, such as simulation locks on vehicles or assignment
+ * holds on drivers.
+ * <p>
+ * Each key maps to a single lease record (owner, deadline) that is only ever swapped with
+ * compare-and-set, so a lease is never seen half-updated and acquire, renew, release and
+ * lookups are O(1). Lookups compare the deadline directly and are exact; the expiry timers
+ * only remove leases that were never released, so memory is reclaimed without scanning
+ * every lease. A timer is scheduled once its lease is in place, so a lost compare-and-set
+ * costs nothing, and the timers are spread over several {@link TimingWheel}s by key, so
+ * leases on different keys rarely wait on the same wheel lock. The owner calls
+ * {@link #expire()} regularly (e.g. from a {@code @Scheduled} method); timers fire up to
+ * 1/16 of the lease duration late, never early.
+ *
+ * @param <K> leased key
+ */
+public final class LeaseManager<K> {
+
+    private static final int TICKS_PER_DURATION = 16;
+    private static final int TIMER_SHARDS = 8;
+
+    private static final class Lease<K> {
+        private final Object owner;
+        private final long expiresAtNanos;
+        // Attached after the lease is swapped in; null until then
+        private volatile TimingWheel<K>.Timeout timeout;
+
+        private Lease(Object owner, long expiresAtNanos) {
+            this.owner = owner;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        Object owner() {
+            return owner;
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+
+        void cancelTimeout() {
+            TimingWheel<K>.Timeout current = timeout;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+    }
+
+    private final Map<K, Lease<K>> leases = new ConcurrentHashMap<>();
+    private final Duration duration;
+    private final List<TimingWheel<K>> timeouts;
+    private final LongSupplier clock;
+
+    /**
+     * @param duration how long a lease lasts unless renewed
+     */
+    public LeaseManager(Duration duration) {
+        this(duration, System::nanoTime);
+    }
+
+    LeaseManager(Duration duration, LongSupplier clock) {
+        this.duration = duration;
+        this.clock = clock;
+        // Two rotations cover a lease, so most slots only hold leases due on this pass
+        Duration tick = duration.dividedBy(TICKS_PER_DURATION);
+        Duration wheelTick = tick.isZero() ? Duration.ofMillis(1) : tick;
+        List<TimingWheel<K>> wheels = new ArrayList<>(TIMER_SHARDS);
+        for (int i = 0; i < TIMER_SHARDS; i++) {
+            wheels.add(new TimingWheel<>(wheelTick, 2 * TICKS_PER_DURATION, clock));
+        }
+        this.timeouts = List.copyOf(wheels);
+    }
+
+    /**
+     * Leases the key to {@code owner}. Succeeds if the key is free, the previous lease
+     * expired, or {@code owner} already holds it (which renews it). Owners are compared
+     * with {@code equals}.
+     */
+    public boolean acquire(K key, Object owner) {
+        while (true) {
+            long now = clock.getAsLong();
+            Lease<K> current = leases.get(key);
+            if (current != null && !current.owner().equals(owner) && !current.isExpired(now)) {
+                return false;
+            }
+            if (swap(key, current, owner, now)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Extends the lease if {@code owner} still holds it. Unlike {@link #acquire}, never
+     * takes a key that is free or leased to someone else.
+     */
+    public boolean renew(K key, Object owner) {
+        while (true) {
+            long now = clock.getAsLong();
+            Lease<K> current = leases.get(key);
+            if (current == null || !current.owner().equals(owner) || current.isExpired(now)) {
+                return false;
+            }
+            if (swap(key, current, owner, now)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Ends the lease if {@code owner} holds it; a lease that expired and was taken by
+     * someone else is left alone. Returns whether a lease was released.
+     */
+    public boolean release(K key, Object owner) {
+        Lease<K> current = leases.get(key);
+        if (current == null || !current.owner().equals(owner) || !leases.remove(key, current)) {
+            return false;
+        }
+        current.cancelTimeout();
+        return true;
+    }
+
+    /**
+     * True if someone holds an unexpired lease on the key.
+     */
+    public boolean isHeld(K key) {
+        Lease<K> current = leases.get(key);
+        return current != null && !current.isExpired(clock.getAsLong());
+    }
+
+    /**
+     * Removes the leases whose timers came due and returns their keys. A lease renewed
+     * in the meantime is kept.
+     */
+    public List<K> expire() {
+        List<K> expired = new ArrayList<>();
+        for (TimingWheel<K> wheel : timeouts) {
+            for (K key : wheel.advance()) {
+                Lease<K> current = leases.get(key);
+                if (current != null && current.isExpired(clock.getAsLong()) && leases.remove(key, current)) {
+                    expired.add(key);
+                }
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Number of leases not yet released or removed by {@link #expire()}.
+     */
+    public int size() {
+        return leases.size();
+    }
+
+    // Replaces current (null if absent) with a fresh lease for owner; false if the key changed meanwhile
+    private boolean swap(K key, Lease<K> current, Object owner, long now) {
+        Lease<K> lease = new Lease<>(owner, now + duration.toNanos());
+        boolean swapped = current == null
+                ? leases.putIfAbsent(key, lease) == null
+                : leases.replace(key, current, lease);
+        if (!swapped) {
+            return false;
+        }
+        if (current != null) {
+            current.cancelTimeout();
+        }
+        lease.timeout = timeouts.get(Math.floorMod(key.hashCode(), TIMER_SHARDS)).schedule(key, duration);
+        if (leases.get(key) != lease) {
+            // Released or replaced before the timer was attached, so nobody else will cancel it
+            lease.cancelTimeout();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,239 @@
+package com.team27.lucky3.backend.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Street-following patrol routes over the service area, read from a memory-mapped file.
+ * <p>
+ * The file holds a small header, the index of each route's first point, and then every point
+ * as a pair of 32-bit latitude/longitude values in micro-degrees (about 0.1 m). Routes are
+ * built between a fixed set of hubs, so a route ends where others start: {@link #next} picks
+ * one of the routes starting nearest to a vehicle's position, which chains routes into an
+ * endless patrol without calling the routing engine. Only the route starts are decoded onto
+ * the heap, indexed by grid cell so {@link #next} only measures the starts around a position;
+ * points are read from the mapping when a route is handed out.
+ */
+public final class PatrolRouteLibrary {
+
+    // Route starts this close to the nearest one are equally good successors
+    public static final double CHAIN_TOLERANCE_METERS = 30.0;
+
+    private static final int MAGIC = 0x4C335052; // "L3PR"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 4 + 4;
+    private static final double MICRO_DEGREES = 1e6;
+    // About one patrol hub per cell
+    private static final double CELL_DEGREES = 0.005;
+
+    private final int[] offsets;
+    private final IntBuffer points;
+    private final double[] startLatitudes;
+    private final double[] startLongitudes;
+    // Route indices by the grid cell of their start, ascending within a cell
+    private final Map<Long, int[]> startsByCell;
+    private final long minRow;
+    private final long maxRow;
+    private final long minCol;
+    private final long maxCol;
+    private final double maxAbsStartLatitude;
+
+    private PatrolRouteLibrary(int[] offsets, IntBuffer points) {
+        this.offsets = offsets;
+        this.points = points;
+        int routes = offsets.length - 1;
+        this.startLatitudes = new double[routes];
+        this.startLongitudes = new double[routes];
+        for (int route = 0; route < routes; route++) {
+            startLatitudes[route] = points.get(2 * offsets[route]) / MICRO_DEGREES;
+            startLongitudes[route] = points.get(2 * offsets[route] + 1) / MICRO_DEGREES;
+        }
+
+        Map<Long, List<Integer>> cells = new HashMap<>();
+        long rowLow = Long.MAX_VALUE, rowHigh = Long.MIN_VALUE, colLow = Long.MAX_VALUE, colHigh = Long.MIN_VALUE;
+        double maxAbsLatitude = 0;
+        for (int route = 0; route < routes; route++) {
+            long row = Math.round(startLatitudes[route] / CELL_DEGREES);
+            long col = Math.round(startLongitudes[route] / CELL_DEGREES);
+            cells.computeIfAbsent(cellKey(row, col), key -> new ArrayList<>()).add(route);
+            rowLow = Math.min(rowLow, row);
+            rowHigh = Math.max(rowHigh, row);
+            colLow = Math.min(colLow, col);
+            colHigh = Math.max(colHigh, col);
+            maxAbsLatitude = Math.max(maxAbsLatitude, Math.abs(startLatitudes[route]));
+        }
+        this.startsByCell = new HashMap<>();
+        cells.forEach((key, list) -> startsByCell.put(key, list.stream().mapToInt(Integer::intValue).toArray()));
+        this.minRow = rowLow;
+        this.maxRow = rowHigh;
+        this.minCol = colLow;
+        this.maxCol = colHigh;
+        this.maxAbsStartLatitude = maxAbsLatitude;
+    }
+
+    /**
+     * Maps a library file written by {@link #write}. The mapping stays valid after the
+     * channel is closed and is released when the library is garbage collected.
+     */
+    public static PatrolRouteLibrary open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Not a patrol route library: " + file);
+            }
+            int routes = buffer.getInt();
+            int pointCount = buffer.getInt();
+            long expected = HEADER_BYTES + 4L * (routes + 1) + 8L * pointCount;
+            if (routes < 1 || pointCount < 0 || channel.size() != expected) {
+                throw new IOException("Patrol route library " + file + " has " + channel.size()
+                        + " bytes, expected " + expected);
+            }
+            int[] offsets = new int[routes + 1];
+            buffer.asIntBuffer().get(offsets);
+            for (int route = 0; route < routes; route++) {
+                if (offsets[route + 1] - offsets[route] < 2) {
+                    throw new IOException("Patrol route library " + file + " has a route with fewer than 2 points");
+                }
+            }
+            if (offsets[0] != 0 || offsets[routes] != pointCount) {
+                throw new IOException("Patrol route library " + file + " has inconsistent route offsets");
+            }
+            int pointsStart = HEADER_BYTES + 4 * (routes + 1);
+            IntBuffer points = buffer.slice(pointsStart, buffer.capacity() - pointsStart).asIntBuffer();
+            return new PatrolRouteLibrary(offsets, points);
+        }
+    }
+
+    /**
+     * Writes a library file, replacing {@code file} atomically so readers never map a partial one.
+     *
+     * @param routes each route as {@code [lat0, lng0, lat1, lng1, ...]}, at least two points
+     */
+    public static void write(Path file, List<double[]> routes) throws IOException {
+        if (routes.isEmpty()) {
+            throw new IllegalArgumentException("A patrol route library needs at least one route");
+        }
+        int pointCount = 0;
+        for (double[] route : routes) {
+            if (route.length < 4 || route.length % 2 != 0) {
+                throw new IllegalArgumentException("Routes need at least two [lat, lng] points");
+            }
+            pointCount += route.length / 2;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + 4 * (routes.size() + 1) + 8 * pointCount);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(routes.size()).putInt(pointCount);
+        int offset = 0;
+        for (double[] route : routes) {
+            buffer.putInt(offset);
+            offset += route.length / 2;
+        }
+        buffer.putInt(offset);
+        for (double[] route : routes) {
+            for (double coordinate : route) {
+                buffer.putInt((int) Math.round(coordinate * MICRO_DEGREES));
+            }
+        }
+
+        Path absolute = file.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, buffer.array());
+            Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public int size() {
+        return startLatitudes.length;
+    }
+
+    /**
+     * The route's points as {@code [lat0, lng0, lat1, lng1, ...]}.
+     */
+    public double[] route(int route) {
+        int from = 2 * offsets[route];
+        double[] result = new double[2 * offsets[route + 1] - from];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = points.get(from + i) / MICRO_DEGREES;
+        }
+        return result;
+    }
+
+    /**
+     * Picks a route to continue a patrol at the given position: one of the routes whose start
+     * is within {@link #CHAIN_TOLERANCE_METERS} of the nearest start, chosen with {@code random}.
+     * The same position and random sequence always give the same route.
+     *
+     * @return the route index
+     */
+    public int next(double lat, double lng, RandomGenerator random) {
+        long row = Math.round(lat / CELL_DEGREES);
+        long col = Math.round(lng / CELL_DEGREES);
+        // Rings of cells around the position's cell, from the first that touches an indexed cell
+        long firstRing = Math.max(0, Math.max(Math.max(minRow - row, row - maxRow), Math.max(minCol - col, col - maxCol)));
+        long lastRing = Math.max(Math.max(row - minRow, maxRow - row), Math.max(col - minCol, maxCol - col));
+        // Starts one ring further out are at least ring cells away along one axis; measured
+        // east-west at the highest latitude involved, that is the shortest they can be
+        double boundLatitude = Math.max(Math.abs(lat), maxAbsStartLatitude);
+
+        List<Integer> seen = new ArrayList<>();
+        List<Double> distances = new ArrayList<>();
+        double nearest = Double.MAX_VALUE;
+        for (long ring = firstRing; ring <= lastRing; ring++) {
+            for (long r = Math.max(row - ring, minRow); r <= Math.min(row + ring, maxRow); r++) {
+                // Only the ring's border: full rows at the top and bottom, two cells in between
+                if (r == row - ring || r == row + ring) {
+                    for (long c = Math.max(col - ring, minCol); c <= Math.min(col + ring, maxCol); c++) {
+                        nearest = Math.min(nearest, measureStarts(r, c, lat, lng, seen, distances));
+                    }
+                } else {
+                    nearest = Math.min(nearest, measureStarts(r, col - ring, lat, lng, seen, distances));
+                    nearest = Math.min(nearest, measureStarts(r, col + ring, lat, lng, seen, distances));
+                }
+            }
+            double unseenAtLeast = GeoUtils.haversineMeters(boundLatitude, 0, boundLatitude, ring * CELL_DEGREES);
+            if (nearest + CHAIN_TOLERANCE_METERS < unseenAtLeast) break;
+        }
+
+        // Candidates in route order, so the pick does not depend on the search order
+        double limit = nearest + CHAIN_TOLERANCE_METERS;
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < seen.size(); i++) {
+            if (distances.get(i) <= limit) candidates.add(seen.get(i));
+        }
+        candidates.sort(null);
+        return candidates.get(random.nextInt(candidates.size()));
+    }
+
+    // Adds the distances to the route starts in one cell; returns the smallest
+    private double measureStarts(long row, long col, double lat, double lng, List<Integer> seen, List<Double> distances) {
+        int[] routes = startsByCell.get(cellKey(row, col));
+        double nearest = Double.MAX_VALUE;
+        if (routes == null) return nearest;
+        for (int route : routes) {
+            double distance = GeoUtils.haversineMeters(lat, lng, startLatitudes[route], startLongitudes[route]);
+            seen.add(route);
+            distances.add(distance);
+            nearest = Math.min(nearest, distance);
+        }
+        return nearest;
+    }
+
+    private static long cellKey(long row, long col) {
+        return GeoUtils.gridCell(row * CELL_DEGREES, col * CELL_DEGREES, CELL_DEGREES);
+    }
+}
@@ -0,0 +1,163 @@
+package com.team27.lucky3.backend.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Route geometry helpers for ride responses: Douglas–Peucker simplification and the
+ * encoded polyline format (precision 5, as produced by OSRM and Google Maps).
+ * <p>
+ * Points are {@code double[]{latitude, longitude}} in degrees, the same shape as
+ * {@link com.team27.lucky3.backend.service.RoutingService.Route#geometry()}.
+ */
+public final class Polylines {
+
+    // Metres per pixel at zoom 0 on the equator for 256 px web-mercator tiles
+    private static final double METERS_PER_PIXEL_ZOOM_0 = 156_543.034;
+    private static final double METERS_PER_DEGREE = Math.toRadians(GeoUtils.EARTH_RADIUS_METERS);
+    private static final double PRECISION = 1e5;
+
+    private Polylines() {
+    }
+
+    /**
+     * Size of one map pixel in metres at the given zoom level and latitude. Simplifying
+     * with this tolerance leaves the drawn line unchanged at that zoom.
+     */
+    public static double toleranceMeters(int zoom, double latitude) {
+        return METERS_PER_PIXEL_ZOOM_0 * Math.cos(Math.toRadians(latitude)) / (1L << zoom);
+    }
+
+    /**
+     * Douglas–Peucker simplification.
+     *
+     * @return indexes of the points to keep, ascending; always includes the first and last point
+     */
+    public static int[] simplify(List<double[]> points, double toleranceMeters) {
+        int n = points.size();
+        if (n <= 2) return identity(n);
+
+        // Project to a local plane in metres; accurate enough over a city-sized route
+        double lat0 = points.get(0)[0];
+        double lonScale = METERS_PER_DEGREE * Math.cos(Math.toRadians(lat0));
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            double[] p = points.get(i);
+            x[i] = (p[1] - points.get(0)[1]) * lonScale;
+            y[i] = (p[0] - lat0) * METERS_PER_DEGREE;
+        }
+
+        boolean[] keep = new boolean[n];
+        keep[0] = keep[n - 1] = true;
+        int kept = 2;
+        double toleranceSq = toleranceMeters * toleranceMeters;
+        // Explicit stack of [first, last] ranges, so long routes cannot overflow the call stack
+        int[] stack = new int[2 * n];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = n - 1;
+        while (top > 0) {
+            int last = stack[--top];
+            int first = stack[--top];
+            int farthest = -1;
+            double farthestSq = toleranceSq;
+            for (int i = first + 1; i < last; i++) {
+                double d = segmentDistanceSq(x[i], y[i], x[first], y[first], x[last], y[last]);
+                if (d > farthestSq) {
+                    farthestSq = d;
+                    farthest = i;
+                }
+            }
+            if (farthest < 0) continue;
+            keep[farthest] = true;
+            kept++;
+            stack[top++] = first;
+            stack[top++] = farthest;
+            stack[top++] = farthest;
+            stack[top++] = last;
+        }
+
+        int[] indexes = new int[kept];
+        for (int i = 0, k = 0; i < n; i++) {
+            if (keep[i]) indexes[k++] = i;
+        }
+        return indexes;
+    }
+
+    /**
+     * Encodes the points as a polyline string (precision 5, roughly 1 m).
+     */
+    public static String encode(List<double[]> points) {
+        StringBuilder out = new StringBuilder(points.size() * 6);
+        long prevLat = 0;
+        long prevLon = 0;
+        for (double[] p : points) {
+            long lat = Math.round(p[0] * PRECISION);
+            long lon = Math.round(p[1] * PRECISION);
+            encodeValue(lat - prevLat, out);
+            encodeValue(lon - prevLon, out);
+            prevLat = lat;
+            prevLon = lon;
+        }
+        return out.toString();
+    }
+
+    /**
+     * Decodes a polyline string produced by {@link #encode}.
+     *
+     * @throws IllegalArgumentException if the string is truncated
+     */
+    public static List<double[]> decode(String encoded) {
+        List<double[]> points = new ArrayList<>();
+        int[] index = {0};
+        long lat = 0;
+        long lon = 0;
+        while (index[0] < encoded.length()) {
+            lat += decodeValue(encoded, index);
+            lon += decodeValue(encoded, index);
+            points.add(new double[]{lat / PRECISION, lon / PRECISION});
+        }
+        return points;
+    }
+
+    private static void encodeValue(long value, StringBuilder out) {
+        long v = value < 0 ? ~(value << 1) : value << 1;
+        while (v >= 0x20) {
+            out.append((char) ((0x20 | (v & 0x1f)) + 63));
+            v >>= 5;
+        }
+        out.append((char) (v + 63));
+    }
+
+    private static long decodeValue(String encoded, int[] index) {
+        long result = 0;
+        int shift = 0;
+        int b;
+        do {
+            if (index[0] >= encoded.length()) {
+                throw new IllegalArgumentException("Truncated polyline");
+            }
+            b = encoded.charAt(index[0]++) - 63;
+            result |= (long) (b & 0x1f) << shift;
+            shift += 5;
+        } while (b >= 0x20);
+        return (result & 1) != 0 ? ~(result >> 1) : result >> 1;
+    }
+
+    private static double segmentDistanceSq(double px, double py, double ax, double ay, double bx, double by) {
+        double dx = bx - ax;
+        double dy = by - ay;
+        double lengthSq = dx * dx + dy * dy;
+        double t = lengthSq == 0 ? 0 : Math.max(0, Math.min(1, ((px - ax) * dx + (py - ay) * dy) / lengthSq));
+        double ex = px - (ax + t * dx);
+        double ey = py - (ay + t * dy);
+        return ex * ex + ey * ey;
+    }
+
+    private static int[] identity(int n) {
+        int[] indexes = new int[n];
+        for (int i = 0; i < n; i++) indexes[i] = i;
+        return indexes;
+    }
+}
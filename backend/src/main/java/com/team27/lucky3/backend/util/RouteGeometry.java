@@ -0,0 +1,81 @@
+package com.team27.lucky3.backend.util;
+
+import com.team27.lucky3.backend.dto.response.RideEstimationResponse;
+import com.team27.lucky3.backend.dto.response.RideResponse;
+import com.team27.lucky3.backend.dto.response.RoutePointResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * How the route geometry is returned by the estimate and ride endpoints ({@code ?geometry=}).
+ * <ul>
+ *   <li>{@code full} - every routed point in {@code routePoints} (default)</li>
+ *   <li>{@code simplified} - {@code routePoints} reduced to what is visible at {@code zoom}</li>
+ *   <li>{@code encoded} - the simplified line as an encoded polyline in {@code encodedRoute},
+ *       without {@code routePoints}</li>
+ *   <li>{@code none} - no geometry</li>
+ * </ul>
+ */
+public enum RouteGeometry {
+    FULL, SIMPLIFIED, ENCODED, NONE;
+
+    public static final int DEFAULT_ZOOM = 16;
+    // The same zoom as a request parameter default, which has to be a String constant
+    public static final String DEFAULT_ZOOM_PARAM = "" + DEFAULT_ZOOM;
+
+    public static RouteGeometry from(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid geometry '" + value + "', expected full, simplified, encoded or none");
+        }
+    }
+
+    public void applyTo(RideEstimationResponse response, int zoom) {
+        if (this == FULL) return;
+        response.setEncodedRoute(this == ENCODED ? encode(response.getRoutePoints(), zoom) : null);
+        response.setRoutePoints(this == SIMPLIFIED ? simplify(response.getRoutePoints(), zoom) : null);
+    }
+
+    public void applyTo(RideResponse response, int zoom) {
+        if (this == FULL) return;
+        response.setEncodedRoute(this == ENCODED ? encode(response.getRoutePoints(), zoom) : null);
+        response.setRoutePoints(this == SIMPLIFIED ? simplify(response.getRoutePoints(), zoom) : null);
+    }
+
+    private static List<RoutePointResponse> simplify(List<RoutePointResponse> routePoints, int zoom) {
+        if (routePoints == null) return null;
+        int[] keep = Polylines.simplify(coordinates(routePoints), tolerance(routePoints, zoom));
+        List<RoutePointResponse> simplified = new ArrayList<>(keep.length);
+        for (int i = 0; i < keep.length; i++) {
+            simplified.add(new RoutePointResponse(routePoints.get(keep[i]).getLocation(), i));
+        }
+        return simplified;
+    }
+
+    private static String encode(List<RoutePointResponse> routePoints, int zoom) {
+        if (routePoints == null) return null;
+        List<double[]> coordinates = coordinates(routePoints);
+        int[] keep = Polylines.simplify(coordinates, tolerance(routePoints, zoom));
+        List<double[]> simplified = new ArrayList<>(keep.length);
+        for (int index : keep) {
+            simplified.add(coordinates.get(index));
+        }
+        return Polylines.encode(simplified);
+    }
+
+    private static double tolerance(List<RoutePointResponse> routePoints, int zoom) {
+        double latitude = routePoints.isEmpty() ? 0 : routePoints.get(0).getLocation().getLatitude();
+        return Polylines.toleranceMeters(zoom, latitude);
+    }
+
+    private static List<double[]> coordinates(List<RoutePointResponse> routePoints) {
+        List<double[]> coordinates = new ArrayList<>(routePoints.size());
+        for (RoutePointResponse point : routePoints) {
+            coordinates.add(new double[]{point.getLocation().getLatitude(), point.getLocation().getLongitude()});
+        }
+        return coordinates;
+    }
+}
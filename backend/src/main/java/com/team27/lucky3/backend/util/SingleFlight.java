@@ -0,0 +1,86 @@
+package com.team27.lucky3.backend.util;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent computations of the same key: the first caller runs the
+ * computation, callers arriving while it is in flight wait for and share its result
+ * (or its exception). Nothing is cached; once the computation finishes the next
+ * caller starts a new one.
+ * <p>
+ * The computation runs on the first caller's thread, so it must not call back into
+ * the same flight with the same key.
+ */
+public final class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder executions = new LongAdder();
+
+    public V execute(K key, Supplier<V> computation) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        requests.increment();
+        if (existing != null) {
+            return await(existing);
+        }
+
+        executions.increment();
+        try {
+            V value = computation.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Registers {@code lucky3.singleflight.requests}, {@code .executions} and {@code .in_flight}
+     * tagged with {@code flight=name}; the coalescing ratio is {@code 1 - executions / requests}.
+     */
+    public void bindTo(MeterRegistry registry, String name) {
+        FunctionCounter.builder("lucky3.singleflight.requests", requests, LongAdder::sum)
+                .tag("flight", name)
+                .description("Calls, including those that joined an in-flight computation")
+                .register(registry);
+        FunctionCounter.builder("lucky3.singleflight.executions", executions, LongAdder::sum)
+                .tag("flight", name)
+                .description("Computations actually run")
+                .register(registry);
+        Gauge.builder("lucky3.singleflight.in_flight", inFlight, Map::size)
+                .tag("flight", name)
+                .register(registry);
+    }
+
+    public long requests() {
+        return requests.sum();
+    }
+
+    public long executions() {
+        return executions.sum();
+    }
+
+    private static <V> V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            // Rethrow what the computation threw, as the first caller saw it
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw e;
+        }
+    }
+}
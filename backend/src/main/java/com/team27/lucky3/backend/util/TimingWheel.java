@@ -0,0 +1,159 @@
+package com.team27.lucky3.backend.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Hashed timing wheel for large numbers of timeouts that are usually cancelled before they fire.
+ * <p>
+ * Time is divided into ticks; a timeout is linked into the slot of the tick it is due in,
+ * so scheduling and cancelling are O(1) no matter how many timeouts are pending. Timeouts
+ * further away than one rotation share slots with nearer ones and are skipped until due.
+ * The wheel has no thread of its own: the owner calls {@link #advance()} at least once per
+ * tick (e.g. from a {@code @Scheduled} method) and handles the payloads that came due.
+ * Timeouts fire up to one tick late, never early.
+ *
+ * @param <T> payload handed back when the timeout fires
+ */
+public final class TimingWheel<T> {
+
+    private final long tickNanos;
+    private final Timeout[] heads;
+    private final int mask;
+    private final LongSupplier clock;
+    private final long startNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private long currentTick;
+    private int size;
+
+    /**
+     * A scheduled timeout, linked into its slot's list until it fires or is cancelled.
+     */
+    public final class Timeout {
+        private final T payload;
+        private final long deadlineTick;
+        private Timeout prev;
+        private Timeout next;
+        private boolean linked;
+
+        private Timeout(T payload, long deadlineTick) {
+            this.payload = payload;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T payload() {
+            return payload;
+        }
+
+        /**
+         * Cancels the timeout. Returns false if it already fired or was cancelled.
+         */
+        public boolean cancel() {
+            lock.lock();
+            try {
+                if (!linked) return false;
+                unlink(this);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * @param tick  timer resolution
+     * @param slots wheel size, rounded up to a power of two; ideally covers the usual delay
+     */
+    public TimingWheel(Duration tick, int slots) {
+        this(tick, slots, System::nanoTime);
+    }
+
+    TimingWheel(Duration tick, int slots, LongSupplier clock) {
+        int size = Integer.highestOneBit(Math.max(1, slots - 1)) << 1;
+        this.tickNanos = tick.toNanos();
+        // Java cannot create an array of an inner class of a generic type except as a raw array;
+        // it only ever holds this wheel's timeouts
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        Timeout[] heads = new TimingWheel.Timeout[size];
+        this.heads = heads;
+        this.mask = size - 1;
+        this.clock = clock;
+        this.startNanos = clock.getAsLong();
+    }
+
+    public Timeout schedule(T payload, Duration delay) {
+        long elapsed = clock.getAsLong() - startNanos + delay.toNanos();
+        long deadline = (elapsed + tickNanos - 1) / tickNanos;
+        lock.lock();
+        try {
+            Timeout timeout = new Timeout(payload, Math.max(deadline, currentTick + 1));
+            int slot = (int) (timeout.deadlineTick & mask);
+            timeout.next = heads[slot];
+            if (heads[slot] != null) heads[slot].prev = timeout;
+            heads[slot] = timeout;
+            timeout.linked = true;
+            size++;
+            return timeout;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves the wheel up to the current time and returns the payloads of the timeouts
+     * that came due, earliest slots first.
+     */
+    public List<T> advance() {
+        long targetTick = (clock.getAsLong() - startNanos) / tickNanos;
+        List<T> expired = new ArrayList<>();
+        lock.lock();
+        try {
+            // When more than a rotation behind, every slot is visited once
+            long steps = Math.min(targetTick - currentTick, heads.length);
+            for (long i = 1; i <= steps; i++) {
+                Timeout timeout = heads[(int) ((currentTick + i) & mask)];
+                while (timeout != null) {
+                    Timeout next = timeout.next;
+                    if (timeout.deadlineTick <= targetTick) {
+                        unlink(timeout);
+                        expired.add(timeout.payload);
+                    }
+                    timeout = next;
+                }
+            }
+            currentTick = Math.max(currentTick, targetTick);
+            return expired;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of timeouts that have neither fired nor been cancelled.
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void unlink(Timeout timeout) {
+        int slot = (int) (timeout.deadlineTick & mask);
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            heads[slot] = timeout.next;
+        }
+        if (timeout.next != null) timeout.next.prev = timeout.prev;
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.linked = false;
+        size--;
+    }
+}
@@ -0,0 +1,139 @@
+package com.team27.lucky3.backend.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Driving times between the cells of a lat/lng grid over the service area, read from a
+ * memory-mapped file.
+ * <p>
+ * The file holds a small header followed by one unsigned 16-bit value per ordered cell pair:
+ * the driving time in seconds from the centre of one cell to the centre of the other
+ * ({@link #NO_ROUTE} where the routing engine found none). A lookup is two grid divisions
+ * and a single read from the mapping, so the matrix costs no heap and no routing calls.
+ */
+public final class TravelTimeMatrix {
+
+    public static final char NO_ROUTE = 0xFFFF;
+
+    private static final int MAGIC = 0x4C334D54; // "L3MT"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 4 * 8 + 4 + 4;
+
+    private final Grid grid;
+    private final ByteBuffer seconds;
+
+    /**
+     * Cells of {@code cellLat} x {@code cellLon} degrees, row-major from the south-west corner.
+     */
+    public record Grid(double minLat, double minLon, double cellLat, double cellLon, int rows, int cols) {
+
+        /**
+         * The smallest grid of the given cell size that covers the bounding box.
+         */
+        public static Grid covering(double minLat, double maxLat, double minLon, double maxLon,
+                                    double cellLat, double cellLon) {
+            return new Grid(minLat, minLon, cellLat, cellLon,
+                    (int) Math.ceil((maxLat - minLat) / cellLat), (int) Math.ceil((maxLon - minLon) / cellLon));
+        }
+
+        public int cells() {
+            return rows * cols;
+        }
+
+        /**
+         * Index of the cell containing the point, or -1 outside the grid.
+         */
+        public int cellOf(double lat, double lon) {
+            int row = (int) Math.floor((lat - minLat) / cellLat);
+            int col = (int) Math.floor((lon - minLon) / cellLon);
+            if (row < 0 || row >= rows || col < 0 || col >= cols) return -1;
+            return row * cols + col;
+        }
+
+        public double centerLat(int cell) {
+            return minLat + (cell / cols + 0.5) * cellLat;
+        }
+
+        public double centerLon(int cell) {
+            return minLon + (cell % cols + 0.5) * cellLon;
+        }
+    }
+
+    private TravelTimeMatrix(Grid grid, ByteBuffer seconds) {
+        this.grid = grid;
+        this.seconds = seconds;
+    }
+
+    /**
+     * Maps a matrix file written by {@link #write}. The mapping stays valid after the
+     * channel is closed and is released when the matrix is garbage collected.
+     */
+    public static TravelTimeMatrix open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Not a travel time matrix: " + file);
+            }
+            Grid grid = new Grid(buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble(),
+                    buffer.getInt(), buffer.getInt());
+            long expected = HEADER_BYTES + 2L * grid.cells() * grid.cells();
+            if (channel.size() != expected) {
+                throw new IOException("Travel time matrix " + file + " has " + channel.size()
+                        + " bytes, expected " + expected);
+            }
+            return new TravelTimeMatrix(grid, buffer.slice(HEADER_BYTES, buffer.capacity() - HEADER_BYTES));
+        }
+    }
+
+    /**
+     * Writes a matrix file, replacing {@code file} atomically so readers never map a partial one.
+     *
+     * @param seconds {@code cells * cells} travel times, row {@code from}, column {@code to}
+     */
+    public static void write(Path file, Grid grid, char[] seconds) throws IOException {
+        int cells = grid.cells();
+        if (seconds.length != cells * cells) {
+            throw new IllegalArgumentException("Expected " + cells * cells + " travel times, got " + seconds.length);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + 2 * seconds.length);
+        buffer.putInt(MAGIC).putInt(VERSION)
+                .putDouble(grid.minLat()).putDouble(grid.minLon())
+                .putDouble(grid.cellLat()).putDouble(grid.cellLon())
+                .putInt(grid.rows()).putInt(grid.cols());
+        buffer.asCharBuffer().put(seconds);
+
+        Path absolute = file.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, buffer.array());
+            Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public Grid grid() {
+        return grid;
+    }
+
+    /**
+     * Driving time in seconds between the cells of the two points, or -1 if either point is
+     * outside the grid, both are in the same cell (the cell size dominates the error there),
+     * or there is no route.
+     */
+    public int seconds(double fromLat, double fromLon, double toLat, double toLon) {
+        int from = grid.cellOf(fromLat, fromLon);
+        int to = grid.cellOf(toLat, toLon);
+        if (from < 0 || to < 0 || from == to) return -1;
+        char value = seconds.getChar(2 * (from * grid.cells() + to));
+        return value == NO_ROUTE ? -1 : value;
+    }
+}
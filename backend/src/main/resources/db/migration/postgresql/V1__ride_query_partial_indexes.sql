@@ -0,0 +1,26 @@
+-- Partial and covering indexes for the hot ride/session queries.
+-- Plain composite indexes are declared on the entities (@Table(indexes = ...)) and
+-- created by Hibernate; these are the PostgreSQL-only ones JPA cannot express.
+-- Predicates must match the repository queries literally so the planner can use them.
+
+-- RideRepository.findDriversWithRidesInTimeRange: overlap check for non-terminal rides
+CREATE INDEX IF NOT EXISTS idx_ride_driver_open_window
+    ON ride (driver_id, start_time, end_time)
+    WHERE status NOT IN ('FINISHED', 'REJECTED', 'CANCELLED');
+
+-- RideRepository.countActiveRides / findActiveRideIds / findAllInProgressRides /
+-- findInProgressRidePassengerCounts: only a small fraction of rides is ever active
+CREATE INDEX IF NOT EXISTS idx_ride_active_status
+    ON ride (status)
+    WHERE status IN ('PENDING', 'ACCEPTED', 'SCHEDULED', 'IN_PROGRESS', 'ACTIVE');
+
+-- RideRepository.countCompletedRidesByDriverId / sumTotalEarningsByDriverId /
+-- findFinishedRidesByDriverSince / sumCompletedRidesPerDriver: index-only earnings scans
+CREATE INDEX IF NOT EXISTS idx_ride_finished_driver
+    ON ride (driver_id, end_time) INCLUDE (total_cost)
+    WHERE status = 'FINISHED';
+
+-- DriverActivitySessionRepository.findByDriverIdAndEndTimeIsNull: the open session of a driver
+CREATE INDEX IF NOT EXISTS idx_driver_session_open
+    ON driver_activity_sessions (driver_id)
+    WHERE end_time IS NULL;
@@ -0,0 +1,15 @@
+-- Backfill SupportChat.lastMessagePreview for chats that existed before the column was added.
+-- New messages keep it up to date (SupportChatRepository.recordUserMessage / recordAdminMessage);
+-- the format must match SupportChatServiceImpl.preview: first 100 characters, then "...".
+UPDATE support_chats sc
+SET last_message_preview = CASE
+        WHEN length(m.content) > 100 THEN left(m.content, 100) || '...'
+        ELSE m.content
+    END
+FROM (
+    SELECT DISTINCT ON (support_chat_id) support_chat_id, content
+    FROM messages
+    ORDER BY support_chat_id, id DESC
+) m
+WHERE m.support_chat_id = sc.id
+  AND sc.last_message_preview IS NULL;
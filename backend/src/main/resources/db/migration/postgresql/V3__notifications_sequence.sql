@@ -0,0 +1,5 @@
+-- Notification ids now come from notifications_seq (pooled, allocationSize 50) so fan-out inserts
+-- can be batched. Hibernate creates the sequence starting at 1; move it past the ids already
+-- issued by the old identity column. The pooled optimizer hands out the 50 ids up to each value
+-- it fetches, so the sequence must sit at least 50 above the current maximum.
+SELECT setval('notifications_seq', (SELECT COALESCE(MAX(id), 0) FROM notifications) + 50);
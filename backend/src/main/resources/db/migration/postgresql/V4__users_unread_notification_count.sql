@@ -0,0 +1,11 @@
+-- Backfill User.unreadNotificationCount for notifications created before the column was added.
+-- From then on UnreadNotificationCounter keeps it in step with every insert, mark-read and delete.
+UPDATE users u
+SET unread_notification_count = c.unread
+FROM (
+    SELECT recipient_id, COUNT(*) AS unread
+    FROM notifications
+    WHERE is_read = false
+    GROUP BY recipient_id
+) c
+WHERE c.recipient_id = u.id;
@@ -0,0 +1,106 @@
+package com.team27.lucky3.backend.config;
+
+import com.team27.lucky3.backend.entity.enums.VehicleType;
+import com.team27.lucky3.backend.repository.VehiclePriceRepository;
+import com.team27.lucky3.backend.service.VehiclePriceService;
+import com.team27.lucky3.backend.service.impl.VehiclePriceServiceImpl;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ServiceMetricsAspectTest {
+
+    private SimpleMeterRegistry registry;
+    private ServiceMetricsAspect aspect;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        aspect = new ServiceMetricsAspect(registry);
+    }
+
+    private <T> T proxy(T target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+
+    public static class PollingJob {
+        int runs;
+
+        @Scheduled(fixedRate = 5)
+        public void poll() {
+            runs++;
+        }
+
+        @Scheduled(fixedDelay = 60_000)
+        public void fail() {
+            throw new IllegalStateException("boom");
+        }
+    }
+
+    @Test
+    @DisplayName("public ServiceImpl methods are timed per class and method")
+    void serviceCall_recordedWithExceptionTag() {
+        VehiclePriceRepository repository = mock(VehiclePriceRepository.class);
+        when(repository.findByVehicleType(any())).thenThrow(new IllegalStateException("db down"));
+        VehiclePriceService service = proxy(new VehiclePriceServiceImpl(repository));
+
+        service.getBaseFare(null);
+        service.getBaseFare(null);
+        assertThrows(IllegalStateException.class, () -> service.getBaseFare(VehicleType.STANDARD));
+
+        Timer ok = registry.get(ServiceMetricsAspect.SERVICE_TIMER)
+                .tags("class", "VehiclePriceServiceImpl", "method", "getBaseFare", "exception", "none")
+                .timer();
+        Timer failed = registry.get(ServiceMetricsAspect.SERVICE_TIMER)
+                .tags("method", "getBaseFare", "exception", "IllegalStateException")
+                .timer();
+        assertEquals(2, ok.count());
+        assertEquals(1, failed.count());
+    }
+
+    @Test
+    @DisplayName("scheduled jobs record duration and start lag against their fixed rate")
+    void scheduledJob_recordsRunsAndLag() throws InterruptedException {
+        PollingJob target = new PollingJob();
+        PollingJob job = proxy(target);
+
+        job.poll();
+        Thread.sleep(50);
+        job.poll();
+
+        assertEquals(2, target.runs);
+        Timer runs = registry.get(ServiceMetricsAspect.SCHEDULED_TIMER)
+                .tags("job", "PollingJob.poll", "exception", "none").timer();
+        Timer lag = registry.get(ServiceMetricsAspect.SCHEDULED_LAG_TIMER)
+                .tags("job", "PollingJob.poll").timer();
+        assertEquals(2, runs.count());
+        // The first run has no previous run to lag behind
+        assertEquals(1, lag.count());
+        assertTrue(lag.totalTime(TimeUnit.MILLISECONDS) >= 40, "second run started ~45ms late");
+    }
+
+    @Test
+    @DisplayName("failing scheduled jobs are tagged with the exception and rethrown")
+    void scheduledJob_failureTagged() {
+        PollingJob job = proxy(new PollingJob());
+
+        assertThrows(IllegalStateException.class, job::fail);
+
+        assertEquals(1, registry.get(ServiceMetricsAspect.SCHEDULED_TIMER)
+                .tags("job", "PollingJob.fail", "exception", "IllegalStateException").timer().count());
+    }
+}
@@ -6,10 +6,12 @@ import com.team27.lucky3.backend.dto.LocationDto;
 import com.team27.lucky3.backend.dto.request.CreateRideRequest;
 import com.team27.lucky3.backend.dto.request.RideRequirements;
 import com.team27.lucky3.backend.dto.response.RideEstimationResponse;
+import com.team27.lucky3.backend.dto.response.RoutePointResponse;
 import com.team27.lucky3.backend.entity.enums.VehicleType;
 import com.team27.lucky3.backend.exception.GlobalExceptionHandler;
 import com.team27.lucky3.backend.service.RideService;
 import com.team27.lucky3.backend.service.impl.CustomUserDetailsService;
+import com.team27.lucky3.backend.util.Polylines;
 import com.team27.lucky3.backend.util.TokenUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -28,6 +30,7 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -150,6 +153,60 @@ class RideControllerEstimateRideTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    @DisplayName("POST /api/rides/estimate?geometry=encoded - route returned as a simplified encoded polyline")
+    void estimateRide_encodedGeometry_success() throws Exception {
+        RideEstimationResponse response = new RideEstimationResponse(15, 450.0, 5, 5.2, straightRoute());
+        when(rideService.estimateRide(any(CreateRideRequest.class))).thenReturn(response);
+
+        // The points are collinear, so only the two ends remain
+        mockMvc.perform(post("/api/rides/estimate").param("geometry", "encoded")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.routePoints").doesNotExist())
+                .andExpect(jsonPath("$.encodedRoute").value(Polylines.encode(List.of(
+                        new double[]{45.2400, 19.8300}, new double[]{45.2490, 19.8300}))));
+    }
+
+    @Test
+    @DisplayName("POST /api/rides/estimate?geometry=simplified - route points reduced and renumbered")
+    void estimateRide_simplifiedGeometry_success() throws Exception {
+        RideEstimationResponse response = new RideEstimationResponse(15, 450.0, 5, 5.2, straightRoute());
+        when(rideService.estimateRide(any(CreateRideRequest.class))).thenReturn(response);
+
+        mockMvc.perform(post("/api/rides/estimate").param("geometry", "simplified").param("zoom", "14")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.routePoints.length()").value(2))
+                .andExpect(jsonPath("$.routePoints[1].order").value(1))
+                .andExpect(jsonPath("$.routePoints[1].location.latitude").value(45.249))
+                .andExpect(jsonPath("$.encodedRoute").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("POST /api/rides/estimate?geometry=... - 400 for an unknown geometry")
+    void estimateRide_unknownGeometry_badRequest() throws Exception {
+        mockMvc.perform(post("/api/rides/estimate").param("geometry", "detailed")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validRequest)))
+                .andExpect(status().isBadRequest());
+
+        verify(rideService, never()).estimateRide(any());
+    }
+
+    private static List<RoutePointResponse> straightRoute() {
+        List<RoutePointResponse> points = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            points.add(new RoutePointResponse(new LocationDto("", 45.2400 + i * 0.001, 19.8300), i));
+        }
+        return points;
+    }
+
     // ===== Validation Error Scenarios (400) =====
 
     @Test
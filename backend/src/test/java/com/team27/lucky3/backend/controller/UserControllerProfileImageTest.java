@@ -0,0 +1,117 @@
+package com.team27.lucky3.backend.controller;
+
+import com.team27.lucky3.backend.exception.GlobalExceptionHandler;
+import com.team27.lucky3.backend.service.ImageService;
+import com.team27.lucky3.backend.service.UserBlockingService;
+import com.team27.lucky3.backend.service.UserService;
+import com.team27.lucky3.backend.service.impl.CustomUserDetailsService;
+import com.team27.lucky3.backend.util.TokenUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(UserController.class)
+@Import({GlobalExceptionHandler.class, UserControllerProfileImageTest.SecurityConfig.class})
+class UserControllerProfileImageTest {
+
+    @TestConfiguration
+    static class SecurityConfig {
+        @Bean
+        public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+            http.csrf(csrf -> csrf.disable())
+                    .authorizeHttpRequests(auth -> auth
+                            .requestMatchers("/api/users/*/profile-image").permitAll()
+                            .anyRequest().authenticated()
+                    );
+            return http.build();
+        }
+    }
+
+    private static final String ETAG = "\"0f8e2d5c-avatar.png\"";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private UserBlockingService userBlockingService;
+
+    @MockBean
+    private TokenUtils tokenUtils;
+
+    @MockBean
+    private CustomUserDetailsService customUserDetailsService;
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path file = Files.write(dir.resolve("avatar.png"), "0123456789abcdef".getBytes());
+        when(userService.getProfileImage(eq(5L), any()))
+                .thenReturn(new ImageService.ImageContent(new FileSystemResource(file), "image/png", ETAG));
+    }
+
+    @Test
+    @DisplayName("GET /api/users/{id}/profile-image - streams the file with ETag and caching headers")
+    void getProfileImage_success() throws Exception {
+        mockMvc.perform(get("/api/users/5/profile-image"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/png"))
+                .andExpect(content().string("0123456789abcdef"))
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=300, public"))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"));
+    }
+
+    @Test
+    @DisplayName("GET /api/users/{id}/profile-image - 304 when the client already has the image")
+    void getProfileImage_notModified() throws Exception {
+        mockMvc.perform(get("/api/users/5/profile-image").header(HttpHeaders.IF_NONE_MATCH, ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    @DisplayName("GET /api/users/{id}/profile-image - 206 with the requested byte range")
+    void getProfileImage_range() throws Exception {
+        mockMvc.perform(get("/api/users/5/profile-image").header(HttpHeaders.RANGE, "bytes=4-7"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 4-7/16"))
+                .andExpect(content().string("4567"));
+    }
+
+    @Test
+    @DisplayName("GET /api/users/{id}/profile-image?size=64 - passes the requested size to the service")
+    void getProfileImage_size() throws Exception {
+        mockMvc.perform(get("/api/users/5/profile-image").param("size", "64"))
+                .andExpect(status().isOk());
+
+        verify(userService).getProfileImage(5L, 64);
+    }
+}
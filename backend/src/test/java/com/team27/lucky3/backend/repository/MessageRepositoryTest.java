@@ -0,0 +1,97 @@
+package com.team27.lucky3.backend.repository;
+
+import com.team27.lucky3.backend.entity.Message;
+import com.team27.lucky3.backend.entity.SupportChat;
+import com.team27.lucky3.backend.entity.User;
+import com.team27.lucky3.backend.entity.enums.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the cursor-paged support chat message queries in MessageRepository.
+ * Uses H2 in-memory database.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class MessageRepositoryTest {
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private SupportChatRepository supportChatRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private SupportChat chat;
+    private final List<Long> messageIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setName("Chat");
+        user.setSurname("User");
+        user.setEmail("chat.user@example.com");
+        user.setPassword("password");
+        user.setRole(UserRole.PASSENGER);
+        user = userRepository.save(user);
+
+        chat = new SupportChat();
+        chat.setUser(user);
+        chat = supportChatRepository.save(chat);
+
+        // Same timestamp for every message: ordering must not depend on timestamps being unique
+        LocalDateTime sentAt = LocalDateTime.now();
+        for (int i = 0; i < 10; i++) {
+            Message message = new Message();
+            message.setSender(user);
+            message.setSupportChat(chat);
+            message.setContent("message " + i);
+            message.setTimestamp(sentAt);
+            messageIds.add(messageRepository.save(message).getId());
+        }
+    }
+
+    @Test
+    @DisplayName("latest page returns the newest messages, newest first")
+    void findLatest() {
+        List<Message> page = messageRepository.findBySupportChatIdOrderByIdDesc(chat.getId(), PageRequest.of(0, 3));
+
+        assertEquals(List.of(messageIds.get(9), messageIds.get(8), messageIds.get(7)), ids(page));
+    }
+
+    @Test
+    @DisplayName("before= cursor returns the page just older than the given message")
+    void findBefore() {
+        List<Message> page = messageRepository.findBySupportChatIdAndIdLessThanOrderByIdDesc(
+                chat.getId(), messageIds.get(7), PageRequest.of(0, 3));
+
+        assertEquals(List.of(messageIds.get(6), messageIds.get(5), messageIds.get(4)), ids(page));
+    }
+
+    @Test
+    @DisplayName("after= cursor returns only messages newer than the last seen one, oldest first")
+    void findAfter() {
+        List<Message> page = messageRepository.findBySupportChatIdAndIdGreaterThanOrderByIdAsc(
+                chat.getId(), messageIds.get(7), PageRequest.of(0, 50));
+
+        assertEquals(List.of(messageIds.get(8), messageIds.get(9)), ids(page));
+        assertEquals("Chat", page.get(0).getSender().getName());
+    }
+
+    private static List<Long> ids(List<Message> messages) {
+        return messages.stream().map(Message::getId).toList();
+    }
+}
@@ -0,0 +1,344 @@
+package com.team27.lucky3.backend.repository;
+
+import com.team27.lucky3.backend.entity.DriverActivitySession;
+import com.team27.lucky3.backend.entity.Location;
+import com.team27.lucky3.backend.entity.Review;
+import com.team27.lucky3.backend.entity.Ride;
+import com.team27.lucky3.backend.entity.User;
+import com.team27.lucky3.backend.entity.enums.RideStatus;
+import com.team27.lucky3.backend.entity.enums.UserRole;
+import com.team27.lucky3.backend.entity.enums.VehicleType;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Query-plan regression suite for the hot ride, session and review queries.
+ * <p>
+ * Every statement Hibernate executes for a repository call is captured together with
+ * its bound parameters and replayed as {@code EXPLAIN} against a seeded database.
+ * A test fails when the plan falls back to a full scan of one of the large tables,
+ * so dropping an index or changing a query shape is caught before it ships.
+ * <p>
+ * The plans come from the H2 test database (the only one available to the test run);
+ * the PostgreSQL-only partial indexes in {@code db/migration/postgresql} are not covered.
+ * Whole-table reconciliation aggregates ({@code sumCompletedRidesPerDriver},
+ * {@code sumRatingsPerDriver}, {@code getDriverRatingTotals}) scan by design and are not checked.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(RepositoryQueryPlanTest.StatementCaptureConfig.class)
+class RepositoryQueryPlanTest {
+
+    private static final Pattern FULL_SCAN = Pattern.compile(
+            "PUBLIC\\.(RIDE|RIDE_PASSENGERS|REVIEW|DRIVER_ACTIVITY_SESSIONS)\\.tableScan");
+
+    @Autowired
+    private RideRepository rideRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ReviewRepository reviewRepository;
+    @Autowired
+    private DriverActivitySessionRepository sessionRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private StatementRecorder recorder;
+
+    private final List<User> drivers = new ArrayList<>();
+    private final List<User> passengers = new ArrayList<>();
+    private LocalDateTime now;
+
+    @BeforeEach
+    void seed() {
+        now = LocalDateTime.now();
+        for (int i = 0; i < 20; i++) {
+            drivers.add(userRepository.save(user("plan-driver" + i + "@example.com", UserRole.DRIVER)));
+        }
+        for (int i = 0; i < 40; i++) {
+            passengers.add(userRepository.save(user("plan-passenger" + i + "@example.com", UserRole.PASSENGER)));
+        }
+
+        RideStatus[] statuses = RideStatus.values();
+        for (int i = 0; i < 600; i++) {
+            // Mostly finished rides, like a long-running production database
+            RideStatus status = i % 10 == 0 ? statuses[i % statuses.length] : RideStatus.FINISHED;
+            LocalDateTime start = now.minusHours(i);
+            Ride ride = ride(drivers.get(i % drivers.size()), passengers.get(i % passengers.size()),
+                    status, start, start.plusMinutes(20));
+            if (i % 2 == 0) {
+                reviewRepository.save(review(ride, passengers.get(i % passengers.size()), 1 + i % 5));
+            }
+        }
+
+        for (int i = 0; i < 200; i++) {
+            DriverActivitySession session = new DriverActivitySession();
+            session.setDriver(drivers.get(i % drivers.size()));
+            session.setStartTime(now.minusHours(i * 2L));
+            session.setEndTime(i < drivers.size() ? null : now.minusHours(i * 2L - 1));
+            sessionRepository.save(session);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        recorder.clear();
+    }
+
+    @Test
+    @DisplayName("driver ride lookups use the driver/status index")
+    void driverRideQueries_noFullScan() {
+        Long driverId = drivers.get(3).getId();
+
+        assertNoFullScan(() -> rideRepository.existsByDriverIdAndStatusIn(driverId,
+                List.of(RideStatus.IN_PROGRESS, RideStatus.ACTIVE)));
+        assertNoFullScan(() -> rideRepository.findFinishedRidesByDriverSince(driverId, now.minusDays(1)));
+        assertNoFullScan(() -> rideRepository.findByDriverIdAndStatusAndStartTimeAfterOrderByStartTimeAsc(
+                driverId, RideStatus.SCHEDULED, now));
+        assertNoFullScan(() -> rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(driverId,
+                List.of(RideStatus.SCHEDULED, RideStatus.PENDING, RideStatus.ACCEPTED)));
+        assertNoFullScan(() -> rideRepository.findDriversWithRidesInTimeRange(
+                List.of(driverId, drivers.get(4).getId()), now.minusHours(2), now));
+        assertNoFullScan(() -> rideRepository.countCompletedRidesByDriverId(driverId));
+        assertNoFullScan(() -> rideRepository.sumTotalEarningsByDriverId(driverId));
+        assertNoFullScan(() -> rideRepository.findByDriverIdAndStartTimeBetweenAndStatus(
+                driverId, now.minusDays(7), now, RideStatus.FINISHED));
+    }
+
+    @Test
+    @DisplayName("status and time-window ride queries use the status indexes")
+    void statusRideQueries_noFullScan() {
+        assertNoFullScan(() -> rideRepository.findAllInProgressRides());
+        assertNoFullScan(() -> rideRepository.countActiveRides());
+        assertNoFullScan(() -> rideRepository.findAllActiveRidesForPassengerCount());
+        assertNoFullScan(() -> rideRepository.findActiveRideIds());
+        assertNoFullScan(() -> rideRepository.findInProgressRidePassengerCounts());
+        assertNoFullScan(() -> rideRepository.findByScheduledTimeBetweenAndStatusIn(
+                now, now.plusMinutes(15), List.of(RideStatus.SCHEDULED, RideStatus.ACCEPTED)));
+        assertNoFullScan(() -> rideRepository.findByStartTimeBetweenAndStatus(
+                now.minusDays(1), now, RideStatus.FINISHED));
+    }
+
+    @Test
+    @DisplayName("passenger history uses the ride_passengers user index")
+    void passengerRideQuery_noFullScan() {
+        Long passengerId = passengers.get(5).getId();
+
+        assertNoFullScan(() -> rideRepository.findRidesForPassenger(
+                passengerId, now.minusDays(30), now, RideStatus.FINISHED.name()));
+    }
+
+    @Test
+    @DisplayName("activity session lookups use the driver/end_time index")
+    void sessionQueries_noFullScan() {
+        Long driverId = drivers.get(7).getId();
+
+        assertNoFullScan(() -> sessionRepository.findByDriverIdAndEndTimeIsNull(driverId));
+        assertNoFullScan(() -> sessionRepository.findSessionsSince(driverId, now.minusDays(1)));
+    }
+
+    @Test
+    @DisplayName("per-driver and per-ride review lookups use the ride indexes")
+    void reviewQueries_noFullScan() {
+        Long driverId = drivers.get(2).getId();
+        Ride ride = rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(
+                driverId, List.of(RideStatus.FINISHED)).get(0);
+        recorder.clear();
+
+        assertNoFullScan(() -> reviewRepository.findAverageDriverRatingByDriverId(driverId));
+        assertNoFullScan(() -> reviewRepository.countRatingsByDriverId(driverId));
+        assertNoFullScan(() -> reviewRepository.findAverageVehicleRatingByDriverId(driverId));
+        assertNoFullScan(() -> reviewRepository.countVehicleRatingsByDriverId(driverId));
+        assertNoFullScan(() -> reviewRepository.existsByRideIdAndPassengerId(ride.getId(), passengers.get(1).getId()));
+        assertNoFullScan(() -> reviewRepository.existsByRideIdAndReviewerEmail(ride.getId(), "linked@example.com"));
+    }
+
+    // ---------------------------------------------------------------- helpers
+
+    private void assertNoFullScan(Runnable repositoryCall) {
+        recorder.clear();
+        repositoryCall.run();
+        List<CapturedStatement> statements = recorder.drain();
+        assertFalse(statements.isEmpty(), "Repository call did not reach the database");
+
+        for (CapturedStatement statement : statements) {
+            String plan = recorder.explain(statement);
+            Matcher matcher = FULL_SCAN.matcher(plan);
+            assertFalse(matcher.find(), () -> "Full scan of " + matcher.group(1)
+                    + " in query plan:\n" + plan + "\nfor SQL:\n" + statement.sql());
+        }
+    }
+
+    private User user(String email, UserRole role) {
+        User user = new User();
+        user.setName(email.substring(0, email.indexOf('@')));
+        user.setEmail(email);
+        user.setRole(role);
+        return user;
+    }
+
+    private Ride ride(User driver, User passenger, RideStatus status, LocalDateTime start, LocalDateTime end) {
+        Ride ride = new Ride();
+        ride.setDriver(driver);
+        ride.setStatus(status);
+        ride.setStartTime(start);
+        ride.setEndTime(end);
+        ride.setScheduledTime(status == RideStatus.SCHEDULED ? start : null);
+        ride.setTotalCost(500.0);
+        ride.setStartLocation(new Location("Start", 45.25, 19.83));
+        ride.setEndLocation(new Location("End", 45.26, 19.84));
+        ride.setPassengers(new HashSet<>(Set.of(passenger)));
+        ride.setRequestedVehicleType(VehicleType.STANDARD);
+        return rideRepository.save(ride);
+    }
+
+    private Review review(Ride ride, User passenger, int rating) {
+        Review review = new Review();
+        review.setRide(ride);
+        review.setPassenger(passenger);
+        review.setDriverRating(rating);
+        review.setVehicleRating(rating);
+        review.setTimestamp(ride.getEndTime());
+        return review;
+    }
+
+    // ---------------------------------------------------------------- statement capture
+
+    record CapturedStatement(String sql, List<Object[]> setterCalls) {
+    }
+
+    /**
+     * Records every executed SELECT with the parameter setter calls that were applied to it,
+     * and replays them as {@code EXPLAIN} on the test transaction's connection, so the plans
+     * are computed against the seeded (uncommitted) rows.
+     */
+    static class StatementRecorder {
+        private final List<CapturedStatement> statements = new CopyOnWriteArrayList<>();
+        private DataSource dataSource;
+
+        void clear() {
+            statements.clear();
+        }
+
+        List<CapturedStatement> drain() {
+            List<CapturedStatement> copy = new ArrayList<>(statements);
+            statements.clear();
+            return copy;
+        }
+
+        String explain(CapturedStatement statement) {
+            Connection connection = DataSourceUtils.getConnection(dataSource);
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.sql())) {
+                for (Object[] call : statement.setterCalls()) {
+                    ((Method) call[0]).invoke(explain, (Object[]) call[1]);
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rs = explain.executeQuery()) {
+                    while (rs.next()) {
+                        plan.append(rs.getString(1)).append('\n');
+                    }
+                }
+                return plan.toString();
+            } catch (Exception e) {
+                throw new IllegalStateException("EXPLAIN failed for: " + statement.sql(), e);
+            } finally {
+                DataSourceUtils.releaseConnection(connection, dataSource);
+            }
+        }
+
+        DataSource wrap(DataSource target) {
+            this.dataSource = (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{DataSource.class}, (proxy, method, args) -> {
+                        Object result = invoke(target, method, args);
+                        return result instanceof Connection connection ? wrap(connection) : result;
+                    });
+            return this.dataSource;
+        }
+
+        private Connection wrap(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        if (result instanceof PreparedStatement statement
+                                && method.getName().equals("prepareStatement")) {
+                            return wrap(statement, (String) args[0]);
+                        }
+                        return result;
+                    });
+        }
+
+        private PreparedStatement wrap(PreparedStatement statement, String sql) {
+            List<Object[]> setterCalls = new ArrayList<>();
+            return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                        String name = method.getName();
+                        if (name.startsWith("set") && args != null && args.length >= 2
+                                && args[0] instanceof Integer) {
+                            setterCalls.add(new Object[]{method, args.clone()});
+                        } else if (name.equals("executeQuery") && (args == null || args.length == 0)
+                                && sql.trim().toLowerCase().startsWith("select")) {
+                            statements.add(new CapturedStatement(sql, List.copyOf(setterCalls)));
+                        } else if (name.equals("clearParameters")) {
+                            setterCalls.clear();
+                        }
+                        return invoke(statement, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    @TestConfiguration
+    static class StatementCaptureConfig {
+
+        @Bean
+        StatementRecorder statementRecorder() {
+            return new StatementRecorder();
+        }
+
+        @Bean
+        static BeanPostProcessor statementCapturingDataSource(
+                ObjectProvider<StatementRecorder> recorder) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? recorder.getObject().wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.team27.lucky3.backend.entity.User;
 import com.team27.lucky3.backend.entity.enums.RideStatus;
 import com.team27.lucky3.backend.entity.enums.UserRole;
 import com.team27.lucky3.backend.entity.enums.VehicleType;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
@@ -34,6 +35,9 @@ class RideRepositoryTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private User driver;
     private User driver2;
     private User passenger;
@@ -526,4 +530,68 @@ class RideRepositoryTest {
 
         assertTrue(result.isEmpty());
     }
+
+    // ═══════════════════════════════════════════════════════════════
+    //  transitionStatus / markPanic
+    // ═══════════════════════════════════════════════════════════════
+
+    @Test
+    @DisplayName("transitionStatus - updates the ride only while it is in an expected status")
+    void transitionStatus_conditionalOnCurrentStatus() {
+        Ride ride = createRide(driver, RideStatus.PENDING, LocalDateTime.now(), null, null);
+
+        int accepted = rideRepository.transitionStatus(ride.getId(), Set.of(RideStatus.PENDING), RideStatus.ACCEPTED);
+        // A racing cancel that loaded the ride while it was still PENDING
+        int cancelled = rideRepository.transitionStatus(ride.getId(), Set.of(RideStatus.PENDING), RideStatus.CANCELLED_BY_PASSENGER);
+        entityManager.clear();
+
+        assertEquals(1, accepted);
+        assertEquals(0, cancelled);
+        assertEquals(RideStatus.ACCEPTED, rideRepository.findById(ride.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("markPanic - flags open rides and leaves finished ones untouched")
+    void markPanic_onlyOpenRides() {
+        Ride open = createRide(driver, RideStatus.IN_PROGRESS, LocalDateTime.now(), null, null);
+        Ride finished = createRide(driver, RideStatus.FINISHED, LocalDateTime.now().minusHours(1),
+                LocalDateTime.now(), 200.0);
+        Set<RideStatus> openStatuses = Set.of(RideStatus.IN_PROGRESS, RideStatus.ACTIVE);
+
+        assertEquals(1, rideRepository.markPanic(open.getId(), "help", openStatuses));
+        assertEquals(0, rideRepository.markPanic(finished.getId(), "late", openStatuses));
+        entityManager.clear();
+
+        Ride reloaded = rideRepository.findById(open.getId()).orElseThrow();
+        assertTrue(reloaded.getPanicPressed());
+        assertEquals("help", reloaded.getPanicReason());
+        assertNull(rideRepository.findById(finished.getId()).orElseThrow().getPanicReason());
+    }
+
+    @Test
+    @DisplayName("reassignPendingRide - moves the offer only while the ride is pending with the previous driver")
+    void reassignPendingRide_conditionalOnDriverAndStatus() {
+        Ride ride = createRide(driver, RideStatus.PENDING, LocalDateTime.now(), null, null);
+
+        assertEquals(1, rideRepository.reassignPendingRide(ride.getId(), driver.getId(), driver2));
+        // A second cascade that still thinks the ride is offered to the first driver
+        assertEquals(0, rideRepository.reassignPendingRide(ride.getId(), driver.getId(), passenger));
+        entityManager.clear();
+
+        assertEquals(driver2.getId(), rideRepository.findById(ride.getId()).orElseThrow().getDriver().getId());
+    }
+
+    @Test
+    @DisplayName("transitionStatusForDriver - only the driver the ride is assigned to can move it")
+    void transitionStatusForDriver_conditionalOnDriver() {
+        Ride ride = createRide(driver, RideStatus.PENDING, LocalDateTime.now(), null, null);
+
+        assertEquals(0, rideRepository.transitionStatusForDriver(ride.getId(), driver2.getId(),
+                Set.of(RideStatus.PENDING), RideStatus.ACCEPTED));
+        assertEquals(1, rideRepository.transitionStatusForDriver(ride.getId(), driver.getId(),
+                Set.of(RideStatus.PENDING), RideStatus.ACCEPTED));
+        entityManager.clear();
+
+        assertEquals(RideStatus.ACCEPTED, rideRepository.findById(ride.getId()).orElseThrow().getStatus());
+    }
 }
@@ -0,0 +1,112 @@
+package com.team27.lucky3.backend.repository;
+
+import com.team27.lucky3.backend.entity.SupportChat;
+import com.team27.lucky3.backend.entity.User;
+import com.team27.lucky3.backend.entity.enums.UserRole;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the admin inbox queries and summary updates in SupportChatRepository.
+ * Uses H2 in-memory database.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class SupportChatRepositoryTest {
+
+    @Autowired
+    private SupportChatRepository supportChatRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final List<SupportChat> chats = new ArrayList<>();
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        now = LocalDateTime.now().withNano(0);
+        // Chats 0 and 1 share a lastMessageTime, so the id breaks the tie
+        LocalDateTime[] times = {now, now, now.minusMinutes(5), now.minusMinutes(10)};
+        for (int i = 0; i < times.length; i++) {
+            User user = new User();
+            user.setName("Inbox" + i);
+            user.setSurname("User");
+            user.setEmail("inbox" + i + "@example.com");
+            user.setPassword("password");
+            user.setRole(UserRole.PASSENGER);
+            user = userRepository.save(user);
+
+            SupportChat chat = new SupportChat();
+            chat.setUser(user);
+            chat = supportChatRepository.save(chat);
+            chat.setLastMessageTime(times[i]);
+            chats.add(supportChatRepository.save(chat));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("inbox pages follow lastMessageTime desc, id desc without gaps or repeats")
+    void inboxKeysetPaging() {
+        List<SupportChat> first = supportChatRepository.findInboxPage(PageRequest.of(0, 2));
+        SupportChat last = first.get(first.size() - 1);
+        List<SupportChat> second = supportChatRepository.findInboxPageBefore(
+                last.getLastMessageTime(), last.getId(), PageRequest.of(0, 2));
+
+        assertEquals(List.of(chats.get(1).getId(), chats.get(0).getId()), ids(first));
+        assertEquals(List.of(chats.get(2).getId(), chats.get(3).getId()), ids(second));
+        assertEquals("Inbox1", first.get(0).getUser().getName());
+    }
+
+    @Test
+    @DisplayName("recordUserMessage updates the summary and increments unread in one statement")
+    void recordUserMessage() {
+        Long chatId = chats.get(3).getId();
+        LocalDateTime sentAt = now.plusMinutes(1);
+
+        supportChatRepository.recordUserMessage(chatId, "first", sentAt);
+        supportChatRepository.recordUserMessage(chatId, "second", sentAt);
+        entityManager.clear();
+
+        SupportChat chat = supportChatRepository.findById(chatId).orElseThrow();
+        assertEquals("second", chat.getLastMessagePreview());
+        assertEquals(sentAt, chat.getLastMessageTime());
+        assertEquals(2, supportChatRepository.findUnreadCount(chatId));
+        assertEquals(chatId, supportChatRepository.findInboxPage(PageRequest.of(0, 1)).get(0).getId());
+    }
+
+    @Test
+    @DisplayName("recordAdminMessage and resetUnreadCount clear the unread count")
+    void recordAdminMessage_resetsUnread() {
+        Long chatId = chats.get(0).getId();
+        supportChatRepository.recordUserMessage(chatId, "help", now);
+
+        supportChatRepository.recordAdminMessage(chatId, "on it", now.plusMinutes(1));
+        assertEquals(0, supportChatRepository.findUnreadCount(chatId));
+
+        supportChatRepository.recordUserMessage(chatId, "thanks", now.plusMinutes(2));
+        supportChatRepository.resetUnreadCount(chatId);
+        assertEquals(0, supportChatRepository.findUnreadCount(chatId));
+    }
+
+    private static List<Long> ids(List<SupportChat> chats) {
+        return chats.stream().map(SupportChat::getId).toList();
+    }
+}
@@ -1,10 +1,12 @@
 package com.team27.lucky3.backend.repository;
 
+import com.team27.lucky3.backend.entity.Location;
 import com.team27.lucky3.backend.entity.Vehicle;
 import com.team27.lucky3.backend.entity.User;
 import com.team27.lucky3.backend.entity.enums.VehicleStatus;
 import com.team27.lucky3.backend.entity.enums.VehicleType;
 import com.team27.lucky3.backend.entity.enums.UserRole;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
@@ -31,6 +33,9 @@ class VehicleRepositoryTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private User activeDriver;
     private User inactiveDriver;
     private User anotherActiveDriver;
@@ -330,4 +335,45 @@ class VehicleRepositoryTest {
         activeDriver.setActive(true);
         userRepository.save(activeDriver);
     }
+
+    // ─── findActiveVehiclePositions / updateLocations ───────────────
+
+    @Test
+    @DisplayName("findActiveVehiclePositions - returns id, driver id and coordinates of active vehicles only")
+    void findActiveVehiclePositions_activeOnly() {
+        Vehicle active = createVehicle(activeDriver, VehicleStatus.FREE,
+                VehicleType.STANDARD, "NS-100-AA", "Skoda Octavia");
+        active.setCurrentLocation(new Location("Centar", 45.2551, 19.8450));
+        vehicleRepository.save(active);
+        createVehicle(inactiveDriver, VehicleStatus.FREE,
+                VehicleType.STANDARD, "NS-200-AA", "Skoda Fabia");
+
+        List<Object[]> rows = vehicleRepository.findActiveVehiclePositions();
+
+        assertEquals(1, rows.size());
+        assertEquals(active.getId(), rows.get(0)[0]);
+        assertEquals(activeDriver.getId(), rows.get(0)[1]);
+        assertEquals(45.2551, (Double) rows.get(0)[2], 1e-9);
+        assertEquals(19.8450, (Double) rows.get(0)[3], 1e-9);
+    }
+
+    @Test
+    @DisplayName("updateLocations - writes the first count positions in one batch")
+    void updateLocations_batch() {
+        Vehicle first = createVehicle(activeDriver, VehicleStatus.FREE,
+                VehicleType.STANDARD, "NS-300-AA", "Skoda Octavia");
+        Vehicle second = createVehicle(anotherActiveDriver, VehicleStatus.FREE,
+                VehicleType.VAN, "NS-400-AA", "VW Transporter");
+
+        vehicleRepository.updateLocations(
+                new long[]{first.getId(), second.getId()},
+                new double[]{45.25, 45.26}, new double[]{19.84, 19.85}, 1, "Patrol");
+        entityManager.clear();
+
+        Location moved = vehicleRepository.findById(first.getId()).orElseThrow().getCurrentLocation();
+        assertEquals("Patrol", moved.getAddress());
+        assertEquals(45.25, moved.getLatitude(), 1e-9);
+        assertEquals(19.84, moved.getLongitude(), 1e-9);
+        assertNull(vehicleRepository.findById(second.getId()).orElseThrow().getCurrentLocation());
+    }
 }
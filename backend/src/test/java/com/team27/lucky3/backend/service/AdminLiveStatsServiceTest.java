@@ -0,0 +1,159 @@
+package com.team27.lucky3.backend.service;
+
+import com.team27.lucky3.backend.dto.response.AdminStatsResponse;
+import com.team27.lucky3.backend.entity.Review;
+import com.team27.lucky3.backend.entity.Ride;
+import com.team27.lucky3.backend.entity.User;
+import com.team27.lucky3.backend.entity.enums.RideStatus;
+import com.team27.lucky3.backend.repository.ReviewRepository;
+import com.team27.lucky3.backend.repository.RideRepository;
+import com.team27.lucky3.backend.repository.UserRepository;
+import com.team27.lucky3.backend.service.socket.AdminStatsSocketService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdminLiveStatsServiceTest {
+
+    @Mock
+    private RideRepository rideRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private ReviewRepository reviewRepository;
+    @Mock
+    private AdminStatsSocketService adminStatsSocketService;
+
+    @InjectMocks
+    private AdminLiveStatsService statsService;
+
+    private Review review(long id, int driverRating) {
+        Review review = new Review();
+        review.setId(id);
+        review.setDriverRating(driverRating);
+        return review;
+    }
+
+    private Ride ride(long id, RideStatus status, int passengers) {
+        Ride ride = new Ride();
+        ride.setId(id);
+        ride.setStatus(status);
+        Set<User> users = new HashSet<>();
+        for (long i = 0; i < passengers; i++) {
+            User u = new User();
+            u.setId(100 + i);
+            users.add(u);
+        }
+        ride.setPassengers(users);
+        return ride;
+    }
+
+    @Test
+    @DisplayName("ride transitions move counters through the lifecycle")
+    void rideLifecycle_updatesCounters() {
+        statsService.recordRideStatus(ride(1L, RideStatus.PENDING, 2));
+        assertEquals(1, statsService.getStats().getActiveRidesCount());
+        assertEquals(0, statsService.getStats().getTotalPassengersInRides());
+
+        statsService.recordRideStatus(ride(1L, RideStatus.IN_PROGRESS, 2));
+        statsService.recordRideStatus(ride(1L, RideStatus.IN_PROGRESS, 2)); // idempotent
+        assertEquals(1, statsService.getStats().getActiveRidesCount());
+        assertEquals(2, statsService.getStats().getTotalPassengersInRides());
+
+        statsService.recordRideStatus(ride(1L, RideStatus.FINISHED, 2));
+        assertEquals(0, statsService.getStats().getActiveRidesCount());
+        assertEquals(0, statsService.getStats().getTotalPassengersInRides());
+    }
+
+    @Test
+    @DisplayName("driver toggles and ratings update online count and average")
+    void driversAndRatings_updateCounters() {
+        statsService.recordDriverActivity(5L, true);
+        statsService.recordDriverActivity(5L, true);
+        statsService.recordDriverActivity(6L, true);
+        statsService.recordDriverActivity(6L, false);
+        statsService.recordDriverRating(review(1L, 5));
+        statsService.recordDriverRating(review(2L, 4));
+        statsService.recordDriverRating(review(3L, 0)); // not rated, ignored
+
+        AdminStatsResponse stats = statsService.getStats();
+        assertEquals(1, stats.getDriversOnlineCount());
+        assertEquals(4.5, stats.getAverageDriverRating());
+    }
+
+    @Test
+    @DisplayName("rebuild replaces counters with database state")
+    void rebuild_loadsFromDatabase() {
+        statsService.recordDriverActivity(99L, true);
+        when(rideRepository.findActiveRideIds()).thenReturn(List.of(1L, 2L, 3L));
+        List<Object[]> inProgress = new ArrayList<>();
+        inProgress.add(new Object[]{2L, 3});
+        when(rideRepository.findInProgressRidePassengerCounts()).thenReturn(inProgress);
+        when(userRepository.findOnlineDriverIds()).thenReturn(List.of(7L, 8L));
+        List<Object[]> totals = new ArrayList<>();
+        totals.add(new Object[]{13L, 3L});
+        when(reviewRepository.getDriverRatingTotals()).thenReturn(totals);
+
+        statsService.rebuild();
+
+        assertEquals(new AdminStatsResponse(3, 4.33, 2, 3), statsService.getStats());
+    }
+
+    @Test
+    @DisplayName("updates committed while the rebuild loads are kept, ratings counted once")
+    void rebuild_keepsUpdatesAppliedDuringLoad() {
+        when(rideRepository.findActiveRideIds()).thenAnswer(invocation -> {
+            // Committed while the rebuild queries run: the snapshot saw review 1 but not
+            // review 2, and neither the new ride nor the driver going online
+            statsService.recordRideStatus(ride(4L, RideStatus.IN_PROGRESS, 2));
+            statsService.recordDriverActivity(9L, true);
+            statsService.recordDriverRating(review(1L, 5));
+            statsService.recordDriverRating(review(2L, 3));
+            return List.of(1L);
+        });
+        when(rideRepository.findInProgressRidePassengerCounts()).thenReturn(List.of());
+        when(userRepository.findOnlineDriverIds()).thenReturn(List.of(7L));
+        List<Object[]> totals = new ArrayList<>();
+        totals.add(new Object[]{9L, 2L}); // review 1 (5) and an older 4
+        when(reviewRepository.getDriverRatingTotals()).thenReturn(totals);
+        when(reviewRepository.findExistingIds(any())).thenReturn(List.of(1L));
+
+        statsService.rebuild();
+
+        assertEquals(new AdminStatsResponse(2, 4.0, 2, 2), statsService.getStats());
+
+        // Updates after the rebuild go to the new counters
+        statsService.recordRideStatus(ride(4L, RideStatus.FINISHED, 2));
+        assertEquals(new AdminStatsResponse(1, 4.0, 2, 0), statsService.getStats());
+    }
+
+    @Test
+    @DisplayName("publishChanges pushes only when the snapshot changed")
+    void publishChanges_onlyOnChange() {
+        statsService.publishChanges();
+        verify(adminStatsSocketService, never()).broadcastStats(any());
+
+        statsService.recordDriverActivity(1L, true);
+        statsService.publishChanges();
+        statsService.publishChanges();
+        verify(adminStatsSocketService, times(1)).broadcastStats(any());
+
+        statsService.recordDriverActivity(1L, true);
+        statsService.publishChanges();
+        verify(adminStatsSocketService, times(1)).broadcastStats(any());
+        verifyNoMoreInteractions(adminStatsSocketService);
+    }
+}
@@ -22,12 +22,17 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -65,6 +70,25 @@ class CreateRideTest {
     @Mock
     private NotificationService notificationService;
 
+    @Mock
+    private AdminLiveStatsService adminLiveStatsService;
+    @Mock
+    private DriverScheduleIndex driverScheduleIndex;
+    @Spy
+    private DriverReservationLedger reservationLedger = new DriverReservationLedger();
+    @Spy
+    private TravelTimeService travelTimeService = new TravelTimeService();
+    @Mock
+    private RideOfferService rideOfferService;
+    @Mock
+    private DriverStatsService driverStatsService;
+    @Mock
+    private RoutingService routingService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     private User passengerUser;
     private User driverUser;
     private User additionalPassenger;
@@ -164,6 +188,68 @@ class CreateRideTest {
         verify(rideRepository).save(any(Ride.class));
     }
 
+    @Test
+    void createRide_ClosestDriverHeldByConcurrentRequest_AssignsNextClosest() {
+        // Given: the closest driver is being assigned by another request right now
+        User otherDriver = new User();
+        otherDriver.setId(20L);
+        otherDriver.setRole(UserRole.DRIVER);
+        Vehicle fartherVehicle = new Vehicle();
+        fartherVehicle.setId(20L);
+        fartherVehicle.setDriver(otherDriver);
+        fartherVehicle.setVehicleType(VehicleType.STANDARD);
+        fartherVehicle.setStatus(VehicleStatus.FREE);
+        fartherVehicle.setCurrentLocation(new Location("dalje", 45.2600, 19.8500));
+
+        when(vehicleRepository.findAllActiveVehicles()).thenReturn(List.of(fartherVehicle, availableVehicle));
+        when(vehiclePriceService.getBaseFare(any(VehicleType.class))).thenReturn(100.0);
+        when(vehiclePriceService.getPricePerKm(any(VehicleType.class))).thenReturn(50.0);
+        when(rideRepository.save(any(Ride.class))).thenAnswer(invocation -> {
+            Ride ride = invocation.getArgument(0);
+            ride.setId(1L);
+            return ride;
+        });
+        Object concurrentRequest = new Object();
+        assertTrue(reservationLedger.tryClaim(driverUser.getId(), concurrentRequest));
+
+        // When
+        RideResponse response = rideService.createRide(validRequest);
+
+        // Then: the farther, unclaimed driver gets the ride and the other hold is untouched
+        assertEquals(RideStatus.PENDING, response.getStatus());
+        assertEquals(otherDriver.getId(), response.getDriver().getId());
+        assertTrue(reservationLedger.isHeld(driverUser.getId()));
+        // Without a transaction our own claim is released as soon as matching returns
+        assertFalse(reservationLedger.isHeld(otherDriver.getId()));
+    }
+
+    @Test
+    void createRide_BatchDispatchEnabled_AssignsVehicleFromBatch() {
+        // Given: batched dispatch with a short window
+        ReflectionTestUtils.setField(rideService, "batchDispatchEnabled", true);
+        ReflectionTestUtils.setField(rideService, "batchWindowMillis", 1L);
+        ReflectionTestUtils.invokeMethod(rideService, "registerEstimateMetrics");
+
+        when(vehicleRepository.findAllActiveVehicles()).thenReturn(List.of(availableVehicle));
+        when(vehicleRepository.findById(availableVehicle.getId())).thenReturn(Optional.of(availableVehicle));
+        when(vehiclePriceService.getBaseFare(any(VehicleType.class))).thenReturn(100.0);
+        when(vehiclePriceService.getPricePerKm(any(VehicleType.class))).thenReturn(50.0);
+        when(rideRepository.save(any(Ride.class))).thenAnswer(invocation -> {
+            Ride ride = invocation.getArgument(0);
+            ride.setId(1L);
+            return ride;
+        });
+
+        // When
+        RideResponse response = rideService.createRide(validRequest);
+
+        // Then: the batch proposed the only vehicle and the request loaded it itself
+        assertEquals(RideStatus.PENDING, response.getStatus());
+        assertEquals(driverUser.getId(), response.getDriver().getId());
+        assertEquals(1, meterRegistry.get("lucky3.dispatch.batch.size").summary().count());
+        verify(vehicleRepository).findById(availableVehicle.getId());
+    }
+
     @Test
     void createRide_NoActiveDrivers_RideRejected() {
         // Given: No active drivers available
@@ -214,10 +300,8 @@ class CreateRideTest {
         currentRide.setEndTime(LocalDateTime.now().plusMinutes(20)); // Finishes late
 
         // Mock returning the current ride for the driver
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(
-                eq(driverUser.getId()),
-                anyList() // Matches list of active statuses like [IN_PROGRESS, ACCEPTED, etc.]
-        )).thenReturn(Collections.singletonList(currentRide));
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), isNull())) // Matches list of active statuses like [IN_PROGRESS, ACCEPTED, etc.]
+                .thenReturn(commitment(currentRide));
 
         // Mock saving the rejected ride
         when(rideRepository.save(any(Ride.class))).thenAnswer(invocation -> {
@@ -253,10 +337,8 @@ class CreateRideTest {
                 .thenReturn(Collections.singletonList(availableVehicle));
 
         // The service needs this to know the driver finishes in 8 minutes
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(
-                eq(driverUser.getId()),
-                anyList() // Matches the list of active statuses
-        )).thenReturn(Collections.singletonList(currentRide));
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), isNull())) // Matches the list of active statuses
+                .thenReturn(commitment(currentRide));
 
         // Mock pricing
         when(vehiclePriceService.getBaseFare(any())).thenReturn(100.0);
@@ -864,4 +946,9 @@ class CreateRideTest {
         when(authentication.getPrincipal()).thenReturn(user);
         SecurityContextHolder.setContext(securityContext);
     }
+
+    private static Optional<DriverScheduleIndex.Commitment> commitment(Ride ride) {
+        return Optional.of(new DriverScheduleIndex.Commitment(
+                ride.getId(), ride.getStatus(), ride.getStartTime(), ride.getEndTime()));
+    }
 }
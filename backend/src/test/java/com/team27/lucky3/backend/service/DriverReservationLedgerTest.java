@@ -0,0 +1,169 @@
+package com.team27.lucky3.backend.service;
+
+import com.team27.lucky3.backend.entity.Ride;
+import com.team27.lucky3.backend.entity.User;
+import com.team27.lucky3.backend.entity.enums.RideStatus;
+import com.team27.lucky3.backend.repository.RideRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class DriverReservationLedgerTest {
+
+    @Test
+    @DisplayName("a driver can be held by one owner at a time")
+    void tryClaim_isExclusive() {
+        DriverReservationLedger ledger = new DriverReservationLedger();
+        Object first = new Object();
+        Object second = new Object();
+
+        assertTrue(ledger.tryClaim(1L, first));
+        assertTrue(ledger.tryClaim(1L, first), "re-claiming your own hold refreshes it");
+        assertFalse(ledger.tryClaim(1L, second));
+        assertTrue(ledger.tryClaim(2L, second), "other drivers are unaffected");
+
+        ledger.release(1L, second); // not the owner, ignored
+        assertTrue(ledger.isHeld(1L));
+
+        ledger.release(1L, first);
+        assertFalse(ledger.isHeld(1L));
+        assertTrue(ledger.tryClaim(1L, second));
+    }
+
+    @Test
+    @DisplayName("expired holds can be taken over and are purged")
+    void expiredHold_canBeReclaimed() throws InterruptedException {
+        DriverReservationLedger ledger = new DriverReservationLedger(Duration.ofMillis(20));
+        Object stale = new Object();
+        Object fresh = new Object();
+
+        assertTrue(ledger.tryClaim(1L, stale));
+        assertTrue(ledger.tryClaim(2L, stale));
+        assertFalse(ledger.tryClaim(1L, fresh));
+        Thread.sleep(40);
+
+        assertFalse(ledger.isHeld(1L));
+        assertTrue(ledger.tryClaim(1L, fresh));
+        ledger.release(1L, stale); // late release of the expired hold must not free the new one
+        assertTrue(ledger.isHeld(1L));
+
+        ledger.purgeExpired();
+        assertTrue(ledger.tryClaim(2L, fresh));
+    }
+
+    @Test
+    @DisplayName("stress: concurrent claims never hand the same driver to two owners")
+    void concurrentClaims_neverOverlap() throws Exception {
+        DriverReservationLedger ledger = new DriverReservationLedger();
+        int drivers = 4;
+        int threads = 32;
+        int claimsPerThread = 2_000;
+        Map<Long, AtomicInteger> holders = new ConcurrentHashMap<>();
+        for (long d = 1; d <= drivers; d++) holders.put(d, new AtomicInteger());
+        AtomicInteger violations = new AtomicInteger();
+        AtomicInteger successes = new AtomicInteger();
+
+        runConcurrently(threads, () -> {
+            Object owner = new Object();
+            for (int i = 0; i < claimsPerThread; i++) {
+                long driverId = ThreadLocalRandom.current().nextLong(1, drivers + 1);
+                if (!ledger.tryClaim(driverId, owner)) continue;
+                successes.incrementAndGet();
+                if (holders.get(driverId).incrementAndGet() != 1) violations.incrementAndGet();
+                Thread.onSpinWait();
+                holders.get(driverId).decrementAndGet();
+                ledger.release(driverId, owner);
+            }
+        });
+
+        assertEquals(0, violations.get());
+        assertTrue(successes.get() > 0);
+        for (long d = 1; d <= drivers; d++) assertFalse(ledger.isHeld(d));
+    }
+
+    @Test
+    @DisplayName("stress: matching protocol with the schedule index assigns each slot once")
+    void concurrentAssignments_withScheduleIndex_noDoubleBooking() throws Exception {
+        DriverReservationLedger ledger = new DriverReservationLedger();
+        DriverScheduleIndex index = new DriverScheduleIndex(mock(RideRepository.class));
+        LocalDateTime start = LocalDateTime.of(2025, 6, 1, 12, 0);
+        LocalDateTime end = start.plusMinutes(30);
+        int drivers = 5;
+        int requests = 64;
+        AtomicLong rideIds = new AtomicLong();
+        List<Long> assigned = Collections.synchronizedList(new ArrayList<>());
+
+        // Every request wants the same slot; each driver can take it at most once
+        runConcurrently(requests, () -> {
+            Object owner = new Object();
+            for (long driverId = 1; driverId <= drivers; driverId++) {
+                long version = index.version(driverId);
+                if (index.hasOverlap(driverId, start, end)) continue;
+                if (!ledger.tryClaim(driverId, owner)) continue;
+                if (index.version(driverId) != version) {
+                    ledger.release(driverId, owner);
+                    continue;
+                }
+                // "Commit": the index learns about the ride before the hold is released
+                index.recordRide(ride(rideIds.incrementAndGet(), driverId, start, end));
+                assigned.add(driverId);
+                ledger.release(driverId, owner);
+                return;
+            }
+        });
+
+        assertEquals(drivers, assigned.size(), "every driver booked exactly once: " + assigned);
+        assertEquals(drivers, assigned.stream().distinct().count());
+    }
+
+    private static Ride ride(long id, long driverId, LocalDateTime start, LocalDateTime end) {
+        User driver = new User();
+        driver.setId(driverId);
+        Ride ride = new Ride();
+        ride.setId(id);
+        ride.setDriver(driver);
+        ride.setStatus(RideStatus.PENDING);
+        ride.setStartTime(start);
+        ride.setEndTime(end);
+        return ride;
+    }
+
+    private static void runConcurrently(int threads, Runnable task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
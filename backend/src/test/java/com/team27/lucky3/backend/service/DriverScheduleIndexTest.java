@@ -0,0 +1,132 @@
+package com.team27.lucky3.backend.service;
+
+import com.team27.lucky3.backend.entity.Ride;
+import com.team27.lucky3.backend.entity.User;
+import com.team27.lucky3.backend.entity.enums.RideStatus;
+import com.team27.lucky3.backend.repository.RideRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DriverScheduleIndexTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 6, 1, 12, 0);
+    private static final Set<RideStatus> UPCOMING = EnumSet.of(RideStatus.SCHEDULED, RideStatus.PENDING);
+
+    @Mock
+    private RideRepository rideRepository;
+
+    @InjectMocks
+    private DriverScheduleIndex index;
+
+    private Ride ride(long id, long driverId, RideStatus status, int startMinute, int endMinute) {
+        User driver = new User();
+        driver.setId(driverId);
+        Ride ride = new Ride();
+        ride.setId(id);
+        ride.setDriver(driver);
+        ride.setStatus(status);
+        ride.setStartTime(T0.plusMinutes(startMinute));
+        ride.setEndTime(T0.plusMinutes(endMinute));
+        return ride;
+    }
+
+    @Test
+    @DisplayName("overlap uses half-open windows, including a long ride that started much earlier")
+    void hasOverlap_windows() {
+        index.recordRide(ride(1L, 7L, RideStatus.SCHEDULED, 0, 120));
+        index.recordRide(ride(2L, 7L, RideStatus.PENDING, 30, 40));
+        index.recordRide(ride(3L, 7L, RideStatus.PENDING, 200, 230));
+
+        assertTrue(index.hasOverlap(7L, T0.plusMinutes(100), T0.plusMinutes(110)), "inside the long first ride");
+        assertFalse(index.hasOverlap(7L, T0.plusMinutes(120), T0.plusMinutes(200)), "gap between rides");
+        assertFalse(index.hasOverlap(7L, T0.minusMinutes(30), T0), "ends exactly at a ride's start");
+        assertTrue(index.hasOverlap(7L, T0.plusMinutes(229), T0.plusMinutes(300)));
+        assertFalse(index.hasOverlap(8L, T0, T0.plusMinutes(300)), "other driver");
+    }
+
+    @Test
+    @DisplayName("finished and cancelled rides leave the timeline; reassigned rides move drivers")
+    void recordRide_followsLifecycle() {
+        index.recordRide(ride(1L, 7L, RideStatus.PENDING, 0, 30));
+        index.recordRide(ride(1L, 7L, RideStatus.PENDING, 0, 30)); // idempotent
+        assertTrue(index.hasOverlap(7L, T0, T0.plusMinutes(10)));
+
+        index.recordRide(ride(1L, 8L, RideStatus.ACCEPTED, 0, 30));
+        assertFalse(index.hasOverlap(7L, T0, T0.plusMinutes(10)));
+        assertTrue(index.hasOverlap(8L, T0, T0.plusMinutes(10)));
+
+        index.recordRide(ride(1L, 8L, RideStatus.CANCELLED_BY_DRIVER, 0, 30));
+        assertFalse(index.hasOverlap(8L, T0, T0.plusMinutes(10)));
+        assertTrue(index.nextRide(8L, DriverScheduleIndex.OPEN_STATUSES, null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("next ride is the earliest in the requested statuses, skipping the excluded ride")
+    void nextRide_filtersAndOrders() {
+        index.recordRide(ride(1L, 7L, RideStatus.IN_PROGRESS, -10, 5));
+        index.recordRide(ride(2L, 7L, RideStatus.PENDING, 60, 80));
+        index.recordRide(ride(3L, 7L, RideStatus.SCHEDULED, 20, 40));
+
+        assertEquals(3L, index.nextRide(7L, UPCOMING, null).orElseThrow().rideId());
+        assertEquals(2L, index.nextRide(7L, UPCOMING, 3L).orElseThrow().rideId());
+        assertEquals(1L, index.nextRide(7L, EnumSet.of(RideStatus.IN_PROGRESS), null).orElseThrow().rideId());
+        assertTrue(index.nextRide(7L, EnumSet.of(RideStatus.ACCEPTED), null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("rebuild replaces the index with the open rides in the database")
+    void rebuild_loadsFromRepository() {
+        index.recordRide(ride(9L, 7L, RideStatus.PENDING, 0, 30)); // stale, not in the database
+        when(rideRepository.findOpenRideWindows(any())).thenReturn(List.of(
+                new Object[]{1L, 7L, RideStatus.SCHEDULED, T0.plusMinutes(60), T0.plusMinutes(90)},
+                new Object[]{2L, 8L, RideStatus.PENDING, null, null}));
+
+        index.rebuild();
+
+        assertFalse(index.hasOverlap(7L, T0, T0.plusMinutes(30)));
+        assertTrue(index.hasOverlap(7L, T0.plusMinutes(70), T0.plusMinutes(75)));
+        // Untimed rides never overlap but still count as the driver's next ride
+        assertFalse(index.hasOverlap(8L, T0.minusYears(1), T0.plusYears(1)));
+        assertEquals(2L, index.nextRide(8L, UPCOMING, null).orElseThrow().rideId());
+    }
+
+    @Test
+    @DisplayName("rides recorded while a rebuild is loading are kept when the rebuilt index is swapped in")
+    void rebuild_keepsUpdatesAppliedDuringLoad() {
+        index.recordRide(ride(1L, 7L, RideStatus.SCHEDULED, 60, 90));
+        when(rideRepository.findOpenRideWindows(any())).thenAnswer(invocation -> {
+            List<Object[]> snapshot = List.<Object[]>of(
+                    new Object[]{1L, 7L, RideStatus.SCHEDULED, T0.plusMinutes(60), T0.plusMinutes(90)});
+            // Commits that land after the query's snapshot was taken
+            index.recordRide(ride(2L, 8L, RideStatus.PENDING, 0, 30));
+            index.recordRide(ride(1L, 7L, RideStatus.CANCELLED_BY_DRIVER, 60, 90));
+            return snapshot;
+        }).thenReturn(List.of());
+        long versionBefore = index.version(8L);
+
+        index.rebuild();
+
+        assertTrue(index.hasOverlap(8L, T0, T0.plusMinutes(10)), "new ride survives the swap");
+        assertFalse(index.hasOverlap(7L, T0.plusMinutes(70), T0.plusMinutes(75)), "cancellation survives the swap");
+        assertTrue(index.nextRide(7L, DriverScheduleIndex.OPEN_STATUSES, null).isEmpty());
+        assertNotEquals(versionBefore, index.version(8L));
+
+        // Once the rebuild is over, updates are no longer recorded for replay
+        index.rebuild();
+        assertFalse(index.hasOpenRide(8L), "the previous rebuild's updates are not replayed again");
+    }
+}
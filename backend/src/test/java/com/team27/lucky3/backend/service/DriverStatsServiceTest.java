@@ -0,0 +1,179 @@
+package com.team27.lucky3.backend.service;
+
+import com.team27.lucky3.backend.entity.DriverStats;
+import com.team27.lucky3.backend.entity.Location;
+import com.team27.lucky3.backend.entity.Review;
+import com.team27.lucky3.backend.entity.Ride;
+import com.team27.lucky3.backend.entity.User;
+import com.team27.lucky3.backend.entity.enums.RideStatus;
+import com.team27.lucky3.backend.entity.enums.UserRole;
+import com.team27.lucky3.backend.entity.enums.VehicleType;
+import com.team27.lucky3.backend.repository.DriverStatsRepository;
+import com.team27.lucky3.backend.repository.ReviewRepository;
+import com.team27.lucky3.backend.repository.RideRepository;
+import com.team27.lucky3.backend.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for DriverStatsService: increments, first-row creation and reconciliation
+ * must never lose a ride or rating. Uses H2 in-memory database.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class DriverStatsServiceTest {
+
+    @Autowired
+    private DriverStatsRepository driverStatsRepository;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private DriverStatsService driverStatsService;
+    private User driver;
+
+    @BeforeEach
+    void setUp() {
+        driverStatsService = new DriverStatsService(driverStatsRepository, rideRepository, reviewRepository, userRepository);
+
+        driver = new User();
+        driver.setName("Stats");
+        driver.setSurname("Driver");
+        driver.setEmail("stats.driver@example.com");
+        driver.setPassword("password");
+        driver.setRole(UserRole.DRIVER);
+        driver = userRepository.save(driver);
+    }
+
+    @Test
+    @DisplayName("finished rides and reviews are added to an existing row")
+    void record_incrementsExistingRow() {
+        driverStatsService.reconcileDriver(driver.getId());
+
+        driverStatsService.recordRideFinished(ride(RideStatus.FINISHED, 500.0));
+        driverStatsService.recordRideFinished(ride(RideStatus.FINISHED, 300.0));
+        driverStatsService.recordReview(review(5, 0));
+
+        DriverStats stats = stored();
+        assertEquals(2, stats.getCompletedRides());
+        assertEquals(800.0, stats.getTotalEarnings(), 1e-9);
+        assertEquals(5, stats.getDriverRatingSum());
+        assertEquals(1, stats.getDriverRatingCount());
+        assertEquals(0, stats.getVehicleRatingCount(), "a rating of 0 is not counted");
+    }
+
+    @Test
+    @DisplayName("the first event creates the row and is counted in it")
+    void record_createsFirstRow() {
+        assertTrue(driverStatsRepository.findById(driver.getId()).isEmpty());
+
+        driverStatsService.recordReview(review(4, 3));
+        driverStatsService.recordRideFinished(ride(RideStatus.FINISHED, 450.0));
+
+        DriverStats stats = stored();
+        assertEquals(1, stats.getCompletedRides());
+        assertEquals(450.0, stats.getTotalEarnings(), 1e-9);
+        assertEquals(4, stats.getDriverRatingSum());
+        assertEquals(3, stats.getVehicleRatingSum());
+        assertEquals(0, driverStatsRepository.insertIfAbsent(driver.getId()), "the row exists now");
+    }
+
+    @Test
+    @DisplayName("reconciliation corrects drifted rows and creates missing ones")
+    void reconcileAll_correctsDrift() {
+        saveRide(RideStatus.FINISHED, 300.0);
+        saveRide(RideStatus.CANCELLED, 900.0);
+        DriverStats drifted = new DriverStats(driver.getId());
+        drifted.setCompletedRides(7);
+        drifted.setTotalEarnings(2100.0);
+        driverStatsRepository.saveAndFlush(drifted);
+
+        driverStatsService.reconcileAll();
+
+        DriverStats stats = stored();
+        assertEquals(1, stats.getCompletedRides());
+        assertEquals(300.0, stats.getTotalEarnings(), 1e-9);
+        assertNotNull(stats.getReconciledAt());
+    }
+
+    @Test
+    @DisplayName("reconciliation leaves a row alone that was incremented after it was read")
+    void reconcileAll_keepsConcurrentIncrement() {
+        saveRide(RideStatus.FINISHED, 300.0);
+        DriverStats drifted = new DriverStats(driver.getId());
+        drifted.setCompletedRides(7);
+        drifted.setTotalEarnings(2100.0);
+        driverStatsRepository.saveAndFlush(drifted);
+
+        // Another ride finishes between reading the stats rows and reading the rides table
+        RideRepository racingRides = mock(RideRepository.class, delegatesTo(rideRepository));
+        doAnswer(invocation -> {
+            Ride finished = saveRide(RideStatus.FINISHED, 200.0);
+            driverStatsService.recordRideFinished(finished);
+            return rideRepository.sumCompletedRidesPerDriver();
+        }).when(racingRides).sumCompletedRidesPerDriver();
+        new DriverStatsService(driverStatsRepository, racingRides, reviewRepository, userRepository).reconcileAll();
+
+        DriverStats stats = stored();
+        assertEquals(8, stats.getCompletedRides(), "the increment must not be overwritten with the older total");
+        assertEquals(2300.0, stats.getTotalEarnings(), 1e-9);
+
+        // The next run sees a consistent pair and corrects the drift
+        driverStatsService.reconcileAll();
+        stats = stored();
+        assertEquals(2, stats.getCompletedRides());
+        assertEquals(500.0, stats.getTotalEarnings(), 1e-9);
+    }
+
+    private DriverStats stored() {
+        entityManager.flush();
+        entityManager.clear();
+        return driverStatsRepository.findById(driver.getId()).orElseThrow();
+    }
+
+    private Ride ride(RideStatus status, double totalCost) {
+        Ride ride = new Ride();
+        ride.setDriver(driver);
+        ride.setStatus(status);
+        ride.setTotalCost(totalCost);
+        ride.setStartTime(LocalDateTime.now().minusMinutes(30));
+        ride.setEndTime(LocalDateTime.now());
+        ride.setStartLocation(new Location("Start", 45.25, 19.83));
+        ride.setEndLocation(new Location("End", 45.26, 19.84));
+        ride.setRequestedVehicleType(VehicleType.STANDARD);
+        return ride;
+    }
+
+    private Ride saveRide(RideStatus status, double totalCost) {
+        return rideRepository.saveAndFlush(ride(status, totalCost));
+    }
+
+    private Review review(int driverRating, int vehicleRating) {
+        Review review = new Review();
+        review.setRide(ride(RideStatus.FINISHED, 0.0));
+        review.setDriverRating(driverRating);
+        review.setVehicleRating(vehicleRating);
+        return review;
+    }
+}
@@ -0,0 +1,170 @@
+package com.team27.lucky3.backend.service;
+
+import com.team27.lucky3.backend.entity.Image;
+import com.team27.lucky3.backend.repository.ImageRepository;
+import com.team27.lucky3.backend.service.impl.ImageServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for ImageServiceImpl: content-addressed storage, thumbnail variants and
+ * which bytes a profile image request is served.
+ */
+class ImageServiceTest {
+
+    private ImageServiceImpl imageService;
+    private byte[] avatarBytes;
+
+    @TempDir
+    Path uploads;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ClassPathResource avatar = new ClassPathResource("image/default-avatar.png");
+        avatarBytes = avatar.getContentAsByteArray();
+        ImageRepository imageRepository = mock(ImageRepository.class);
+        when(imageRepository.save(any(Image.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        // Thumbnails are generated inline so the tests can inspect them right after store()
+        imageService = new ImageServiceImpl(imageRepository, Runnable::run, uploads);
+        ReflectionTestUtils.setField(imageService, "defaultAvatar", avatar);
+        ReflectionTestUtils.invokeMethod(imageService, "loadDefaultAvatar");
+    }
+
+    @Test
+    @DisplayName("users without an image get the default avatar from memory")
+    void load_noImage_defaultAvatar() throws IOException {
+        ImageService.ImageContent content = imageService.load(null, null);
+
+        assertInstanceOf(ByteArrayResource.class, content.resource());
+        assertArrayEquals(avatarBytes, content.resource().getContentAsByteArray());
+        assertEquals("image/png", content.contentType());
+        assertEquals(content.eTag(), imageService.load(imageService.getDefaultAvatar(), null).eTag());
+    }
+
+    @Test
+    @DisplayName("a missing upload falls back to the default avatar instead of an empty body")
+    void load_missingFile_defaultAvatar() throws IOException {
+        Image image = new Image(1L, "does-not-exist.jpg", "image/jpeg", 10L, null);
+
+        ImageService.ImageContent content = imageService.load(image, null);
+
+        assertArrayEquals(avatarBytes, content.resource().getContentAsByteArray());
+        assertEquals("image/png", content.contentType());
+    }
+
+    @Test
+    @DisplayName("file names cannot escape the upload directory")
+    void load_pathTraversal_defaultAvatar() {
+        Image image = new Image(1L, "../pom.xml", "text/xml", 10L, null);
+
+        assertEquals("image/png", imageService.load(image, null).contentType());
+    }
+
+    @Test
+    @DisplayName("images stored in the database are served with a content-hash ETag")
+    void load_databaseImage() throws IOException {
+        byte[] data = {1, 2, 3};
+        Image image = new Image(1L, "legacy.jpg", "image/jpeg", 3L, data);
+
+        ImageService.ImageContent content = imageService.load(image, null);
+
+        assertArrayEquals(data, content.resource().getContentAsByteArray());
+        assertEquals("image/jpeg", content.contentType());
+        assertEquals("\"5289df737df57326fcdd22597afb1fac\"", content.eTag());
+    }
+
+    @Test
+    @DisplayName("identical uploads are stored once, under their content hash")
+    void store_identicalUploads_shareFile() throws IOException {
+        byte[] png = png(800, 600);
+
+        Image first = imageService.store(new MockMultipartFile("file", "me.PNG", "image/png", png));
+        Image second = imageService.store(new MockMultipartFile("file", "copy.png", "image/png", png));
+
+        assertEquals(first.getFileName(), second.getFileName());
+        assertTrue(first.getFileName().matches("[0-9a-f]{64}\\.png"));
+        assertArrayEquals(png, Files.readAllBytes(uploads.resolve(first.getFileName())));
+        try (var files = Files.list(uploads)) {
+            assertEquals(4, files.count()); // original + 64/128/512 thumbnails, no leftover temp files
+        }
+    }
+
+    @Test
+    @DisplayName("size= picks the smallest thumbnail that covers it, larger sizes get the original")
+    void load_size_picksThumbnail() throws IOException {
+        Image image = imageService.store(new MockMultipartFile("file", "me.png", "image/png", png(800, 600)));
+
+        ImageService.ImageContent small = imageService.load(image, 100);
+        BufferedImage thumbnail = ImageIO.read(small.resource().getInputStream());
+        assertEquals(128, thumbnail.getWidth());
+        assertEquals(96, thumbnail.getHeight());
+        assertEquals("image/png", small.contentType());
+        assertNotEquals(imageService.load(image, null).eTag(), small.eTag());
+
+        ImageService.ImageContent large = imageService.load(image, 1024);
+        assertEquals(uploads.resolve(image.getFileName()), ((FileSystemResource) large.resource()).getFile().toPath());
+    }
+
+    @Test
+    @DisplayName("thumbnails never upscale an image smaller than the variant")
+    void load_smallImage_notUpscaled() throws IOException {
+        Image image = imageService.store(new MockMultipartFile("file", "tiny.png", "image/png", png(40, 20)));
+
+        BufferedImage thumbnail = ImageIO.read(imageService.load(image, 512).resource().getInputStream());
+
+        assertEquals(40, thumbnail.getWidth());
+        assertEquals(20, thumbnail.getHeight());
+    }
+
+    @Test
+    @DisplayName("images above the pixel limit are served as the original without being decoded")
+    void store_hugeImage_noThumbnails() throws IOException {
+        // A 10000 x 5000 header on a tiny image: decoding it would need a 200 MB raster
+        byte[] bomb = withDimensions(png(1, 1), 10_000, 5_000);
+
+        Image image = imageService.store(new MockMultipartFile("file", "bomb.png", "image/png", bomb));
+
+        try (var files = Files.list(uploads)) {
+            assertEquals(1, files.count(), "only the original is stored");
+        }
+        ImageService.ImageContent content = imageService.load(image, 64);
+        assertEquals(uploads.resolve(image.getFileName()), ((FileSystemResource) content.resource()).getFile().toPath());
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+
+    // Rewrites the width and height in the PNG header (and the header's checksum)
+    private static byte[] withDimensions(byte[] png, int width, int height) {
+        ByteBuffer buffer = ByteBuffer.wrap(png);
+        buffer.putInt(16, width).putInt(20, height);
+        CRC32 crc = new CRC32();
+        crc.update(png, 12, 17); // chunk type and the 13 header bytes
+        buffer.putInt(29, (int) crc.getValue());
+        return png;
+    }
+}
@@ -0,0 +1,119 @@
+package com.team27.lucky3.backend.service;
+
+import com.team27.lucky3.backend.dto.response.NotificationResponse;
+import com.team27.lucky3.backend.entity.Notification;
+import com.team27.lucky3.backend.entity.Ride;
+import com.team27.lucky3.backend.entity.User;
+import com.team27.lucky3.backend.entity.enums.NotificationType;
+import com.team27.lucky3.backend.entity.enums.UserRole;
+import com.team27.lucky3.backend.repository.NotificationRepository;
+import com.team27.lucky3.backend.repository.RideTrackingTokenRepository;
+import com.team27.lucky3.backend.repository.UserRepository;
+import com.team27.lucky3.backend.service.impl.NotificationServiceImpl;
+import com.team27.lucky3.backend.util.RideTrackingTokenUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for NotificationServiceImpl.sendNotificationToAll(): one batched insert and
+ * one FCM call per fan-out, however many recipients there are.
+ */
+class NotificationFanOutTest {
+
+    private final NotificationRepository notificationRepository = mock(NotificationRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+    private final FcmService fcmService = mock(FcmService.class);
+    private final UnreadNotificationCounter unreadCounter = mock(UnreadNotificationCounter.class);
+
+    private NotificationServiceImpl notificationService;
+
+    @BeforeEach
+    void setUp() {
+        notificationService = new NotificationServiceImpl(notificationRepository, unreadCounter, userRepository,
+                mock(RideTrackingTokenRepository.class), messagingTemplate, mock(EmailService.class),
+                fcmService, mock(RideTrackingTokenUtils.class), new SimpleMeterRegistry(), Runnable::run);
+
+        AtomicLong ids = new AtomicLong();
+        when(notificationRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Notification> saved = new ArrayList<>(invocation.getArgument(0));
+            saved.forEach(n -> n.setId(ids.incrementAndGet()));
+            return saved;
+        });
+        when(fcmService.isAvailable()).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("all recipients are saved in one call and FCM gets one batched call")
+    @SuppressWarnings("unchecked")
+    void sendNotificationToAll_batches() {
+        User first = user(1L, "token-1");
+        User second = user(2L, null);
+        User third = user(3L, "token-3");
+
+        List<NotificationResponse> sent = notificationService.sendNotificationToAll(
+                List.of(first, second, third, first), "Ride #5: started", NotificationType.RIDE_STATUS, 5L, "NORMAL");
+
+        assertEquals(3, sent.size());
+        verify(notificationRepository, times(1)).saveAll(anyList());
+        verify(notificationRepository, never()).save(any());
+        verify(unreadCounter, times(1)).recordCreated(argThat(ids -> List.copyOf(ids).equals(List.of(1L, 2L, 3L))));
+        verify(messagingTemplate, times(3)).convertAndSend(anyString(), any(NotificationResponse.class));
+
+        ArgumentCaptor<List<FcmService.DevicePush>> pushes = ArgumentCaptor.forClass(List.class);
+        verify(fcmService, times(1)).sendToDevices(pushes.capture());
+        verify(fcmService, never()).sendToDevice(anyString(), anyString(), anyString(), anyMap());
+        assertEquals(List.of("token-1", "token-3"),
+                pushes.getValue().stream().map(FcmService.DevicePush::fcmToken).toList());
+        assertEquals(String.valueOf(sent.get(2).getId()), pushes.getValue().get(1).data().get("notificationId"));
+    }
+
+    @Test
+    @DisplayName("a panic alert to 50 admins is a single insert and a single FCM call")
+    void panic_fiftyAdmins_oneRoundTrip() {
+        List<User> admins = new ArrayList<>();
+        for (long id = 1; id <= 50; id++) {
+            admins.add(user(id, "admin-token-" + id));
+        }
+        when(userRepository.findAllByRole(UserRole.ADMIN)).thenReturn(admins);
+        Ride ride = new Ride();
+        ride.setId(9L);
+
+        notificationService.sendPanicNotification(ride, user(99L, null), "Aggressive driver");
+
+        verify(notificationRepository, times(1)).saveAll(argThat(list -> ((List<?>) list).size() == 50));
+        verify(fcmService, times(1)).sendToDevices(argThat(list -> list.size() == 50));
+    }
+
+    @Test
+    @DisplayName("no recipients means nothing is saved or pushed")
+    void sendNotificationToAll_empty() {
+        assertTrue(notificationService.sendNotificationToAll(
+                List.of(), "text", NotificationType.SUPPORT, 1L, "NORMAL").isEmpty());
+
+        verifyNoInteractions(notificationRepository, messagingTemplate, unreadCounter);
+        verify(fcmService, never()).sendToDevices(anyList());
+    }
+
+    private static User user(Long id, String fcmToken) {
+        User user = new User();
+        user.setId(id);
+        user.setName("User");
+        user.setSurname(String.valueOf(id));
+        user.setEmail("user" + id + "@example.com");
+        user.setFcmToken(fcmToken);
+        return user;
+    }
+}
@@ -0,0 +1,129 @@
+package com.team27.lucky3.backend.service;
+
+import com.team27.lucky3.backend.entity.Notification;
+import com.team27.lucky3.backend.entity.User;
+import com.team27.lucky3.backend.entity.enums.NotificationType;
+import com.team27.lucky3.backend.entity.enums.UserRole;
+import com.team27.lucky3.backend.repository.NotificationRepository;
+import com.team27.lucky3.backend.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for the batched retention purge (NotificationRetentionService) and the id-batch
+ * queries in NotificationRepository. Uses H2 in-memory database.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class NotificationRetentionServiceTest {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private UnreadNotificationCounter unreadCounter;
+
+    private User user;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        now = LocalDateTime.of(2026, 6, 1, 12, 0);
+        user = new User();
+        user.setName("Retention");
+        user.setSurname("User");
+        user.setEmail("retention.user@example.com");
+        user.setPassword("password");
+        user.setRole(UserRole.PASSENGER);
+        user = userRepository.save(user);
+        unreadCounter = new UnreadNotificationCounter(notificationRepository, userRepository,
+                mock(SimpMessagingTemplate.class));
+    }
+
+    @Test
+    @DisplayName("purge removes read rows past read-days and all rows past max-days, in batches")
+    void purgeExpired() {
+        for (int i = 0; i < 5; i++) {
+            save(now.minusDays(100), false); // past max-days
+        }
+        save(now.minusDays(40), true);       // read, past read-days
+        Notification unreadOld = save(now.minusDays(40), false);
+        Notification readRecent = save(now.minusDays(5), true);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Batch size 2 forces several round-trips per rule
+        int deleted = retentionService(30, 90, 2).purgeExpired();
+
+        assertEquals(6, deleted);
+        assertEquals(2, notificationRepository.count());
+        assertTrue(notificationRepository.existsById(unreadOld.getId()));
+        assertTrue(notificationRepository.existsById(readRecent.getId()));
+    }
+
+    @Test
+    @DisplayName("a day-count of 0 disables that retention rule")
+    void purgeExpired_disabledRule() {
+        save(now.minusDays(400), false);
+        save(now.minusDays(40), true);
+        entityManager.flush();
+
+        assertEquals(1, retentionService(30, 0, 10).purgeExpired());
+        assertEquals(1, notificationRepository.count());
+    }
+
+    @Test
+    @DisplayName("id-batch queries page a user's notifications and update only the given ids")
+    void idBatches() {
+        for (int i = 0; i < 3; i++) {
+            save(now.minusMinutes(i), false);
+        }
+        entityManager.flush();
+
+        List<Long> firstBatch = notificationRepository.findUnreadIdsByRecipientId(user.getId(), PageRequest.of(0, 2));
+        assertEquals(2, firstBatch.size());
+        assertEquals(2, notificationRepository.markReadByIdIn(user.getId(), firstBatch));
+        entityManager.clear();
+
+        assertEquals(1, notificationRepository.countByRecipientIdAndIsReadFalse(user.getId()));
+        List<Long> all = notificationRepository.findIdsByRecipientId(user.getId(), PageRequest.of(0, 10));
+        assertEquals(3, notificationRepository.deleteByIdIn(all));
+    }
+
+    private Notification save(LocalDateTime timestamp, boolean read) {
+        Notification notification = new Notification();
+        notification.setText("Ride update");
+        notification.setType(NotificationType.RIDE_STATUS);
+        notification.setRecipient(user);
+        notification.setTimestamp(timestamp);
+        notification.setRead(read);
+        return notificationRepository.save(notification);
+    }
+
+    private NotificationRetentionService retentionService(int readDays, int maxDays, int batchSize) {
+        Clock clock = Clock.fixed(now.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+        return new NotificationRetentionService(notificationRepository, unreadCounter, new SimpleMeterRegistry(),
+                readDays, maxDays, batchSize, clock);
+    }
+}
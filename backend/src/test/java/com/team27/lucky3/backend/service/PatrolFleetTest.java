@@ -0,0 +1,111 @@
+package com.team27.lucky3.backend.service;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PatrolFleet, the array-backed fleet state advanced by the patrol simulation.
+ */
+class PatrolFleetTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    // Straight east-west street in Novi Sad, points ~80 m apart
+    private static final double[] ROUTE = {45.2500, 19.8300, 45.2500, 19.8310, 45.2500, 19.8320, 45.2500, 19.8330};
+
+    @AfterAll
+    static void shutDown() {
+        POOL.shutdown();
+    }
+
+    @Test
+    @DisplayName("10k vehicles all advance within a tick and are reported in one batch")
+    void advance_tenThousandVehicles() {
+        int size = 10_000;
+        PatrolFleet fleet = fleet(size);
+        for (int slot = 0; slot < size; slot++) {
+            fleet.setRoute(slot + 1, ROUTE);
+        }
+
+        PatrolFleet.Moves moves = fleet.advance(POOL, slot -> false, slot -> false);
+
+        // Each vehicle moves with 90% probability
+        assertTrue(moves.size() > size * 0.85, "moved " + moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            assertEquals(45.25, moves.latitudes()[i], 1e-9);
+            double east = moves.longitudes()[i] - 19.8300;
+            assertTrue(east > 0 && east < 0.001, "moved 40-60 m east");
+        }
+        assertEquals(0, fleet.takeSlotsNeedingRoute(size).length);
+    }
+
+    @Test
+    @DisplayName("a vehicle walks to the end of its route and then asks for a new one")
+    void advance_routeCompleted() {
+        PatrolFleet fleet = fleet(1);
+        fleet.setRoute(1, ROUTE);
+
+        for (int tick = 0; tick < 100; tick++) {
+            fleet.advance(POOL, slot -> false, slot -> false);
+        }
+
+        assertEquals(19.8330, fleet.longitude(0), 1e-9);
+        assertArrayEquals(new int[]{0}, fleet.takeSlotsNeedingRoute(10));
+        assertEquals(0, fleet.takeSlotsNeedingRoute(10).length);
+    }
+
+    @Test
+    @DisplayName("vehicles on a ride or paused do not move and wait for the next roster")
+    void advance_onRideAndPaused() {
+        PatrolFleet fleet = fleet(2);
+        fleet.setRoute(1, ROUTE);
+        fleet.setRoute(2, ROUTE);
+
+        PatrolFleet.Moves moves = fleet.advance(POOL, slot -> slot == 0, slot -> slot == 1);
+        assertEquals(0, moves.size());
+
+        // Free again, but the position is unknown until the roster is refreshed
+        assertEquals(0, fleet.advance(POOL, slot -> false, slot -> false).size());
+        assertEquals(0, fleet.takeSlotsNeedingRoute(10).length);
+
+        // The roster brings their current positions, so neither keeps its old route
+        PatrolFleet refreshed = fleet(2);
+        refreshed.carryOver(fleet);
+        refreshed.advance(POOL, slot -> false, slot -> false);
+        assertArrayEquals(new int[]{0, 1}, refreshed.takeSlotsNeedingRoute(10));
+    }
+
+    @Test
+    @DisplayName("carryOver keeps routes of vehicles still in the roster")
+    void carryOver_keepsRoutes() {
+        PatrolFleet fleet = fleet(2);
+        fleet.setRoute(2, ROUTE);
+
+        PatrolFleet refreshed = new PatrolFleet(new long[]{2, 3}, new long[]{20, 30},
+                new double[]{45.25, 45.26}, new double[]{19.83, 19.84}, 27);
+        refreshed.carryOver(fleet);
+        refreshed.advance(POOL, slot -> false, slot -> false);
+
+        // Vehicle 2 kept its route; vehicle 3 is new and needs one
+        assertArrayEquals(new int[]{1}, refreshed.takeSlotsNeedingRoute(10));
+    }
+
+    private static PatrolFleet fleet(int size) {
+        long[] vehicleIds = new long[size];
+        long[] driverIds = new long[size];
+        double[] latitudes = new double[size];
+        double[] longitudes = new double[size];
+        for (int slot = 0; slot < size; slot++) {
+            vehicleIds[slot] = slot + 1;
+            driverIds[slot] = slot + 1001;
+            latitudes[slot] = 45.25;
+            longitudes[slot] = 19.83;
+        }
+        return new PatrolFleet(vehicleIds, driverIds, latitudes, longitudes, 27);
+    }
+}
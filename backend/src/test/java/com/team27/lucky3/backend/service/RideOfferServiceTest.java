@@ -0,0 +1,67 @@
+package com.team27.lucky3.backend.service;
+
+import com.team27.lucky3.backend.repository.RideRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class RideOfferServiceTest {
+
+    private final RideService rideService = mock(RideService.class);
+    // A zero timeout expires on the next tick
+    private final RideOfferService offers = new RideOfferService(
+            rideService, mock(RideRepository.class), new SimpleMeterRegistry(), 0);
+
+    private void waitForTick() throws InterruptedException {
+        Thread.sleep(RideOfferService.TICK_MILLIS * 2);
+    }
+
+    @Test
+    @DisplayName("an unanswered offer is cascaded once its timeout passes")
+    void expiredOffer_isReoffered() throws InterruptedException {
+        offers.offer(1L, 7L, List.of(8L, 9L));
+        assertEquals(List.of(8L, 9L), offers.currentOffer(1L).orElseThrow().nextCandidates());
+
+        waitForTick();
+        offers.expireOffers();
+
+        verify(rideService).reofferRide(1L, 7L);
+    }
+
+    @Test
+    @DisplayName("resolved and replaced offers do not fire for the old driver")
+    void resolvedOffer_neverFires() throws InterruptedException {
+        offers.offer(1L, 7L, List.of());
+        offers.resolve(1L);
+        offers.offer(2L, 7L, List.of(8L));
+        offers.offer(2L, 8L, List.of()); // cascaded before the first timeout fired
+
+        waitForTick();
+        offers.expireOffers();
+
+        verify(rideService, never()).reofferRide(eq(1L), anyLong());
+        verify(rideService, never()).reofferRide(2L, 7L);
+        verify(rideService).reofferRide(2L, 8L);
+        assertTrue(offers.currentOffer(1L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("a failed cascade is retried after another timeout")
+    void failedReoffer_isRetried() throws InterruptedException {
+        doThrow(new IllegalStateException("conflict")).doNothing().when(rideService).reofferRide(1L, 7L);
+        offers.offer(1L, 7L, List.of());
+
+        waitForTick();
+        offers.expireOffers();
+        waitForTick();
+        offers.expireOffers();
+
+        verify(rideService, times(2)).reofferRide(1L, 7L);
+    }
+}
@@ -17,6 +17,8 @@ import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.Authentication;
@@ -64,6 +66,20 @@ class RideServiceEndRideTest {
     @Mock
     private VehiclePriceService vehiclePriceService;
     @Mock
+    private AdminLiveStatsService adminLiveStatsService;
+    @Mock
+    private DriverScheduleIndex driverScheduleIndex;
+    @Spy
+    private DriverReservationLedger reservationLedger = new DriverReservationLedger();
+    @Spy
+    private TravelTimeService travelTimeService = new TravelTimeService();
+    @Mock
+    private DriverStatsService driverStatsService;
+    @Mock
+    private RoutingService routingService;
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Mock
     private Authentication authentication;
     @Mock
     private SecurityContext securityContext;
@@ -76,6 +92,9 @@ class RideServiceEndRideTest {
 
     @BeforeEach
     void setUp() {
+        // Conditional status updates succeed unless a test simulates a concurrent transition
+        lenient().when(rideRepository.transitionStatus(anyLong(), anyCollection(), any())).thenReturn(1);
+
         driverUser = new User();
         driverUser.setId(1L);
         driverUser.setEmail("driver@example.com");
@@ -109,8 +128,8 @@ class RideServiceEndRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
 
         RideResponse response = rideService.endRide(1L, validEndRequest);
 
@@ -151,6 +170,21 @@ class RideServiceEndRideTest {
         assertThrows(IllegalStateException.class, () -> rideService.endRide(1L, validEndRequest));
     }
 
+    @Test
+    @DisplayName("endRide - conflict when another request changed the ride after it was loaded")
+    void endRide_concurrentTransition_throwsConflictWithoutSaving() {
+        when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
+        when(rideRepository.transitionStatus(eq(1L), anyCollection(), eq(RideStatus.FINISHED))).thenReturn(0);
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> rideService.endRide(1L, validEndRequest));
+
+        assertTrue(ex.getMessage().contains("updated by another request"));
+        assertEquals(RideStatus.IN_PROGRESS, inProgressRide.getStatus());
+        verify(rideRepository, never()).save(any());
+        verify(notificationService, never()).sendRideFinishedNotification(any());
+    }
+
     @Test
     @DisplayName("endRide - throws ResourceNotFoundException when ride not found")
     void endRide_rideNotFound_throwsResourceNotFound() {
@@ -165,8 +199,8 @@ class RideServiceEndRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(List.of(new Ride()));
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(commitment(new Ride()));
 
         rideService.endRide(1L, validEndRequest);
 
@@ -191,8 +225,8 @@ class RideServiceEndRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
         
         // checkAndHandleInactiveRequest mocks
         when(rideRepository.existsByDriverIdAndStatusIn(eq(driverUser.getId()), anyList()))
@@ -271,8 +305,8 @@ class RideServiceEndRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
 
         rideService.endRide(1L, validEndRequest);
 
@@ -287,8 +321,8 @@ class RideServiceEndRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
 
         rideService.endRide(1L, validEndRequest);
 
@@ -301,8 +335,8 @@ class RideServiceEndRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.empty());
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
 
         RideResponse response = rideService.endRide(1L, validEndRequest);
 
@@ -321,8 +355,8 @@ class RideServiceEndRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
 
         rideService.endRide(1L, falseRequest);
 
@@ -336,8 +370,8 @@ class RideServiceEndRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
 
         LocalDateTime before = LocalDateTime.now();
         rideService.endRide(1L, validEndRequest);
@@ -354,8 +388,8 @@ class RideServiceEndRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
 
         rideService.endRide(1L, validEndRequest);
 
@@ -368,8 +402,8 @@ class RideServiceEndRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
 
         rideService.endRide(1L, validEndRequest);
 
@@ -386,8 +420,8 @@ class RideServiceEndRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(List.of(pendingRide));
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(commitment(pendingRide));
 
         rideService.endRide(1L, validEndRequest);
 
@@ -407,8 +441,8 @@ class RideServiceEndRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(List.of(scheduledRide, pendingRide));
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(commitment(scheduledRide));
 
         rideService.endRide(1L, validEndRequest);
 
@@ -554,8 +588,8 @@ class RideServiceEndRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
 
         rideService.endRide(1L, validEndRequest);
 
@@ -573,8 +607,8 @@ class RideServiceEndRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
         when(rideRepository.existsByDriverIdAndStatusIn(eq(driverUser.getId()), anyList()))
                 .thenReturn(false);
         when(activitySessionRepository.findByDriverIdAndEndTimeIsNull(driverUser.getId()))
@@ -618,8 +652,8 @@ class RideServiceEndRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
 
         RideResponse response = rideService.endRide(1L, validEndRequest);
 
@@ -633,8 +667,8 @@ class RideServiceEndRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.empty());
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
 
         rideService.endRide(1L, validEndRequest);
 
@@ -642,4 +676,9 @@ class RideServiceEndRideTest {
         verify(notificationService).notifyLinkedPassengersRideCompleted(any());
         verify(rideSocketService).broadcastRideUpdate(eq(1L), any());
     }
+
+    private static Optional<DriverScheduleIndex.Commitment> commitment(Ride ride) {
+        return Optional.of(new DriverScheduleIndex.Commitment(
+                ride.getId(), ride.getStatus(), ride.getStartTime(), ride.getEndTime()));
+    }
 }
@@ -0,0 +1,272 @@
+package com.team27.lucky3.backend.service;
+
+import com.team27.lucky3.backend.dto.response.RideResponse;
+import com.team27.lucky3.backend.entity.Location;
+import com.team27.lucky3.backend.entity.Ride;
+import com.team27.lucky3.backend.entity.User;
+import com.team27.lucky3.backend.entity.Vehicle;
+import com.team27.lucky3.backend.entity.enums.RideStatus;
+import com.team27.lucky3.backend.entity.enums.UserRole;
+import com.team27.lucky3.backend.entity.enums.VehicleStatus;
+import com.team27.lucky3.backend.entity.enums.VehicleType;
+import com.team27.lucky3.backend.repository.*;
+import com.team27.lucky3.backend.service.impl.RideServiceImpl;
+import com.team27.lucky3.backend.service.socket.RideSocketService;
+import com.team27.lucky3.backend.service.socket.VehicleSocketService;
+import com.team27.lucky3.backend.util.ReviewTokenUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the driver offer cascade in RideServiceImpl:
+ * acceptRide(), declineRide() and reofferRide().
+ */
+@ExtendWith(MockitoExtension.class)
+class RideServiceOfferTest {
+
+    @InjectMocks
+    private RideServiceImpl rideService;
+
+    @Mock
+    private RideRepository rideRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private FavoriteRouteRepository favoriteRouteRepository;
+    @Mock
+    private PanicRepository panicRepository;
+    @Mock
+    private VehicleRepository vehicleRepository;
+    @Mock
+    private InconsistencyReportRepository inconsistencyReportRepository;
+    @Mock
+    private DriverActivitySessionRepository activitySessionRepository;
+    @Mock
+    private NotificationService notificationService;
+    @Mock
+    private EmailService emailService;
+    @Mock
+    private ReviewTokenUtils reviewTokenUtils;
+    @Mock
+    private PanicService panicService;
+    @Mock
+    private VehicleSocketService vehicleSocketService;
+    @Mock
+    private RideSocketService rideSocketService;
+    @Mock
+    private VehiclePriceService vehiclePriceService;
+    @Mock
+    private AdminLiveStatsService adminLiveStatsService;
+    @Mock
+    private DriverScheduleIndex driverScheduleIndex;
+    @Spy
+    private DriverReservationLedger reservationLedger = new DriverReservationLedger();
+    @Spy
+    private TravelTimeService travelTimeService = new TravelTimeService();
+    @Mock
+    private RideOfferService rideOfferService;
+    @Mock
+    private DriverStatsService driverStatsService;
+    @Mock
+    private RoutingService routingService;
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private User offeredDriver;
+    private User secondDriver;
+    private User thirdDriver;
+    private Ride pendingRide;
+
+    @BeforeEach
+    void setUp() {
+        offeredDriver = driver(1L);
+        secondDriver = driver(2L);
+        thirdDriver = driver(3L);
+
+        User passenger = new User();
+        passenger.setId(10L);
+        passenger.setRole(UserRole.PASSENGER);
+
+        pendingRide = new Ride();
+        pendingRide.setId(100L);
+        pendingRide.setDriver(offeredDriver);
+        pendingRide.setPassengers(Set.of(passenger));
+        pendingRide.setStatus(RideStatus.PENDING);
+        pendingRide.setStartTime(LocalDateTime.now());
+        pendingRide.setEndTime(LocalDateTime.now().plusMinutes(15));
+        pendingRide.setStartLocation(new Location("Bulevar Oslobodjenja 50", 45.2671, 19.8335));
+        pendingRide.setEndLocation(new Location("Trg Slobode 1", 45.2550, 19.8450));
+        pendingRide.setRequestedVehicleType(VehicleType.STANDARD);
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static User driver(Long id) {
+        User driver = new User();
+        driver.setId(id);
+        driver.setRole(UserRole.DRIVER);
+        driver.setActive(true);
+        return driver;
+    }
+
+    private static Vehicle vehicleOf(User driver, VehicleType type) {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setId(driver.getId());
+        vehicle.setDriver(driver);
+        vehicle.setVehicleType(type);
+        vehicle.setStatus(VehicleStatus.FREE);
+        vehicle.setCurrentLocation(new Location("", 45.26, 19.83));
+        return vehicle;
+    }
+
+    private void offeredWithCandidates(Long... candidates) {
+        when(rideOfferService.currentOffer(pendingRide.getId())).thenReturn(Optional.of(
+                new RideOfferService.Offer(offeredDriver.getId(), List.of(candidates), null)));
+    }
+
+    private void mockSecurityContext(User user) {
+        SecurityContext securityContext = mock(SecurityContext.class);
+        Authentication authentication = mock(Authentication.class);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(user);
+        SecurityContextHolder.setContext(securityContext);
+    }
+
+    @Test
+    @DisplayName("declineRide - offers the ride to the next candidate that is still available")
+    void declineRide_reassignsToNextAvailableCandidate() {
+        mockSecurityContext(offeredDriver);
+        when(rideRepository.findById(100L)).thenReturn(Optional.of(pendingRide));
+        offeredWithCandidates(secondDriver.getId(), thirdDriver.getId());
+        // The second driver's vehicle no longer matches, the third one does
+        when(vehicleRepository.findByDriverId(secondDriver.getId()))
+                .thenReturn(Optional.of(vehicleOf(secondDriver, VehicleType.VAN)));
+        when(vehicleRepository.findByDriverId(thirdDriver.getId()))
+                .thenReturn(Optional.of(vehicleOf(thirdDriver, VehicleType.STANDARD)));
+        when(rideRepository.reassignPendingRide(100L, offeredDriver.getId(), thirdDriver)).thenReturn(1);
+        when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        RideResponse response = rideService.declineRide(100L);
+
+        assertEquals(RideStatus.PENDING, response.getStatus());
+        assertEquals(thirdDriver.getId(), response.getDriver().getId());
+        verify(rideOfferService).offer(100L, thirdDriver.getId(), List.of());
+        verify(notificationService).sendDriverAssignmentNotification(pendingRide);
+        verify(driverScheduleIndex).recordRide(pendingRide);
+    }
+
+    @Test
+    @DisplayName("declineRide - skips candidates another request is assigning right now")
+    void declineRide_skipsHeldCandidate() {
+        mockSecurityContext(offeredDriver);
+        when(rideRepository.findById(100L)).thenReturn(Optional.of(pendingRide));
+        offeredWithCandidates(secondDriver.getId(), thirdDriver.getId());
+        when(vehicleRepository.findByDriverId(secondDriver.getId()))
+                .thenReturn(Optional.of(vehicleOf(secondDriver, VehicleType.STANDARD)));
+        when(vehicleRepository.findByDriverId(thirdDriver.getId()))
+                .thenReturn(Optional.of(vehicleOf(thirdDriver, VehicleType.STANDARD)));
+        when(rideRepository.reassignPendingRide(100L, offeredDriver.getId(), thirdDriver)).thenReturn(1);
+        when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
+        assertTrue(reservationLedger.tryClaim(secondDriver.getId(), new Object()));
+
+        RideResponse response = rideService.declineRide(100L);
+
+        assertEquals(thirdDriver.getId(), response.getDriver().getId());
+    }
+
+    @Test
+    @DisplayName("declineRide - rejects the ride once no candidate is left")
+    void declineRide_noCandidatesLeft_rejectsRide() {
+        mockSecurityContext(offeredDriver);
+        when(rideRepository.findById(100L)).thenReturn(Optional.of(pendingRide));
+        when(rideRepository.transitionStatusForDriver(eq(100L), eq(offeredDriver.getId()), anyCollection(),
+                eq(RideStatus.REJECTED))).thenReturn(1);
+        when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        RideResponse response = rideService.declineRide(100L);
+
+        assertEquals(RideStatus.REJECTED, response.getStatus());
+        assertNull(pendingRide.getDriver());
+        verify(rideOfferService).resolve(100L);
+        verify(notificationService).sendRideStatusNotification(eq(pendingRide), anyString());
+    }
+
+    @Test
+    @DisplayName("declineRide - only the driver the ride is offered to can decline it")
+    void declineRide_byOtherDriver_throws() {
+        mockSecurityContext(secondDriver);
+        when(rideRepository.findById(100L)).thenReturn(Optional.of(pendingRide));
+
+        assertThrows(IllegalStateException.class, () -> rideService.declineRide(100L));
+        verify(rideRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("reofferRide - a ride accepted in the meantime keeps its driver")
+    void reofferRide_alreadyAccepted_noChange() {
+        pendingRide.setStatus(RideStatus.ACCEPTED);
+        when(rideRepository.findById(100L)).thenReturn(Optional.of(pendingRide));
+
+        rideService.reofferRide(100L, offeredDriver.getId());
+
+        assertEquals(offeredDriver, pendingRide.getDriver());
+        verify(rideOfferService).resolve(100L);
+        verify(rideRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("reofferRide - a concurrent accept wins over the cascade")
+    void reofferRide_concurrentAccept_conflict() {
+        when(rideRepository.findById(100L)).thenReturn(Optional.of(pendingRide));
+        offeredWithCandidates(secondDriver.getId());
+        when(vehicleRepository.findByDriverId(secondDriver.getId()))
+                .thenReturn(Optional.of(vehicleOf(secondDriver, VehicleType.STANDARD)));
+        when(rideRepository.reassignPendingRide(100L, offeredDriver.getId(), secondDriver)).thenReturn(0);
+
+        assertThrows(IllegalStateException.class, () -> rideService.reofferRide(100L, offeredDriver.getId()));
+        verify(rideOfferService, never()).offer(anyLong(), anyLong(), anyList());
+        assertFalse(reservationLedger.isHeld(secondDriver.getId()));
+    }
+
+    @Test
+    @DisplayName("acceptRide - a ride offered to another driver cannot be accepted")
+    void acceptRide_byOtherDriver_throws() {
+        mockSecurityContext(secondDriver);
+        when(rideRepository.findById(100L)).thenReturn(Optional.of(pendingRide));
+
+        assertThrows(IllegalStateException.class, () -> rideService.acceptRide(100L));
+        verify(rideRepository, never()).transitionStatusForDriver(anyLong(), anyLong(), anyCollection(), any());
+    }
+
+    @Test
+    @DisplayName("acceptRide - accepting ends the offer")
+    void acceptRide_resolvesOffer() {
+        mockSecurityContext(offeredDriver);
+        when(rideRepository.findById(100L)).thenReturn(Optional.of(pendingRide));
+        when(rideRepository.transitionStatusForDriver(eq(100L), eq(offeredDriver.getId()), anyCollection(),
+                eq(RideStatus.ACCEPTED))).thenReturn(1);
+        when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        RideResponse response = rideService.acceptRide(100L);
+
+        assertEquals(RideStatus.ACCEPTED, response.getStatus());
+        verify(rideOfferService).resolve(100L);
+    }
+}
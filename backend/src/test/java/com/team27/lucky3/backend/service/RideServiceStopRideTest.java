@@ -21,6 +21,8 @@ import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.Authentication;
@@ -73,6 +75,20 @@ class RideServiceStopRideTest {
     private RideSocketService rideSocketService;
     @Mock
     private VehiclePriceService vehiclePriceService;
+    @Mock
+    private AdminLiveStatsService adminLiveStatsService;
+    @Mock
+    private DriverScheduleIndex driverScheduleIndex;
+    @Spy
+    private DriverReservationLedger reservationLedger = new DriverReservationLedger();
+    @Spy
+    private TravelTimeService travelTimeService = new TravelTimeService();
+    @Mock
+    private DriverStatsService driverStatsService;
+    @Mock
+    private RoutingService routingService;
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     private User driverUser;
     private User passengerUser;
@@ -83,6 +99,9 @@ class RideServiceStopRideTest {
 
     @BeforeEach
     void setUp() {
+        // Conditional status updates succeed unless a test simulates a concurrent transition
+        lenient().when(rideRepository.transitionStatus(anyLong(), anyCollection(), any())).thenReturn(1);
+
         // Set up driver user
         driverUser = new User();
         driverUser.setId(1L);
@@ -174,8 +193,8 @@ class RideServiceStopRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
 
         RideResponse result = rideService.stopRide(1L, validStopRequest);
 
@@ -196,8 +215,8 @@ class RideServiceStopRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
 
         RideResponse result = rideService.stopRide(1L, validStopRequest);
 
@@ -298,8 +317,8 @@ class RideServiceStopRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
 
         rideService.stopRide(1L, validStopRequest);
 
@@ -323,8 +342,8 @@ class RideServiceStopRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
 
         LocalDateTime before = LocalDateTime.now();
         rideService.stopRide(1L, validStopRequest);
@@ -349,8 +368,8 @@ class RideServiceStopRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
 
         rideService.stopRide(1L, validStopRequest);
 
@@ -373,8 +392,8 @@ class RideServiceStopRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
 
         rideService.stopRide(1L, validStopRequest);
 
@@ -401,8 +420,8 @@ class RideServiceStopRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
 
         rideService.stopRide(1L, validStopRequest);
 
@@ -426,8 +445,8 @@ class RideServiceStopRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
 
         rideService.stopRide(1L, validStopRequest);
 
@@ -450,8 +469,8 @@ class RideServiceStopRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
         when(vehiclePriceService.getBaseFare(VehicleType.STANDARD)).thenReturn(120.0);
         when(vehiclePriceService.getPricePerKm(VehicleType.STANDARD)).thenReturn(120.0);
 
@@ -473,8 +492,8 @@ class RideServiceStopRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
 
         rideService.stopRide(1L, validStopRequest);
 
@@ -500,8 +519,8 @@ class RideServiceStopRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
 
         rideService.stopRide(1L, validStopRequest);
 
@@ -524,8 +543,8 @@ class RideServiceStopRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
 
         rideService.stopRide(1L, validStopRequest);
 
@@ -539,8 +558,8 @@ class RideServiceStopRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
 
         rideService.stopRide(1L, validStopRequest);
 
@@ -554,8 +573,8 @@ class RideServiceStopRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
 
         rideService.stopRide(1L, validStopRequest);
 
@@ -573,8 +592,8 @@ class RideServiceStopRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
 
         rideService.stopRide(1L, validStopRequest);
 
@@ -597,8 +616,8 @@ class RideServiceStopRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(List.of(nextRide));
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(commitment(nextRide));
 
         rideService.stopRide(1L, validStopRequest);
 
@@ -616,8 +635,8 @@ class RideServiceStopRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
 
         rideService.stopRide(1L, validStopRequest);
 
@@ -634,8 +653,8 @@ class RideServiceStopRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.empty());
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
 
         // Should not throw even if vehicle is not found
         RideResponse result = rideService.stopRide(1L, validStopRequest);
@@ -656,8 +675,8 @@ class RideServiceStopRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
 
         rideService.stopRide(1L, validStopRequest);
 
@@ -677,8 +696,8 @@ class RideServiceStopRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
         when(rideRepository.existsByDriverIdAndStatusIn(eq(driverUser.getId()),
                 eq(List.of(RideStatus.ACCEPTED, RideStatus.ACTIVE, RideStatus.IN_PROGRESS))))
                 .thenReturn(false);
@@ -704,8 +723,8 @@ class RideServiceStopRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
         when(rideRepository.existsByDriverIdAndStatusIn(eq(driverUser.getId()),
                 eq(List.of(RideStatus.ACCEPTED, RideStatus.ACTIVE, RideStatus.IN_PROGRESS))))
                 .thenReturn(true);
@@ -729,8 +748,8 @@ class RideServiceStopRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
 
         rideService.stopRide(1L, validStopRequest);
 
@@ -760,8 +779,8 @@ class RideServiceStopRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
 
         rideService.stopRide(1L, validStopRequest);
 
@@ -782,8 +801,8 @@ class RideServiceStopRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
 
         RideResponse result = rideService.stopRide(1L, validStopRequest);
 
@@ -799,8 +818,8 @@ class RideServiceStopRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
 
         RideResponse result = rideService.stopRide(1L, validStopRequest);
 
@@ -818,8 +837,8 @@ class RideServiceStopRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
 
         RideResponse result = rideService.stopRide(1L, validStopRequest);
 
@@ -842,8 +861,8 @@ class RideServiceStopRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
 
         RideResponse result = rideService.stopRide(1L, validStopRequest);
 
@@ -864,8 +883,8 @@ class RideServiceStopRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
 
         RideResponse result = rideService.stopRide(1L, validStopRequest);
 
@@ -881,11 +900,16 @@ class RideServiceStopRideTest {
         when(rideRepository.findById(1L)).thenReturn(Optional.of(inProgressRide));
         when(rideRepository.save(any(Ride.class))).thenAnswer(inv -> inv.getArgument(0));
         when(vehicleRepository.findByDriverId(driverUser.getId())).thenReturn(Optional.of(vehicle));
-        when(rideRepository.findByDriverIdAndStatusInOrderByStartTimeAsc(eq(driverUser.getId()), anyList()))
-                .thenReturn(Collections.emptyList());
+        when(driverScheduleIndex.nextRide(eq(driverUser.getId()), anySet(), any()))
+                .thenReturn(Optional.empty());
 
         RideResponse result = rideService.stopRide(1L, validStopRequest);
 
         assertEquals(RideStatus.FINISHED, result.getStatus());
     }
+
+    private static Optional<DriverScheduleIndex.Commitment> commitment(Ride ride) {
+        return Optional.of(new DriverScheduleIndex.Commitment(
+                ride.getId(), ride.getStatus(), ride.getStartTime(), ride.getEndTime()));
+    }
 }
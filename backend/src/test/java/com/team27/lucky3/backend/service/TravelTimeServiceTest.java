@@ -0,0 +1,73 @@
+package com.team27.lucky3.backend.service;
+
+import com.team27.lucky3.backend.dto.LocationDto;
+import com.team27.lucky3.backend.util.GeoUtils;
+import com.team27.lucky3.backend.util.TravelTimeMatrix;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class TravelTimeServiceTest {
+
+    // 4 x 3 cells, so the builder needs several table blocks when the block size is smaller
+    private static final TravelTimeMatrix.Grid GRID = new TravelTimeMatrix.Grid(45.0, 19.0, 0.01, 0.01, 4, 3);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("without a matrix, ETAs follow straight-line distance at city speed")
+    void etaSeconds_fallback() {
+        TravelTimeService service = new TravelTimeService();
+
+        double km = GeoUtils.haversineKm(45.24, 19.82, 45.26, 19.84);
+        assertEquals(Math.round(km / TravelTimeService.FALLBACK_KM_PER_MINUTE * 60),
+                service.etaSeconds(45.24, 19.82, 45.26, 19.84));
+        assertFalse(service.hasMatrix());
+    }
+
+    @Test
+    @DisplayName("the builder fills every cell pair from the duration table and the service uses it")
+    void build_thenLookup() throws IOException {
+        RoutingService routing = mock(RoutingService.class);
+        // Fake engine: 10000 s per source-destination index step, no route to the last cell
+        when(routing.durationTable(anyList(), anyList())).thenAnswer(inv -> {
+            List<LocationDto> sources = inv.getArgument(0);
+            List<LocationDto> destinations = inv.getArgument(1);
+            double[][] table = new double[sources.size()][destinations.size()];
+            for (int i = 0; i < sources.size(); i++) {
+                for (int j = 0; j < destinations.size(); j++) {
+                    int from = GRID.cellOf(sources.get(i).getLatitude(), sources.get(i).getLongitude());
+                    int to = GRID.cellOf(destinations.get(j).getLatitude(), destinations.get(j).getLongitude());
+                    table[i][j] = to == GRID.cells() - 1 ? Double.NaN : 10000.0 * from + to;
+                }
+            }
+            return table;
+        });
+        TravelTimeService service = new TravelTimeService();
+        TravelTimeMatrixBuilder builder = new TravelTimeMatrixBuilder(routing, service, Runnable::run);
+
+        char[] seconds = builder.build(GRID);
+        Path file = dir.resolve("travel-times.bin");
+        TravelTimeMatrix.write(file, GRID, seconds);
+        service.use(TravelTimeMatrix.open(file));
+
+        // cell 2 (row 0, col 2) -> cell 4 (row 1, col 1)
+        assertEquals(20004, service.etaSeconds(45.005, 19.025, 45.015, 19.015));
+        // Large values are clamped below the no-route marker
+        assertEquals(TravelTimeMatrix.NO_ROUTE - 1, seconds[10 * GRID.cells() + 1]);
+        // No route to the last cell: falls back to the straight line
+        double km = GeoUtils.haversineKm(45.005, 19.005, 45.035, 19.025);
+        assertEquals(Math.round(km / TravelTimeService.FALLBACK_KM_PER_MINUTE * 60),
+                service.etaSeconds(45.005, 19.005, 45.035, 19.025));
+        assertTrue(service.hasMatrix());
+    }
+}
@@ -0,0 +1,114 @@
+package com.team27.lucky3.backend.service;
+
+import com.team27.lucky3.backend.entity.Notification;
+import com.team27.lucky3.backend.entity.User;
+import com.team27.lucky3.backend.entity.enums.NotificationType;
+import com.team27.lucky3.backend.entity.enums.UserRole;
+import com.team27.lucky3.backend.repository.NotificationRepository;
+import com.team27.lucky3.backend.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for UnreadNotificationCounter: the counter on the user row must always match
+ * the number of unread notification rows. Uses H2 in-memory database.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class UnreadNotificationCounterTest {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private UnreadNotificationCounter unreadCounter;
+    private User user;
+    private final List<Long> notificationIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        unreadCounter = new UnreadNotificationCounter(notificationRepository, userRepository,
+                mock(SimpMessagingTemplate.class));
+
+        user = new User();
+        user.setName("Unread");
+        user.setSurname("User");
+        user.setEmail("unread.user@example.com");
+        user.setPassword("password");
+        user.setRole(UserRole.PASSENGER);
+        user = userRepository.save(user);
+
+        for (int i = 0; i < 3; i++) {
+            Notification notification = new Notification();
+            notification.setText("Ride update " + i);
+            notification.setType(NotificationType.RIDE_STATUS);
+            notification.setRecipient(user);
+            notificationIds.add(notificationRepository.save(notification).getId());
+            unreadCounter.recordCreated(List.of(user.getId()));
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("inserts increment the counter and it starts at zero for new users")
+    void recordCreated() {
+        assertEquals(3, unreadCounter.get(user.getId()));
+        assertEquals(unreadRows(), unreadCounter.get(user.getId()));
+    }
+
+    @Test
+    @DisplayName("marking the same notification read twice decrements the counter once")
+    void markRead_idempotent() {
+        assertEquals(1, unreadCounter.markRead(user.getId(), List.of(notificationIds.get(0))));
+        assertEquals(0, unreadCounter.markRead(user.getId(), List.of(notificationIds.get(0))));
+
+        assertEquals(2, unreadCounter.get(user.getId()));
+        assertEquals(unreadRows(), unreadCounter.get(user.getId()));
+    }
+
+    @Test
+    @DisplayName("deleting read and unread notifications only subtracts the unread ones")
+    void delete_onlyUnreadCounted() {
+        unreadCounter.markRead(user.getId(), List.of(notificationIds.get(0)));
+
+        assertEquals(2, unreadCounter.delete(List.of(notificationIds.get(0), notificationIds.get(1))));
+
+        assertEquals(1, unreadCounter.get(user.getId()));
+        assertEquals(unreadRows(), unreadCounter.get(user.getId()));
+    }
+
+    @Test
+    @DisplayName("saving a stale User entity does not overwrite the counter")
+    void userSave_keepsCounter() {
+        entityManager.clear();
+        User loaded = userRepository.findById(user.getId()).orElseThrow();
+        unreadCounter.markRead(user.getId(), List.of(notificationIds.get(2)));
+
+        loaded.setName("Renamed");
+        userRepository.saveAndFlush(loaded);
+        entityManager.clear();
+
+        assertEquals(2, unreadCounter.get(user.getId()));
+    }
+
+    private long unreadRows() {
+        return notificationRepository.countByRecipientIdAndIsReadFalse(user.getId());
+    }
+}
@@ -0,0 +1,104 @@
+package com.team27.lucky3.backend.service;
+
+import com.team27.lucky3.backend.dto.response.VehiclePositionsResponse;
+import com.team27.lucky3.backend.repository.VehicleRepository;
+import com.team27.lucky3.backend.service.socket.VehicleSocketService;
+import com.team27.lucky3.backend.util.PatrolRouteLibrary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the patrol simulation end to end on a route library, without Spring or a database.
+ */
+class VehicleSimulationServiceTest {
+
+    private static final ForkJoinPool SINGLE = new ForkJoinPool(1);
+    private static final ForkJoinPool PARALLEL = new ForkJoinPool(4);
+
+    // Hubs A (45.250, 19.830), B (45.250, 19.840) and C (45.260, 19.840); B has two ways on
+    private static final List<double[]> ROUTES = List.of(
+            new double[]{45.2500, 19.8300, 45.2500, 19.8350, 45.2500, 19.8400},
+            new double[]{45.2500, 19.8400, 45.2550, 19.8400, 45.2600, 19.8400},
+            new double[]{45.2500, 19.8400, 45.2500, 19.8350, 45.2500, 19.8300},
+            new double[]{45.2600, 19.8400, 45.2550, 19.8350, 45.2500, 19.8300});
+
+    // More vehicles than one fork/join leaf task takes, so the parallel pool splits the fleet
+    private static final int VEHICLES = 1500;
+    private static final int TICKS = 40;
+
+    @TempDir
+    Path dir;
+
+    private Path library;
+
+    @BeforeEach
+    void writeLibrary() throws IOException {
+        library = dir.resolve("patrol-routes.bin");
+        PatrolRouteLibrary.write(library, ROUTES);
+    }
+
+    @AfterAll
+    static void shutDown() {
+        SINGLE.shutdown();
+        PARALLEL.shutdown();
+    }
+
+    @Test
+    @DisplayName("two simulations with the same seed move every vehicle the same way")
+    void simulate_sameSeedSamePatrols() {
+        List<String> single = patrol(SINGLE, 27);
+        List<String> parallel = patrol(PARALLEL, 27);
+
+        assertEquals(TICKS - 1, single.size(), "vehicles move from the second tick on");
+        assertEquals(single, parallel, "the thread split must not change any patrol");
+        assertNotEquals(single, patrol(PARALLEL, 28));
+    }
+
+    // Positions broadcast per tick, as text
+    private List<String> patrol(ForkJoinPool pool, long seed) {
+        VehicleRepository vehicleRepository = mock(VehicleRepository.class);
+        VehicleSocketService vehicleSocketService = mock(VehicleSocketService.class);
+        List<Object[]> roster = new ArrayList<>();
+        for (long id = 1; id <= VEHICLES; id++) {
+            // Every tenth vehicle has no position yet and starts somewhere random
+            Double lat = id % 10 == 0 ? null : 45.2500 + (id % 7) * 0.001;
+            Double lng = id % 10 == 0 ? null : 19.8300 + (id % 5) * 0.002;
+            roster.add(new Object[]{id, 1000 + id, lat, lng});
+        }
+        when(vehicleRepository.findActiveVehiclePositions()).thenReturn(roster);
+
+        List<String> broadcasts = new ArrayList<>();
+        doAnswer(invocation -> {
+            VehiclePositionsResponse positions = invocation.getArgument(0);
+            broadcasts.add(Arrays.toString(positions.getIds()) + Arrays.toString(positions.getLatitudes())
+                    + Arrays.toString(positions.getLongitudes()));
+            return null;
+        }).when(vehicleSocketService).sendVehiclePositions(any());
+
+        VehicleSimulationService simulation = new VehicleSimulationService(vehicleRepository, vehicleSocketService,
+                mock(RoutingService.class), mock(DriverScheduleIndex.class), new SimpleMeterRegistry(),
+                pool, Runnable::run, 0, library, seed);
+        simulation.loadRouteLibrary();
+        for (int tick = 0; tick < TICKS; tick++) {
+            simulation.simulateIdleVehicles();
+        }
+        return broadcasts;
+    }
+}
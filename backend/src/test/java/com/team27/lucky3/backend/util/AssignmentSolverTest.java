@@ -0,0 +1,109 @@
+package com.team27.lucky3.backend.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AssignmentSolverTest {
+
+    private static final double INF = Double.POSITIVE_INFINITY;
+
+    @Test
+    @DisplayName("picks the globally cheapest pairing, not the greedy one")
+    void solve_beatsGreedy() {
+        // Greedy gives row 0 its closest column (0) and leaves row 1 with a cost of 10
+        double[][] cost = {
+                {1, 2},
+                {2, 10},
+        };
+
+        assertArrayEquals(new int[]{1, 0}, AssignmentSolver.solve(cost));
+    }
+
+    @Test
+    @DisplayName("matches brute force on random square and rectangular matrices")
+    void solve_matchesBruteForce() {
+        Random random = new Random(27);
+        for (int round = 0; round < 300; round++) {
+            int rows = 1 + random.nextInt(5);
+            int cols = 1 + random.nextInt(5);
+            double[][] cost = new double[rows][cols];
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < cols; j++) {
+                    cost[i][j] = random.nextInt(10) == 0 ? INF : random.nextInt(100) / 10.0;
+                }
+            }
+
+            int[] assignment = AssignmentSolver.solve(cost);
+
+            assertValid(cost, assignment);
+            double[] best = bruteForce(cost, 0, new boolean[cols]);
+            assertEquals(best[0], assigned(assignment), "assigned rows, round " + round);
+            assertEquals(best[1], total(cost, assignment), 1e-9, "total cost, round " + round);
+        }
+    }
+
+    @Test
+    @DisplayName("forbidden pairs are never assigned")
+    void solve_forbiddenPairs() {
+        double[][] cost = {
+                {INF, INF},
+                {3, INF},
+                {1, 5},
+        };
+
+        int[] assignment = AssignmentSolver.solve(cost);
+
+        assertArrayEquals(new int[]{-1, 0, 1}, assignment);
+        assertArrayEquals(new int[]{-1}, AssignmentSolver.solve(new double[][]{{INF, INF}}));
+        assertArrayEquals(new int[0], AssignmentSolver.solve(new double[0][0]));
+    }
+
+    private static void assertValid(double[][] cost, int[] assignment) {
+        boolean[] used = new boolean[cost[0].length];
+        for (int i = 0; i < assignment.length; i++) {
+            int j = assignment[i];
+            if (j < 0) continue;
+            assertFalse(used[j], "column assigned twice");
+            assertFalse(Double.isInfinite(cost[i][j]), "forbidden pair assigned");
+            used[j] = true;
+        }
+    }
+
+    private static int assigned(int[] assignment) {
+        int count = 0;
+        for (int j : assignment) {
+            if (j >= 0) count++;
+        }
+        return count;
+    }
+
+    private static double total(double[][] cost, int[] assignment) {
+        double sum = 0;
+        for (int i = 0; i < assignment.length; i++) {
+            if (assignment[i] >= 0) sum += cost[i][assignment[i]];
+        }
+        return sum;
+    }
+
+    // {most rows assigned, lowest cost among those} for rows from..end
+    private static double[] bruteForce(double[][] cost, int row, boolean[] used) {
+        if (row == cost.length) return new double[]{0, 0};
+        double[] best = bruteForce(cost, row + 1, used); // leave the row unassigned
+        for (int j = 0; j < used.length; j++) {
+            if (used[j] || Double.isInfinite(cost[row][j])) continue;
+            used[j] = true;
+            double[] rest = bruteForce(cost, row + 1, used);
+            used[j] = false;
+            double count = rest[0] + 1;
+            double sum = rest[1] + cost[row][j];
+            if (count > best[0] || (count == best[0] && sum < best[1] - 1e-9)) {
+                best = new double[]{count, sum};
+            }
+        }
+        return best;
+    }
+}
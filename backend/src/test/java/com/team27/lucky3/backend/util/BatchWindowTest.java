@@ -0,0 +1,77 @@
+package com.team27.lucky3.backend.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchWindowTest {
+
+    @Test
+    @DisplayName("items submitted within one window are processed together and get their own result")
+    void concurrentSubmits_shareOneBatch() throws Exception {
+        List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+        BatchWindow<Integer, String> window = new BatchWindow<>(Duration.ofMillis(300), items -> {
+            batches.add(items);
+            return items.stream().map(i -> "r" + i).toList();
+        });
+
+        List<Future<String>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 5; i++) {
+                int item = i;
+                results.add(executor.submit(() -> window.submit(item)));
+            }
+            for (int i = 0; i < 5; i++) {
+                assertEquals("r" + i, results.get(i).get(5, TimeUnit.SECONDS));
+            }
+        }
+
+        assertEquals(1, batches.size());
+        assertEquals(5, batches.get(0).size());
+    }
+
+    @Test
+    @DisplayName("a new window opens once the previous batch was taken")
+    void sequentialSubmits_separateBatches() {
+        List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+        BatchWindow<Integer, Integer> window = new BatchWindow<>(Duration.ofMillis(1), items -> {
+            batches.add(items);
+            return items;
+        });
+
+        assertEquals(1, window.submit(1));
+        assertEquals(2, window.submit(2));
+        assertEquals(List.of(List.of(1), List.of(2)), batches);
+    }
+
+    @Test
+    @DisplayName("every caller of a failed batch receives its exception")
+    void failure_propagatedToAllCallers() throws Exception {
+        BatchWindow<Integer, Integer> window = new BatchWindow<>(Duration.ofMillis(200), items -> {
+            throw new IllegalStateException("matching failed");
+        });
+
+        List<Future<Integer>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 3; i++) {
+                int item = i;
+                results.add(executor.submit(() -> window.submit(item)));
+            }
+            for (Future<Integer> result : results) {
+                ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(IllegalStateException.class, e.getCause());
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.team27.lucky3.backend.util;
+
+import com.team27.lucky3.backend.entity.Location;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoUtilsTest {
+
+    private static final double NOVI_SAD_LAT = 45.2671;
+    private static final double NOVI_SAD_LON = 19.8335;
+    private static final double BELGRADE_LAT = 44.7866;
+    private static final double BELGRADE_LON = 20.4489;
+
+    @Test
+    @DisplayName("same point is zero distance")
+    void samePoint_isZero() {
+        assertEquals(0.0, GeoUtils.haversineKm(NOVI_SAD_LAT, NOVI_SAD_LON, NOVI_SAD_LAT, NOVI_SAD_LON));
+    }
+
+    @Test
+    @DisplayName("Novi Sad to Belgrade is about 72 km, in both directions")
+    void knownDistance_symmetric() {
+        double there = GeoUtils.haversineKm(NOVI_SAD_LAT, NOVI_SAD_LON, BELGRADE_LAT, BELGRADE_LON);
+        double back = GeoUtils.haversineKm(BELGRADE_LAT, BELGRADE_LON, NOVI_SAD_LAT, NOVI_SAD_LON);
+
+        assertEquals(72.0, there, 1.0);
+        assertEquals(there, back, 1e-12);
+    }
+
+    @Test
+    @DisplayName("antipodal points are half the circumference apart")
+    void antipodal_isHalfCircumference() {
+        double d = GeoUtils.haversineKm(NOVI_SAD_LAT, NOVI_SAD_LON, -NOVI_SAD_LAT, NOVI_SAD_LON - 180);
+
+        assertEquals(Math.PI * GeoUtils.EARTH_RADIUS_KM, d, 1e-6);
+    }
+
+    @Test
+    @DisplayName("meters variant is the km variant times 1000")
+    void meters_matchesKm() {
+        double km = GeoUtils.haversineKm(NOVI_SAD_LAT, NOVI_SAD_LON, 45.25, 19.85);
+        double m = GeoUtils.haversineMeters(NOVI_SAD_LAT, NOVI_SAD_LON, 45.25, 19.85);
+
+        assertEquals(km * 1000, m, 1e-9);
+    }
+
+    @Test
+    @DisplayName("location overload returns 0 when a location is missing")
+    void locations_nullIsZero() {
+        Location loc = new Location("Novi Sad", NOVI_SAD_LAT, NOVI_SAD_LON);
+
+        assertEquals(0.0, GeoUtils.haversineKm(loc, null));
+        assertEquals(0.0, GeoUtils.haversineKm(null, loc));
+        assertEquals(GeoUtils.haversineKm(NOVI_SAD_LAT, NOVI_SAD_LON, BELGRADE_LAT, BELGRADE_LON),
+                GeoUtils.haversineKm(loc, new Location("Belgrade", BELGRADE_LAT, BELGRADE_LON)));
+    }
+
+    @Test
+    @DisplayName("gridCell groups nearby points and separates distant or mirrored ones")
+    void gridCell_snapsToGrid() {
+        double grid = 0.0005;
+        long cell = GeoUtils.gridCell(45.2671, 19.8335, grid);
+
+        assertEquals(cell, GeoUtils.gridCell(45.26712, 19.83348, grid));
+        assertNotEquals(cell, GeoUtils.gridCell(45.2681, 19.8335, grid));
+        assertNotEquals(cell, GeoUtils.gridCell(45.2671, 19.8345, grid));
+        assertNotEquals(GeoUtils.gridCell(-45.2671, -19.8335, grid), GeoUtils.gridCell(-45.2671, 19.8335, grid));
+    }
+
+    @Test
+    @DisplayName("matches the atan2 formula it replaced")
+    void matchesPreviousImplementation() {
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            double lat1 = random.nextDouble() * 180 - 90;
+            double lon1 = random.nextDouble() * 360 - 180;
+            double lat2 = random.nextDouble() * 180 - 90;
+            double lon2 = random.nextDouble() * 360 - 180;
+
+            assertEquals(legacyHaversineKm(lat1, lon1, lat2, lon2), GeoUtils.haversineKm(lat1, lon1, lat2, lon2), 1e-6);
+        }
+    }
+
+    private static double legacyHaversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double latDistance = Math.toRadians(lat2 - lat1);
+        double lonDistance = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
+        return 6371 * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+}
@@ -0,0 +1,88 @@
+package com.team27.lucky3.backend.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaseManagerTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+
+    // 1.6 s leases, expiry timers in ticks of 100 ms
+    private final LeaseManager<Long> leases = new LeaseManager<>(Duration.ofMillis(1600), now::get);
+
+    private void elapse(Duration duration) {
+        now.addAndGet(duration.toNanos());
+    }
+
+    @Test
+    @DisplayName("a key is leased to one owner at a time; acquiring again renews")
+    void acquire_isExclusive() {
+        assertTrue(leases.acquire(1L, "tab-a"));
+        assertTrue(leases.acquire(1L, "tab-a"));
+        assertFalse(leases.acquire(1L, "tab-b"));
+        assertTrue(leases.acquire(2L, "tab-b"), "other keys are unaffected");
+
+        assertFalse(leases.release(1L, "tab-b"), "not the owner");
+        assertTrue(leases.isHeld(1L));
+        assertTrue(leases.release(1L, new String("tab-a")), "owners are compared with equals");
+        assertFalse(leases.isHeld(1L));
+        assertTrue(leases.acquire(1L, "tab-b"));
+        assertEquals(2, leases.size());
+    }
+
+    @Test
+    @DisplayName("leases end exactly at their deadline and can then be taken over")
+    void isHeld_exactDeadline() {
+        leases.acquire(1L, "tab-a");
+
+        elapse(Duration.ofMillis(1599));
+        assertTrue(leases.isHeld(1L));
+        assertFalse(leases.acquire(1L, "tab-b"));
+        elapse(Duration.ofMillis(1));
+        assertFalse(leases.isHeld(1L));
+        assertFalse(leases.renew(1L, "tab-a"), "an expired lease cannot be renewed");
+
+        assertTrue(leases.acquire(1L, "tab-b"));
+        assertFalse(leases.release(1L, "tab-a"), "a late release must not free the new lease");
+        assertTrue(leases.isHeld(1L));
+    }
+
+    @Test
+    @DisplayName("renewal extends only the holder's lease")
+    void renew_extendsHeldLease() {
+        assertFalse(leases.renew(1L, "tab-a"), "renew never takes a free key");
+        leases.acquire(1L, "tab-a");
+
+        elapse(Duration.ofMillis(1000));
+        assertFalse(leases.renew(1L, "tab-b"));
+        assertTrue(leases.renew(1L, "tab-a"));
+        elapse(Duration.ofMillis(1000));
+
+        assertTrue(leases.isHeld(1L));
+        assertEquals(List.of(), leases.expire(), "the renewed lease's first timer was cancelled");
+    }
+
+    @Test
+    @DisplayName("expire removes abandoned leases once their timer is due")
+    void expire_removesAbandonedLeases() {
+        leases.acquire(1L, "tab-a");
+        leases.acquire(2L, "tab-b");
+        leases.release(2L, "tab-b");
+        elapse(Duration.ofMillis(800));
+        leases.acquire(3L, "tab-c");
+
+        elapse(Duration.ofMillis(800));
+        assertEquals(List.of(1L), leases.expire());
+        assertEquals(1, leases.size());
+
+        elapse(Duration.ofMillis(800));
+        assertEquals(List.of(3L), leases.expire());
+        assertEquals(0, leases.size());
+    }
+}
@@ -0,0 +1,145 @@
+package com.team27.lucky3.backend.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PatrolRouteLibraryTest {
+
+    // Hubs A (45.250, 19.830), B (45.250, 19.840) and C (45.260, 19.840)
+    private static final double[] A_TO_B = {45.2500, 19.8300, 45.2500, 19.8350, 45.2500, 19.8400};
+    private static final double[] B_TO_C = {45.2500, 19.8400, 45.2550, 19.8400, 45.2600, 19.8400};
+    private static final double[] B_TO_A = {45.2500, 19.8400, 45.2500, 19.8300};
+    private static final double[] C_TO_A = {45.2600, 19.8400, 45.2500, 19.8300};
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("written routes are read back through the mapping")
+    void writeAndOpen_roundTrip() throws IOException {
+        Path file = dir.resolve("simulation/patrol-routes.bin");
+
+        PatrolRouteLibrary.write(file, List.of(A_TO_B, B_TO_C, B_TO_A, C_TO_A));
+        PatrolRouteLibrary library = PatrolRouteLibrary.open(file);
+
+        assertEquals(4, library.size());
+        assertArrayEquals(A_TO_B, library.route(0), 1e-6);
+        assertArrayEquals(C_TO_A, library.route(3), 1e-6);
+        assertEquals(16 + 4 * 5 + 8 * 10, Files.size(file), "4 bytes per route offset, 8 per point");
+        try (var files = Files.list(file.getParent())) {
+            assertEquals(1, files.count(), "no temporary file left behind");
+        }
+    }
+
+    @Test
+    @DisplayName("next continues at the end of a route with one of the routes starting there")
+    void next_chainsByNearestStart() throws IOException {
+        Path file = dir.resolve("patrol-routes.bin");
+        PatrolRouteLibrary.write(file, List.of(A_TO_B, B_TO_C, B_TO_A, C_TO_A));
+        PatrolRouteLibrary library = PatrolRouteLibrary.open(file);
+
+        Set<Integer> fromB = new HashSet<>();
+        Random random = new Random(1);
+        for (int i = 0; i < 50; i++) {
+            // A few metres off the hub, as where a vehicle stops
+            fromB.add(library.next(45.25002, 19.84003, random));
+        }
+        assertEquals(Set.of(1, 2), fromB);
+        assertEquals(3, library.next(45.2601, 19.8401, random));
+        assertEquals(0, library.next(45.2400, 19.8200, random), "far from any hub: nearest start");
+    }
+
+    @Test
+    @DisplayName("the same seed gives the same patrol")
+    void next_deterministicWithSeed() throws IOException {
+        Path file = dir.resolve("patrol-routes.bin");
+        PatrolRouteLibrary.write(file, List.of(A_TO_B, B_TO_C, B_TO_A, C_TO_A));
+        PatrolRouteLibrary library = PatrolRouteLibrary.open(file);
+
+        assertEquals(patrol(library, 42), patrol(library, 42));
+    }
+
+    @Test
+    @DisplayName("the grid lookup picks the same route as measuring every start")
+    void next_matchesFullScan() throws IOException {
+        Random layout = new Random(7);
+        List<double[]> routes = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            double lat = 45.22 + layout.nextDouble() * 0.06;
+            double lng = 19.79 + layout.nextDouble() * 0.09;
+            routes.add(new double[]{lat, lng, lat + 0.001, lng + 0.001});
+        }
+        Path file = dir.resolve("patrol-routes.bin");
+        PatrolRouteLibrary.write(file, routes);
+        PatrolRouteLibrary library = PatrolRouteLibrary.open(file);
+
+        Random positions = new Random(11);
+        for (int i = 0; i < 2000; i++) {
+            // Mostly inside the area, some well outside it
+            double lat = 45.0 + positions.nextDouble() * 0.5;
+            double lng = 19.6 + positions.nextDouble() * 0.5;
+            assertEquals(fullScan(library, lat, lng, new Random(i)), library.next(lat, lng, new Random(i)),
+                    "position " + lat + ", " + lng);
+        }
+    }
+
+    @Test
+    @DisplayName("truncated or foreign files and invalid routes are refused")
+    void open_rejectsInvalidFiles() throws IOException {
+        Path foreign = Files.write(dir.resolve("foreign.bin"), new byte[64]);
+        assertThrows(IOException.class, () -> PatrolRouteLibrary.open(foreign));
+
+        Path file = dir.resolve("patrol-routes.bin");
+        PatrolRouteLibrary.write(file, List.of(A_TO_B));
+        byte[] bytes = Files.readAllBytes(file);
+        Path truncated = Files.write(dir.resolve("truncated.bin"), java.util.Arrays.copyOf(bytes, bytes.length - 4));
+        assertThrows(IOException.class, () -> PatrolRouteLibrary.open(truncated));
+
+        assertThrows(IllegalArgumentException.class, () -> PatrolRouteLibrary.write(file, List.of()));
+        assertThrows(IllegalArgumentException.class,
+                () -> PatrolRouteLibrary.write(file, List.of(new double[]{45.25, 19.83})));
+    }
+
+    // The pick next should make, measuring the distance to every route start
+    private static int fullScan(PatrolRouteLibrary library, double lat, double lng, Random random) {
+        double[] distances = new double[library.size()];
+        double nearest = Double.MAX_VALUE;
+        for (int route = 0; route < distances.length; route++) {
+            double[] points = library.route(route);
+            distances[route] = GeoUtils.haversineMeters(lat, lng, points[0], points[1]);
+            nearest = Math.min(nearest, distances[route]);
+        }
+        List<Integer> candidates = new ArrayList<>();
+        for (int route = 0; route < distances.length; route++) {
+            if (distances[route] <= nearest + PatrolRouteLibrary.CHAIN_TOLERANCE_METERS) candidates.add(route);
+        }
+        return candidates.get(random.nextInt(candidates.size()));
+    }
+
+    // Route indexes of a 20-route patrol starting at hub A
+    private static List<Integer> patrol(PatrolRouteLibrary library, long seed) {
+        Random random = new Random(seed);
+        double lat = 45.25;
+        double lng = 19.83;
+        Integer[] routes = new Integer[20];
+        for (int i = 0; i < routes.length; i++) {
+            routes[i] = library.next(lat, lng, random);
+            double[] route = library.route(routes[i]);
+            lat = route[route.length - 2];
+            lng = route[route.length - 1];
+        }
+        return List.of(routes);
+    }
+}
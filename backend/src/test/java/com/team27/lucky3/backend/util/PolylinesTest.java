@@ -0,0 +1,97 @@
+package com.team27.lucky3.backend.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PolylinesTest {
+
+    @Test
+    @DisplayName("encodes the reference example of the polyline format")
+    void encode_referenceExample() {
+        List<double[]> points = List.of(
+                new double[]{38.5, -120.2}, new double[]{40.7, -120.95}, new double[]{43.252, -126.453});
+
+        assertEquals("_p~iF~ps|U_ulLnnqC_mqNvxq`@", Polylines.encode(points));
+    }
+
+    @Test
+    @DisplayName("decoding returns the encoded points to 1e-5 degrees")
+    void decode_roundTrip() {
+        Random random = new Random(39);
+        List<double[]> points = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            points.add(new double[]{45.2 + random.nextDouble() * 0.1, 19.8 + random.nextDouble() * 0.1});
+        }
+
+        List<double[]> decoded = Polylines.decode(Polylines.encode(points));
+
+        assertEquals(points.size(), decoded.size());
+        for (int i = 0; i < points.size(); i++) {
+            assertEquals(points.get(i)[0], decoded.get(i)[0], 0.5e-5);
+            assertEquals(points.get(i)[1], decoded.get(i)[1], 0.5e-5);
+        }
+        assertThrows(IllegalArgumentException.class, () -> Polylines.decode("_p~iF~ps|U_"));
+    }
+
+    @Test
+    @DisplayName("simplification keeps corners and both ends, drops points on straight segments")
+    void simplify_keepsCorners() {
+        List<double[]> points = new ArrayList<>();
+        // East along a street, then north: an L with a corner at index 10
+        for (int i = 0; i <= 10; i++) points.add(new double[]{45.25, 19.83 + i * 0.0005});
+        for (int i = 1; i <= 10; i++) points.add(new double[]{45.25 + i * 0.0005, 19.835});
+
+        assertArrayEquals(new int[]{0, 10, 20}, Polylines.simplify(points, 2.0));
+        assertArrayEquals(new int[]{0}, Polylines.simplify(points.subList(0, 1), 2.0));
+    }
+
+    @Test
+    @DisplayName("every dropped point lies within the tolerance of the simplified line")
+    void simplify_withinTolerance() {
+        Random random = new Random(40);
+        List<double[]> points = new ArrayList<>();
+        double lat = 45.25;
+        double lon = 19.83;
+        for (int i = 0; i < 2000; i++) {
+            lat += (random.nextDouble() - 0.3) * 0.00002;
+            lon += (random.nextDouble() - 0.3) * 0.00002;
+            points.add(new double[]{lat, lon});
+        }
+        double tolerance = Polylines.toleranceMeters(15, lat);
+
+        int[] kept = Polylines.simplify(points, tolerance);
+
+        assertTrue(kept.length < points.size() / 2, "kept " + kept.length);
+        for (int k = 1; k < kept.length; k++) {
+            double[] a = points.get(kept[k - 1]);
+            double[] b = points.get(kept[k]);
+            for (int i = kept[k - 1] + 1; i < kept[k]; i++) {
+                assertTrue(distanceToSegmentMeters(points.get(i), a, b) <= tolerance + 0.01);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("tolerance is one map pixel and halves with every zoom level")
+    void toleranceMeters_perZoom() {
+        assertEquals(156_543.034, Polylines.toleranceMeters(0, 0), 1e-3);
+        assertEquals(Polylines.toleranceMeters(14, 45.25) / 2, Polylines.toleranceMeters(15, 45.25), 1e-9);
+    }
+
+    // Reference distance via haversine on a finely sampled segment
+    private static double distanceToSegmentMeters(double[] p, double[] a, double[] b) {
+        double best = Double.MAX_VALUE;
+        for (int s = 0; s <= 1000; s++) {
+            double t = s / 1000.0;
+            best = Math.min(best, GeoUtils.haversineMeters(p[0], p[1],
+                    a[0] + t * (b[0] - a[0]), a[1] + t * (b[1] - a[1])));
+        }
+        return best;
+    }
+}
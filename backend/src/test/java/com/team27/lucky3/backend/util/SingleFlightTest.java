@@ -0,0 +1,127 @@
+package com.team27.lucky3.backend.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    @Test
+    @DisplayName("concurrent callers with the same key share one computation")
+    void sameKey_computedOnce() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<Integer>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> flight.execute("route", () -> {
+                    computations.incrementAndGet();
+                    await(release);
+                    return 42;
+                })));
+            }
+            waitForRequests(flight, CALLERS);
+            release.countDown();
+
+            for (Future<Integer> result : results) {
+                assertEquals(42, result.get(5, TimeUnit.SECONDS));
+            }
+        }
+
+        assertEquals(1, computations.get());
+        assertEquals(CALLERS, flight.requests());
+        assertEquals(1, flight.executions());
+    }
+
+    @Test
+    @DisplayName("every waiting caller receives the computation's exception")
+    void failure_propagatedToAllCallers() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<Integer>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> flight.execute("route", () -> {
+                    await(release);
+                    throw new IllegalStateException("OSRM down");
+                })));
+            }
+            waitForRequests(flight, CALLERS);
+            release.countDown();
+
+            for (Future<Integer> result : results) {
+                Throwable cause = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS)).getCause();
+                assertInstanceOf(IllegalStateException.class, cause);
+                assertEquals("OSRM down", cause.getMessage());
+            }
+        }
+        assertEquals(1, flight.executions());
+    }
+
+    @Test
+    @DisplayName("results are not cached once the computation finishes")
+    void sequentialCalls_recompute() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        AtomicInteger computations = new AtomicInteger();
+
+        assertEquals(1, flight.execute("route", computations::incrementAndGet));
+        assertEquals(2, flight.execute("route", computations::incrementAndGet));
+        assertThrows(IllegalStateException.class, () -> flight.execute("route", () -> {
+            throw new IllegalStateException();
+        }));
+        assertEquals(3, flight.execute("route", computations::incrementAndGet));
+        assertEquals(4, flight.executions());
+    }
+
+    @Test
+    @DisplayName("metrics expose requests, executions and in-flight keys per flight")
+    void bindTo_registersMeters() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        flight.bindTo(registry, "estimate.route");
+
+        flight.execute("a", () -> 1);
+        flight.execute("b", () -> 2);
+
+        assertEquals(2, registry.get("lucky3.singleflight.requests").tag("flight", "estimate.route")
+                .functionCounter().count());
+        assertEquals(2, registry.get("lucky3.singleflight.executions").tag("flight", "estimate.route")
+                .functionCounter().count());
+        assertEquals(0, registry.get("lucky3.singleflight.in_flight").tag("flight", "estimate.route")
+                .gauge().value());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // requests() is counted after a caller has joined or started a flight
+    private static void waitForRequests(SingleFlight<?, ?> flight, int n) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (flight.requests() < n && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(n, flight.requests());
+    }
+}
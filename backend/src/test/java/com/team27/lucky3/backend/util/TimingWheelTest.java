@@ -0,0 +1,115 @@
+package com.team27.lucky3.backend.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    private static final long TICK = Duration.ofMillis(100).toNanos();
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+
+    private TimingWheel<String> wheel(int slots) {
+        return new TimingWheel<>(Duration.ofMillis(100), slots, now::get);
+    }
+
+    private void elapse(Duration duration) {
+        now.addAndGet(duration.toNanos());
+    }
+
+    @Test
+    @DisplayName("timeouts fire once their delay has passed, never early")
+    void advance_firesDueTimeouts() {
+        TimingWheel<String> wheel = wheel(8);
+        wheel.schedule("a", Duration.ofMillis(250));
+        wheel.schedule("b", Duration.ofMillis(500));
+
+        elapse(Duration.ofMillis(200));
+        assertEquals(List.of(), wheel.advance());
+        elapse(Duration.ofMillis(100));
+        assertEquals(List.of("a"), wheel.advance());
+        elapse(Duration.ofMillis(200));
+        assertEquals(List.of("b"), wheel.advance());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("cancelled timeouts never fire and cancelling twice is a no-op")
+    void cancel_removesTimeout() {
+        TimingWheel<String> wheel = wheel(8);
+        TimingWheel<String>.Timeout a = wheel.schedule("a", Duration.ofMillis(100));
+        wheel.schedule("b", Duration.ofMillis(100));
+
+        assertTrue(a.cancel());
+        assertFalse(a.cancel());
+        elapse(Duration.ofMillis(100));
+
+        assertEquals(List.of("b"), wheel.advance());
+        assertFalse(a.cancel());
+    }
+
+    @Test
+    @DisplayName("timeouts further away than one rotation wait for their round")
+    void longDelays_waitForTheirRotation() {
+        TimingWheel<String> wheel = wheel(4);
+        wheel.schedule("far", Duration.ofMillis(1000)); // 10 ticks on a 4-slot wheel
+        wheel.schedule("near", Duration.ofMillis(200)); // same slot as "far"
+
+        List<String> fired = new ArrayList<>();
+        for (int tick = 1; tick <= 9; tick++) {
+            now.addAndGet(TICK);
+            fired.addAll(wheel.advance());
+        }
+        assertEquals(List.of("near"), fired);
+
+        now.addAndGet(TICK);
+        assertEquals(List.of("far"), wheel.advance());
+    }
+
+    @Test
+    @DisplayName("an owner that falls behind by many rotations still fires everything due")
+    void advance_afterLongPause() {
+        TimingWheel<String> wheel = wheel(4);
+        wheel.schedule("a", Duration.ofMillis(100));
+        wheel.schedule("b", Duration.ofMillis(700));
+        wheel.schedule("later", Duration.ofSeconds(60));
+
+        elapse(Duration.ofSeconds(5));
+
+        List<String> fired = wheel.advance();
+        assertEquals(2, fired.size());
+        assertTrue(fired.containsAll(List.of("a", "b")));
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    @DisplayName("thousands of outstanding timeouts, most cancelled before they fire")
+    void manyTimeouts_scheduleAndCancel() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(Duration.ofMillis(100), 512, now::get);
+        List<TimingWheel<Integer>.Timeout> timeouts = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            timeouts.add(wheel.schedule(i, Duration.ofMillis(100 + (i % 300) * 100)));
+        }
+        for (int i = 0; i < timeouts.size(); i++) {
+            if (i % 10 != 0) assertTrue(timeouts.get(i).cancel());
+        }
+        assertEquals(1_000, wheel.size());
+
+        List<Integer> fired = new ArrayList<>();
+        for (int tick = 0; tick < 300; tick++) {
+            now.addAndGet(TICK);
+            fired.addAll(wheel.advance());
+        }
+
+        assertEquals(1_000, fired.size());
+        assertTrue(fired.stream().allMatch(i -> i % 10 == 0));
+        assertEquals(0, wheel.size());
+    }
+}
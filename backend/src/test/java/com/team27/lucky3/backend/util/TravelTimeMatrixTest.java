@@ -0,0 +1,75 @@
+package com.team27.lucky3.backend.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TravelTimeMatrixTest {
+
+    // 2 x 3 cells of 0.01 degrees
+    private static final TravelTimeMatrix.Grid GRID = new TravelTimeMatrix.Grid(45.0, 19.0, 0.01, 0.01, 2, 3);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("grid cells are row-major from the south-west corner")
+    void grid_cellOfAndCenters() {
+        assertEquals(0, GRID.cellOf(45.001, 19.001));
+        assertEquals(5, GRID.cellOf(45.019, 19.029));
+        assertEquals(-1, GRID.cellOf(44.999, 19.001));
+        assertEquals(-1, GRID.cellOf(45.001, 19.031));
+        assertEquals(45.015, GRID.centerLat(4), 1e-9);
+        assertEquals(19.015, GRID.centerLon(4), 1e-9);
+
+        TravelTimeMatrix.Grid covering = TravelTimeMatrix.Grid.covering(45.0, 45.055, 19.0, 19.09, 0.0025, 0.0035);
+        assertEquals(22, covering.rows());
+        assertEquals(26, covering.cols());
+    }
+
+    @Test
+    @DisplayName("written travel times are read back through the mapping")
+    void writeAndOpen_roundTrip() throws IOException {
+        char[] seconds = new char[36];
+        for (int from = 0; from < 6; from++) {
+            for (int to = 0; to < 6; to++) {
+                seconds[from * 6 + to] = (char) (100 * from + to);
+            }
+        }
+        seconds[1 * 6 + 2] = TravelTimeMatrix.NO_ROUTE;
+        Path file = dir.resolve("matrix/travel-times.bin");
+
+        TravelTimeMatrix.write(file, GRID, seconds);
+        TravelTimeMatrix matrix = TravelTimeMatrix.open(file);
+
+        assertEquals(GRID, matrix.grid());
+        // cell 3 -> cell 5
+        assertEquals(305, matrix.seconds(45.011, 19.001, 45.011, 19.021));
+        assertEquals(-1, matrix.seconds(45.001, 19.011, 45.001, 19.021), "no route");
+        assertEquals(-1, matrix.seconds(45.001, 19.001, 45.002, 19.002), "same cell");
+        assertEquals(-1, matrix.seconds(46.0, 19.001, 45.001, 19.021), "outside the grid");
+        try (var files = Files.list(file.getParent())) {
+            assertEquals(1, files.count(), "no temporary file left behind");
+        }
+    }
+
+    @Test
+    @DisplayName("truncated or foreign files are refused")
+    void open_rejectsInvalidFiles() throws IOException {
+        Path foreign = Files.write(dir.resolve("foreign.bin"), new byte[64]);
+        assertThrows(IOException.class, () -> TravelTimeMatrix.open(foreign));
+
+        Path file = dir.resolve("travel-times.bin");
+        TravelTimeMatrix.write(file, GRID, new char[36]);
+        byte[] bytes = Files.readAllBytes(file);
+        Path truncated = Files.write(dir.resolve("truncated.bin"), java.util.Arrays.copyOf(bytes, bytes.length - 2));
+        assertThrows(IOException.class, () -> TravelTimeMatrix.open(truncated));
+        assertThrows(IllegalArgumentException.class, () -> TravelTimeMatrix.write(file, GRID, new char[35]));
+    }
+}
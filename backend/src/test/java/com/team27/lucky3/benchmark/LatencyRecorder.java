@@ -0,0 +1,64 @@
+package com.team27.lucky3.benchmark;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects raw per-endpoint latencies. Samples are kept in full (a few hundred thousand
+ * longs for a typical run) so percentiles are exact rather than bucketed.
+ */
+class LatencyRecorder {
+
+    private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+
+    void record(String endpoint, long nanos, boolean success) {
+        samples.computeIfAbsent(endpoint, k -> new Samples()).add(nanos, success);
+    }
+
+    void reset() {
+        samples.clear();
+    }
+
+    /**
+     * Summarises every endpoint, sorted by name.
+     */
+    Map<String, EndpointStats> summarize(double elapsedSeconds) {
+        Map<String, EndpointStats> result = new TreeMap<>();
+        samples.forEach((endpoint, s) -> result.put(endpoint, s.summarize(elapsedSeconds)));
+        return result;
+    }
+
+    record EndpointStats(long count, long errors, double throughputPerSecond,
+                         double p50Millis, double p99Millis, double p999Millis, double maxMillis) {
+    }
+
+    private static class Samples {
+        private long[] nanos = new long[4096];
+        private int size;
+        private long errors;
+
+        synchronized void add(long value, boolean success) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = value;
+            if (!success) errors++;
+        }
+
+        synchronized EndpointStats summarize(double elapsedSeconds) {
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            return new EndpointStats(size, errors, size / elapsedSeconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                    size == 0 ? 0 : sorted[size - 1] / 1e6);
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) return 0;
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.team27.lucky3.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Prints a load test result and stores it as JSON, so runs of different builds can be compared.
+ * Each run is compared against the most recent earlier result in the same directory.
+ */
+class LoadTestReport {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    String format(Map<String, LatencyRecorder.EndpointStats> stats) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-12s %9s %7s %10s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "ops/s", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        stats.forEach((endpoint, s) -> sb.append(String.format("%-12s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                endpoint, s.count(), s.errors(), s.throughputPerSecond(),
+                s.p50Millis(), s.p99Millis(), s.p999Millis(), s.maxMillis())));
+        return sb.toString();
+    }
+
+    /**
+     * Writes the result to {@code <resultsDir>/<timestamp>-<label>.json} and returns a comparison
+     * against the previous result, if there is one.
+     */
+    String store(LoadTestSettings settings, Map<String, LatencyRecorder.EndpointStats> stats) throws IOException {
+        Files.createDirectories(settings.resultsDir());
+        Optional<Path> previous = latestResult(settings.resultsDir());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("label", settings.label());
+        result.put("timestamp", LocalDateTime.now().toString());
+        result.put("settings", settings.toString());
+        result.put("endpoints", stats);
+        Path file = settings.resultsDir().resolve(
+                LocalDateTime.now().format(FILE_TIMESTAMP) + "-" + settings.label() + ".json");
+        objectMapper.writeValue(file.toFile(), result);
+
+        StringBuilder sb = new StringBuilder("Stored results in ").append(file.toAbsolutePath()).append('\n');
+        if (previous.isPresent()) {
+            sb.append(compare(previous.get(), stats));
+        }
+        return sb.toString();
+    }
+
+    private String compare(Path previousFile, Map<String, LatencyRecorder.EndpointStats> stats) throws IOException {
+        JsonNode previous = objectMapper.readTree(previousFile.toFile()).path("endpoints");
+        StringBuilder sb = new StringBuilder("Compared with ").append(previousFile.getFileName()).append(":\n");
+        sb.append(String.format("%-12s %12s %12s %12s%n", "endpoint", "ops/s", "p99", "p999"));
+        stats.forEach((endpoint, s) -> {
+            JsonNode before = previous.path(endpoint);
+            if (before.isMissingNode()) return;
+            sb.append(String.format("%-12s %12s %12s %12s%n", endpoint,
+                    delta(before.path("throughputPerSecond").asDouble(), s.throughputPerSecond()),
+                    delta(before.path("p99Millis").asDouble(), s.p99Millis()),
+                    delta(before.path("p999Millis").asDouble(), s.p999Millis())));
+        });
+        return sb.toString();
+    }
+
+    private static String delta(double before, double after) {
+        if (before == 0) return "n/a";
+        return String.format("%+.1f%%", (after - before) / before * 100);
+    }
+
+    private static Optional<Path> latestResult(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".json"))
+                    .max(Comparator.comparing(p -> p.getFileName().toString()));
+        }
+    }
+}
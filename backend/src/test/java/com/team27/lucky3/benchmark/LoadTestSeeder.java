@@ -0,0 +1,96 @@
+package com.team27.lucky3.benchmark;
+
+import com.team27.lucky3.backend.entity.DriverActivitySession;
+import com.team27.lucky3.backend.entity.Location;
+import com.team27.lucky3.backend.entity.User;
+import com.team27.lucky3.backend.entity.Vehicle;
+import com.team27.lucky3.backend.entity.enums.UserRole;
+import com.team27.lucky3.backend.entity.enums.VehicleStatus;
+import com.team27.lucky3.backend.entity.enums.VehicleType;
+import com.team27.lucky3.backend.repository.DriverActivitySessionRepository;
+import com.team27.lucky3.backend.repository.UserRepository;
+import com.team27.lucky3.backend.repository.VehicleRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeds the load test fleet on top of what {@code DataInitializer} already created:
+ * N online drivers, each with a free STANDARD vehicle somewhere in Novi Sad and an open
+ * activity session, and M passengers.
+ */
+class LoadTestSeeder {
+
+    // Novi Sad bounding box, same as the patrol simulation
+    static final double LAT_MIN = 45.225;
+    static final double LAT_MAX = 45.280;
+    static final double LNG_MIN = 19.790;
+    static final double LNG_MAX = 19.880;
+
+    private final UserRepository userRepository;
+    private final VehicleRepository vehicleRepository;
+    private final DriverActivitySessionRepository sessionRepository;
+    private final Random random = new Random(27);
+
+    LoadTestSeeder(UserRepository userRepository, VehicleRepository vehicleRepository,
+                   DriverActivitySessionRepository sessionRepository) {
+        this.userRepository = userRepository;
+        this.vehicleRepository = vehicleRepository;
+        this.sessionRepository = sessionRepository;
+    }
+
+    record Fleet(List<User> drivers, List<Vehicle> vehicles, List<User> passengers) {
+    }
+
+    Fleet seed(int driverCount, int passengerCount) {
+        List<User> drivers = new ArrayList<>();
+        List<Vehicle> vehicles = new ArrayList<>();
+        for (int i = 0; i < driverCount; i++) {
+            User driver = user("load-driver" + i + "@example.com", UserRole.DRIVER);
+            driver.setActive(true);
+            driver = userRepository.save(driver);
+            drivers.add(driver);
+
+            Vehicle vehicle = new Vehicle();
+            vehicle.setDriver(driver);
+            vehicle.setVehicleType(VehicleType.STANDARD);
+            vehicle.setModel("Skoda Octavia");
+            vehicle.setLicensePlates("NS-LT-" + i);
+            vehicle.setSeatCount(4);
+            vehicle.setStatus(VehicleStatus.FREE);
+            vehicle.setCurrentLocation(randomLocation("Load test start"));
+            vehicles.add(vehicleRepository.save(vehicle));
+
+            DriverActivitySession session = new DriverActivitySession();
+            session.setDriver(driver);
+            session.setStartTime(LocalDateTime.now().minusHours(1));
+            sessionRepository.save(session);
+        }
+
+        List<User> passengers = new ArrayList<>();
+        for (int i = 0; i < passengerCount; i++) {
+            passengers.add(userRepository.save(user("load-passenger" + i + "@example.com", UserRole.PASSENGER)));
+        }
+        return new Fleet(drivers, vehicles, passengers);
+    }
+
+    Location randomLocation(String address) {
+        return new Location(address,
+                LAT_MIN + random.nextDouble() * (LAT_MAX - LAT_MIN),
+                LNG_MIN + random.nextDouble() * (LNG_MAX - LNG_MIN));
+    }
+
+    private User user(String email, UserRole role) {
+        User user = new User();
+        user.setName("Load");
+        user.setSurname(role.name());
+        user.setEmail(email);
+        // Requests authenticate with pre-issued JWTs, so the password is never checked
+        user.setPassword("{noop}load-test");
+        user.setRole(role);
+        user.setEnabled(true);
+        return user;
+    }
+}
@@ -0,0 +1,66 @@
+package com.team27.lucky3.benchmark;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load test knobs, read from system properties so they can be passed on the Maven command line:
+ * <pre>
+ * mvn test -Pload-test -Dload.drivers=100 -Dload.passengers=500 -Dload.durationSeconds=60 \
+ *     -Dload.mix=estimate=50,ride=20,location=30
+ * </pre>
+ * To compare thread models against a slow downstream, run the same settings twice with
+ * {@code -Dload.routingDelayMillis=200 -Dload.threads=400} and
+ * {@code -Dspring.threads.virtual.enabled=false|true}.
+ */
+record LoadTestSettings(
+        int drivers,
+        int passengers,
+        int threads,
+        int warmupSeconds,
+        int durationSeconds,
+        int locationUpdatesPerRide,
+        int routingDelayMillis,
+        boolean virtualThreads,
+        Map<String, Integer> mix,
+        Path resultsDir,
+        String label
+) {
+
+    static final String ESTIMATE = "estimate";
+    static final String RIDE = "ride";
+    static final String LOCATION = "location";
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Integer.getInteger("load.drivers", 50),
+                Integer.getInteger("load.passengers", 200),
+                Integer.getInteger("load.threads", 16),
+                Integer.getInteger("load.warmupSeconds", 5),
+                Integer.getInteger("load.durationSeconds", 30),
+                Integer.getInteger("load.locationUpdatesPerRide", 5),
+                Integer.getInteger("load.routingDelayMillis", 0),
+                Boolean.getBoolean("spring.threads.virtual.enabled"),
+                parseMix(System.getProperty("load.mix", "estimate=50,ride=20,location=30")),
+                Path.of(System.getProperty("load.resultsDir", "load-test-results")),
+                System.getProperty("load.label", "local")
+        );
+    }
+
+    private static Map<String, Integer> parseMix(String spec) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split("=");
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Invalid load.mix entry: " + part);
+            }
+            String flow = kv[0].trim();
+            if (!flow.equals(ESTIMATE) && !flow.equals(RIDE) && !flow.equals(LOCATION)) {
+                throw new IllegalArgumentException("Unknown flow in load.mix: " + flow);
+            }
+            mix.put(flow, Integer.parseInt(kv[1].trim()));
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,255 @@
+package com.team27.lucky3.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team27.lucky3.backend.BackendApplication;
+import com.team27.lucky3.backend.dto.LocationDto;
+import com.team27.lucky3.backend.dto.request.CreateRideRequest;
+import com.team27.lucky3.backend.dto.request.EndRideRequest;
+import com.team27.lucky3.backend.dto.request.RideRequirements;
+import com.team27.lucky3.backend.entity.Location;
+import com.team27.lucky3.backend.entity.User;
+import com.team27.lucky3.backend.entity.Vehicle;
+import com.team27.lucky3.backend.entity.enums.UserRole;
+import com.team27.lucky3.backend.entity.enums.VehicleType;
+import com.team27.lucky3.backend.repository.DriverActivitySessionRepository;
+import com.team27.lucky3.backend.repository.UserRepository;
+import com.team27.lucky3.backend.repository.VehicleRepository;
+import com.team27.lucky3.backend.service.EmailService;
+import com.team27.lucky3.backend.service.RoutingService;
+import com.team27.lucky3.backend.util.TokenUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end throughput benchmark: drives a configurable mix of estimate, ride lifecycle
+ * (create, accept, start, location updates, end) and standalone location-update flows
+ * against an in-process server over real HTTP, with OSRM replaced by {@link StubRoutingService}.
+ * <p>
+ * Not part of the regular test run. Start it with {@code mvn test -Pload-test};
+ * see {@link LoadTestSettings} for the knobs. Runs against the H2 test database by default;
+ * pass {@code -Dspring.datasource.url=...} (and credentials) to measure against PostgreSQL.
+ */
+@SpringBootTest(classes = {BackendApplication.class, RideFlowLoadTest.StubRoutingConfig.class},
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "logging.level.com.team27.lucky3=WARN")
+@ActiveProfiles("test")
+class RideFlowLoadTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private VehicleRepository vehicleRepository;
+    @Autowired
+    private DriverActivitySessionRepository sessionRepository;
+    @Autowired
+    private TokenUtils tokenUtils;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Review request and linked-passenger emails would otherwise try to reach an SMTP server
+    @MockBean
+    private EmailService emailService;
+
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    private LoadTestSeeder seeder;
+    private final Map<Long, String> driverTokens = new HashMap<>();
+    private final Map<Long, Long> vehicleByDriver = new HashMap<>();
+    private List<Vehicle> vehicles;
+    private List<String> passengerTokens;
+
+    @TestConfiguration
+    static class StubRoutingConfig {
+        @Bean
+        @Primary
+        RoutingService stubRoutingService() {
+            return new StubRoutingService(LoadTestSettings.fromSystemProperties().routingDelayMillis());
+        }
+    }
+
+    @Test
+    void rideFlowThroughput() throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        seed(settings);
+
+        System.out.println("Load test settings: " + settings);
+        runFor(settings, settings.warmupSeconds());
+        recorder.reset();
+
+        long started = System.nanoTime();
+        runFor(settings, settings.durationSeconds());
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+        Map<String, LatencyRecorder.EndpointStats> stats = recorder.summarize(elapsedSeconds);
+        LoadTestReport report = new LoadTestReport();
+        System.out.println(report.format(stats));
+        System.out.println(report.store(settings, stats));
+
+        assertTrue(stats.values().stream().anyMatch(s -> s.count() > s.errors()),
+                "No request succeeded during the load test");
+    }
+
+    private void seed(LoadTestSettings settings) {
+        seeder = new LoadTestSeeder(userRepository, vehicleRepository, sessionRepository);
+        LoadTestSeeder.Fleet fleet = seeder.seed(settings.drivers(), settings.passengers());
+
+        // Every online driver can be picked by the matcher, including the DataInitializer ones
+        for (User user : userRepository.findAll()) {
+            if (user.getRole() == UserRole.DRIVER) {
+                driverTokens.put(user.getId(), tokenUtils.generateToken(user));
+            }
+        }
+        for (Vehicle vehicle : vehicleRepository.findAll()) {
+            if (vehicle.getDriver() != null) {
+                vehicleByDriver.put(vehicle.getDriver().getId(), vehicle.getId());
+            }
+        }
+        vehicles = fleet.vehicles();
+        passengerTokens = fleet.passengers().stream().map(tokenUtils::generateToken).toList();
+    }
+
+    private void runFor(LoadTestSettings settings, int seconds) throws Exception {
+        if (seconds <= 0) return;
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        int totalWeight = settings.mix().values().stream().mapToInt(Integer::intValue).sum();
+
+        ExecutorService workers = Executors.newFixedThreadPool(settings.threads());
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < settings.threads(); t++) {
+            futures.add(workers.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    runFlow(pickFlow(settings.mix(), totalWeight), settings);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        workers.shutdown();
+    }
+
+    private static String pickFlow(Map<String, Integer> mix, int totalWeight) {
+        int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) return entry.getKey();
+        }
+        throw new IllegalStateException("Empty load mix");
+    }
+
+    private void runFlow(String flow, LoadTestSettings settings) {
+        try {
+            switch (flow) {
+                case LoadTestSettings.ESTIMATE -> call("estimate", "POST", "/api/rides/estimate", null, rideRequest());
+                case LoadTestSettings.LOCATION -> {
+                    Vehicle vehicle = vehicles.get(ThreadLocalRandom.current().nextInt(vehicles.size()));
+                    updateLocation(vehicle.getDriver().getId(), vehicle.getId(), seeder.randomLocation("Patrol"));
+                }
+                case LoadTestSettings.RIDE -> rideLifecycle(settings);
+                default -> throw new IllegalArgumentException(flow);
+            }
+        } catch (Exception e) {
+            // Counted as an error by call(); keep the worker running
+        }
+    }
+
+    private void rideLifecycle(LoadTestSettings settings) throws Exception {
+        String passengerToken = passengerTokens.get(ThreadLocalRandom.current().nextInt(passengerTokens.size()));
+        CreateRideRequest request = rideRequest();
+        JsonNode ride = call("create", "POST", "/api/rides", passengerToken, request);
+        if (ride == null || !"PENDING".equals(ride.path("status").asText())) {
+            return; // Rejected: no free driver right now
+        }
+
+        long rideId = ride.path("id").asLong();
+        long driverId = ride.path("driver").path("id").asLong();
+        String driverToken = driverTokens.get(driverId);
+        Long vehicleId = vehicleByDriver.get(driverId);
+        if (driverToken == null || vehicleId == null) return;
+
+        if (call("accept", "PUT", "/api/rides/" + rideId + "/accept", driverToken, null) == null) return;
+        if (call("start", "PUT", "/api/rides/" + rideId + "/start", driverToken, null) == null) return;
+
+        LocationDto from = request.getStart();
+        LocationDto to = request.getDestination();
+        for (int i = 1; i <= settings.locationUpdatesPerRide(); i++) {
+            double f = (double) i / settings.locationUpdatesPerRide();
+            updateLocation(driverId, vehicleId, new Location("En route",
+                    from.getLatitude() + f * (to.getLatitude() - from.getLatitude()),
+                    from.getLongitude() + f * (to.getLongitude() - from.getLongitude())));
+        }
+
+        call("end", "PUT", "/api/rides/" + rideId + "/end", driverToken, new EndRideRequest(true, true));
+    }
+
+    private void updateLocation(Long driverId, Long vehicleId, Location location) throws Exception {
+        call("location", "PUT", "/api/vehicles/" + vehicleId + "/location", driverTokens.get(driverId),
+                new LocationDto(location.getAddress(), location.getLatitude(), location.getLongitude()));
+    }
+
+    private CreateRideRequest rideRequest() {
+        Location start = seeder.randomLocation("Load test pickup");
+        Location end = seeder.randomLocation("Load test drop-off");
+        CreateRideRequest request = new CreateRideRequest();
+        request.setStart(new LocationDto(start.getAddress(), start.getLatitude(), start.getLongitude()));
+        request.setDestination(new LocationDto(end.getAddress(), end.getLatitude(), end.getLongitude()));
+        request.setRequirements(new RideRequirements(VehicleType.STANDARD, false, false));
+        return request;
+    }
+
+    /**
+     * Sends one request and records its latency. Returns the parsed body of a 2xx response, otherwise null.
+     */
+    private JsonNode call(String endpoint, String method, String path, String token, Object body) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .method(method, body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = http.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+            boolean success = response.statusCode() / 100 == 2;
+            recorder.record(endpoint, System.nanoTime() - start, success);
+            if (!success) return null;
+            return response.body().length > 0 ? objectMapper.readTree(response.body()) : objectMapper.nullNode();
+        } catch (Exception e) {
+            recorder.record(endpoint, System.nanoTime() - start, false);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.team27.lucky3.benchmark;
+
+import com.team27.lucky3.backend.dto.LocationDto;
+import com.team27.lucky3.backend.service.RoutingService;
+import com.team27.lucky3.backend.util.GeoUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic in-process replacement for OSRM: straight segments between the waypoints,
+ * densified to roughly one point per 50 m, with a road-detour factor and a city speed.
+ * Keeps the benchmark independent of the public OSRM server and its rate limits.
+ * An optional delay simulates a slow OSRM instance (blocking the calling thread, like the real call).
+ */
+class StubRoutingService implements RoutingService {
+
+    private static final double DETOUR_FACTOR = 1.3;
+    private static final double CITY_SPEED_MPS = 30 / 3.6;
+    private static final double POINT_SPACING_METERS = 50;
+
+    private final long delayMillis;
+
+    StubRoutingService(long delayMillis) {
+        this.delayMillis = delayMillis;
+    }
+
+    @Override
+    public Route route(List<LocationDto> waypoints) {
+        if (delayMillis > 0) {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while routing", e);
+            }
+        }
+        List<double[]> geometry = new ArrayList<>();
+        double meters = 0;
+        for (int i = 0; i < waypoints.size() - 1; i++) {
+            LocationDto a = waypoints.get(i);
+            LocationDto b = waypoints.get(i + 1);
+            double segment = GeoUtils.haversineMeters(a.getLatitude(), a.getLongitude(), b.getLatitude(), b.getLongitude());
+            int steps = Math.max(1, (int) (segment / POINT_SPACING_METERS));
+            for (int s = 0; s < steps; s++) {
+                double f = (double) s / steps;
+                geometry.add(new double[]{
+                        a.getLatitude() + f * (b.getLatitude() - a.getLatitude()),
+                        a.getLongitude() + f * (b.getLongitude() - a.getLongitude())});
+            }
+            meters += segment;
+        }
+        LocationDto last = waypoints.get(waypoints.size() - 1);
+        geometry.add(new double[]{last.getLatitude(), last.getLongitude()});
+
+        double roadMeters = meters * DETOUR_FACTOR;
+        return new Route(roadMeters, roadMeters / CITY_SPEED_MPS, geometry);
+    }
+
+    @Override
+    public double[][] durationTable(List<LocationDto> sources, List<LocationDto> destinations) {
+        double[][] table = new double[sources.size()][destinations.size()];
+        for (int i = 0; i < sources.size(); i++) {
+            for (int j = 0; j < destinations.size(); j++) {
+                LocationDto a = sources.get(i);
+                LocationDto b = destinations.get(j);
+                double meters = GeoUtils.haversineMeters(a.getLatitude(), a.getLongitude(), b.getLatitude(), b.getLongitude());
+                table[i][j] = meters * DETOUR_FACTOR / CITY_SPEED_MPS;
+            }
+        }
+        return table;
+    }
+}
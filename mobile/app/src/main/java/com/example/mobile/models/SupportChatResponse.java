@@ -18,6 +18,7 @@ public class SupportChatResponse {
     private int unreadCount;
     private String createdAt;
     private List<SupportMessageResponse> messages;
+    private boolean hasOlderMessages;
 
     public SupportChatResponse() {}
 
@@ -50,4 +51,8 @@ public class SupportChatResponse {
 
     public List<SupportMessageResponse> getMessages() { return messages; }
     public void setMessages(List<SupportMessageResponse> messages) { this.messages = messages; }
+
+    /** True when {@link #getMessages()} is only the latest page; older ones are fetched with a before cursor. */
+    public boolean hasOlderMessages() { return hasOlderMessages; }
+    public void setHasOlderMessages(boolean hasOlderMessages) { this.hasOlderMessages = hasOlderMessages; }
 }
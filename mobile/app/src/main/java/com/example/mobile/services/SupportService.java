@@ -13,6 +13,7 @@ import retrofit2.http.GET;
 import retrofit2.http.Header;
 import retrofit2.http.POST;
 import retrofit2.http.Path;
+import retrofit2.http.Query;
 
 /**
  * Retrofit service for support chat REST endpoints.
@@ -26,6 +27,13 @@ public interface SupportService {
     @GET("api/support/chat")
     Call<SupportChatResponse> getMyChat(@Header("Authorization") String token);
 
+    /** Page of the current user's messages older than {@code before} (a message id), oldest first. */
+    @GET("api/support/chat/messages")
+    Call<List<SupportMessageResponse>> getMyChatMessages(
+            @Header("Authorization") String token,
+            @Query("before") Long before,
+            @Query("limit") int limit);
+
     /** Send a message as user. */
     @POST("api/support/chat/message")
     Call<SupportMessageResponse> sendUserMessage(
@@ -34,21 +42,30 @@ public interface SupportService {
 
     // ==================== Admin Endpoints ====================
 
-    /** Get all support chats (admin only). */
+    /**
+     * Page of support chats, newest activity first (admin only). For the next page pass the
+     * {@code lastMessageTime} and id of the last chat received; null for the first page.
+     */
     @GET("api/support/admin/chats")
-    Call<List<SupportChatListItemResponse>> getAllChats(@Header("Authorization") String token);
+    Call<List<SupportChatListItemResponse>> getAllChats(
+            @Header("Authorization") String token,
+            @Query("beforeTime") String beforeTime,
+            @Query("beforeId") Long beforeId,
+            @Query("limit") int limit);
 
-    /** Get a specific chat with all messages (admin only). */
+    /** Get a specific chat with its latest messages (admin only). */
     @GET("api/support/admin/chat/{chatId}")
     Call<SupportChatResponse> getChatById(
             @Header("Authorization") String token,
             @Path("chatId") long chatId);
 
-    /** Get messages for a specific chat (admin only). */
+    /** Page of a chat's messages older than {@code before} (a message id), oldest first (admin only). */
     @GET("api/support/admin/chat/{chatId}/messages")
     Call<List<SupportMessageResponse>> getChatMessages(
             @Header("Authorization") String token,
-            @Path("chatId") long chatId);
+            @Path("chatId") long chatId,
+            @Query("before") Long before,
+            @Query("limit") int limit);
 
     /** Send a message as admin to a specific chat. */
     @POST("api/support/admin/chat/{chatId}/message")
@@ -32,6 +32,7 @@ import retrofit2.Response;
 /**
  * Admin view: single chat with a user. Reached from AdminSupportListFragment.
  * Has a back button to return to the conversation list.
+ * Shows the latest messages; older ones are loaded when scrolling to the top.
  * Subscribes via WebSocket for real-time messages.
  */
 public class AdminSupportChatFragment extends Fragment {
@@ -47,6 +48,7 @@ public class AdminSupportChatFragment extends Fragment {
     private TextView tvUserRole;
 
     private ChatMessageAdapter adapter;
+    private MessageHistoryPager historyPager;
     private SharedPreferencesManager prefs;
 
     private long chatId;
@@ -68,6 +70,8 @@ public class AdminSupportChatFragment extends Fragment {
         prefs = new SharedPreferencesManager(requireContext());
         adapter = new ChatMessageAdapter(requireContext(), true); // admin mode
         lvMessages.setAdapter(adapter);
+        historyPager = new MessageHistoryPager(lvMessages, adapter,
+                (beforeId, limit) -> ClientUtils.supportService.getChatMessages(getAuthToken(), chatId, beforeId, limit));
 
         // Parse arguments
         Bundle args = getArguments();
@@ -99,6 +103,7 @@ public class AdminSupportChatFragment extends Fragment {
     public void onDestroyView() {
         super.onDestroyView();
         unsubscribeWebSocket();
+        historyPager.cancel();
     }
 
     // ====================== REST ======================
@@ -124,6 +129,7 @@ public class AdminSupportChatFragment extends Fragment {
                         adapter.setMessages(messages);
                         scrollToBottom();
                     }
+                    historyPager.reset(chat.hasOlderMessages());
 
                     // Mark as read
                     markAsRead();
@@ -5,6 +5,7 @@ import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.AbsListView;
 import android.widget.ListView;
 import android.widget.ProgressBar;
 import android.widget.TextView;
@@ -33,12 +34,16 @@ import com.example.mobile.utils.NavbarHelper;
 
 /**
  * Admin view: list of all support conversations.
+ * Loads the list a page at a time, fetching the next page when scrolled near the end.
  * Subscribes via WebSocket for real-time chat list updates and new messages.
  * Tapping a conversation navigates to AdminSupportChatFragment.
  */
 public class AdminSupportListFragment extends Fragment {
 
     private static final String TAG = "AdminSupportList";
+    private static final int PAGE_SIZE = 50;
+    // Start loading the next page this many rows before the end of the list
+    private static final int LOAD_MORE_THRESHOLD = 5;
 
     private ListView lvChats;
     private ProgressBar progressBar;
@@ -51,6 +56,11 @@ public class AdminSupportListFragment extends Fragment {
     private String chatListSubId;
     private String adminMsgSubId;
 
+    // Last chat of the last page received; the cursor for the next page
+    private SupportChatListItemResponse lastPageChat;
+    private boolean hasMoreChats;
+    private Call<List<SupportChatListItemResponse>> pendingPage;
+
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater,
                              ViewGroup container, Bundle savedInstanceState) {
@@ -82,6 +92,20 @@ public class AdminSupportListFragment extends Fragment {
             nav.navigate(R.id.action_admin_support_list_to_chat, args);
         });
 
+        lvChats.setOnScrollListener(new AbsListView.OnScrollListener() {
+            @Override
+            public void onScrollStateChanged(AbsListView view, int scrollState) {}
+
+            @Override
+            public void onScroll(AbsListView view, int firstVisibleItem,
+                                 int visibleItemCount, int totalItemCount) {
+                if (totalItemCount > 0
+                        && firstVisibleItem + visibleItemCount >= totalItemCount - LOAD_MORE_THRESHOLD) {
+                    loadMoreChats();
+                }
+            }
+        });
+
         loadChats();
         return root;
     }
@@ -99,6 +123,10 @@ public class AdminSupportListFragment extends Fragment {
     public void onDestroyView() {
         super.onDestroyView();
         unsubscribeWebSocket();
+        if (pendingPage != null) {
+            pendingPage.cancel();
+            pendingPage = null;
+        }
     }
 
     // ====================== REST ======================
@@ -111,7 +139,7 @@ public class AdminSupportListFragment extends Fragment {
             return;
         }
 
-        ClientUtils.supportService.getAllChats(token).enqueue(new Callback<List<SupportChatListItemResponse>>() {
+        ClientUtils.supportService.getAllChats(token, null, null, PAGE_SIZE).enqueue(new Callback<List<SupportChatListItemResponse>>() {
             @Override
             public void onResponse(@NonNull Call<List<SupportChatListItemResponse>> call,
                                    @NonNull Response<List<SupportChatListItemResponse>> response) {
@@ -119,6 +147,7 @@ public class AdminSupportListFragment extends Fragment {
                 if (response.isSuccessful() && response.body() != null) {
                     List<SupportChatListItemResponse> chats = response.body();
                     adapter.setChats(chats);
+                    setPageCursor(chats);
                     if (chats.isEmpty()) showEmpty(); else showList();
                     subscribeWebSocket();
                 } else {
@@ -138,7 +167,12 @@ public class AdminSupportListFragment extends Fragment {
         String token = getAuthToken();
         if (token == null) return;
 
-        ClientUtils.supportService.getAllChats(token).enqueue(new Callback<List<SupportChatListItemResponse>>() {
+        // Starts over at the first page; further pages load again on scroll
+        if (pendingPage != null) {
+            pendingPage.cancel();
+            pendingPage = null;
+        }
+        ClientUtils.supportService.getAllChats(token, null, null, PAGE_SIZE).enqueue(new Callback<List<SupportChatListItemResponse>>() {
             @Override
             public void onResponse(@NonNull Call<List<SupportChatListItemResponse>> call,
                                    @NonNull Response<List<SupportChatListItemResponse>> response) {
@@ -146,6 +180,7 @@ public class AdminSupportListFragment extends Fragment {
                 if (response.isSuccessful() && response.body() != null) {
                     List<SupportChatListItemResponse> chats = response.body();
                     adapter.setChats(chats);
+                    setPageCursor(chats);
                     if (chats.isEmpty()) showEmpty(); else showList();
                 }
             }
@@ -157,6 +192,43 @@ public class AdminSupportListFragment extends Fragment {
         });
     }
 
+    private void loadMoreChats() {
+        if (!hasMoreChats || pendingPage != null || lastPageChat == null) return;
+        String token = getAuthToken();
+        if (token == null) return;
+
+        pendingPage = ClientUtils.supportService.getAllChats(token,
+                lastPageChat.getLastMessageTime(), lastPageChat.getId(), PAGE_SIZE);
+        pendingPage.enqueue(new Callback<List<SupportChatListItemResponse>>() {
+            @Override
+            public void onResponse(@NonNull Call<List<SupportChatListItemResponse>> call,
+                                   @NonNull Response<List<SupportChatListItemResponse>> response) {
+                if (call.isCanceled() || !isAdded()) return;
+                pendingPage = null;
+                if (response.isSuccessful() && response.body() != null) {
+                    adapter.addChats(response.body());
+                    setPageCursor(response.body());
+                } else {
+                    Log.w(TAG, "Failed to load more chats (HTTP " + response.code() + ")");
+                }
+            }
+
+            @Override
+            public void onFailure(@NonNull Call<List<SupportChatListItemResponse>> call, @NonNull Throwable t) {
+                if (call.isCanceled() || !isAdded()) return;
+                pendingPage = null;
+                Log.w(TAG, "Failed to load more chats", t);
+            }
+        });
+    }
+
+    private void setPageCursor(List<SupportChatListItemResponse> page) {
+        hasMoreChats = page.size() >= PAGE_SIZE;
+        if (!page.isEmpty()) {
+            lastPageChat = page.get(page.size() - 1);
+        }
+    }
+
     // ====================== WebSocket ======================
 
     private void subscribeWebSocket() {
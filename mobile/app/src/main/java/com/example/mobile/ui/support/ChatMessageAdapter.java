@@ -66,6 +66,22 @@ public class ChatMessageAdapter extends BaseAdapter {
         return true;
     }
 
+    /**
+     * Inserts a page of older messages (oldest first) above the current ones, skipping any
+     * already shown.
+     * @return the number of messages inserted
+     */
+    public int prependMessages(List<SupportMessageResponse> olderMessages) {
+        List<SupportMessageResponse> added = new ArrayList<>();
+        for (SupportMessageResponse msg : olderMessages) {
+            if (msg.getId() != null && !messageIds.add(msg.getId())) continue;
+            added.add(msg);
+        }
+        messages.addAll(0, added);
+        notifyDataSetChanged();
+        return added.size();
+    }
+
     @Override
     public int getCount() { return messages.size(); }
 
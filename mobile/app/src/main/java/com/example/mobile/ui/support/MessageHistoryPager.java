@@ -0,0 +1,112 @@
+package com.example.mobile.ui.support;
+
+import android.util.Log;
+import android.view.View;
+import android.widget.AbsListView;
+import android.widget.ListView;
+
+import androidx.annotation.NonNull;
+
+import com.example.mobile.models.SupportMessageResponse;
+
+import java.util.List;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Loads older messages when the user scrolls a chat to the top.
+ * Opening a chat only returns its latest messages; each older page is requested with the
+ * id of the first message shown as the {@code before} cursor and inserted above it,
+ * keeping the message the user was looking at in place.
+ */
+class MessageHistoryPager implements AbsListView.OnScrollListener {
+
+    private static final String TAG = "MessageHistoryPager";
+
+    /** Messages per older page; the backend allows up to 200. */
+    static final int PAGE_SIZE = 50;
+
+    /** Requests the page of messages older than the given message id. */
+    interface PageSource {
+        Call<List<SupportMessageResponse>> olderThan(long beforeId, int limit);
+    }
+
+    private final ListView listView;
+    private final ChatMessageAdapter adapter;
+    private final PageSource source;
+
+    private boolean hasOlder;
+    private int scrollState = SCROLL_STATE_IDLE;
+    private Call<List<SupportMessageResponse>> pending;
+
+    MessageHistoryPager(ListView listView, ChatMessageAdapter adapter, PageSource source) {
+        this.listView = listView;
+        this.adapter = adapter;
+        this.source = source;
+        listView.setOnScrollListener(this);
+    }
+
+    /** Call after showing the latest page, with the chat's {@code hasOlderMessages} flag. */
+    void reset(boolean hasOlderMessages) {
+        cancel();
+        hasOlder = hasOlderMessages;
+    }
+
+    /** Drops an in-flight request; call when the view is destroyed. */
+    void cancel() {
+        if (pending != null) {
+            pending.cancel();
+            pending = null;
+        }
+    }
+
+    @Override
+    public void onScrollStateChanged(AbsListView view, int scrollState) {
+        this.scrollState = scrollState;
+    }
+
+    @Override
+    public void onScroll(AbsListView view, int firstVisibleItem, int visibleItemCount, int totalItemCount) {
+        // Only on user scrolling, so the layout pass before the initial scroll-to-bottom does not trigger it
+        if (scrollState != SCROLL_STATE_IDLE && firstVisibleItem == 0 && totalItemCount > 0) {
+            loadOlder();
+        }
+    }
+
+    private void loadOlder() {
+        if (!hasOlder || pending != null) return;
+        Long firstId = adapter.getItem(0).getId();
+        if (firstId == null) return;
+
+        Call<List<SupportMessageResponse>> call = source.olderThan(firstId, PAGE_SIZE);
+        pending = call;
+        call.enqueue(new Callback<List<SupportMessageResponse>>() {
+            @Override
+            public void onResponse(@NonNull Call<List<SupportMessageResponse>> call,
+                                   @NonNull Response<List<SupportMessageResponse>> response) {
+                if (pending != call) return;
+                pending = null;
+                if (!response.isSuccessful() || response.body() == null) {
+                    Log.w(TAG, "Loading older messages failed: HTTP " + response.code());
+                    return;
+                }
+                List<SupportMessageResponse> page = response.body();
+                hasOlder = page.size() >= PAGE_SIZE;
+
+                View first = listView.getChildAt(0);
+                int offset = first != null ? first.getTop() : 0;
+                int added = adapter.prependMessages(page);
+                listView.setSelectionFromTop(added, offset);
+            }
+
+            @Override
+            public void onFailure(@NonNull Call<List<SupportMessageResponse>> call, @NonNull Throwable t) {
+                if (pending != call) return;
+                pending = null;
+                Log.e(TAG, "Loading older messages failed", t);
+            }
+        });
+    }
+}
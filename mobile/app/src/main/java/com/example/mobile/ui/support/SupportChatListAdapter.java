@@ -38,6 +38,19 @@ public class SupportChatListAdapter extends BaseAdapter {
         notifyDataSetChanged();
     }
 
+    /**
+     * Append the next page of chats, skipping any already listed (e.g. moved to the
+     * top by a WebSocket update).
+     */
+    public void addChats(List<SupportChatListItemResponse> page) {
+        for (SupportChatListItemResponse chat : page) {
+            if (indexOf(chat.getId()) < 0) {
+                chats.add(chat);
+            }
+        }
+        notifyDataSetChanged();
+    }
+
     /**
      * Update a single chat in the list (used for real-time WebSocket updates).
      * Moves updated chat to top and re-sorts by lastMessageTime.
@@ -46,11 +59,9 @@ public class SupportChatListAdapter extends BaseAdapter {
         if (updated == null || updated.getId() == null) return;
 
         // Remove existing entry
-        for (int i = 0; i < chats.size(); i++) {
-            if (updated.getId().equals(chats.get(i).getId())) {
-                chats.remove(i);
-                break;
-            }
+        int existing = indexOf(updated.getId());
+        if (existing >= 0) {
+            chats.remove(existing);
         }
 
         // Insert at top (newest first)
@@ -58,6 +69,15 @@ public class SupportChatListAdapter extends BaseAdapter {
         notifyDataSetChanged();
     }
 
+    private int indexOf(Long chatId) {
+        for (int i = 0; i < chats.size(); i++) {
+            if (chats.get(i).getId() != null && chats.get(i).getId().equals(chatId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     public int getTotalUnreadCount() {
         int total = 0;
         for (SupportChatListItemResponse chat : chats) {
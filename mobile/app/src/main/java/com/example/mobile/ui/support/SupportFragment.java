@@ -34,7 +34,8 @@ import com.example.mobile.utils.NavbarHelper;
 
 /**
  * Support chat screen for drivers and passengers.
- * Loads (or creates) the user's single support chat and displays messages.
+ * Loads (or creates) the user's single support chat and displays its latest messages;
+ * older ones are loaded when scrolling to the top.
  * Subscribes via WebSocket for real-time incoming messages.
  */
 public class SupportFragment extends Fragment {
@@ -49,6 +50,7 @@ public class SupportFragment extends Fragment {
     private View emptyState;
 
     private ChatMessageAdapter adapter;
+    private MessageHistoryPager historyPager;
     private SharedPreferencesManager prefs;
 
     private Long chatId;
@@ -72,6 +74,8 @@ public class SupportFragment extends Fragment {
         prefs = new SharedPreferencesManager(requireContext());
         adapter = new ChatMessageAdapter(requireContext(), false);
         lvMessages.setAdapter(adapter);
+        historyPager = new MessageHistoryPager(lvMessages, adapter,
+                (beforeId, limit) -> ClientUtils.supportService.getMyChatMessages(getAuthToken(), beforeId, limit));
 
         // Send button
         btnSend.setOnClickListener(v -> sendMessage());
@@ -91,6 +95,7 @@ public class SupportFragment extends Fragment {
     public void onDestroyView() {
         super.onDestroyView();
         unsubscribeWebSocket();
+        historyPager.cancel();
     }
 
     // ====================== REST calls ======================
@@ -120,6 +125,7 @@ public class SupportFragment extends Fragment {
                     } else {
                         showEmpty();
                     }
+                    historyPager.reset(chat.hasOlderMessages());
                     subscribeWebSocket();
                 } else {
                     showError("Failed to load chat (HTTP " + response.code() + ")");
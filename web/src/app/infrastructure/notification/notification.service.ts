@@ -35,6 +35,7 @@ export class NotificationService implements OnDestroy {
 
   private panicSub: Subscription | null = null;
   private userNotifSub: Subscription | null = null;
+  private unreadCountSub: Subscription | null = null;
   private audioContext: AudioContext | null = null;
   private initialized = false;
   private authSub: Subscription | null = null;
@@ -90,6 +91,15 @@ export class NotificationService implements OnDestroy {
           },
           error: (err) => console.error('User notification subscription error:', err)
         });
+
+      // The backend pushes the authoritative count after every change, so the
+      // badge never needs to re-fetch GET /unread
+      this.unreadCountSub = this.socketService
+        .subscribeToUnreadCount(userId)
+        .subscribe({
+          next: (count: number) => this.unreadCountSubject.next(count),
+          error: (err) => console.error('Unread count subscription error:', err)
+        });
     }
 
     // 4. Admins also subscribe to the existing /topic/panic for backward compat
@@ -105,6 +115,8 @@ export class NotificationService implements OnDestroy {
     this.panicSub = null;
     this.userNotifSub?.unsubscribe();
     this.userNotifSub = null;
+    this.unreadCountSub?.unsubscribe();
+    this.unreadCountSub = null;
     this.initialized = false;
     this.notificationsSubject.next([]);
     this.unreadCountSubject.next(0);
@@ -1,10 +1,11 @@
 import { Injectable, OnDestroy } from '@angular/core';
-import { BehaviorSubject, Observable, Subscription } from 'rxjs';
+import { BehaviorSubject, Observable, Subject, Subscription, filter, map, merge } from 'rxjs';
 import { environment } from '../../../env/environment';
 import { Client, IMessage, StompSubscription } from '@stomp/stompjs';
 import SockJS from 'sockjs-client';
 import { SupportMessageResponse } from './support-chat.service';
 import { PanicResponse } from './panic.service';
+import { AdminStatsResponse } from './ride.service';
 import { BackendNotificationResponse } from '../../model/notification.model';
 
 export interface SocketState {
@@ -12,6 +13,15 @@ export interface SocketState {
   error: string | null;
 }
 
+/**
+ * Vehicles moved in one patrol simulation tick, as parallel arrays (see /topic/vehicles/positions).
+ */
+export interface VehiclePositions {
+  ids: number[];
+  latitudes: number[];
+  longitudes: number[];
+}
+
 @Injectable({
   providedIn: 'root'
 })
@@ -21,6 +31,7 @@ export class SocketService implements OnDestroy {
 
   // Observable streams for different topics
   private vehiclesSubject = new BehaviorSubject<any[]>([]);
+  private vehiclePositionsSubject = new Subject<VehiclePositions>();
 
   // Support chat subjects
   private supportChatMessageSubject = new BehaviorSubject<SupportMessageResponse | null>(null);
@@ -32,6 +43,7 @@ export class SocketService implements OnDestroy {
   private adminChatsSubscription: StompSubscription | null = null;
   private adminMessagesSubscription: StompSubscription | null = null;
   private panicSubscription: StompSubscription | null = null;
+  private adminStatsSubscription: StompSubscription | null = null;
   private userNotificationSubscription: StompSubscription | null = null;
 
   constructor() {}
@@ -123,6 +135,25 @@ export class SocketService implements OnDestroy {
         console.error('Error parsing vehicle data:', e);
       }
     });
+
+    // Patrol moves arrive once per tick as parallel arrays; merge them into the last full list
+    this.client.subscribe('/topic/vehicles/positions', (message: IMessage) => {
+      try {
+        const positions: VehiclePositions = JSON.parse(message.body);
+        this.vehiclePositionsSubject.next(positions);
+        const byId = new Map<number, number>();
+        positions.ids.forEach((id: number, i: number) => byId.set(id, i));
+        const vehicles = this.vehiclesSubject.value.map(vehicle => {
+          const i = byId.get(vehicle.id);
+          return i === undefined
+            ? vehicle
+            : { ...vehicle, latitude: positions.latitudes[i], longitude: positions.longitudes[i] };
+        });
+        this.vehiclesSubject.next(vehicles);
+      } catch (e) {
+        console.error('Error parsing vehicle positions:', e);
+      }
+    });
   }
 
   /**
@@ -132,6 +163,21 @@ export class SocketService implements OnDestroy {
     return this.vehiclesSubject.asObservable();
   }
 
+  /**
+   * Position updates for a specific vehicle, whether it is on a ride or patrolling.
+   * Ride moves arrive on the vehicle's own topic; patrol moves only in the per-tick
+   * batch on /topic/vehicles/positions, which is filtered down to this vehicle.
+   * @param vehicleId The ID of the vehicle to track
+   */
+  getVehiclePositionUpdates(vehicleId: number): Observable<{ latitude: number; longitude: number }> {
+    const patrolMoves = this.vehiclePositionsSubject.pipe(
+      map(positions => ({ positions, i: positions.ids.indexOf(vehicleId) })),
+      filter(({ i }) => i >= 0),
+      map(({ positions, i }) => ({ latitude: positions.latitudes[i], longitude: positions.longitudes[i] }))
+    );
+    return merge(this.getVehicleLocationUpdates(vehicleId), patrolMoves);
+  }
+
   /**
    * Subscribe to location updates for a specific vehicle
    * @param vehicleId The ID of the vehicle to track
@@ -494,6 +540,60 @@ export class SocketService implements OnDestroy {
     });
   }
 
+  /**
+   * Subscribe to live admin dashboard statistics.
+   * Backend pushes to /topic/admin/stats whenever the counters change.
+   */
+  subscribeToAdminStats(): Observable<AdminStatsResponse> {
+    return new Observable(observer => {
+      let stompSub: StompSubscription | null = null;
+      let stateSub: Subscription | null = null;
+
+      const subscribeToStomp = () => {
+        if (!this.client?.connected) return;
+
+        try {
+          if (this.adminStatsSubscription) {
+            this.adminStatsSubscription.unsubscribe();
+          }
+
+          stompSub = this.client.subscribe('/topic/admin/stats', (message: IMessage) => {
+            try {
+              const stats: AdminStatsResponse = JSON.parse(message.body);
+              observer.next(stats);
+            } catch (e) {
+              console.error('Error parsing admin stats:', e);
+            }
+          });
+          this.adminStatsSubscription = stompSub;
+        } catch (error) {
+          console.error('Error subscribing to admin stats:', error);
+        }
+      };
+
+      if (this.client?.connected) {
+        subscribeToStomp();
+      } else {
+        this.connect();
+        stateSub = this.socketState.subscribe(state => {
+          if (state.connected && !stompSub) {
+            subscribeToStomp();
+          }
+        });
+      }
+
+      return () => {
+        if (stompSub) {
+          stompSub.unsubscribe();
+          this.adminStatsSubscription = null;
+        }
+        if (stateSub) {
+          stateSub.unsubscribe();
+        }
+      };
+    });
+  }
+
   /**
    * Subscribe to the per-user notification queue.
    * Backend pushes to /user/{userId}/queue/notifications after persisting.
@@ -550,4 +650,55 @@ export class SocketService implements OnDestroy {
       };
     });
   }
+
+  /**
+   * Subscribe to the per-user unread notification count.
+   * Backend pushes {"unreadCount": n} to /user/{userId}/queue/unread whenever it changes.
+   */
+  subscribeToUnreadCount(userId: number): Observable<number> {
+    return new Observable(observer => {
+      let stompSub: StompSubscription | null = null;
+      let stateSub: Subscription | null = null;
+
+      const subscribeToStomp = () => {
+        if (!this.client?.connected) return;
+
+        try {
+          stompSub = this.client.subscribe(
+            `/user/${userId}/queue/unread`,
+            (message: IMessage) => {
+              try {
+                const body: { unreadCount: number } = JSON.parse(message.body);
+                observer.next(body.unreadCount);
+              } catch (e) {
+                console.error('Error parsing unread count:', e);
+              }
+            }
+          );
+        } catch (error) {
+          console.error('Error subscribing to unread count:', error);
+        }
+      };
+
+      if (this.client?.connected) {
+        subscribeToStomp();
+      } else {
+        this.connect();
+        stateSub = this.socketState.subscribe(state => {
+          if (state.connected && !stompSub) {
+            subscribeToStomp();
+          }
+        });
+      }
+
+      return () => {
+        if (stompSub) {
+          stompSub.unsubscribe();
+        }
+        if (stateSub) {
+          stateSub.unsubscribe();
+        }
+      };
+    });
+  }
 }
@@ -1,5 +1,5 @@
 import { Injectable } from '@angular/core';
-import { HttpClient } from '@angular/common/http';
+import { HttpClient, HttpParams } from '@angular/common/http';
 import { Observable } from 'rxjs';
 import { environment } from '../../../env/environment';
 
@@ -29,7 +29,10 @@ export interface SupportChatResponse {
   lastMessageTime: string;
   unreadCount: number;
   createdAt: string;
+  /** Latest page of messages, oldest first. */
   messages: SupportMessageResponse[];
+  /** True when there are messages before the first one in `messages`; load them with a `before` cursor. */
+  hasOlderMessages: boolean;
 }
 
 /**
@@ -46,6 +49,12 @@ export interface SupportChatListItemResponse {
   unreadCount: number;
 }
 
+/** Messages per page when loading older messages (the backend allows up to 200). */
+export const SUPPORT_MESSAGE_PAGE_SIZE = 50;
+
+/** Chats per page of the admin inbox (the backend allows up to 200). */
+export const SUPPORT_CHAT_PAGE_SIZE = 50;
+
 /**
  * Request DTO for sending a support message.
  */
@@ -74,6 +83,15 @@ export class SupportChatService {
     return this.http.get<SupportChatResponse>(`${this.baseUrl}/chat`);
   }
 
+  /**
+   * Get the current user's messages sent before the given message id, oldest first.
+   */
+  getMyChatMessages(before: number, limit = SUPPORT_MESSAGE_PAGE_SIZE): Observable<SupportMessageResponse[]> {
+    return this.http.get<SupportMessageResponse[]>(`${this.baseUrl}/chat/messages`, {
+      params: this.pageParams(before, limit)
+    });
+  }
+
   /**
    * Send a message to support as a user.
    */
@@ -85,25 +103,31 @@ export class SupportChatService {
   // ==================== Admin Endpoints ====================
 
   /**
-   * Get all support chats for admin view.
-   * Returns chats ordered by last message time (newest first).
+   * Get a page of support chats for admin view, ordered by last message time (newest first).
+   * Pass the last chat of the previous page as `after` to get the next page.
    */
-  getAllChats(): Observable<SupportChatListItemResponse[]> {
-    return this.http.get<SupportChatListItemResponse[]>(`${this.baseUrl}/admin/chats`);
+  getAllChats(after?: SupportChatListItemResponse, limit = SUPPORT_CHAT_PAGE_SIZE): Observable<SupportChatListItemResponse[]> {
+    let params = new HttpParams().set('limit', limit);
+    if (after) {
+      params = params.set('beforeTime', after.lastMessageTime).set('beforeId', after.id);
+    }
+    return this.http.get<SupportChatListItemResponse[]>(`${this.baseUrl}/admin/chats`, { params });
   }
 
   /**
-   * Get a specific chat with all messages (admin only).
+   * Get a specific chat with its latest messages (admin only).
    */
   getChatById(chatId: number): Observable<SupportChatResponse> {
     return this.http.get<SupportChatResponse>(`${this.baseUrl}/admin/chat/${chatId}`);
   }
 
   /**
-   * Get messages for a specific chat (admin only).
+   * Get a chat's messages sent before the given message id, oldest first (admin only).
    */
-  getChatMessages(chatId: number): Observable<SupportMessageResponse[]> {
-    return this.http.get<SupportMessageResponse[]>(`${this.baseUrl}/admin/chat/${chatId}/messages`);
+  getChatMessages(chatId: number, before: number, limit = SUPPORT_MESSAGE_PAGE_SIZE): Observable<SupportMessageResponse[]> {
+    return this.http.get<SupportMessageResponse[]>(`${this.baseUrl}/admin/chat/${chatId}/messages`, {
+      params: this.pageParams(before, limit)
+    });
   }
 
   /**
@@ -120,4 +144,8 @@ export class SupportChatService {
   markChatAsRead(chatId: number): Observable<void> {
     return this.http.post<void>(`${this.baseUrl}/admin/chat/${chatId}/read`, {});
   }
+
+  private pageParams(before: number, limit: number): HttpParams {
+    return new HttpParams().set('before', before).set('limit', limit);
+  }
 }
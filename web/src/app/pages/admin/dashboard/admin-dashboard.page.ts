@@ -63,6 +63,7 @@ export class AdminDashboardPage implements OnInit, OnDestroy {
   // Panic alert
   panicAlert: string | null = null;
   private panicSub: Subscription | null = null;
+  private statsSub: Subscription | null = null;
   private panicAudioContext: AudioContext | null = null;
   private panicAlertTimer: any;
 
@@ -77,6 +78,7 @@ export class AdminDashboardPage implements OnInit, OnDestroy {
     this.loadStats();
     this.loadRides();
     this.subscribeToPanicAlerts();
+    this.subscribeToStats();
 
     // Setup search debounce
     this.searchSubject.pipe(
@@ -94,6 +96,7 @@ export class AdminDashboardPage implements OnInit, OnDestroy {
     this.destroy$.next();
     this.destroy$.complete();
     this.panicSub?.unsubscribe();
+    this.statsSub?.unsubscribe();
     if (this.panicAlertTimer) clearTimeout(this.panicAlertTimer);
   }
 
@@ -117,6 +120,16 @@ export class AdminDashboardPage implements OnInit, OnDestroy {
     });
   }
 
+  /** Live dashboard counters pushed by the backend; replaces periodic stats polling */
+  private subscribeToStats(): void {
+    this.statsSub = this.socketService.subscribeToAdminStats().subscribe({
+      next: (stats: AdminStatsResponse) => {
+        this.stats = stats;
+        this.cdr.detectChanges();
+      }
+    });
+  }
+
   dismissPanicAlert(): void {
     this.panicAlert = null;
     if (this.panicAlertTimer) clearTimeout(this.panicAlertTimer);
@@ -7,7 +7,9 @@ import {
   SupportChatService, 
   SupportChatListItemResponse, 
   SupportChatResponse, 
-  SupportMessageResponse 
+  SupportMessageResponse,
+  SUPPORT_MESSAGE_PAGE_SIZE,
+  SUPPORT_CHAT_PAGE_SIZE
 } from '../../../infrastructure/rest/support-chat.service';
 import { SocketService } from '../../../infrastructure/rest/socket.service';
 
@@ -28,6 +30,7 @@ interface SupportChat {
   lastMessageTime: Date;
   unreadCount: number;
   messages: ChatMessage[];
+  hasOlderMessages: boolean;
 }
 
 @Component({
@@ -45,11 +48,16 @@ export class AdminSupportPage implements OnInit, OnDestroy, AfterViewChecked {
   chats: SupportChat[] = [];
   isLoading = true;
   isLoadingChat = false;
+  isLoadingOlder = false;
+  hasMoreChats = false;
+  isLoadingMoreChats = false;
   error: string | null = null;
   private shouldScrollToBottom = false;
 
   private subscriptions: Subscription[] = [];
   private chatUpdateSubscription: Subscription | null = null;
+  // Last chat of the last page received; the cursor for the next page
+  private lastPageChat: SupportChatListItemResponse | undefined;
   private messageSubscription: Subscription | null = null;
 
   constructor(
@@ -84,6 +92,7 @@ export class AdminSupportPage implements OnInit, OnDestroy, AfterViewChecked {
     const sub = this.supportChatService.getAllChats().subscribe({
       next: (chats: SupportChatListItemResponse[]) => {
         this.chats = chats.map(c => this.mapChatListItem(c));
+        this.setPageCursor(chats);
         this.isLoading = false;
         this.cdr.detectChanges();
         
@@ -94,6 +103,8 @@ export class AdminSupportPage implements OnInit, OnDestroy, AfterViewChecked {
             const targetChat = this.chats.find(c => c.id === +chatId);
             if (targetChat) {
               this.selectChat(targetChat);
+            } else {
+              this.selectChatById(+chatId);
             }
           }
         });
@@ -108,6 +119,61 @@ export class AdminSupportPage implements OnInit, OnDestroy, AfterViewChecked {
     this.subscriptions.push(sub);
   }
 
+  /**
+   * Loads the next page of chats when the chat list is scrolled near its end.
+   */
+  onChatListScroll(event: Event): void {
+    const el = event.target as HTMLElement;
+    if (el.scrollHeight - el.scrollTop - el.clientHeight < 200) {
+      this.loadMoreChats();
+    }
+  }
+
+  private loadMoreChats(): void {
+    if (!this.hasMoreChats || this.isLoadingMoreChats) return;
+    this.isLoadingMoreChats = true;
+
+    const sub = this.supportChatService.getAllChats(this.lastPageChat).subscribe({
+      next: (chats: SupportChatListItemResponse[]) => {
+        // A chat that moved up through a live update may already be listed
+        const known = new Set(this.chats.map(c => c.id));
+        this.chats.push(...chats.filter(c => !known.has(c.id)).map(c => this.mapChatListItem(c)));
+        this.setPageCursor(chats);
+        this.isLoadingMoreChats = false;
+        this.cdr.detectChanges();
+      },
+      error: (err) => {
+        console.error('Error loading more chats:', err);
+        this.isLoadingMoreChats = false;
+        this.cdr.detectChanges();
+      }
+    });
+    this.subscriptions.push(sub);
+  }
+
+  private setPageCursor(page: SupportChatListItemResponse[]): void {
+    this.hasMoreChats = page.length >= SUPPORT_CHAT_PAGE_SIZE;
+    if (page.length > 0) {
+      this.lastPageChat = page[page.length - 1];
+    }
+  }
+
+  // Opens a chat that is not on the loaded pages yet, e.g. from a notification link
+  private selectChatById(chatId: number): void {
+    const sub = this.supportChatService.getChatById(chatId).subscribe({
+      next: (fullChat: SupportChatResponse) => {
+        const chat = this.mapChatListItem(fullChat);
+        if (!this.chats.some(c => c.id === chat.id)) {
+          this.chats.push(chat);
+          this.chats.sort((a, b) => b.lastMessageTime.getTime() - a.lastMessageTime.getTime());
+        }
+        this.selectChat(chat);
+      },
+      error: (err) => console.error('Error loading chat:', err)
+    });
+    this.subscriptions.push(sub);
+  }
+
   private subscribeToUpdates(): void {
     // Subscribe to chat list updates
     this.chatUpdateSubscription = this.socketService.subscribeToAdminChatUpdates().subscribe({
@@ -134,6 +200,7 @@ export class AdminSupportPage implements OnInit, OnDestroy, AfterViewChecked {
       // Preserve existing messages if this is the selected chat
       if (this.selectedChat?.id === update.id) {
         updatedChat.messages = this.selectedChat.messages;
+        updatedChat.hasOlderMessages = this.selectedChat.hasOlderMessages;
         this.selectedChat = updatedChat;
       }
       this.chats[index] = updatedChat;
@@ -167,7 +234,8 @@ export class AdminSupportPage implements OnInit, OnDestroy, AfterViewChecked {
       lastMessage: item.lastMessage || '',
       lastMessageTime: new Date(item.lastMessageTime),
       unreadCount: item.unreadCount,
-      messages: []
+      messages: [],
+      hasOlderMessages: false
     };
   }
 
@@ -217,7 +285,8 @@ export class AdminSupportPage implements OnInit, OnDestroy, AfterViewChecked {
       next: (fullChat: SupportChatResponse) => {
         this.selectedChat = {
           ...chat,
-          messages: (fullChat.messages || []).map(m => this.mapMessage(m))
+          messages: (fullChat.messages || []).map(m => this.mapMessage(m)),
+          hasOlderMessages: fullChat.hasOlderMessages
         };
         this.isLoadingChat = false;
         this.shouldScrollToBottom = true;
@@ -238,6 +307,41 @@ export class AdminSupportPage implements OnInit, OnDestroy, AfterViewChecked {
     this.subscriptions.push(sub);
   }
 
+  /**
+   * Loads the page of messages before the first one shown in the selected chat and
+   * inserts it above, keeping the visible messages where they are.
+   */
+  loadOlderMessages(): void {
+    const chat = this.selectedChat;
+    if (!chat || this.isLoadingOlder || chat.messages.length === 0) return;
+    this.isLoadingOlder = true;
+
+    const sub = this.supportChatService.getChatMessages(chat.id, chat.messages[0].id).subscribe({
+      next: (older: SupportMessageResponse[]) => {
+        this.isLoadingOlder = false;
+        if (this.selectedChat?.id !== chat.id) return;
+        const el = this.messagesContainer?.nativeElement;
+        const fromBottom = el ? el.scrollHeight - el.scrollTop : 0;
+        const known = new Set(chat.messages.map(m => m.id));
+        this.selectedChat.messages = [
+          ...older.filter(m => !known.has(m.id)).map(m => this.mapMessage(m)),
+          ...this.selectedChat.messages
+        ];
+        this.selectedChat.hasOlderMessages = older.length >= SUPPORT_MESSAGE_PAGE_SIZE;
+        this.cdr.detectChanges();
+        if (el) {
+          el.scrollTop = el.scrollHeight - fromBottom;
+        }
+      },
+      error: (err) => {
+        console.error('Error loading older messages:', err);
+        this.isLoadingOlder = false;
+        this.cdr.detectChanges();
+      }
+    });
+    this.subscriptions.push(sub);
+  }
+
   formatTime(date: Date): string {
     return date.toLocaleTimeString('en-US', { hour: '2-digit', minute: '2-digit' });
   }
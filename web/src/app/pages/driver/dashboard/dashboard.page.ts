@@ -641,7 +641,8 @@ export class DashboardPage implements OnInit, OnDestroy {
 
   private subscribeToVehicle(vehicleId: number): void {
       if (this.locationSubscription) return;
-      this.locationSubscription = this.socketService.getVehicleLocationUpdates(vehicleId).subscribe({
+      // Patrol moves only arrive in the fleet-wide batch, ride moves on the vehicle's topic
+      this.locationSubscription = this.socketService.getVehiclePositionUpdates(vehicleId).subscribe({
           next: (loc) => this.updateLocation(loc),
           error: (err) => console.error(err)
       });
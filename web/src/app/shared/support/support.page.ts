@@ -2,7 +2,7 @@ import { Component, OnInit, OnDestroy, ViewChild, ElementRef, AfterViewChecked,
 import { CommonModule } from '@angular/common';
 import { FormsModule } from '@angular/forms';
 import { Subscription } from 'rxjs';
-import { SupportChatService, SupportMessageResponse, SupportChatResponse } from '../../infrastructure/rest/support-chat.service';
+import { SupportChatService, SupportMessageResponse, SupportChatResponse, SUPPORT_MESSAGE_PAGE_SIZE } from '../../infrastructure/rest/support-chat.service';
 import { SocketService } from '../../infrastructure/rest/socket.service';
 
 interface ChatMessage {
@@ -25,6 +25,8 @@ export class SupportPage implements OnInit, OnDestroy, AfterViewChecked {
   newMessage = '';
   messages: ChatMessage[] = [];
   chatId: number | null = null;
+  hasOlderMessages = false;
+  isLoadingOlder = false;
   isLoading = true;
   error: string | null = null;
   private shouldScrollToBottom = false;
@@ -62,6 +64,7 @@ export class SupportPage implements OnInit, OnDestroy, AfterViewChecked {
       next: (chat: SupportChatResponse) => {
         this.chatId = chat.id;
         this.messages = this.mapMessages(chat.messages || []);
+        this.hasOlderMessages = chat.hasOlderMessages;
         this.isLoading = false;
         this.shouldScrollToBottom = true;
         this.cdr.detectChanges();
@@ -78,6 +81,35 @@ export class SupportPage implements OnInit, OnDestroy, AfterViewChecked {
     });
   }
 
+  /**
+   * Loads the page of messages before the first one shown and inserts it above,
+   * keeping the visible messages where they are.
+   */
+  loadOlderMessages(): void {
+    if (this.isLoadingOlder || this.messages.length === 0) return;
+    this.isLoadingOlder = true;
+
+    this.supportChatService.getMyChatMessages(this.messages[0].id).subscribe({
+      next: (older: SupportMessageResponse[]) => {
+        const el = this.messagesContainer?.nativeElement;
+        const fromBottom = el ? el.scrollHeight - el.scrollTop : 0;
+        const known = new Set(this.messages.map(m => m.id));
+        this.messages = [...this.mapMessages(older.filter(m => !known.has(m.id))), ...this.messages];
+        this.hasOlderMessages = older.length >= SUPPORT_MESSAGE_PAGE_SIZE;
+        this.isLoadingOlder = false;
+        this.cdr.detectChanges();
+        if (el) {
+          el.scrollTop = el.scrollHeight - fromBottom;
+        }
+      },
+      error: (err) => {
+        console.error('Error loading older messages:', err);
+        this.isLoadingOlder = false;
+        this.cdr.detectChanges();
+      }
+    });
+  }
+
   private subscribeToChat(chatId: number): void {
     this.socketSubscription?.unsubscribe();
     